@@ -1,14 +1,56 @@
 package com.budget;
 
+import com.budget.alerts.AnomalyDetector;
+import com.budget.alerts.BudgetAlertEngine;
+import com.budget.alerts.WebhookAlertSubscriber;
+import com.budget.categorization.Categorizer;
+import com.budget.categorization.HttpSuggestionClient;
+import com.budget.database.BackupManager;
+import com.budget.database.DatabaseExecutor;
 import com.budget.database.DatabaseManager;
+import com.budget.database.DatabaseWriter;
+import com.budget.dictionary.DescriptionDictionary;
+import com.budget.dictionary.Suggestion;
+import com.budget.dictionary.SuggestionIndex;
+import com.budget.dao.AsyncBudgetDAO;
+import com.budget.dao.AsyncCategoryDAO;
+import com.budget.dao.AsyncExpenseDAO;
+import com.budget.dao.AsyncIncomeDAO;
+import com.budget.dao.BudgetAlertDAO;
 import com.budget.dao.CategoryDAO;
+import com.budget.dao.ExpenseAnomalyDAO;
 import com.budget.dao.ExpenseDAO;
 import com.budget.dao.IncomeDAO;
 import com.budget.dao.BudgetDAO;
+import com.budget.dao.BudgetHistoryDAO;
+import com.budget.dao.TransactionDAO;
+import com.budget.events.ChangeBus;
+import com.budget.journal.MutationJournal;
+import com.budget.metrics.FlightRecording;
+import com.budget.metrics.HttpMetrics;
+import com.budget.metrics.PageRenderEvent;
 import com.budget.model.Category;
 import com.budget.model.Expense;
 import com.budget.model.Income;
 import com.budget.model.Budget;
+import com.budget.model.BudgetHistory;
+import com.budget.model.BudgetStatus;
+import com.budget.model.ExpenseAnomaly;
+import com.budget.model.Transaction;
+import com.budget.recurring.RecurringDetector;
+import com.budget.recurring.RecurringSeries;
+import com.budget.recurring.UpcomingExpense;
+import com.budget.scheduler.BudgetRolloverScheduler;
+import com.budget.service.AnalyticsModel;
+import com.budget.service.AnalyticsService;
+import com.budget.service.DashboardService;
+import com.budget.service.DashboardSnapshot;
+import com.budget.simulation.BalanceForecaster;
+import com.budget.simulation.Scenario;
+import com.budget.simulation.ScenarioResult;
+import com.budget.simulation.WhatIfSimulator;
+import com.budget.web.LiveUpdateBroadcaster;
+import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpServer;
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpExchange;
@@ -18,14 +60,19 @@ import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -37,32 +84,125 @@ public class AdvancedBudgetApp {
     private static ExpenseDAO expenseDAO;
     private static IncomeDAO incomeDAO;
     private static BudgetDAO budgetDAO;
+    private static TransactionDAO transactionDAO;
+    private static BudgetHistoryDAO budgetHistoryDAO;
+    private static ExpenseAnomalyDAO expenseAnomalyDAO;
+    private static AsyncCategoryDAO asyncCategoryDAO;
+    private static AsyncExpenseDAO asyncExpenseDAO;
+    private static AsyncIncomeDAO asyncIncomeDAO;
+    private static AsyncBudgetDAO asyncBudgetDAO;
+    private static DashboardService dashboardService;
+    private static AnalyticsService analyticsService;
+    private static LiveUpdateBroadcaster liveUpdates;
+    private static BudgetAlertEngine budgetAlerts;
+    private static AnomalyDetector anomalyDetector;
+    private static BudgetRolloverScheduler budgetRollover;
+    private static WhatIfSimulator whatIfSimulator;
+    private static BalanceForecaster balanceForecaster;
+    private static RecurringDetector recurringDetector;
+    private static Categorizer categorizer;
+    private static SuggestionIndex suggestionIndex;
+    private static BackupManager backupManager;
+    private static MutationJournal journal;
+    private static final HttpMetrics httpMetrics = new HttpMetrics();
     
     public static void main(String[] args) throws IOException {
+        FlightRecording.startIfRequested(args);
+        
         // Initialize database
         System.out.println("🚀 Starting Advanced Budget Manager...");
         DatabaseManager.initializeDatabase();
         System.out.println("✅ Database initialized successfully!");
         
+        // Intern transaction descriptions, filling in rows written before the dictionary existed
+        DescriptionDictionary.load();
+        
+        // Journal every mutation on the writer thread ahead of its commit
+        journal = MutationJournal.open(Paths.get(System.getProperty("budget.journal.dir", "journal")));
+        try {
+            DatabaseWriter.setCommitLog(journal);
+        } catch (SQLException e) {
+            System.err.println("Error attaching mutation journal: " + e.getMessage());
+        }
+        
         // Initialize DAOs
         categoryDAO = new CategoryDAO();
         expenseDAO = new ExpenseDAO();
         incomeDAO = new IncomeDAO();
         budgetDAO = new BudgetDAO();
+        transactionDAO = new TransactionDAO();
+        budgetHistoryDAO = new BudgetHistoryDAO();
+        expenseAnomalyDAO = new ExpenseAnomalyDAO();
+        asyncCategoryDAO = new AsyncCategoryDAO(categoryDAO);
+        asyncExpenseDAO = new AsyncExpenseDAO(expenseDAO);
+        asyncIncomeDAO = new AsyncIncomeDAO(incomeDAO);
+        asyncBudgetDAO = new AsyncBudgetDAO(budgetDAO);
+        
+        // Initialize services
+        dashboardService = new DashboardService(asyncExpenseDAO, asyncIncomeDAO, transactionDAO);
+        analyticsService = new AnalyticsService(asyncExpenseDAO, asyncIncomeDAO, asyncCategoryDAO);
+        whatIfSimulator = new WhatIfSimulator(budgetDAO, expenseDAO, categoryDAO);
+        balanceForecaster = new BalanceForecaster(incomeDAO, expenseDAO);
+        liveUpdates = new LiveUpdateBroadcaster(dashboardService);
+        liveUpdates.start();
+        
+        // Raise budget alerts as expenses are written
+        budgetAlerts = new BudgetAlertEngine(budgetDAO, expenseDAO, new BudgetAlertDAO());
+        budgetAlerts.addSubscriber(alert -> System.out.println("🚨 Budget alert: " + alert));
+        budgetAlerts.addSubscriber(new WebhookAlertSubscriber());
+        budgetAlerts.addSubscriber(liveUpdates::publishAlert);
+        budgetAlerts.addStatusListener(liveUpdates::publishBudgetStatus);
+        budgetAlerts.start();
+        
+        // Flag expenses that are unusually large for their category
+        anomalyDetector = new AnomalyDetector(expenseDAO, expenseAnomalyDAO);
+        anomalyDetector.addSubscriber(anomaly -> System.out.println("🔎 Unusual expense: " + anomaly));
+        anomalyDetector.start();
+        
+        // Recognise subscriptions and bills among the expenses
+        recurringDetector = new RecurringDetector(expenseDAO);
+        recurringDetector.start();
+        
+        // Suggest categories from descriptions; the remote service is optional
+        String suggestionUrl = System.getProperty("budget.categorize.remoteUrl", "");
+        categorizer = new Categorizer(expenseDAO, categoryDAO,
+            suggestionUrl.isEmpty() ? null : new HttpSuggestionClient(suggestionUrl));
+        categorizer.start();
+        
+        // Autocomplete descriptions and categories from past entries
+        suggestionIndex = new SuggestionIndex(expenseDAO, incomeDAO, categoryDAO);
+        suggestionIndex.start();
+        
+        // Roll budgets into their next period, archiving each closed one
+        budgetRollover = new BudgetRolloverScheduler(budgetDAO);
+        budgetRollover.start();
+        
+        // Scheduled online snapshots of budget.db
+        backupManager = new BackupManager();
+        backupManager.start();
         
         // Create HTTP server
         HttpServer server = HttpServer.create(new InetSocketAddress(8080), 0);
         
         // Add handlers
-        server.createContext("/", new ModernDashboardHandler());
-        server.createContext("/api/summary", new AdvancedSummaryHandler());
-        server.createContext("/api/chart-data", new ChartDataHandler());
-        server.createContext("/transactions", new TransactionsPageHandler());
-        server.createContext("/api/transactions", new TransactionsHandler());
-        server.createContext("/add-transaction", new AddTransactionHandler());
-        server.createContext("/budgets", new BudgetsPageHandler());
-        server.createContext("/analytics", new AnalyticsPageHandler());
-        server.createContext("/api/monthly-data", new MonthlyDataHandler());
+        server.createContext("/", httpMetrics.wrap("/", new ModernDashboardHandler()));
+        server.createContext("/api/summary", httpMetrics.wrap("/api/summary", new AdvancedSummaryHandler()));
+        server.createContext("/api/chart-data", httpMetrics.wrap("/api/chart-data", new ChartDataHandler()));
+        server.createContext("/transactions", httpMetrics.wrap("/transactions", new TransactionsPageHandler()));
+        server.createContext("/api/transactions", httpMetrics.wrap("/api/transactions", new TransactionsHandler()));
+        server.createContext("/add-transaction", httpMetrics.wrap("/add-transaction", new AddTransactionHandler()));
+        server.createContext("/budgets", httpMetrics.wrap("/budgets", new BudgetsPageHandler()));
+        server.createContext("/analytics", httpMetrics.wrap("/analytics", new AnalyticsPageHandler()));
+        server.createContext("/api/budget-history", httpMetrics.wrap("/api/budget-history", new BudgetHistoryHandler()));
+        server.createContext("/api/what-if", httpMetrics.wrap("/api/what-if", new WhatIfHandler()));
+        server.createContext("/api/forecast", httpMetrics.wrap("/api/forecast", new ForecastHandler()));
+        server.createContext("/api/categorize", httpMetrics.wrap("/api/categorize", new CategorizeHandler()));
+        server.createContext("/api/suggest", httpMetrics.wrap("/api/suggest", new SuggestHandler()));
+        server.createContext("/api/anomalies", httpMetrics.wrap("/api/anomalies", new AnomaliesHandler()));
+        server.createContext("/api/recurring", httpMetrics.wrap("/api/recurring", new RecurringHandler()));
+        server.createContext("/api/monthly-data", httpMetrics.wrap("/api/monthly-data", new MonthlyDataHandler()));
+        server.createContext("/api/events", httpMetrics.wrap("/api/events", new LiveUpdatesHandler()));
+        server.createContext("/metrics", httpMetrics.wrap("/metrics", new MetricsHandler()));
         
         // Start server
         server.setExecutor(null);
@@ -75,8 +215,22 @@ public class AdvancedBudgetApp {
         // Shutdown hook
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             System.out.println("\n👋 Stopping Advanced Budget Manager...");
-            DatabaseManager.closeConnection();
+            budgetRollover.stop();
+            budgetAlerts.stop();
+            anomalyDetector.stop();
+            recurringDetector.stop();
+            categorizer.stop();
+            suggestionIndex.stop();
+            liveUpdates.stop();
             server.stop(0);
+            backupManager.stop();
+            DatabaseExecutor.shutdown();
+            DatabaseManager.closeConnection();
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("Error closing mutation journal: " + e.getMessage());
+            }
             System.out.println("✅ Stopped gracefully");
         }));
     }
@@ -85,24 +239,28 @@ public class AdvancedBudgetApp {
         @Override
         public void handle(HttpExchange exchange) throws IOException {
             String response = generateModernDashboard();
+            PageRenderEvent write = PageRenderEvent.start("dashboard", "write");
             exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
             exchange.sendResponseHeaders(200, response.getBytes().length);
             OutputStream os = exchange.getResponseBody();
             os.write(response.getBytes());
             os.close();
+            write.finish(response.length());
         }
         
         private String generateModernDashboard() {
-            // Get financial data
-            LocalDate startDate = LocalDate.of(2000, 1, 1);
-            LocalDate endDate = LocalDate.of(2099, 12, 31);
-            BigDecimal totalIncome = incomeDAO.getTotalByDateRange(startDate, endDate);
-            BigDecimal totalExpenses = expenseDAO.getTotalByDateRange(startDate, endDate);
-            BigDecimal netBalance = totalIncome.subtract(totalExpenses);
+            PageRenderEvent load = PageRenderEvent.start("dashboard", "load");
+            // Get financial data from the versioned snapshot cache
+            DashboardSnapshot snapshot = dashboardService.getSnapshot();
+            BigDecimal totalIncome = snapshot.getTotalIncome();
+            BigDecimal totalExpenses = snapshot.getTotalExpenses();
+            BigDecimal netBalance = snapshot.getNetBalance();
             
             // Get recent transactions
-            List<Expense> recentExpenses = expenseDAO.findAll();
-            List<Income> recentIncomes = incomeDAO.findAll();
+            List<Transaction> recentTransactions = snapshot.getRecentTransactions();
+            
+            load.finish();
+            PageRenderEvent render = PageRenderEvent.start("dashboard", "html");
             
             StringBuilder html = new StringBuilder();
             html.append("<!DOCTYPE html>");
@@ -279,6 +437,21 @@ public class AdvancedBudgetApp {
                 .stat-value.negative { color: var(--danger); }
                 .stat-value.neutral { color: var(--info); }
                 
+                .budget-alert-toast {
+                    position: fixed;
+                    right: 20px;
+                    bottom: 20px;
+                    padding: 14px 20px;
+                    border-radius: 8px;
+                    color: white;
+                    font-weight: 600;
+                    box-shadow: var(--shadow);
+                    z-index: 1000;
+                }
+                
+                .budget-alert-toast.warning { background: var(--warning); }
+                .budget-alert-toast.danger { background: var(--danger); }
+                
                 .stat-change {
                     font-size: 12px;
                     display: flex;
@@ -432,7 +605,7 @@ public class AdvancedBudgetApp {
             html.append("<span class='stat-title'>Total Income</span>");
             html.append("<div class='stat-icon income'><i class='fas fa-arrow-up'></i></div>");
             html.append("</div>");
-            html.append("<div class='stat-value positive'>$").append(String.format("%.2f", totalIncome.doubleValue())).append("</div>");
+            html.append("<div id='totalIncome' class='stat-value positive'>$").append(String.format("%.2f", totalIncome.doubleValue())).append("</div>");
             html.append("<div class='stat-change up'><i class='fas fa-arrow-up'></i> +12.5% from last month</div>");
             html.append("</div>");
             
@@ -442,7 +615,7 @@ public class AdvancedBudgetApp {
             html.append("<span class='stat-title'>Total Expenses</span>");
             html.append("<div class='stat-icon expense'><i class='fas fa-arrow-down'></i></div>");
             html.append("</div>");
-            html.append("<div class='stat-value negative'>$").append(String.format("%.2f", totalExpenses.doubleValue())).append("</div>");
+            html.append("<div id='totalExpenses' class='stat-value negative'>$").append(String.format("%.2f", totalExpenses.doubleValue())).append("</div>");
             html.append("<div class='stat-change down'><i class='fas fa-arrow-down'></i> +5.2% from last month</div>");
             html.append("</div>");
             
@@ -453,7 +626,7 @@ public class AdvancedBudgetApp {
             html.append("<div class='stat-icon balance'><i class='fas fa-balance-scale'></i></div>");
             html.append("</div>");
             String balanceClass = netBalance.compareTo(BigDecimal.ZERO) >= 0 ? "positive" : "negative";
-            html.append("<div class='stat-value ").append(balanceClass).append("'>$").append(String.format("%.2f", netBalance.doubleValue())).append("</div>");
+            html.append("<div id='netBalance' class='stat-value ").append(balanceClass).append("'>$").append(String.format("%.2f", netBalance.doubleValue())).append("</div>");
             html.append("<div class='stat-change up'><i class='fas fa-arrow-up'></i> Healthy financial position</div>");
             html.append("</div>");
             
@@ -463,9 +636,8 @@ public class AdvancedBudgetApp {
             html.append("<span class='stat-title'>Savings Rate</span>");
             html.append("<div class='stat-icon budget'><i class='fas fa-piggy-bank'></i></div>");
             html.append("</div>");
-            double savingsRate = totalIncome.doubleValue() > 0 ? 
-                (netBalance.doubleValue() / totalIncome.doubleValue()) * 100 : 0;
-            html.append("<div class='stat-value neutral'>").append(String.format("%.1f", savingsRate)).append("%</div>");
+            double savingsRate = snapshot.getSavingsRate();
+            html.append("<div id='savingsRate' class='stat-value neutral'>").append(String.format("%.1f", savingsRate)).append("%</div>");
             html.append("<div class='stat-change up'><i class='fas fa-arrow-up'></i> Great saving habits!</div>");
             html.append("</div>");
             
@@ -498,38 +670,29 @@ public class AdvancedBudgetApp {
             // Recent Transactions
             html.append("<div class='transactions-section'>");
             html.append("<h2 class='section-title'><i class='fas fa-list'></i> Recent Activity</h2>");
+            html.append("<div id='recentTransactions'>");
             
-            if (recentExpenses.isEmpty() && recentIncomes.isEmpty()) {
+            if (recentTransactions.isEmpty()) {
                 html.append("<div class='empty-state'>");
                 html.append("<i class='fas fa-receipt' style='font-size: 48px; margin-bottom: 16px; opacity: 0.3;'></i>");
                 html.append("<p>No transactions yet</p>");
                 html.append("<p style='font-size: 14px;'>Add your first expense or income to get started!</p>");
                 html.append("</div>");
             } else {
-                // Show recent transactions (mix of expenses and incomes)
-                int count = 0;
-                for (Expense expense : recentExpenses.stream().limit(3).collect(Collectors.toList())) {
-                    html.append("<div class='transaction-item'>");
-                    html.append("<div class='transaction-info'>");
-                    html.append("<div class='transaction-description'>").append(expense.getDescription() != null ? expense.getDescription() : "Expense").append("</div>");
-                    html.append("<div class='transaction-category'>Expense • ").append(expense.getExpenseDate()).append("</div>");
-                    html.append("</div>");
-                    html.append("<div class='transaction-amount expense'>-$").append(String.format("%.2f", expense.getAmount().doubleValue())).append("</div>");
-                    html.append("</div>");
-                    count++;
-                }
-                
-                for (Income income : recentIncomes.stream().limit(3 - count).collect(Collectors.toList())) {
+                // Show recent transactions (mix of expenses and incomes, newest first)
+                for (Transaction transaction : recentTransactions) {
+                    String label = transaction.isIncome() ? "Income" : "Expense";
                     html.append("<div class='transaction-item'>");
                     html.append("<div class='transaction-info'>");
-                    html.append("<div class='transaction-description'>").append(income.getDescription() != null ? income.getDescription() : "Income").append("</div>");
-                    html.append("<div class='transaction-category'>Income • ").append(income.getIncomeDate()).append("</div>");
+                    html.append("<div class='transaction-description'>").append(transaction.getDescription() != null ? transaction.getDescription() : label).append("</div>");
+                    html.append("<div class='transaction-category'>").append(label).append(" • ").append(transaction.getDate()).append("</div>");
                     html.append("</div>");
-                    html.append("<div class='transaction-amount income'>+$").append(String.format("%.2f", income.getAmount().doubleValue())).append("</div>");
+                    html.append("<div class='transaction-amount ").append(transaction.isIncome() ? "income'>+$" : "expense'>-$").append(String.format("%.2f", transaction.getAmount().doubleValue())).append("</div>");
                     html.append("</div>");
                 }
             }
             
+            html.append("</div>");
             html.append("</div>");
             html.append("</div>");
             
@@ -585,15 +748,105 @@ public class AdvancedBudgetApp {
                 function refreshDashboard() {
                     location.reload();
                 }
+                
+                // Live updates pushed by the server instead of polling
+                function formatMoney(value) {
+                    return '$' + Number(value).toFixed(2);
+                }
+                
+                const events = new EventSource('/api/events');
+                
+                events.addEventListener('totals', event => {
+                    const totals = JSON.parse(event.data);
+                    document.getElementById('totalIncome').textContent = formatMoney(totals.totalIncome);
+                    document.getElementById('totalExpenses').textContent = formatMoney(totals.totalExpenses);
+                    const balance = document.getElementById('netBalance');
+                    balance.textContent = formatMoney(totals.netBalance);
+                    balance.className = 'stat-value ' + (totals.netBalance >= 0 ? 'positive' : 'negative');
+                    document.getElementById('savingsRate').textContent = Number(totals.savingsRate).toFixed(1) + '%';
+                });
+                
+                events.addEventListener('transaction', event => {
+                    const transaction = JSON.parse(event.data);
+                    const isIncome = transaction.type === 'income';
+                    const label = isIncome ? 'Income' : 'Expense';
+                    const list = document.getElementById('recentTransactions');
+                    const emptyState = list.querySelector('.empty-state');
+                    if (emptyState) {
+                        emptyState.remove();
+                    }
+                    
+                    const item = document.createElement('div');
+                    item.className = 'transaction-item';
+                    const info = document.createElement('div');
+                    info.className = 'transaction-info';
+                    const description = document.createElement('div');
+                    description.className = 'transaction-description';
+                    description.textContent = transaction.description || label;
+                    const category = document.createElement('div');
+                    category.className = 'transaction-category';
+                    category.textContent = label + ' • ' + transaction.date;
+                    info.append(description, category);
+                    const amount = document.createElement('div');
+                    amount.className = 'transaction-amount ' + (isIncome ? 'income' : 'expense');
+                    amount.textContent = (isIncome ? '+' : '-') + formatMoney(transaction.amount);
+                    item.append(info, amount);
+                    
+                    list.prepend(item);
+                    while (list.children.length > 3) {
+                        list.lastElementChild.remove();
+                    }
+                });
+                
+                events.addEventListener('budget-alert', event => {
+                    const alert = JSON.parse(event.data);
+                    const toast = document.createElement('div');
+                    toast.className = 'budget-alert-toast ' + (alert.status === 'OVER_BUDGET' ? 'danger' : 'warning');
+                    toast.textContent = 'Budget ' + alert.label + ': ' + formatMoney(alert.spent) + ' of ' + formatMoney(alert.amount) + ' (' + alert.percentage + '%)';
+                    document.body.appendChild(toast);
+                    setTimeout(() => toast.remove(), 8000);
+                });
+                
+                events.addEventListener('budget-status', event => {
+                    const status = JSON.parse(event.data);
+                    console.log('Budget ' + status.budgetId + ' is now ' + status.label + ' (' + status.percentage + '%)');
+                });
                 """);
             html.append("</script>");
             
             html.append("</body></html>");
             
+            render.finish(html.length());
             return html.toString();
         }
     }
     
+    static class MetricsHandler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            byte[] response = httpMetrics.toPrometheus().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, response.length);
+            
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        }
+    }
+    
+    static class LiveUpdatesHandler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            
+            // The stream stays open; the broadcaster writes to it from now on
+            liveUpdates.register(exchange);
+        }
+    }
+    
     static class ChartDataHandler implements HttpHandler {
         @Override
         public void handle(HttpExchange exchange) throws IOException {
@@ -608,10 +861,16 @@ public class AdvancedBudgetApp {
             LocalDate startDate = LocalDate.of(2000, 1, 1);
             LocalDate endDate = LocalDate.of(2099, 12, 31);
             
-            boolean first = true;
+            // Fire every category total at once, then read them back in category order
+            List<CompletableFuture<BigDecimal>> totals = new ArrayList<>();
             for (Category category : expenseCategories) {
-                BigDecimal total = expenseDAO.getTotalByCategoryAndDateRange(
-                    category.getId(), startDate, endDate);
+                totals.add(asyncExpenseDAO.getTotalByCategoryAndDateRange(category.getId(), startDate, endDate));
+            }
+            
+            boolean first = true;
+            for (int i = 0; i < expenseCategories.size(); i++) {
+                Category category = expenseCategories.get(i);
+                BigDecimal total = totals.get(i).join();
                 
                 if (total.compareTo(BigDecimal.ZERO) > 0) {
                     if (!first) {
@@ -637,17 +896,13 @@ public class AdvancedBudgetApp {
     static class AdvancedSummaryHandler implements HttpHandler {
         @Override
         public void handle(HttpExchange exchange) throws IOException {
-            LocalDate startDate = LocalDate.of(2000, 1, 1);
-            LocalDate endDate = LocalDate.of(2099, 12, 31);
-            BigDecimal totalIncome = incomeDAO.getTotalByDateRange(startDate, endDate);
-            BigDecimal totalExpenses = expenseDAO.getTotalByDateRange(startDate, endDate);
-            BigDecimal netBalance = totalIncome.subtract(totalExpenses);
+            DashboardSnapshot snapshot = dashboardService.getSnapshot();
             
             String json = String.format(
                 "{\"totalIncome\":%.2f,\"totalExpenses\":%.2f,\"netBalance\":%.2f,\"savingsRate\":%.1f}",
-                totalIncome.doubleValue(), totalExpenses.doubleValue(), 
-                netBalance.doubleValue(), 
-                totalIncome.doubleValue() > 0 ? (netBalance.doubleValue() / totalIncome.doubleValue()) * 100 : 0
+                snapshot.getTotalIncome().doubleValue(), snapshot.getTotalExpenses().doubleValue(), 
+                snapshot.getNetBalance().doubleValue(), 
+                snapshot.getSavingsRate()
             );
             
             exchange.getResponseHeaders().set("Content-Type", "application/json");
@@ -661,36 +916,22 @@ public class AdvancedBudgetApp {
     static class TransactionsHandler implements HttpHandler {
         @Override
         public void handle(HttpExchange exchange) throws IOException {
-            List<Expense> expenses = expenseDAO.findAll();
-            List<Income> incomes = incomeDAO.findAll();
+            List<Transaction> transactions = transactionDAO.findAll();
             
             StringBuilder json = new StringBuilder();
             json.append("{\"transactions\":[");
             
             boolean first = true;
             
-            // Add expenses
-            for (Expense expense : expenses) {
-                if (!first) json.append(",");
-                json.append("{");
-                json.append("\"type\":\"expense\",");
-                json.append("\"id\":").append(expense.getId()).append(",");
-                json.append("\"amount\":").append(expense.getAmount()).append(",");
-                json.append("\"description\":\"").append(expense.getDescription() != null ? expense.getDescription() : "").append("\",");
-                json.append("\"date\":\"").append(expense.getExpenseDate()).append("\"");
-                json.append("}");
-                first = false;
-            }
-            
-            // Add incomes
-            for (Income income : incomes) {
+            // Expenses and incomes arrive merged newest first
+            for (Transaction transaction : transactions) {
                 if (!first) json.append(",");
                 json.append("{");
-                json.append("\"type\":\"income\",");
-                json.append("\"id\":").append(income.getId()).append(",");
-                json.append("\"amount\":").append(income.getAmount()).append(",");
-                json.append("\"description\":\"").append(income.getDescription() != null ? income.getDescription() : "").append("\",");
-                json.append("\"date\":\"").append(income.getIncomeDate()).append("\"");
+                json.append("\"type\":\"").append(transaction.isIncome() ? "income" : "expense").append("\",");
+                json.append("\"id\":").append(transaction.getId()).append(",");
+                json.append("\"amount\":").append(transaction.getAmount()).append(",");
+                json.append("\"description\":\"").append(transaction.getDescription() != null ? transaction.getDescription() : "").append("\",");
+                json.append("\"date\":\"").append(transaction.getDate()).append("\"");
                 json.append("}");
                 first = false;
             }
@@ -842,6 +1083,32 @@ public class AdvancedBudgetApp {
                     resize: vertical;
                     min-height: 80px;
                 }
+                .category-hint {
+                    margin-top: 6px;
+                    font-size: 13px;
+                    color: var(--gray);
+                    min-height: 18px;
+                }
+                .suggestion-list {
+                    display: flex;
+                    flex-wrap: wrap;
+                    gap: 6px;
+                    margin-top: 6px;
+                }
+                .suggestion-chip {
+                    padding: 4px 10px;
+                    border: 1px solid var(--gray-light);
+                    border-radius: 12px;
+                    background: white;
+                    font-size: 13px;
+                    cursor: pointer;
+                }
+                .suggestion-chip:hover {
+                    border-color: var(--primary);
+                }
+                .category-search {
+                    margin-bottom: 6px;
+                }
                 .submit-btn {
                     width: 100%;
                     padding: 16px;
@@ -887,18 +1154,24 @@ public class AdvancedBudgetApp {
             
             html.append("<div class='form-group'>");
             html.append("<label class='form-label'>Category</label>");
-            html.append("<select name='category' class='form-select' required>");
+            html.append("<input type='text' id='categorySearch' class='form-input category-search' placeholder='Type to find a category' autocomplete='off'>");
+            html.append("<div class='suggestion-list' id='categorySuggestions'></div>");
+            html.append("<select name='category' id='categorySelect' class='form-select' required>");
             html.append("<option value=''>Select a category</option>");
             for (Category category : categories) {
                 html.append("<option value='").append(category.getId()).append("'>");
                 html.append(category.getName()).append("</option>");
             }
             html.append("</select>");
+            if (!isIncome) {
+                html.append("<div class='category-hint' id='categoryHint'></div>");
+            }
             html.append("</div>");
             
             html.append("<div class='form-group'>");
             html.append("<label class='form-label'>Description</label>");
-            html.append("<textarea name='description' class='form-textarea' placeholder='What was this ").append(type).append(" for?'></textarea>");
+            html.append("<textarea name='description' id='descriptionInput' class='form-textarea' placeholder='What was this ").append(type).append(" for?'></textarea>");
+            html.append("<div class='suggestion-list' id='descriptionSuggestions'></div>");
             html.append("</div>");
             
             html.append("<div class='form-group'>");
@@ -914,6 +1187,97 @@ public class AdvancedBudgetApp {
             html.append("</div>");
             html.append("</div>");
             
+            // Complete descriptions and categories from past entries, most used and most recent first
+            html.append("<script>");
+            html.append("const transactionType = '").append(type).append("';");
+            html.append("""
+                const descriptionInput = document.getElementById('descriptionInput');
+                const categoryInput = document.getElementById('categorySelect');
+                function autocomplete(input, list, field, pick) {
+                    let timer = null;
+                    input.addEventListener('input', event => {
+                        clearTimeout(timer);
+                        const prefix = input.value.trim();
+                        if (!event.isTrusted || !prefix) {
+                            list.replaceChildren();
+                            return;
+                        }
+                        timer = setTimeout(() => {
+                            fetch('/api/suggest?limit=8&type=' + transactionType + '&field=' + field
+                                + '&prefix=' + encodeURIComponent(prefix))
+                            .then(response => response.json())
+                            .then(result => {
+                                list.replaceChildren(...result[field]
+                                    .filter(suggestion => suggestion.text.toLowerCase() !== prefix.toLowerCase())
+                                    .map(suggestion => {
+                                        const button = document.createElement('button');
+                                        button.type = 'button';
+                                        button.className = 'suggestion-chip';
+                                        button.textContent = suggestion.text;
+                                        button.addEventListener('click', () => {
+                                            list.replaceChildren();
+                                            pick(suggestion);
+                                        });
+                                        return button;
+                                    }));
+                            })
+                            .catch(() => {});
+                        }, 150);
+                    });
+                }
+                autocomplete(descriptionInput, document.getElementById('descriptionSuggestions'), 'descriptions', suggestion => {
+                    descriptionInput.value = suggestion.text;
+                    if (suggestion.categoryId && (!categoryInput.value || categoryInput.dataset.auto === '1')) {
+                        categoryInput.value = suggestion.categoryId;
+                        categoryInput.dataset.auto = '1';
+                    }
+                    descriptionInput.dispatchEvent(new Event('input'));
+                });
+                const categorySearch = document.getElementById('categorySearch');
+                autocomplete(categorySearch, document.getElementById('categorySuggestions'), 'categories', suggestion => {
+                    categorySearch.value = '';
+                    categoryInput.value = suggestion.categoryId;
+                    categoryInput.dispatchEvent(new Event('change'));
+                });
+                """);
+            html.append("</script>");
+            
+            if (!isIncome) {
+                // Pick the category from the description until the user picks one themselves
+                html.append("<script>");
+                html.append("""
+                    const categorySelect = document.getElementById('categorySelect');
+                    const categoryHint = document.getElementById('categoryHint');
+                    let suggestTimer = null;
+                    categorySelect.addEventListener('change', () => {
+                        categorySelect.dataset.auto = '0';
+                        categoryHint.textContent = '';
+                    });
+                    document.getElementById('descriptionInput').addEventListener('input', event => {
+                        clearTimeout(suggestTimer);
+                        const description = event.target.value.trim();
+                        suggestTimer = setTimeout(() => {
+                            if (!description || (categorySelect.value && categorySelect.dataset.auto !== '1')) {
+                                return;
+                            }
+                            fetch('/api/categorize?description=' + encodeURIComponent(description))
+                            .then(response => response.json())
+                            .then(suggestion => {
+                                if (suggestion.source === 'NONE' || suggestion.confidence < 0.5) {
+                                    return;
+                                }
+                                categorySelect.value = suggestion.categoryId;
+                                categorySelect.dataset.auto = '1';
+                                categoryHint.textContent = 'Suggested: ' + suggestion.categoryName
+                                    + ' (' + Math.round(suggestion.confidence * 100) + '% sure)';
+                            })
+                            .catch(() => {});
+                        }, 300);
+                    });
+                    """);
+                html.append("</script>");
+            }
+            
             html.append("</body></html>");
             
             return html.toString();
@@ -970,16 +1334,35 @@ public class AdvancedBudgetApp {
         
         private void showBudgetsPage(HttpExchange exchange) throws IOException {
             String response = generateBudgetsPage();
+            PageRenderEvent write = PageRenderEvent.start("budgets", "write");
             exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
             exchange.sendResponseHeaders(200, response.getBytes().length);
             OutputStream os = exchange.getResponseBody();
             os.write(response.getBytes());
             os.close();
+            write.finish(response.length());
           }
          
           private String generateBudgetsPage() {
-            List<Budget> budgets = budgetDAO.findAll();
-            List<Category> expenseCategories = categoryDAO.findByType(Category.CategoryType.EXPENSE);
+            PageRenderEvent load = PageRenderEvent.start("budgets", "load");
+            CompletableFuture<List<Budget>> budgetsFuture = asyncBudgetDAO.findAll();
+            CompletableFuture<List<Category>> categoriesFuture = asyncCategoryDAO.findAll();
+            CompletableFuture<Map<Integer, BudgetHistory>> historyFuture = DatabaseExecutor.supply(budgetHistoryDAO::findLatestByBudget);
+            CompletableFuture<List<Budget>> activeFuture = asyncBudgetDAO.findActiveBudgets();
+            List<Budget> budgets = budgetsFuture.join();
+            List<Category> allCategories = categoriesFuture.join();
+            Map<Integer, BudgetHistory> lastPeriods = historyFuture.join();
+            Set<Integer> activeBudgetIds = activeFuture.join().stream().map(Budget::getId).collect(Collectors.toSet());
+            List<Category> expenseCategories = allCategories.stream()
+                .filter(c -> c.getType() == Category.CategoryType.EXPENSE)
+                .collect(Collectors.toList());
+            Map<Integer, Category> categoriesById = new HashMap<>();
+            for (Category category : allCategories) {
+                categoriesById.put(category.getId(), category);
+            }
+            
+            load.finish();
+            PageRenderEvent render = PageRenderEvent.start("budgets", "html");
             
             StringBuilder html = new StringBuilder();
             html.append("<!DOCTYPE html>");
@@ -1132,6 +1515,10 @@ public class AdvancedBudgetApp {
                     font-weight: 600;
                 }
                 
+                .budget-period.inactive {
+                    opacity: 0.6;
+                }
+                
                 .budget-amounts {
                     margin-bottom: 16px;
                 }
@@ -1198,6 +1585,14 @@ public class AdvancedBudgetApp {
                     font-weight: 600;
                 }
                 
+                .budget-history {
+                    margin-top: 12px;
+                    font-size: 13px;
+                    color: var(--gray);
+                }
+                
+                .budget-history.danger { color: var(--danger); }
+                
                 .status-icon {
                     width: 20px;
                     height: 20px;
@@ -1389,36 +1784,40 @@ public class AdvancedBudgetApp {
                 LocalDate startDate = LocalDate.of(2000, 1, 1);
                 LocalDate endDate = LocalDate.of(2099, 12, 31);
                 
+                // Fetch the spent amount for every budget in parallel
+                List<CompletableFuture<BigDecimal>> spentFutures = new ArrayList<>();
                 for (Budget budget : budgets) {
+                    spentFutures.add(asyncExpenseDAO.getTotalByCategoryAndDateRange(budget.getCategoryId(), startDate, endDate));
+                }
+                
+                for (int i = 0; i < budgets.size(); i++) {
+                    Budget budget = budgets.get(i);
+                    
                     // Get category name
-                    Category category = categoryDAO.findById(budget.getCategoryId()).orElse(null);
+                    Category category = categoriesById.get(budget.getCategoryId());
                     String categoryName = category != null ? category.getName() : "Unknown";
                     
                     // Calculate spent amount for this category
-                    BigDecimal spent = expenseDAO.getTotalByCategoryAndDateRange(budget.getCategoryId(), startDate, endDate);
+                    BigDecimal spent = spentFutures.get(i).join();
                     BigDecimal remaining = budget.getAmount().subtract(spent);
                     double percentage = budget.getAmount().doubleValue() > 0 ? 
                         (spent.doubleValue() / budget.getAmount().doubleValue()) * 100 : 0;
                     
                     // Determine status and color
-                    String progressClass = "low";
-                    String statusClass = "good";
-                    String statusText = "On Track";
-                    
-                    if (percentage >= 90) {
-                        progressClass = "high";
-                        statusClass = "danger";
-                        statusText = "Over Budget";
-                    } else if (percentage >= 70) {
-                        progressClass = "medium";
-                        statusClass = "warning";
-                        statusText = "Near Limit";
-                    }
+                    BudgetStatus status = BudgetStatus.of(percentage);
+                    String progressClass = status.getProgressClass();
+                    String statusClass = status.getStatusClass();
+                    String statusText = status.getLabel();
                     
                     html.append("<div class='budget-card'>");
                     html.append("<div class='budget-header'>");
                     html.append("<div class='budget-category'>").append(categoryName).append("</div>");
-                    html.append("<div class='budget-period'>").append(budget.getPeriod() != null ? budget.getPeriod().toString() : "MONTHLY").append("</div>");
+                    String periodLabel = budget.getPeriod() != null ? budget.getPeriod().toString() : "MONTHLY";
+                    if (activeBudgetIds.contains(budget.getId())) {
+                        html.append("<div class='budget-period'>").append(periodLabel).append("</div>");
+                    } else {
+                        html.append("<div class='budget-period inactive' title='No period covers today'>").append(periodLabel).append(" - INACTIVE</div>");
+                    }
                     html.append("</div>");
                     
                     html.append("<div class='budget-amounts'>");
@@ -1449,6 +1848,17 @@ public class AdvancedBudgetApp {
                     html.append("<span>").append(statusText).append(" (").append(String.format("%.0f", percentage)).append("%)</span>");
                     html.append("</div>");
                     
+                    // Previous period comes straight from the archive
+                    BudgetHistory lastPeriod = lastPeriods.get(budget.getId());
+                    if (lastPeriod != null) {
+                        html.append("<div class='budget-history ").append(lastPeriod.getStatus().getStatusClass()).append("'>");
+                        html.append("Last period (").append(lastPeriod.getStartDate()).append(" to ").append(lastPeriod.getEndDate()).append("): $");
+                        html.append(String.format("%.2f", lastPeriod.getSpent().doubleValue())).append(" of $");
+                        html.append(String.format("%.2f", lastPeriod.getAmount().doubleValue()));
+                        html.append(" (").append(String.format("%.0f", lastPeriod.getPercentage())).append("%)");
+                        html.append("</div>");
+                    }
+                    
                     html.append("</div>");
                 }
                 
@@ -1458,6 +1868,7 @@ public class AdvancedBudgetApp {
             html.append("</div>");
             html.append("</body></html>");
             
+            render.finish(html.length());
             return html.toString();
         }
         
@@ -1493,26 +1904,25 @@ public class AdvancedBudgetApp {
         @Override
         public void handle(HttpExchange exchange) throws IOException {
             String response = generateAnalyticsPage();
+            PageRenderEvent write = PageRenderEvent.start("analytics", "write");
             exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
             exchange.sendResponseHeaders(200, response.getBytes().length);
             OutputStream os = exchange.getResponseBody();
             os.write(response.getBytes());
             os.close();
+            write.finish(response.length());
         }
         
         private String generateAnalyticsPage() {
-            // Get comprehensive financial data
-            LocalDate startDate = LocalDate.of(2000, 1, 1);
-            LocalDate endDate = LocalDate.of(2099, 12, 31);
-            
-            BigDecimal totalIncome = incomeDAO.getTotalByDateRange(startDate, endDate);
-            BigDecimal totalExpenses = expenseDAO.getTotalByDateRange(startDate, endDate);
-            BigDecimal netBalance = totalIncome.subtract(totalExpenses);
+            PageRenderEvent load = PageRenderEvent.start("analytics", "load");
+            // Get comprehensive financial data, queried in parallel under a deadline
+            AnalyticsModel model = analyticsService.assemble();
+            BigDecimal totalIncome = model.getTotalIncome();
+            BigDecimal totalExpenses = model.getTotalExpenses();
+            BigDecimal netBalance = model.getNetBalance();
             
-            // Get monthly data for trends
-            List<Expense> allExpenses = expenseDAO.findAll();
-            List<Income> allIncomes = incomeDAO.findAll();
-            List<Category> expenseCategories = categoryDAO.findByType(Category.CategoryType.EXPENSE);
+            load.finish();
+            PageRenderEvent render = PageRenderEvent.start("analytics", "html");
             
             StringBuilder html = new StringBuilder();
             html.append("<!DOCTYPE html>");
@@ -1611,6 +2021,16 @@ public class AdvancedBudgetApp {
                     box-shadow: var(--shadow);
                 }
                 
+                .forecast-card {
+                    margin-bottom: 30px;
+                }
+                
+                .forecast-summary {
+                    color: var(--gray);
+                    font-size: 14px;
+                    margin-bottom: 12px;
+                }
+                
                 .chart-title {
                     font-size: 18px;
                     font-weight: 700;
@@ -1747,11 +2167,19 @@ public class AdvancedBudgetApp {
             html.append("</a>");
             html.append("</div>");
             
+            // Partial results notice
+            if (model.isPartial()) {
+                html.append("<div class='insight-card warning' style='margin-bottom: 30px;'>");
+                html.append("<div class='insight-title'><i class='fas fa-hourglass-half'></i> Some figures are still loading</div>");
+                html.append("<div class='insight-description'>Not ready in time: ").append(String.join(", ", model.getMissingSections())).append(". Refresh to try again.</div>");
+                html.append("</div>");
+            }
+            
             // Trend Indicators
             html.append("<div class='trend-indicators'>");
             
             // Average Daily Spending
-            double avgDailySpending = allExpenses.size() > 0 ? totalExpenses.doubleValue() / Math.max(allExpenses.size(), 1) : 0;
+            double avgDailySpending = model.getExpenseCount() > 0 ? totalExpenses.doubleValue() / model.getExpenseCount() : 0;
             html.append("<div class='trend-card'>");
             html.append("<div class='trend-icon' style='background: rgba(239, 68, 68, 0.1); color: var(--danger);'>");
             html.append("<i class='fas fa-calendar-day'></i>");
@@ -1761,15 +2189,7 @@ public class AdvancedBudgetApp {
             html.append("</div>");
             
             // Largest Expense Category
-            String largestCategory = "None";
-            double largestAmount = 0;
-            for (Category category : expenseCategories) {
-                BigDecimal categoryTotal = expenseDAO.getTotalByCategoryAndDateRange(category.getId(), startDate, endDate);
-                if (categoryTotal.doubleValue() > largestAmount) {
-                    largestAmount = categoryTotal.doubleValue();
-                    largestCategory = category.getName();
-                }
-            }
+            String largestCategory = model.getTopCategoryName();
             
             html.append("<div class='trend-card'>");
             html.append("<div class='trend-icon' style='background: rgba(245, 158, 11, 0.1); color: var(--warning);'>");
@@ -1791,7 +2211,7 @@ public class AdvancedBudgetApp {
             html.append("</div>");
             
             // Transaction Count
-            int totalTransactions = allExpenses.size() + allIncomes.size();
+            int totalTransactions = model.getExpenseCount() + model.getIncomeCount();
             html.append("<div class='trend-card'>");
             html.append("<div class='trend-icon' style='background: rgba(59, 130, 246, 0.1); color: var(--info);'>");
             html.append("<i class='fas fa-list'></i>");
@@ -1823,6 +2243,15 @@ public class AdvancedBudgetApp {
             
             html.append("</div>");
             
+            // Balance forecast, filled in from /api/forecast
+            html.append("<div class='chart-card forecast-card'>");
+            html.append("<h3 class='chart-title'><i class='fas fa-chart-area'></i> 90-Day Balance Forecast</h3>");
+            html.append("<div id='forecastSummary' class='forecast-summary'>Simulating...</div>");
+            html.append("<div class='chart-container'>");
+            html.append("<canvas id='forecastChart'></canvas>");
+            html.append("</div>");
+            html.append("</div>");
+            
             // Financial Insights
             html.append("<div class='insights-section'>");
             html.append("<h2 class='chart-title'><i class='fas fa-lightbulb'></i> Smart Insights</h2>");
@@ -1946,27 +2375,80 @@ public class AdvancedBudgetApp {
                     categoryCtx.textAlign = 'center';
                     categoryCtx.fillText('Add expenses to see breakdown', categoryCtx.canvas.width/2, categoryCtx.canvas.height/2);
                 });
+                
+                // Forecast Chart: 5-95% and 25-75% bands around the median
+                const forecastCtx = document.getElementById('forecastChart').getContext('2d');
+                fetch('/api/forecast?days=90')
+                .then(response => response.json())
+                .then(forecast => {
+                    const band = key => forecast.bands.map(b => Math.round(b[key] * 100) / 100);
+                    document.getElementById('forecastSummary').textContent =
+                        'Median in 90 days: $' + band('p50')[forecast.bands.length - 1].toFixed(2) +
+                        ' | chance of dipping below $0: ' + Math.round(forecast.probabilityNegative * 100) + '%' +
+                        ' | ' + forecast.paths.toLocaleString() + ' simulated paths';
+                    new Chart(forecastCtx, {
+                        type: 'line',
+                        data: {
+                            labels: forecast.bands.map(b => b.date),
+                            datasets: [
+                                { label: '5th percentile', data: band('p5'), borderColor: 'rgba(59, 130, 246, 0.3)', pointRadius: 0, fill: false },
+                                { label: '25th percentile', data: band('p25'), borderColor: 'rgba(59, 130, 246, 0.5)', pointRadius: 0, fill: false },
+                                { label: 'Median', data: band('p50'), borderColor: '#3b82f6', borderWidth: 3, pointRadius: 0, fill: false },
+                                { label: '75th percentile', data: band('p75'), borderColor: 'rgba(59, 130, 246, 0.5)', backgroundColor: 'rgba(59, 130, 246, 0.25)', pointRadius: 0, fill: 1 },
+                                { label: '95th percentile', data: band('p95'), borderColor: 'rgba(59, 130, 246, 0.3)', backgroundColor: 'rgba(59, 130, 246, 0.1)', pointRadius: 0, fill: 0 }
+                            ]
+                        },
+                        options: {
+                            responsive: true,
+                            maintainAspectRatio: false,
+                            interaction: { mode: 'index', intersect: false },
+                            plugins: {
+                                legend: {
+                                    position: 'top'
+                                }
+                            },
+                            scales: {
+                                y: {
+                                    ticks: {
+                                        callback: function(value) {
+                                            return '$' + value;
+                                        }
+                                    }
+                                }
+                            }
+                        }
+                    });
+                })
+                .catch(() => {
+                    document.getElementById('forecastSummary').textContent = 'Forecast unavailable';
+                });
                 """);
             html.append("</script>");
             
             html.append("</body></html>");
             
+            render.finish(html.length());
             return html.toString();
         }
     }
     
     static class TransactionsPageHandler implements HttpHandler {
+        private static final int UPCOMING_DAYS = 30;
+        
         @Override
         public void handle(HttpExchange exchange) throws IOException {
             String response = generateTransactionsPage(exchange);
+            PageRenderEvent write = PageRenderEvent.start("transactions", "write");
             exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
             exchange.sendResponseHeaders(200, response.getBytes().length);
             OutputStream os = exchange.getResponseBody();
             os.write(response.getBytes());
             os.close();
+            write.finish(response.length());
         }
         
         private String generateTransactionsPage(HttpExchange exchange) {
+            PageRenderEvent load = PageRenderEvent.start("transactions", "load");
             // Parse query parameters for filtering
             String query = exchange.getRequestURI().getQuery();
             Map<String, String> params = parseQueryParams(query != null ? query : "");
@@ -1977,14 +2459,25 @@ public class AdvancedBudgetApp {
             String dateFrom = params.getOrDefault("dateFrom", "");
             String dateTo = params.getOrDefault("dateTo", "");
             
-            // Get filtered data
-            List<Expense> expenses = expenseDAO.findAll();
-            List<Income> incomes = incomeDAO.findAll();
-            List<Category> categories = categoryDAO.findAll();
-            
-            // Apply filters
-            expenses = filterExpenses(expenses, searchTerm, categoryFilter, dateFrom, dateTo);
-            incomes = filterIncomes(incomes, searchTerm, categoryFilter, dateFrom, dateTo);
+            // Get filtered data, already merged newest first
+            String search = searchTerm.isEmpty() ? null : searchTerm;
+            Integer categoryId = categoryFilter.isEmpty() ? null : Integer.valueOf(categoryFilter);
+            LocalDate from = dateFrom.isEmpty() ? null : LocalDate.parse(dateFrom);
+            LocalDate to = dateTo.isEmpty() ? null : LocalDate.parse(dateTo);
+            // Anything but the two form values leaves the type unfiltered
+            Transaction.Type typeOnly = "income".equals(typeFilter) ? Transaction.Type.INCOME
+                : "expense".equals(typeFilter) ? Transaction.Type.EXPENSE : null;
+            CompletableFuture<List<Transaction>> transactionsFuture =
+                DatabaseExecutor.supply(() -> transactionDAO.find(search, categoryId, from, to, typeOnly));
+            CompletableFuture<List<Category>> categoriesFuture = asyncCategoryDAO.findAll();
+            CompletableFuture<Set<Integer>> flaggedFuture = DatabaseExecutor.supply(expenseAnomalyDAO::findFlaggedExpenseIds);
+            List<Transaction> transactions = transactionsFuture.join();
+            List<Category> categories = categoriesFuture.join();
+            Set<Integer> flagged = flaggedFuture.join();
+            List<UpcomingExpense> upcoming = recurringDetector.getUpcoming(LocalDate.now().plusDays(UPCOMING_DAYS));
+            
+            load.finish();
+            PageRenderEvent render = PageRenderEvent.start("transactions", "html");
             
             StringBuilder html = new StringBuilder();
             html.append("<!DOCTYPE html>");
@@ -2195,6 +2688,19 @@ public class AdvancedBudgetApp {
                     box-shadow: var(--shadow);
                 }
                 
+                .recurring-section {
+                    margin-bottom: 30px;
+                }
+                
+                .recurring-section form {
+                    margin: 0;
+                }
+                
+                .recurring-due.overdue {
+                    color: var(--danger);
+                    font-weight: 600;
+                }
+                
                 .section-title {
                     font-size: 18px;
                     font-weight: 700;
@@ -2272,6 +2778,16 @@ public class AdvancedBudgetApp {
                     font-weight: 500;
                 }
                 
+                .anomaly-badge {
+                    background: rgba(245, 158, 11, 0.15);
+                    color: var(--warning);
+                    padding: 2px 6px;
+                    border-radius: 4px;
+                    font-size: 12px;
+                    font-weight: 600;
+                    margin-left: 8px;
+                }
+                
                 .empty-state {
                     text-align: center;
                     padding: 60px 20px;
@@ -2324,13 +2840,16 @@ public class AdvancedBudgetApp {
             // Statistics Cards
             html.append("<div class='stats-grid'>");
             
-            int totalTransactions = expenses.size() + incomes.size();
-            BigDecimal totalExpenseAmount = expenses.stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            BigDecimal totalIncomeAmount = incomes.stream()
-                .map(Income::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            int totalTransactions = transactions.size();
+            BigDecimal totalExpenseAmount = BigDecimal.ZERO;
+            BigDecimal totalIncomeAmount = BigDecimal.ZERO;
+            for (Transaction transaction : transactions) {
+                if (transaction.isIncome()) {
+                    totalIncomeAmount = totalIncomeAmount.add(transaction.getAmount());
+                } else {
+                    totalExpenseAmount = totalExpenseAmount.add(transaction.getAmount());
+                }
+            }
             
             // Total Transactions
             html.append("<div class='stat-card'>");
@@ -2427,6 +2946,56 @@ public class AdvancedBudgetApp {
             html.append("</form>");
             html.append("</div>");
             
+            // Upcoming Recurring Expenses
+            if (!upcoming.isEmpty()) {
+                Map<Integer, String> categoryNames = new HashMap<>();
+                for (Category category : categories) {
+                    categoryNames.put(category.getId(), category.getName());
+                }
+                LocalDate today = LocalDate.now();
+                
+                html.append("<div class='transactions-section recurring-section'>");
+                html.append("<div class='section-title'>");
+                html.append("<span><i class='fas fa-redo'></i> Upcoming Recurring</span>");
+                html.append("<span>Next ").append(UPCOMING_DAYS).append(" Days</span>");
+                html.append("</div>");
+                html.append("<table class='transaction-table'>");
+                html.append("<thead>");
+                html.append("<tr>");
+                html.append("<th>Due</th>");
+                html.append("<th>Description</th>");
+                html.append("<th>Category</th>");
+                html.append("<th>Amount</th>");
+                html.append("<th></th>");
+                html.append("</tr>");
+                html.append("</thead>");
+                html.append("<tbody>");
+                
+                for (UpcomingExpense entry : upcoming) {
+                    Expense expense = entry.getExpense();
+                    boolean overdue = entry.isOverdue(today);
+                    html.append("<tr class='transaction-row'>");
+                    html.append("<td><span class='recurring-due").append(overdue ? " overdue" : "").append("'>");
+                    html.append(expense.getExpenseDate().toString()).append(overdue ? " (overdue)" : "").append("</span></td>");
+                    html.append("<td>").append(expense.getDescription()).append("</td>");
+                    html.append("<td><span class='transaction-category'>")
+                        .append(categoryNames.getOrDefault(expense.getCategoryId(), "Unknown")).append("</span></td>");
+                    html.append("<td><span class='transaction-amount expense'>-$")
+                        .append(String.format("%.2f", expense.getAmount().doubleValue())).append("</span></td>");
+                    html.append("<td>");
+                    html.append("<form method='POST' action='/api/recurring'>");
+                    html.append("<input type='hidden' name='seriesId' value='").append(entry.getSeries().getId()).append("'>");
+                    html.append("<button type='submit' class='btn btn-secondary'><i class='fas fa-plus'></i> Add</button>");
+                    html.append("</form>");
+                    html.append("</td>");
+                    html.append("</tr>");
+                }
+                
+                html.append("</tbody>");
+                html.append("</table>");
+                html.append("</div>");
+            }
+            
             // Transactions Table
             html.append("<div class='transactions-section'>");
             html.append("<div class='section-title'>");
@@ -2453,65 +3022,31 @@ public class AdvancedBudgetApp {
                 html.append("</thead>");
                 html.append("<tbody>");
                 
-                // Combine and sort transactions
-                List<TransactionItem> allTransactions = new ArrayList<>();
-                
-                for (Expense expense : expenses) {
-                    Category category = categories.stream()
-                        .filter(c -> c.getId() == expense.getCategoryId())
-                        .findFirst().orElse(null);
-                    
-                    allTransactions.add(new TransactionItem(
-                        expense.getExpenseDate(),
-                        "expense",
-                        expense.getDescription(),
-                        category != null ? category.getName() : "Unknown",
-                        expense.getAmount()
-                    ));
-                }
-                
-                for (Income income : incomes) {
-                    Category category = categories.stream()
-                        .filter(c -> c.getId() == income.getCategoryId())
-                        .findFirst().orElse(null);
-                    
-                    allTransactions.add(new TransactionItem(
-                        income.getIncomeDate(),
-                        "income",
-                        income.getDescription(),
-                        category != null ? category.getName() : "Unknown",
-                        income.getAmount()
-                    ));
-                }
-                
-                // Sort by date (newest first)
-                allTransactions.sort((a, b) -> b.date.compareTo(a.date));
-                
-                // Apply type filter
-                if (!typeFilter.isEmpty()) {
-                    allTransactions = allTransactions.stream()
-                        .filter(t -> t.type.equals(typeFilter))
-                        .collect(java.util.stream.Collectors.toList());
-                }
-                
-                for (TransactionItem transaction : allTransactions) {
+                for (Transaction transaction : transactions) {
+                    String type = transaction.isIncome() ? "income" : "expense";
+                    String categoryName = transaction.getCategory() != null ? transaction.getCategory().getName() : "Unknown";
                     html.append("<tr class='transaction-row'>");
-                    html.append("<td>").append(transaction.date.toString()).append("</td>");
+                    html.append("<td>").append(transaction.getDate().toString()).append("</td>");
                     
                     html.append("<td>");
-                    html.append("<span class='transaction-type ").append(transaction.type).append("'>");
-                    html.append("<i class='fas fa-").append(transaction.type.equals("income") ? "arrow-up" : "arrow-down").append("'></i>");
-                    html.append(transaction.type.substring(0, 1).toUpperCase() + transaction.type.substring(1));
+                    html.append("<span class='transaction-type ").append(type).append("'>");
+                    html.append("<i class='fas fa-").append(transaction.isIncome() ? "arrow-up" : "arrow-down").append("'></i>");
+                    html.append(type.substring(0, 1).toUpperCase() + type.substring(1));
                     html.append("</span>");
                     html.append("</td>");
                     
-                    html.append("<td>").append(transaction.description).append("</td>");
-                    html.append("<td><span class='transaction-category'>").append(transaction.category).append("</span></td>");
+                    html.append("<td>").append(transaction.getDescription());
+                    if (!transaction.isIncome() && flagged.contains(transaction.getId())) {
+                        html.append("<span class='anomaly-badge' title='Unusually large for this category'>");
+                        html.append("<i class='fas fa-exclamation-triangle'></i> Unusual</span>");
+                    }
+                    html.append("</td>");
+                    html.append("<td><span class='transaction-category'>").append(categoryName).append("</span></td>");
                     
                     html.append("<td>");
-                    html.append("<span class='transaction-amount ").append(transaction.type).append("'>");
-                    html.append(transaction.type.equals("income") ? "+$" : "-$");
-                    html.append(String.format("%.2f", transaction.amount.doubleValue()));
+                    html.append("<span class='transaction-amount ").append(type).append("'>");
+                    html.append(transaction.isIncome() ? "+$" : "-$");
+                    html.append(String.format("%.2f", transaction.getAmount().doubleValue()));
                     html.append("</span>");
                     html.append("</td>");
                     
@@ -2526,75 +3061,10 @@ public class AdvancedBudgetApp {
             html.append("</div>");
             html.append("</body></html>");
             
+            render.finish(html.length());
             return html.toString();
         }
         
-        private List<Expense> filterExpenses(List<Expense> expenses, String searchTerm, String categoryFilter, String dateFrom, String dateTo) {
-            return expenses.stream()
-                .filter(expense -> {
-                    // Search filter
-                    if (!searchTerm.isEmpty() && !expense.getDescription().toLowerCase().contains(searchTerm.toLowerCase())) {
-                        return false;
-                    }
-                    
-                    // Category filter
-                    if (!categoryFilter.isEmpty() && expense.getCategoryId() != Integer.parseInt(categoryFilter)) {
-                        return false;
-                    }
-                    
-                    // Date range filter
-                    if (!dateFrom.isEmpty()) {
-                        LocalDate fromDate = LocalDate.parse(dateFrom);
-                        if (expense.getExpenseDate().isBefore(fromDate)) {
-                            return false;
-                        }
-                    }
-                    
-                    if (!dateTo.isEmpty()) {
-                        LocalDate toDate = LocalDate.parse(dateTo);
-                        if (expense.getExpenseDate().isAfter(toDate)) {
-                            return false;
-                        }
-                    }
-                    
-                    return true;
-                })
-                .collect(java.util.stream.Collectors.toList());
-        }
-        
-        private List<Income> filterIncomes(List<Income> incomes, String searchTerm, String categoryFilter, String dateFrom, String dateTo) {
-            return incomes.stream()
-                .filter(income -> {
-                    // Search filter
-                    if (!searchTerm.isEmpty() && !income.getDescription().toLowerCase().contains(searchTerm.toLowerCase())) {
-                        return false;
-                    }
-                    
-                    // Category filter
-                    if (!categoryFilter.isEmpty() && income.getCategoryId() != Integer.parseInt(categoryFilter)) {
-                        return false;
-                    }
-                    
-                    // Date range filter
-                    if (!dateFrom.isEmpty()) {
-                        LocalDate fromDate = LocalDate.parse(dateFrom);
-                        if (income.getIncomeDate().isBefore(fromDate)) {
-                            return false;
-                        }
-                    }
-                    
-                    if (!dateTo.isEmpty()) {
-                        LocalDate toDate = LocalDate.parse(dateTo);
-                        if (income.getIncomeDate().isAfter(toDate)) {
-                            return false;
-                        }
-                    }
-                    
-                    return true;
-                })
-                .collect(java.util.stream.Collectors.toList());
-        }
-        
         private Map<String, String> parseQueryParams(String query) {
             Map<String, String> params = new HashMap<>();
             if (query.isEmpty()) return params;
@@ -2614,25 +3084,426 @@ public class AdvancedBudgetApp {
             }
             return params;
         }
+    }
+
+    static class BudgetHistoryHandler implements HttpHandler {
+        private final Gson gson = new Gson();
+        
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            Map<String, String> params = parseFormData(exchange.getRequestURI().getRawQuery());
+            List<BudgetHistory> history;
+            try {
+                if (params.containsKey("budgetId")) {
+                    history = budgetHistoryDAO.findByBudget(Integer.parseInt(params.get("budgetId")));
+                } else {
+                    LocalDate to = params.containsKey("to") ? LocalDate.parse(params.get("to")) : LocalDate.now();
+                    LocalDate from = params.containsKey("from") ? LocalDate.parse(params.get("from")) : to.minusYears(1);
+                    history = budgetHistoryDAO.findByDateRange(from, to);
+                }
+            } catch (RuntimeException e) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            
+            List<Map<String, Object>> periods = new ArrayList<>();
+            for (BudgetHistory period : history) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("budgetId", period.getBudgetId());
+                row.put("categoryId", period.getCategoryId());
+                row.put("period", period.getPeriod().name());
+                row.put("startDate", period.getStartDate().toString());
+                row.put("endDate", period.getEndDate().toString());
+                row.put("amount", period.getAmount());
+                row.put("spent", period.getSpent());
+                row.put("percentage", Math.round(period.getPercentage()));
+                row.put("status", period.getStatus().name());
+                periods.add(row);
+            }
+            
+            byte[] response = gson.toJson(periods).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        }
+    }
+    
+    /**
+     * Simulates budget overruns under spending scenarios.
+     * GET runs the baseline only (?months=&trials=&seed=); POST takes a JSON body:
+     * {"months":6,"trials":2000,"scenarios":[{"name":"Eat in","adjustments":[
+     *   {"category":"Dining","change":-0.2},{"category":"Dining","moveTo":"Savings","fraction":0.1}]}]}
+     * The baseline is always returned first so scenarios can be compared against it, and counts
+     * towards WhatIfSimulator.MAX_SCENARIOS.
+     */
+    static class WhatIfHandler implements HttpHandler {
+        private static final int DEFAULT_MONTHS = 6;
+        private static final int DEFAULT_TRIALS = 2000;
+        private static final long DEFAULT_SEED = 42;
+        
+        private final Gson gson = new Gson();
+        
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            WhatIfRequest request;
+            List<Scenario> scenarios = new ArrayList<>();
+            scenarios.add(new Scenario("Baseline"));
+            try {
+                if ("POST".equals(exchange.getRequestMethod())) {
+                    String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                    request = gson.fromJson(body, WhatIfRequest.class);
+                    if (request == null) {
+                        request = new WhatIfRequest();
+                    }
+                } else {
+                    Map<String, String> params = parseFormData(exchange.getRequestURI().getRawQuery());
+                    request = new WhatIfRequest();
+                    request.months = params.containsKey("months") ? Integer.valueOf(params.get("months")) : null;
+                    request.trials = params.containsKey("trials") ? Integer.valueOf(params.get("trials")) : null;
+                    request.seed = params.containsKey("seed") ? Long.valueOf(params.get("seed")) : null;
+                }
+                
+                if (request.scenarios != null) {
+                    if (request.scenarios.size() >= WhatIfSimulator.MAX_SCENARIOS) {
+                        throw new IllegalArgumentException("At most " + (WhatIfSimulator.MAX_SCENARIOS - 1)
+                            + " scenarios are allowed besides the baseline");
+                    }
+                    for (ScenarioRequest scenarioRequest : request.scenarios) {
+                        scenarios.add(toScenario(scenarioRequest));
+                    }
+                }
+            } catch (RuntimeException e) {
+                sendJson(exchange, 400, Map.of("error", String.valueOf(e.getMessage())));
+                return;
+            }
+            
+            List<ScenarioResult> results;
+            try {
+                results = whatIfSimulator.simulate(scenarios,
+                    request.months != null ? request.months : DEFAULT_MONTHS,
+                    request.trials != null ? request.trials : DEFAULT_TRIALS,
+                    request.seed != null ? request.seed : DEFAULT_SEED);
+            } catch (IllegalArgumentException e) {
+                sendJson(exchange, 400, Map.of("error", e.getMessage()));
+                return;
+            }
+            sendJson(exchange, 200, results);
+        }
+        
+        private Scenario toScenario(ScenarioRequest request) {
+            Scenario scenario = new Scenario(request.name != null ? request.name : "Scenario");
+            if (request.adjustments == null) {
+                return scenario;
+            }
+            
+            for (AdjustmentRequest adjustment : request.adjustments) {
+                if (adjustment.category == null) {
+                    throw new IllegalArgumentException("Every adjustment needs a category");
+                }
+                int categoryId = whatIfSimulator.resolveCategory(adjustment.category);
+                if (adjustment.moveTo != null) {
+                    if (adjustment.fraction == null) {
+                        throw new IllegalArgumentException("A move needs a fraction");
+                    }
+                    scenario.shift(categoryId, whatIfSimulator.resolveCategory(adjustment.moveTo), adjustment.fraction);
+                } else if (adjustment.change != null) {
+                    scenario.scale(categoryId, adjustment.change);
+                } else {
+                    throw new IllegalArgumentException("An adjustment needs a change or a moveTo");
+                }
+            }
+            return scenario;
+        }
         
-        // Helper class for combined transaction display
-        private static class TransactionItem {
-            LocalDate date;
-            String type;
-            String description;
+        private void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+            byte[] response = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        }
+        
+        private static class WhatIfRequest {
+            Integer months;
+            Integer trials;
+            Long seed;
+            List<ScenarioRequest> scenarios;
+        }
+        
+        private static class ScenarioRequest {
+            String name;
+            List<AdjustmentRequest> adjustments;
+        }
+        
+        private static class AdjustmentRequest {
             String category;
-            BigDecimal amount;
-            
-            TransactionItem(LocalDate date, String type, String description, String category, BigDecimal amount) {
-                this.date = date;
-                this.type = type;
-                this.description = description;
-                this.category = category;
-                this.amount = amount;
+            Double change;
+            String moveTo;
+            Double fraction;
+        }
+    }
+    
+    /**
+     * Monte Carlo balance forecast as percentile bands (?days=90&paths=10000&seed=)
+     */
+    static class ForecastHandler implements HttpHandler {
+        private static final int DEFAULT_DAYS = 90;
+        private static final int DEFAULT_PATHS = 10_000;
+        private static final long DEFAULT_SEED = 42;
+        
+        private final Gson gson = new Gson();
+        
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            Map<String, String> params = parseFormData(exchange.getRequestURI().getRawQuery());
+            Object body;
+            int status = 200;
+            try {
+                body = balanceForecaster.forecast(
+                    params.containsKey("days") ? Integer.parseInt(params.get("days")) : DEFAULT_DAYS,
+                    params.containsKey("paths") ? Integer.parseInt(params.get("paths")) : DEFAULT_PATHS,
+                    params.containsKey("seed") ? Long.parseLong(params.get("seed")) : DEFAULT_SEED);
+            } catch (IllegalArgumentException e) {
+                body = Map.of("error", String.valueOf(e.getMessage()));
+                status = 400;
+            }
+            
+            byte[] response = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
             }
         }
     }
-
+    
+    /**
+     * Category suggestions from descriptions.
+     * GET ?description= suggests for one; POST {"descriptions":["..."]} suggests for
+     * up to MAX_DESCRIPTIONS at once, for imports.
+     */
+    static class CategorizeHandler implements HttpHandler {
+        private static final int MAX_DESCRIPTIONS = 10_000;
+        
+        private final Gson gson = new Gson();
+        
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            Object body;
+            int status = 200;
+            if ("POST".equals(exchange.getRequestMethod())) {
+                CategorizeRequest request;
+                try {
+                    String json = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                    request = gson.fromJson(json, CategorizeRequest.class);
+                } catch (RuntimeException e) {
+                    request = null;
+                }
+                
+                if (request == null || request.descriptions == null) {
+                    body = Map.of("error", "Expected {\"descriptions\":[...]}");
+                    status = 400;
+                } else if (request.descriptions.size() > MAX_DESCRIPTIONS) {
+                    body = Map.of("error", "At most " + MAX_DESCRIPTIONS + " descriptions per request");
+                    status = 400;
+                } else {
+                    body = Map.of("suggestions", categorizer.suggestAll(request.descriptions));
+                }
+            } else {
+                Map<String, String> params = parseFormData(exchange.getRequestURI().getRawQuery());
+                body = categorizer.suggest(params.getOrDefault("description", ""));
+            }
+            
+            byte[] response = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        }
+        
+        private static class CategorizeRequest {
+            List<String> descriptions;
+        }
+    }
+    
+    /**
+     * Autocomplete from past entries, most used and most recent first.
+     * ?prefix=&type=expense|income&field=descriptions|categories&limit=10; both fields when none is given.
+     * Descriptions carry the category they are usually filed under.
+     */
+    static class SuggestHandler implements HttpHandler {
+        private static final int DEFAULT_LIMIT = 10;
+        private static final int MAX_LIMIT = 100;
+        
+        private final Gson gson = new Gson();
+        
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            Map<String, String> params = parseFormData(exchange.getRequestURI().getRawQuery());
+            int limit;
+            try {
+                limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : DEFAULT_LIMIT;
+            } catch (NumberFormatException e) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            limit = Math.max(1, Math.min(limit, MAX_LIMIT));
+            Transaction.Type type = "income".equalsIgnoreCase(params.get("type")) ? Transaction.Type.INCOME : Transaction.Type.EXPENSE;
+            String prefix = params.getOrDefault("prefix", "");
+            String field = params.getOrDefault("field", "");
+            
+            Map<String, List<Suggestion>> suggestions = new LinkedHashMap<>();
+            if (!"categories".equals(field)) {
+                suggestions.put("descriptions", suggestionIndex.suggestDescriptions(type, prefix, limit));
+            }
+            if (!"descriptions".equals(field)) {
+                suggestions.put("categories", suggestionIndex.suggestCategories(type, prefix, limit));
+            }
+            
+            byte[] response = gson.toJson(suggestions).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        }
+    }
+    
+    /**
+     * Expenses flagged as unusual, newest first (?limit=50)
+     */
+    static class AnomaliesHandler implements HttpHandler {
+        private static final int DEFAULT_LIMIT = 50;
+        private static final int MAX_LIMIT = 500;
+        
+        private final Gson gson = new Gson();
+        
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            Map<String, String> params = parseFormData(exchange.getRequestURI().getRawQuery());
+            int limit;
+            try {
+                limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : DEFAULT_LIMIT;
+            } catch (NumberFormatException e) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            limit = Math.max(1, Math.min(limit, MAX_LIMIT));
+            
+            List<Map<String, Object>> anomalies = new ArrayList<>();
+            for (ExpenseAnomaly anomaly : expenseAnomalyDAO.findRecent(limit)) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("expenseId", anomaly.getExpenseId());
+                row.put("categoryId", anomaly.getCategoryId());
+                row.put("description", anomaly.getDescription());
+                row.put("amount", anomaly.getAmount());
+                row.put("typicalAmount", anomaly.getTypicalAmount());
+                row.put("score", Math.round(anomaly.getScore() * 10) / 10.0);
+                row.put("flagged", anomaly.getCreatedDate() != null ? anomaly.getCreatedDate().toString() : null);
+                anomalies.add(row);
+            }
+            
+            byte[] response = gson.toJson(anomalies).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        }
+    }
+    
+    /**
+     * Detected recurring expenses.
+     * GET lists the active series and the entries due in the next 30 days (?days=, at most a year);
+     * POST records the next occurrence of a series (form field seriesId).
+     */
+    static class RecurringHandler implements HttpHandler {
+        private static final int DEFAULT_DAYS = 30;
+        private static final int MAX_DAYS = 366;
+        
+        private final Gson gson = new Gson();
+        
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            if ("POST".equals(exchange.getRequestMethod())) {
+                handleCreateNext(exchange);
+                return;
+            }
+            
+            Map<String, String> params = parseFormData(exchange.getRequestURI().getRawQuery());
+            int days;
+            try {
+                days = params.containsKey("days") ? Integer.parseInt(params.get("days")) : DEFAULT_DAYS;
+            } catch (NumberFormatException e) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            if (days < 1 || days > MAX_DAYS) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            
+            List<Map<String, Object>> series = new ArrayList<>();
+            for (RecurringSeries detected : recurringDetector.getSeries()) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("id", detected.getId());
+                row.put("description", detected.getDescription());
+                row.put("categoryId", detected.getCategoryId());
+                row.put("cadence", detected.getCadence().name());
+                row.put("amount", detected.getAmount());
+                row.put("occurrences", detected.getOccurrences());
+                row.put("lastDate", detected.getLastDate().toString());
+                row.put("nextDate", detected.getNextDate().toString());
+                row.put("confidence", detected.getConfidence());
+                series.add(row);
+            }
+            
+            List<Map<String, Object>> upcoming = new ArrayList<>();
+            for (UpcomingExpense entry : recurringDetector.getUpcoming(LocalDate.now().plusDays(days))) {
+                Expense expense = entry.getExpense();
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("seriesId", entry.getSeries().getId());
+                row.put("description", expense.getDescription());
+                row.put("categoryId", expense.getCategoryId());
+                row.put("amount", expense.getAmount());
+                row.put("date", expense.getExpenseDate().toString());
+                upcoming.add(row);
+            }
+            
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("series", series);
+            body.put("upcoming", upcoming);
+            byte[] response = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        }
+        
+        private void handleCreateNext(HttpExchange exchange) throws IOException {
+            try {
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                Map<String, String> formData = parseFormData(body);
+                int seriesId = Integer.parseInt(formData.get("seriesId"));
+                
+                if (recurringDetector.createNext(seriesId).isPresent()) {
+                    exchange.getResponseHeaders().set("Location", "/transactions?success=recurring-added");
+                } else {
+                    exchange.getResponseHeaders().set("Location", "/transactions?error=save-failed");
+                }
+                exchange.sendResponseHeaders(302, -1);
+            } catch (Exception e) {
+                exchange.getResponseHeaders().set("Location", "/transactions?error=invalid-data");
+                exchange.sendResponseHeaders(302, -1);
+            }
+        }
+    }
+    
     static class MonthlyDataHandler implements HttpHandler {
         @Override
         public void handle(HttpExchange exchange) throws IOException {
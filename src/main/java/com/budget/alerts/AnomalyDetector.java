@@ -0,0 +1,208 @@
+package com.budget.alerts;
+
+import com.budget.dao.ExpenseAnomalyDAO;
+import com.budget.dao.ExpenseDAO;
+import com.budget.events.ChangeBus;
+import com.budget.events.ChangeEvent;
+import com.budget.model.CategoryStatistics;
+import com.budget.model.Expense;
+import com.budget.model.ExpenseAnomaly;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Flags expenses that are unusually large for their category as they are written.
+ * Each category keeps streaming statistics of its log amounts (see
+ * CategoryStatistics): an expense is flagged when it lies more than
+ * Z_THRESHOLD standard deviations above the category mean and also above
+ * the decayed 99th percentile, so one old splurge or a gradual price rise
+ * doesn't keep everything quiet or flag everything. Each expense is scored
+ * against the statistics from before it and then added to them; the work is
+ * O(1) per expense.
+ *
+ * Flags and statistics are saved together after each batch of writes, along
+ * with the ID of the last expense the statistics include. At start-up the
+ * statistics are read back and only expenses created after that ID are
+ * replayed, so history is scanned once, the first time the detector runs.
+ * Edited expenses are re-scored but not re-learnt.
+ */
+public class AnomalyDetector {
+    private static final double Z_THRESHOLD = Double.parseDouble(System.getProperty("budget.anomaly.zThreshold", "3.0"));
+    private static final int HALF_LIFE = Integer.getInteger("budget.anomaly.halfLife", 200);
+    private static final double DECAY = Math.pow(0.5, 1.0 / HALF_LIFE);
+    private static final int MIN_OBSERVATIONS = 10;
+    private static final double TAIL_QUANTILE = 0.99;
+    private static final int QUEUE_CAPACITY = 4096;
+    private static final int MAX_BATCH = 256;
+    /** Expenses replayed per save while catching up */
+    private static final int REPLAY_BATCH = 5000;
+    
+    private final ExpenseDAO expenseDAO;
+    private final ExpenseAnomalyDAO anomalyDAO;
+    private final List<Consumer<ExpenseAnomaly>> subscribers = new CopyOnWriteArrayList<>();
+    
+    // Detector state; guarded by this, written on the change bus thread
+    private Map<Integer, CategoryStatistics> statistics = new HashMap<>();
+    private int lastExpenseId;
+    private ChangeBus.Subscription subscription;
+    
+    public AnomalyDetector(ExpenseDAO expenseDAO, ExpenseAnomalyDAO anomalyDAO) {
+        this.expenseDAO = expenseDAO;
+        this.anomalyDAO = anomalyDAO;
+    }
+    
+    /**
+     * Register a subscriber for new flags; subscribers run on the detector thread and must not block
+     */
+    public void addSubscriber(Consumer<ExpenseAnomaly> subscriber) {
+        subscribers.add(subscriber);
+    }
+    
+    /**
+     * Subscribe to expense changes, restore the saved statistics and catch up on expenses created since
+     */
+    public synchronized void start() {
+        // Subscribe first so no write is missed; creates the catch-up already saw are skipped by ID
+        subscription = ChangeBus.subscribe("anomalies", EnumSet.of(ChangeEvent.Entity.EXPENSE),
+            ChangeBus.Backpressure.BLOCK, QUEUE_CAPACITY, MAX_BATCH, this::onChanges);
+        
+        statistics = anomalyDAO.loadStatistics(DECAY);
+        lastExpenseId = anomalyDAO.findLastExpenseId();
+        Batch[] replay = {new Batch()};
+        expenseDAO.scanAfter(lastExpenseId, expense -> {
+            observe(expense, replay[0]);
+            if (replay[0].observed >= REPLAY_BATCH) {
+                save(replay[0]);
+                replay[0] = new Batch();
+            }
+        });
+        save(replay[0]);
+    }
+    
+    public void stop() {
+        if (subscription != null) {
+            subscription.close();
+        }
+    }
+    
+    private synchronized void onChanges(List<ChangeEvent> events) {
+        Batch batch = new Batch();
+        for (ChangeEvent event : events) {
+            Expense expense = event.getPayload(Expense.class);
+            if (event.getOperation() == ChangeEvent.Operation.CREATE && expense != null) {
+                if (expense.getId() > lastExpenseId) {
+                    observe(expense, batch);
+                }
+            } else if (expense != null) {
+                rescore(expense, batch);
+            } else {
+                batch.clear(event.getId());
+            }
+        }
+        save(batch);
+    }
+    
+    /**
+     * Score a new expense against its category, then learn from it
+     */
+    private void observe(Expense expense, Batch batch) {
+        lastExpenseId = Math.max(lastExpenseId, expense.getId());
+        batch.observed++;
+        if (!isScorable(expense)) {
+            return;
+        }
+        
+        CategoryStatistics stats = statistics.computeIfAbsent(expense.getCategoryId(), id -> new CategoryStatistics(id, DECAY));
+        ExpenseAnomaly anomaly = score(expense, stats);
+        if (anomaly != null) {
+            batch.flag(anomaly);
+        }
+        stats.add(expense.getAmount().doubleValue());
+        batch.changed.add(stats);
+    }
+    
+    /**
+     * Re-score an edited expense without learning from it again
+     */
+    private void rescore(Expense expense, Batch batch) {
+        CategoryStatistics stats = isScorable(expense) ? statistics.get(expense.getCategoryId()) : null;
+        ExpenseAnomaly anomaly = stats != null ? score(expense, stats) : null;
+        if (anomaly != null) {
+            batch.flag(anomaly);
+        } else {
+            batch.clear(expense.getId());
+        }
+    }
+    
+    private static boolean isScorable(Expense expense) {
+        return expense.getAmount() != null && expense.getAmount().signum() > 0;
+    }
+    
+    /**
+     * @return the anomaly, or null if the expense is ordinary for its category
+     */
+    private static ExpenseAnomaly score(Expense expense, CategoryStatistics stats) {
+        if (stats.getCount() < MIN_OBSERVATIONS) {
+            return null;
+        }
+        double amount = expense.getAmount().doubleValue();
+        double z = stats.zScore(amount);
+        if (z < Z_THRESHOLD || amount <= stats.quantile(TAIL_QUANTILE)) {
+            return null;
+        }
+        BigDecimal typical = BigDecimal.valueOf(stats.quantile(0.5)).setScale(2, RoundingMode.HALF_UP);
+        return new ExpenseAnomaly(expense.getId(), expense.getCategoryId(), expense.getDescription(),
+            expense.getAmount(), typical, z);
+    }
+    
+    private void save(Batch batch) {
+        if (batch.size() == 0) {
+            return;
+        }
+        if (anomalyDAO.save(batch.flagged.values(), batch.cleared, batch.changed, lastExpenseId)) {
+            for (ExpenseAnomaly anomaly : batch.flagged.values()) {
+                for (Consumer<ExpenseAnomaly> subscriber : subscribers) {
+                    try {
+                        subscriber.accept(anomaly);
+                    } catch (RuntimeException e) {
+                        System.err.println("Error notifying anomaly subscriber: " + e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Detector output waiting to be saved; a later verdict on the same expense replaces an earlier one
+     */
+    private static final class Batch {
+        final Map<Integer, ExpenseAnomaly> flagged = new LinkedHashMap<>();
+        final Set<Integer> cleared = new LinkedHashSet<>();
+        final Set<CategoryStatistics> changed = new LinkedHashSet<>();
+        int observed;
+        
+        void flag(ExpenseAnomaly anomaly) {
+            cleared.remove(anomaly.getExpenseId());
+            flagged.put(anomaly.getExpenseId(), anomaly);
+        }
+        
+        void clear(int expenseId) {
+            flagged.remove(expenseId);
+            cleared.add(expenseId);
+        }
+        
+        int size() {
+            return flagged.size() + cleared.size() + changed.size();
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.budget.alerts;
+
+import com.budget.dao.BudgetAlertDAO;
+import com.budget.dao.BudgetDAO;
+import com.budget.dao.ExpenseDAO;
+import com.budget.events.ChangeBus;
+import com.budget.events.ChangeEvent;
+import com.budget.model.Budget;
+import com.budget.model.BudgetAlert;
+import com.budget.model.BudgetStatus;
+import com.budget.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Raises an alert the moment a budget crosses into Near Limit or Over Budget.
+ * Running spent totals for every current budget are kept in memory and
+ * adjusted by each committed expense write from the change bus: the write's
+ * old contribution is backed out and its new one added. The budgets a write
+ * falls in come from the budget interval index, so a write costs O(log n + k)
+ * with no query. The database is only read at
+ * start-up and when a budget itself is created or changed.
+ *
+ * Alerts fire on upward crossings only. A budget that drops back below a
+ * threshold can alert again if it crosses it again. Status listeners hear
+ * about every change of status, in either direction, with the running total
+ * behind it. The last alerted status
+ * is read back from the budget_alerts table on start-up, so a restart does
+ * not repeat alerts but does catch crossings that happened while stopped.
+ */
+public class BudgetAlertEngine {
+    private static final int QUEUE_CAPACITY = 4096;
+    private static final int MAX_BATCH = 256;
+    private static final LocalDate OPEN_END = LocalDate.of(2099, 12, 31);
+    
+    private final BudgetDAO budgetDAO;
+    private final ExpenseDAO expenseDAO;
+    private final BudgetAlertDAO alertDAO;
+    private final List<Consumer<BudgetAlert>> subscribers = new CopyOnWriteArrayList<>();
+    private final List<StatusListener> statusListeners = new CopyOnWriteArrayList<>();
+    
+    // Engine state; guarded by this, written on the change bus thread
+    private final Map<Integer, Tracker> trackers = new HashMap<>();
+    private final Map<Integer, List<Tracker>> trackersByCategory = new HashMap<>();
+    private final Map<Integer, Contribution> contributions = new HashMap<>();
+    private Map<Integer, BudgetStatus> lastAlerted = new HashMap<>();
+    private ChangeBus.Subscription subscription;
+    
+    public BudgetAlertEngine(BudgetDAO budgetDAO, ExpenseDAO expenseDAO, BudgetAlertDAO alertDAO) {
+        this.budgetDAO = budgetDAO;
+        this.expenseDAO = expenseDAO;
+        this.alertDAO = alertDAO;
+    }
+    
+    /**
+     * Register a subscriber for new alerts; subscribers run on the engine thread and must not block
+     */
+    public void addSubscriber(Consumer<BudgetAlert> subscriber) {
+        subscribers.add(subscriber);
+    }
+    
+    /**
+     * Register a listener for status changes; listeners run on the engine thread and must not block
+     */
+    public void addStatusListener(StatusListener listener) {
+        statusListeners.add(listener);
+    }
+    
+    /**
+     * Subscribe to expense and budget changes, then load the current budgets
+     */
+    public synchronized void start() {
+        // Subscribe first so no write is missed; events already reflected in the load are applied idempotently
+        subscription = ChangeBus.subscribe("budget-alerts",
+            EnumSet.of(ChangeEvent.Entity.EXPENSE, ChangeEvent.Entity.BUDGET, ChangeEvent.Entity.CATEGORY),
+            ChangeBus.Backpressure.BLOCK, QUEUE_CAPACITY, MAX_BATCH, this::onChanges);
+        
+        lastAlerted = alertDAO.findLatestStatusByBudget();
+        LocalDate today = LocalDate.now();
+        for (Budget budget : budgetDAO.findAll()) {
+            if (budget.getEndDate() == null || !budget.getEndDate().isBefore(today)) {
+                track(budget, lastAlerted.getOrDefault(budget.getId(), BudgetStatus.ON_TRACK), today);
+            }
+        }
+    }
+    
+    public void stop() {
+        if (subscription != null) {
+            subscription.close();
+        }
+    }
+    
+    /**
+     * Get the current running total for a budget, or null if it isn't tracked
+     */
+    public synchronized BigDecimal getSpent(int budgetId) {
+        Tracker tracker = trackers.get(budgetId);
+        return tracker != null ? tracker.spent : null;
+    }
+    
+    /**
+     * Get the current status for a budget, or null if it isn't tracked
+     */
+    public synchronized BudgetStatus getStatus(int budgetId) {
+        Tracker tracker = trackers.get(budgetId);
+        return tracker != null ? tracker.status : null;
+    }
+    
+    private synchronized void onChanges(List<ChangeEvent> events) {
+        // The whole batch is evaluated against one date, even if it is delivered across midnight
+        LocalDate today = LocalDate.now();
+        for (ChangeEvent event : events) {
+            switch (event.getEntity()) {
+                case EXPENSE:
+                    onExpenseChange(event, today);
+                    break;
+                case BUDGET:
+                    Tracker previous = untrack(event.getId());
+                    Budget budget = event.getPayload(Budget.class);
+                    if (budget != null) {
+                        track(budget, previous != null ? previous.status : BudgetStatus.ON_TRACK, today);
+                    }
+                    break;
+                case CATEGORY:
+                    if (event.getOperation() == ChangeEvent.Operation.DELETE) {
+                        // Deleting a category cascades to its budgets and expenses without further events
+                        for (Tracker tracker : new ArrayList<>(trackersByCategory.getOrDefault(event.getId(), List.of()))) {
+                            untrack(tracker.budget.getId());
+                        }
+                        contributions.values().removeIf(c -> c.categoryId == event.getId());
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+    
+    private void onExpenseChange(ChangeEvent event, LocalDate today) {
+        Set<Tracker> touched = new HashSet<>();
+        
+        // A create can arrive for a row the start-up load already counted; treat it like an update
+        Contribution previous = contributions.remove(event.getId());
+        if (previous != null) {
+            apply(previous, previous.amount.negate(), touched);
+        }
+        
+        Expense expense = event.getPayload(Expense.class);
+        if (expense != null && expense.getAmount() != null && expense.getExpenseDate() != null) {
+            Contribution contribution = new Contribution(expense.getCategoryId(), expense.getExpenseDate(), expense.getAmount());
+            if (apply(contribution, contribution.amount, touched)) {
+                contributions.put(event.getId(), contribution);
+            }
+        }
+        
+        // Evaluate once both halves are in, so editing an expense doesn't dip below and re-cross a threshold
+        for (Tracker tracker : touched) {
+            evaluate(tracker, today);
+        }
+    }
+    
+    /**
+     * Add an amount to every budget the contribution falls in
+     * @return true if any budget covers it
+     */
+    private boolean apply(Contribution contribution, BigDecimal delta, Set<Tracker> touched) {
+        if (!trackersByCategory.containsKey(contribution.categoryId)) {
+            return false;
+        }
+        
+        // The index may already hold a budget change this engine hasn't seen yet; that change's
+        // own event re-reads the budget, so only count trackers that agree with the index
+        boolean covered = false;
+        for (Budget budget : budgetDAO.findCovering(contribution.categoryId, contribution.date)) {
+            Tracker tracker = trackers.get(budget.getId());
+            if (tracker != null && tracker.covers(contribution.date)) {
+                tracker.spent = tracker.spent.add(delta);
+                touched.add(tracker);
+                covered = true;
+            }
+        }
+        return covered;
+    }
+    
+    private void track(Budget budget, BudgetStatus status, LocalDate today) {
+        Tracker tracker = new Tracker(budget);
+        tracker.status = status;
+        trackers.put(budget.getId(), tracker);
+        trackersByCategory.computeIfAbsent(budget.getCategoryId(), id -> new ArrayList<>()).add(tracker);
+        
+        // The one query per budget: pick up the expenses already in its window
+        LocalDate end = budget.getEndDate() != null ? budget.getEndDate() : OPEN_END;
+        for (Expense expense : expenseDAO.findByCategoryAndDateRange(budget.getCategoryId(), budget.getStartDate(), end)) {
+            Contribution existing = contributions.get(expense.getId());
+            if (existing == null) {
+                contributions.put(expense.getId(), new Contribution(expense.getCategoryId(), expense.getExpenseDate(), expense.getAmount()));
+            }
+            tracker.spent = tracker.spent.add(existing != null ? existing.amount : expense.getAmount());
+        }
+        evaluate(tracker, today);
+    }
+    
+    private Tracker untrack(int budgetId) {
+        Tracker tracker = trackers.remove(budgetId);
+        if (tracker == null) {
+            return null;
+        }
+        
+        List<Tracker> siblings = trackersByCategory.get(tracker.budget.getCategoryId());
+        siblings.remove(tracker);
+        if (siblings.isEmpty()) {
+            trackersByCategory.remove(tracker.budget.getCategoryId());
+        }
+        
+        // Forget contributions no remaining budget covers
+        for (Iterator<Contribution> it = contributions.values().iterator(); it.hasNext();) {
+            Contribution contribution = it.next();
+            if (contribution.categoryId == tracker.budget.getCategoryId()
+                    && (siblings.isEmpty() || siblings.stream().noneMatch(t -> t.covers(contribution.date)))) {
+                it.remove();
+            }
+        }
+        return tracker;
+    }
+    
+    private void evaluate(Tracker tracker, LocalDate today) {
+        Budget budget = tracker.budget;
+        double percentage = budget.getAmount().doubleValue() > 0 ?
+            (tracker.spent.doubleValue() / budget.getAmount().doubleValue()) * 100 : 0;
+        BudgetStatus status = BudgetStatus.of(percentage);
+        BudgetStatus previous = tracker.status;
+        tracker.status = status;
+        
+        if (status.ordinal() > previous.ordinal() && budget.isActiveOn(today)) {
+            raise(new BudgetAlert(budget.getId(), budget.getCategoryId(), status, tracker.spent, budget.getAmount(), percentage));
+        }
+        if (status != previous) {
+            for (StatusListener listener : statusListeners) {
+                try {
+                    listener.statusChanged(budget, status, tracker.spent, percentage);
+                } catch (RuntimeException e) {
+                    System.err.println("Error notifying budget status listener: " + e.getMessage());
+                }
+            }
+        }
+    }
+    
+    private void raise(BudgetAlert alert) {
+        lastAlerted.put(alert.getBudgetId(), alert.getStatus());
+        alertDAO.create(alert);
+        
+        for (Consumer<BudgetAlert> subscriber : subscribers) {
+            try {
+                subscriber.accept(alert);
+            } catch (RuntimeException e) {
+                System.err.println("Error notifying budget alert subscriber: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Told when a budget's status changes
+     */
+    @FunctionalInterface
+    public interface StatusListener {
+        void statusChanged(Budget budget, BudgetStatus status, BigDecimal spent, double percentage);
+    }
+    
+    /**
+     * Running total for one budget
+     */
+    private static class Tracker {
+        final Budget budget;
+        BigDecimal spent = BigDecimal.ZERO;
+        BudgetStatus status;
+        
+        Tracker(Budget budget) {
+            this.budget = budget;
+        }
+        
+        boolean covers(LocalDate date) {
+            return budget.isActiveOn(date);
+        }
+    }
+    
+    /**
+     * What one expense currently adds to the budgets covering it
+     */
+    private static class Contribution {
+        final int categoryId;
+        final LocalDate date;
+        final BigDecimal amount;
+        
+        Contribution(int categoryId, LocalDate date, BigDecimal amount) {
+            this.categoryId = categoryId;
+            this.date = date;
+            this.amount = amount;
+        }
+    }
+}
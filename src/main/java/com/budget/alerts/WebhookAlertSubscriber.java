@@ -0,0 +1,82 @@
+package com.budget.alerts;
+
+import com.budget.model.BudgetAlert;
+import com.google.gson.JsonObject;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Posts each budget alert as JSON to a webhook URL.
+ * With no URL configured (budget.alerts.webhookUrl) this is a stub that only
+ * logs what it would have sent. Requests are asynchronous so the alert
+ * engine never waits on the network.
+ */
+public class WebhookAlertSubscriber implements Consumer<BudgetAlert> {
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    
+    private final String url;
+    private final OkHttpClient client;
+    
+    public WebhookAlertSubscriber() {
+        this(System.getProperty("budget.alerts.webhookUrl", ""));
+    }
+    
+    public WebhookAlertSubscriber(String url) {
+        this.url = url;
+        this.client = new OkHttpClient.Builder()
+            .callTimeout(Duration.ofSeconds(5))
+            .build();
+    }
+    
+    @Override
+    public void accept(BudgetAlert alert) {
+        String body = toJson(alert).toString();
+        if (url.isEmpty()) {
+            System.out.println("📮 Budget alert webhook (not configured) would post: " + body);
+            return;
+        }
+        
+        Request request = new Request.Builder()
+            .url(url)
+            .post(RequestBody.create(body, JSON))
+            .build();
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                System.err.println("Error posting budget alert webhook: " + e.getMessage());
+            }
+            
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        System.err.println("Budget alert webhook returned HTTP " + response.code());
+                    }
+                }
+            }
+        });
+    }
+    
+    private static JsonObject toJson(BudgetAlert alert) {
+        JsonObject json = new JsonObject();
+        json.addProperty("id", alert.getId());
+        json.addProperty("budgetId", alert.getBudgetId());
+        json.addProperty("categoryId", alert.getCategoryId());
+        json.addProperty("status", alert.getStatus().name());
+        json.addProperty("label", alert.getStatus().getLabel());
+        json.addProperty("spent", alert.getSpent());
+        json.addProperty("amount", alert.getAmount());
+        json.addProperty("percentage", Math.round(alert.getPercentage()));
+        json.addProperty("createdDate", alert.getCreatedDate() != null ? alert.getCreatedDate().toString() : null);
+        return json;
+    }
+}
@@ -0,0 +1,312 @@
+package com.budget.categorization;
+
+import com.budget.dao.CategoryDAO;
+import com.budget.dao.ExpenseDAO;
+import com.budget.dictionary.DescriptionDictionary;
+import com.budget.events.ChangeBus;
+import com.budget.events.ChangeEvent;
+import com.budget.model.Category;
+import com.budget.model.Expense;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Suggests expense categories from descriptions.
+ * Answers come from, in order: an LRU cache of recent decisions keyed by the
+ * normalised description, the in-process CategoryModel, and, for whatever
+ * the model isn't confident about, an optional remote suggestion service
+ * asked in batches behind a circuit breaker. A remote answer is only taken
+ * if it names a known expense category and is more confident than the
+ * model. Decisions made while the service was wanted but unavailable are
+ * not cached, so the service gets asked again once it recovers.
+ *
+ * The model is built from one scan of the expenses at start-up and then kept
+ * current from the change bus. What each expense taught it (merchant,
+ * description and category) is remembered by expense ID, so an edit is
+ * unlearnt by decrementing the old counts before the new ones are added, and
+ * a delete just decrements. Category changes only move the expenses of
+ * categories that joined or left the expense categories in or out of the
+ * model. None of this goes back to the database for expenses.
+ */
+public class Categorizer {
+    private static final double LOCAL_CONFIDENCE = 0.6;
+    private static final int CACHE_SIZE = Integer.getInteger("budget.categorize.cacheSize", 10_000);
+    private static final int QUEUE_CAPACITY = 4096;
+    private static final int MAX_BATCH = 256;
+    
+    private final ExpenseDAO expenseDAO;
+    private final CategoryDAO categoryDAO;
+    private final RemoteSuggester remote;
+    
+    // Guarded by itself; access-ordered so the least recently used decision is evicted first
+    private final Map<String, CategorySuggestion> cache = new LinkedHashMap<>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CategorySuggestion> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+    private volatile CategoryModel model = new CategoryModel();
+    private volatile Map<Integer, String> names = Map.of();
+    private volatile Map<String, Integer> idsByName = Map.of();
+    
+    // What each expense taught the model, by expense ID; guarded by this
+    private final Map<Integer, Learnt> learnt = new HashMap<>();
+    private ChangeBus.Subscription subscription;
+    
+    /**
+     * @param remote the suggestion service, or null to use the local model only
+     */
+    public Categorizer(ExpenseDAO expenseDAO, CategoryDAO categoryDAO, SuggestionClient remote) {
+        this(expenseDAO, categoryDAO, remote != null ? new RemoteSuggester(remote) : null);
+    }
+    
+    Categorizer(ExpenseDAO expenseDAO, CategoryDAO categoryDAO, RemoteSuggester remote) {
+        this.expenseDAO = expenseDAO;
+        this.categoryDAO = categoryDAO;
+        this.remote = remote;
+    }
+    
+    /**
+     * Subscribe to expense and category changes, then build the model
+     */
+    public synchronized void start() {
+        // Subscribe first so no write is missed; a change the build already saw is unlearnt and learnt again
+        subscription = ChangeBus.subscribe("categorizer",
+            EnumSet.of(ChangeEvent.Entity.EXPENSE, ChangeEvent.Entity.CATEGORY),
+            ChangeBus.Backpressure.BLOCK, QUEUE_CAPACITY, MAX_BATCH, this::onChanges);
+        build();
+    }
+    
+    public void stop() {
+        if (subscription != null) {
+            subscription.close();
+        }
+    }
+    
+    /**
+     * Suggest a category for one description
+     */
+    public CategorySuggestion suggest(String description) {
+        return suggestAll(List.of(description)).get(0);
+    }
+    
+    /**
+     * Suggest categories for many descriptions, such as the rows of an import.
+     * Repeated descriptions are decided once, and the remote service is asked
+     * about each distinct uncertain description at most once.
+     * @return one suggestion per description, in order
+     */
+    public List<CategorySuggestion> suggestAll(List<String> descriptions) {
+        CategoryModel current = model;
+        Map<Integer, String> currentNames = names;
+        CategorySuggestion[] suggestions = new CategorySuggestion[descriptions.size()];
+        // Uncertain descriptions by cache key, with the rows that share each one
+        Map<String, List<Integer>> uncertain = new LinkedHashMap<>();
+        
+        for (int i = 0; i < suggestions.length; i++) {
+            String key = CategoryModel.normalise(descriptions.get(i));
+            if (key.isEmpty()) {
+                suggestions[i] = CategorySuggestion.none();
+                continue;
+            }
+            List<Integer> rows = uncertain.get(key);
+            if (rows != null) {
+                rows.add(i);
+                continue;
+            }
+            
+            CategorySuggestion cached;
+            synchronized (cache) {
+                cached = cache.get(key);
+            }
+            if (cached != null) {
+                suggestions[i] = cached;
+                continue;
+            }
+            
+            CategorySuggestion local = current.classify(key);
+            local = local.named(currentNames.get(local.getCategoryId()));
+            suggestions[i] = local;
+            if (remote == null || local.getConfidence() >= LOCAL_CONFIDENCE) {
+                remember(key, local, current);
+            } else {
+                rows = new ArrayList<>(1);
+                rows.add(i);
+                uncertain.put(key, rows);
+            }
+        }
+        
+        if (!uncertain.isEmpty()) {
+            askRemote(uncertain, suggestions, current);
+        }
+        return List.of(suggestions);
+    }
+    
+    private void askRemote(Map<String, List<Integer>> uncertain, CategorySuggestion[] suggestions, CategoryModel current) {
+        List<String> keys = new ArrayList<>(uncertain.keySet());
+        RemoteSuggestion[] answers = remote.suggest(keys);
+        Map<String, Integer> currentIds = idsByName;
+        
+        for (int k = 0; k < keys.size(); k++) {
+            RemoteSuggestion answer = answers[k];
+            if (answer == null) {
+                // Unavailable: keep the model's guess, but don't remember it
+                continue;
+            }
+            
+            List<Integer> rows = uncertain.get(keys.get(k));
+            CategorySuggestion decision = suggestions[rows.get(0)];
+            Integer categoryId = answer.getCategory() != null ? currentIds.get(answer.getCategory().toLowerCase(Locale.ROOT)) : null;
+            if (categoryId != null && answer.getConfidence() > decision.getConfidence()) {
+                decision = new CategorySuggestion(categoryId, names.get(categoryId),
+                    Math.min(1, answer.getConfidence()), CategorySuggestion.Source.REMOTE);
+            }
+            remember(keys.get(k), decision, current);
+            suggestions[rows.get(0)] = decision;
+        }
+        
+        // Rows that repeated an uncertain description take its final decision
+        for (List<Integer> rows : uncertain.values()) {
+            for (int row : rows) {
+                suggestions[row] = suggestions[rows.get(0)];
+            }
+        }
+    }
+    
+    /**
+     * Cache a decision, unless the model it came from has since been replaced
+     */
+    private void remember(String key, CategorySuggestion decision, CategoryModel source) {
+        synchronized (cache) {
+            if (model == source) {
+                cache.put(key, decision);
+            }
+        }
+    }
+    
+    private synchronized void onChanges(List<ChangeEvent> events) {
+        boolean categoriesChanged = false;
+        for (ChangeEvent event : events) {
+            if (event.getEntity() == ChangeEvent.Entity.CATEGORY) {
+                categoriesChanged = true;
+                continue;
+            }
+            // Creates, edits and deletes alike: take back what the expense taught before, then learn its new row
+            unlearn(learnt.remove(event.getId()));
+            Expense expense = event.getPayload(Expense.class);
+            if (expense != null) {
+                learn(expense.getId(), new Learnt(expense));
+            }
+        }
+        if (categoriesChanged) {
+            refreshCategories();
+        }
+    }
+    
+    private void learn(int expenseId, Learnt entry) {
+        learnt.put(expenseId, entry);
+        if (names.containsKey(entry.categoryId)) {
+            model.add(entry.descriptionId, entry.description(), entry.categoryId);
+            forget(entry);
+        }
+    }
+    
+    private void unlearn(Learnt entry) {
+        if (entry != null && names.containsKey(entry.categoryId)) {
+            model.remove(entry.descriptionId, entry.description(), entry.categoryId);
+            forget(entry);
+        }
+    }
+    
+    private void forget(Learnt entry) {
+        String key = CategoryModel.normalise(entry.description());
+        synchronized (cache) {
+            cache.remove(key);
+        }
+    }
+    
+    /**
+     * Move expenses in or out of the model as their categories become, or stop being, expense categories
+     */
+    private void refreshCategories() {
+        Map<Integer, String> categoryNames = expenseCategoryNames();
+        if (!categoryNames.keySet().equals(names.keySet())) {
+            for (Learnt entry : learnt.values()) {
+                boolean was = names.containsKey(entry.categoryId);
+                boolean is = categoryNames.containsKey(entry.categoryId);
+                if (was && !is) {
+                    model.remove(entry.descriptionId, entry.description(), entry.categoryId);
+                } else if (is && !was) {
+                    model.add(entry.descriptionId, entry.description(), entry.categoryId);
+                }
+            }
+        }
+        // Cached decisions carry category names, so a rename invalidates them too
+        install(model, categoryNames);
+    }
+    
+    /**
+     * Build a fresh model from every expense and swap it in
+     */
+    private synchronized void build() {
+        Map<Integer, String> categoryNames = expenseCategoryNames();
+        CategoryModel built = new CategoryModel();
+        learnt.clear();
+        expenseDAO.scan(expense -> {
+            Learnt entry = new Learnt(expense);
+            learnt.put(expense.getId(), entry);
+            if (categoryNames.containsKey(entry.categoryId)) {
+                built.add(entry.descriptionId, entry.description(), entry.categoryId);
+            }
+        });
+        install(built, categoryNames);
+    }
+    
+    private Map<Integer, String> expenseCategoryNames() {
+        Map<Integer, String> categoryNames = new HashMap<>();
+        for (Category category : categoryDAO.findByType(Category.CategoryType.EXPENSE)) {
+            categoryNames.put(category.getId(), category.getName());
+        }
+        return categoryNames;
+    }
+    
+    /**
+     * Replace the model and the expense categories it may suggest, forgetting every cached decision
+     */
+    void install(CategoryModel built, Map<Integer, String> categoryNames) {
+        Map<String, Integer> categoryIds = new HashMap<>();
+        categoryNames.forEach((id, name) -> categoryIds.put(name.toLowerCase(Locale.ROOT), id));
+        names = categoryNames;
+        idsByName = categoryIds;
+        synchronized (cache) {
+            model = built;
+            cache.clear();
+        }
+    }
+    
+    /**
+     * What one expense taught the model. The description is looked up in the
+     * dictionary by ID when it has one, which gives the same words back.
+     */
+    private static final class Learnt {
+        final int descriptionId;
+        final String description;
+        final int categoryId;
+        
+        Learnt(Expense expense) {
+            this.descriptionId = expense.getDescriptionId();
+            this.description = descriptionId > 0 ? null : expense.getDescription();
+            this.categoryId = expense.getCategoryId();
+        }
+        
+        String description() {
+            return description != null ? description : DescriptionDictionary.display(descriptionId);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.budget.categorization;
+
+import com.budget.dictionary.DescriptionDictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+
+/**
+ * In-process category model built from past expense descriptions.
+ * Two frequency tables map to per-category counts held in int arrays indexed
+ * by a dense category slot: one keyed by merchant (the description's ID in
+ * the description dictionary) and one keyed by every word. A merchant that has been filed
+ * under one category nearly every time decides on its own; otherwise the
+ * word table scores each category as a multinomial naive Bayes classifier
+ * with add-one smoothing. Words never seen before are ignored.
+ *
+ * Descriptions are cleaned by the dictionary first and words are runs of
+ * letters, so reference numbers and dates don't split one merchant into
+ * many. Adding a description, removing one and classifying one
+ * are all linear in its words times the number of categories.
+ */
+class CategoryModel {
+    private static final Pattern NON_LETTERS = Pattern.compile("[^\\p{L}]+");
+    private static final int MIN_MERCHANT_COUNT = 2;
+    private static final double MERCHANT_SHARE = 0.8;
+    
+    private final Map<Integer, Integer> slots = new HashMap<>();
+    private int[] categoryIds = new int[8];
+    private int[] documents = new int[8];
+    private long[] wordTotals = new long[8];
+    private int categoryCount;
+    private int totalDocuments;
+    private final Map<Integer, int[]> merchantCounts = new HashMap<>();
+    private final Map<String, int[]> wordCounts = new HashMap<>();
+    private final ToIntFunction<String> descriptionIds;
+    
+    CategoryModel() {
+        this(DescriptionDictionary::idOf);
+    }
+    
+    /**
+     * @param descriptionIds looks up the dictionary ID of a description being classified
+     */
+    CategoryModel(ToIntFunction<String> descriptionIds) {
+        this.descriptionIds = descriptionIds;
+    }
+    
+    /**
+     * Split a description into its lower-case words
+     */
+    static List<String> words(String description) {
+        List<String> words = new ArrayList<>();
+        for (String word : NON_LETTERS.split(normalise(description))) {
+            if (word.length() > 1) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+    
+    /**
+     * The key descriptions are cached under: their dictionary key, which decides both tables' lookups
+     */
+    static String normalise(String description) {
+        return DescriptionDictionary.key(description);
+    }
+    
+    /**
+     * Learn that a description was filed under a category
+     */
+    synchronized void add(int descriptionId, String description, int categoryId) {
+        List<String> words = words(description);
+        if (words.isEmpty()) {
+            return;
+        }
+        
+        int slot = slot(categoryId);
+        documents[slot]++;
+        totalDocuments++;
+        if (descriptionId > 0) {
+            increment(merchantCounts, descriptionId, slot);
+        }
+        for (String word : words) {
+            increment(wordCounts, word, slot);
+            wordTotals[slot]++;
+        }
+    }
+    
+    /**
+     * Unlearn a description added earlier under the same category, e.g. after an edit or delete
+     */
+    synchronized void remove(int descriptionId, String description, int categoryId) {
+        List<String> words = words(description);
+        Integer slot = slots.get(categoryId);
+        if (words.isEmpty() || slot == null) {
+            return;
+        }
+        
+        documents[slot]--;
+        totalDocuments--;
+        if (descriptionId > 0) {
+            decrement(merchantCounts, descriptionId, slot);
+        }
+        for (String word : words) {
+            decrement(wordCounts, word, slot);
+            wordTotals[slot]--;
+        }
+    }
+    
+    /**
+     * Suggest a category for a description; the suggestion carries no category name
+     */
+    synchronized CategorySuggestion classify(String description) {
+        List<String> words = words(description);
+        if (words.isEmpty() || categoryCount == 0) {
+            return CategorySuggestion.none();
+        }
+        
+        int[] merchant = merchantCounts.get(descriptionIds.applyAsInt(description));
+        if (merchant != null) {
+            int best = argMax(merchant);
+            int total = Arrays.stream(merchant).sum();
+            double share = (double) merchant[best] / total;
+            if (total >= MIN_MERCHANT_COUNT && share >= MERCHANT_SHARE) {
+                // Discount small samples: two out of two is less certain than fifty out of fifty
+                double confidence = share * total / (total + 1.0);
+                return new CategorySuggestion(categoryIds[best], null, confidence, CategorySuggestion.Source.MERCHANT);
+            }
+        }
+        
+        double[] scores = new double[categoryCount];
+        boolean known = false;
+        double vocabulary = wordCounts.size();
+        for (int slot = 0; slot < categoryCount; slot++) {
+            scores[slot] = Math.log((documents[slot] + 1.0) / (totalDocuments + categoryCount));
+        }
+        for (String word : words) {
+            int[] counts = wordCounts.get(word);
+            if (counts == null) {
+                continue;
+            }
+            known = true;
+            for (int slot = 0; slot < categoryCount; slot++) {
+                int count = slot < counts.length ? counts[slot] : 0;
+                scores[slot] += Math.log((count + 1.0) / (wordTotals[slot] + vocabulary));
+            }
+        }
+        if (!known) {
+            return CategorySuggestion.none();
+        }
+        
+        // Softmax of the log scores gives the posterior of the winner
+        int best = 0;
+        for (int slot = 1; slot < categoryCount; slot++) {
+            if (scores[slot] > scores[best]) {
+                best = slot;
+            }
+        }
+        double total = 0;
+        for (int slot = 0; slot < categoryCount; slot++) {
+            total += Math.exp(scores[slot] - scores[best]);
+        }
+        return new CategorySuggestion(categoryIds[best], null, 1 / total, CategorySuggestion.Source.MODEL);
+    }
+    
+    /**
+     * Number of descriptions learnt
+     */
+    synchronized int size() {
+        return totalDocuments;
+    }
+    
+    private int slot(int categoryId) {
+        Integer slot = slots.get(categoryId);
+        if (slot != null) {
+            return slot;
+        }
+        if (categoryCount == categoryIds.length) {
+            categoryIds = Arrays.copyOf(categoryIds, categoryCount * 2);
+            documents = Arrays.copyOf(documents, categoryCount * 2);
+            wordTotals = Arrays.copyOf(wordTotals, categoryCount * 2);
+        }
+        categoryIds[categoryCount] = categoryId;
+        slots.put(categoryId, categoryCount);
+        return categoryCount++;
+    }
+    
+    private <K> void increment(Map<K, int[]> table, K key, int slot) {
+        int[] counts = table.get(key);
+        if (counts == null || counts.length <= slot) {
+            counts = counts == null ? new int[categoryCount] : Arrays.copyOf(counts, categoryCount);
+            table.put(key, counts);
+        }
+        counts[slot]++;
+    }
+    
+    private <K> void decrement(Map<K, int[]> table, K key, int slot) {
+        int[] counts = table.get(key);
+        if (counts == null || counts.length <= slot || counts[slot] == 0) {
+            return;
+        }
+        counts[slot]--;
+        // Forget keys no description mentions any more, so the vocabulary size stays true
+        for (int count : counts) {
+            if (count > 0) {
+                return;
+            }
+        }
+        table.remove(key);
+    }
+    
+    private static int argMax(int[] counts) {
+        int best = 0;
+        for (int i = 1; i < counts.length; i++) {
+            if (counts[i] > counts[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,71 @@
+package com.budget.categorization;
+
+/**
+ * A suggested category for a transaction description
+ */
+public class CategorySuggestion {
+    public enum Source {
+        /** The description's merchant has almost always been filed under one category */
+        MERCHANT,
+        /** Token frequencies across past expenses */
+        MODEL,
+        /** The remote suggestion service */
+        REMOTE,
+        /** Nothing to go on */
+        NONE
+    }
+    
+    private static final CategorySuggestion NO_SUGGESTION = new CategorySuggestion(0, null, 0, Source.NONE);
+    
+    private final int categoryId;
+    private final String categoryName;
+    private final double confidence;
+    private final Source source;
+    
+    public CategorySuggestion(int categoryId, String categoryName, double confidence, Source source) {
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.confidence = confidence;
+        this.source = source;
+    }
+    
+    public static CategorySuggestion none() {
+        return NO_SUGGESTION;
+    }
+    
+    public boolean isPresent() {
+        return source != Source.NONE;
+    }
+    
+    public int getCategoryId() {
+        return categoryId;
+    }
+    
+    public String getCategoryName() {
+        return categoryName;
+    }
+    
+    /**
+     * Between 0 and 1
+     */
+    public double getConfidence() {
+        return confidence;
+    }
+    
+    public Source getSource() {
+        return source;
+    }
+    
+    /**
+     * Copy of this suggestion carrying the category's name
+     */
+    CategorySuggestion named(String name) {
+        return isPresent() ? new CategorySuggestion(categoryId, name, confidence, source) : this;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("CategorySuggestion{category=%d '%s', confidence=%.2f, source=%s}",
+                categoryId, categoryName, confidence, source);
+    }
+}
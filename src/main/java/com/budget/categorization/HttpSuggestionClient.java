@@ -0,0 +1,80 @@
+package com.budget.categorization;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Asks a suggestion service over HTTP.
+ * Posts {"descriptions":["..."]} and expects
+ * {"suggestions":[{"category":"Groceries","confidence":0.9}, null, ...]}
+ * with one entry per description; null or a missing category means no suggestion.
+ * Every call is bounded by the timeout (budget.categorize.timeoutMs).
+ */
+public class HttpSuggestionClient implements SuggestionClient {
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final long TIMEOUT_MS = Long.getLong("budget.categorize.timeoutMs", 1000);
+    
+    private final String url;
+    private final OkHttpClient client;
+    private final Gson gson = new Gson();
+    
+    public HttpSuggestionClient(String url) {
+        this(url, Duration.ofMillis(TIMEOUT_MS));
+    }
+    
+    public HttpSuggestionClient(String url, Duration timeout) {
+        this.url = url;
+        this.client = new OkHttpClient.Builder()
+            .connectTimeout(timeout)
+            .readTimeout(timeout)
+            .callTimeout(timeout)
+            .retryOnConnectionFailure(false)
+            .build();
+    }
+    
+    @Override
+    public List<RemoteSuggestion> suggest(List<String> descriptions) throws IOException {
+        SuggestionRequest body = new SuggestionRequest();
+        body.descriptions = descriptions;
+        Request request = new Request.Builder()
+            .url(url)
+            .post(RequestBody.create(gson.toJson(body), JSON))
+            .build();
+        
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("Suggestion service returned HTTP " + response.code());
+            }
+            SuggestionResponse answer = gson.fromJson(response.body().charStream(), SuggestionResponse.class);
+            if (answer == null || answer.suggestions == null || answer.suggestions.size() != descriptions.size()) {
+                throw new IOException("Suggestion service answered for the wrong number of descriptions");
+            }
+            
+            List<RemoteSuggestion> suggestions = new ArrayList<>(descriptions.size());
+            for (RemoteSuggestion suggestion : answer.suggestions) {
+                suggestions.add(suggestion != null && suggestion.getCategory() != null ? suggestion : RemoteSuggestion.NONE);
+            }
+            return suggestions;
+        } catch (JsonParseException e) {
+            throw new IOException("Unreadable suggestion service response", e);
+        }
+    }
+    
+    private static class SuggestionRequest {
+        List<String> descriptions;
+    }
+    
+    private static class SuggestionResponse {
+        List<RemoteSuggestion> suggestions;
+    }
+}
@@ -0,0 +1,59 @@
+package com.budget.categorization;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Puts a suggestion client behind a circuit breaker and sends it descriptions in batches
+ */
+public class RemoteSuggester {
+    private static final int BATCH_SIZE = Integer.getInteger("budget.categorize.batchSize", 100);
+    private static final int FAILURE_THRESHOLD = 5;
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+    
+    private final SuggestionClient client;
+    private final int batchSize;
+    private final CircuitBreaker breaker;
+    
+    public RemoteSuggester(SuggestionClient client) {
+        this(client, BATCH_SIZE, new CircuitBreaker(FAILURE_THRESHOLD, OPEN_DURATION));
+    }
+    
+    public RemoteSuggester(SuggestionClient client, int batchSize, CircuitBreaker breaker) {
+        this.client = client;
+        this.batchSize = batchSize;
+        this.breaker = breaker;
+    }
+    
+    /**
+     * Ask about every description, batchSize at a time
+     * @return one suggestion per description, in order; null where the service couldn't be asked
+     */
+    public RemoteSuggestion[] suggest(List<String> descriptions) {
+        RemoteSuggestion[] suggestions = new RemoteSuggestion[descriptions.size()];
+        for (int from = 0; from < descriptions.size(); from += batchSize) {
+            int to = Math.min(descriptions.size(), from + batchSize);
+            if (!breaker.allowRequest()) {
+                // Still open: leave the rest unanswered rather than queue calls that would be refused
+                break;
+            }
+            
+            try {
+                List<RemoteSuggestion> batch = client.suggest(descriptions.subList(from, to));
+                breaker.recordSuccess();
+                for (int i = from; i < to; i++) {
+                    suggestions[i] = batch.get(i - from);
+                }
+            } catch (IOException | RuntimeException e) {
+                breaker.recordFailure();
+                System.err.println("Error asking suggestion service: " + e.getMessage());
+            }
+        }
+        return suggestions;
+    }
+    
+    public CircuitBreaker.State getState() {
+        return breaker.getState();
+    }
+}
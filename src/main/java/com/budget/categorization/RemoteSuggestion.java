@@ -0,0 +1,25 @@
+package com.budget.categorization;
+
+/**
+ * A category suggested by a remote service, by name
+ */
+public class RemoteSuggestion {
+    /** The service had no suggestion for a description */
+    public static final RemoteSuggestion NONE = new RemoteSuggestion(null, 0);
+    
+    private String category;
+    private double confidence;
+    
+    public RemoteSuggestion(String category, double confidence) {
+        this.category = category;
+        this.confidence = confidence;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public double getConfidence() {
+        return confidence;
+    }
+}
@@ -0,0 +1,15 @@
+package com.budget.categorization;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A remote category suggestion service, asked about many descriptions at once
+ */
+public interface SuggestionClient {
+    /**
+     * @return one suggestion per description, in order; RemoteSuggestion.NONE where the service has none
+     * @throws IOException if the service can't be reached or its answer can't be used
+     */
+    List<RemoteSuggestion> suggest(List<String> descriptions) throws IOException;
+}
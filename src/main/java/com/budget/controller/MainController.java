@@ -1,5 +1,7 @@
 package com.budget.controller;
 
+import com.budget.dao.AsyncExpenseDAO;
+import com.budget.dao.AsyncIncomeDAO;
 import com.budget.dao.ExpenseDAO;
 import com.budget.dao.IncomeDAO;
 import javafx.application.Platform;
@@ -30,12 +32,12 @@ public class MainController implements Initializable {
     @FXML private Label totalExpensesValue;
     @FXML private Label netIncomeValue;
     
-    private final ExpenseDAO expenseDAO;
-    private final IncomeDAO incomeDAO;
+    private final AsyncExpenseDAO expenseDAO;
+    private final AsyncIncomeDAO incomeDAO;
     
     public MainController() {
-        this.expenseDAO = new ExpenseDAO();
-        this.incomeDAO = new IncomeDAO();
+        this.expenseDAO = new AsyncExpenseDAO(new ExpenseDAO());
+        this.incomeDAO = new AsyncIncomeDAO(new IncomeDAO());
     }
     
     @Override
@@ -61,19 +63,17 @@ public class MainController implements Initializable {
     private void loadFinancialSummary() {
         updateStatus("Loading financial summary...");
         
-        CompletableFuture.supplyAsync(() -> {
-            // Get current month's date range
-            LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
-            LocalDate endOfMonth = LocalDate.now().withDayOfMonth(LocalDate.now().lengthOfMonth());
-            
-            // Calculate totals
-            BigDecimal totalIncome = incomeDAO.getTotalByDateRange(startOfMonth, endOfMonth);
-            BigDecimal totalExpenses = expenseDAO.getTotalByDateRange(startOfMonth, endOfMonth);
-            BigDecimal netIncome = totalIncome.subtract(totalExpenses);
-            
-            return new FinancialSummary(totalIncome, totalExpenses, netIncome);
-            
-        }).thenAccept(summary -> {
+        // Get current month's date range
+        LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDate endOfMonth = LocalDate.now().withDayOfMonth(LocalDate.now().lengthOfMonth());
+        
+        // Calculate totals in parallel on the database executor
+        CompletableFuture<BigDecimal> totalIncome = incomeDAO.getTotalByDateRange(startOfMonth, endOfMonth);
+        CompletableFuture<BigDecimal> totalExpenses = expenseDAO.getTotalByDateRange(startOfMonth, endOfMonth);
+        
+        totalIncome.thenCombine(totalExpenses, (income, expenses) ->
+            new FinancialSummary(income, expenses, income.subtract(expenses))
+        ).thenAccept(summary -> {
             Platform.runLater(() -> {
                 updateFinancialSummary(summary);
                 updateStatus("Ready");
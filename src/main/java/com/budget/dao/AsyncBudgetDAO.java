@@ -0,0 +1,91 @@
+package com.budget.dao;
+
+import com.budget.database.DatabaseExecutor;
+import com.budget.model.Budget;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous facade over {@link BudgetDAO}.
+ * Every call runs on the bounded {@link DatabaseExecutor} so independent queries can be fired in parallel.
+ */
+public class AsyncBudgetDAO {
+    private final BudgetDAO budgetDAO;
+    
+    public AsyncBudgetDAO(BudgetDAO budgetDAO) {
+        this.budgetDAO = budgetDAO;
+    }
+    
+    /**
+     * Create a new budget
+     */
+    public CompletableFuture<Boolean> create(Budget budget) {
+        return DatabaseExecutor.supply(() -> budgetDAO.create(budget));
+    }
+    
+    /**
+     * Find budget by ID
+     */
+    public CompletableFuture<Optional<Budget>> findById(int id) {
+        return DatabaseExecutor.supply(() -> budgetDAO.findById(id));
+    }
+    
+    /**
+     * Find all budgets
+     */
+    public CompletableFuture<List<Budget>> findAll() {
+        return DatabaseExecutor.supply(() -> budgetDAO.findAll());
+    }
+    
+    /**
+     * Find active budgets (current date within start and end date)
+     */
+    public CompletableFuture<List<Budget>> findActiveBudgets() {
+        return DatabaseExecutor.supply(() -> budgetDAO.findActiveBudgets());
+    }
+    
+    /**
+     * Find budgets by category
+     */
+    public CompletableFuture<List<Budget>> findByCategory(int categoryId) {
+        return DatabaseExecutor.supply(() -> budgetDAO.findByCategory(categoryId));
+    }
+    
+    /**
+     * Find active budget for a specific category
+     */
+    public CompletableFuture<Optional<Budget>> findActiveBudgetByCategory(int categoryId) {
+        return DatabaseExecutor.supply(() -> budgetDAO.findActiveBudgetByCategory(categoryId));
+    }
+    
+    /**
+     * Find budgets that overlap with given date range
+     */
+    public CompletableFuture<List<Budget>> findByDateRange(LocalDate startDate, LocalDate endDate) {
+        return DatabaseExecutor.supply(() -> budgetDAO.findByDateRange(startDate, endDate));
+    }
+    
+    /**
+     * Update existing budget
+     */
+    public CompletableFuture<Boolean> update(Budget budget) {
+        return DatabaseExecutor.supply(() -> budgetDAO.update(budget));
+    }
+    
+    /**
+     * Delete budget by ID
+     */
+    public CompletableFuture<Boolean> delete(int id) {
+        return DatabaseExecutor.supply(() -> budgetDAO.delete(id));
+    }
+    
+    /**
+     * Check if category has active budget
+     */
+    public CompletableFuture<Boolean> hasActiveBudget(int categoryId) {
+        return DatabaseExecutor.supply(() -> budgetDAO.hasActiveBudget(categoryId));
+    }
+}
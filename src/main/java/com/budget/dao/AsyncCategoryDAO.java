@@ -0,0 +1,69 @@
+package com.budget.dao;
+
+import com.budget.database.DatabaseExecutor;
+import com.budget.model.Category;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous facade over {@link CategoryDAO}.
+ * Every call runs on the bounded {@link DatabaseExecutor} so independent queries can be fired in parallel.
+ */
+public class AsyncCategoryDAO {
+    private final CategoryDAO categoryDAO;
+    
+    public AsyncCategoryDAO(CategoryDAO categoryDAO) {
+        this.categoryDAO = categoryDAO;
+    }
+    
+    /**
+     * Create a new category
+     */
+    public CompletableFuture<Boolean> create(Category category) {
+        return DatabaseExecutor.supply(() -> categoryDAO.create(category));
+    }
+    
+    /**
+     * Find category by ID
+     */
+    public CompletableFuture<Optional<Category>> findById(int id) {
+        return DatabaseExecutor.supply(() -> categoryDAO.findById(id));
+    }
+    
+    /**
+     * Find all categories
+     */
+    public CompletableFuture<List<Category>> findAll() {
+        return DatabaseExecutor.supply(() -> categoryDAO.findAll());
+    }
+    
+    /**
+     * Find categories by type
+     */
+    public CompletableFuture<List<Category>> findByType(Category.CategoryType type) {
+        return DatabaseExecutor.supply(() -> categoryDAO.findByType(type));
+    }
+    
+    /**
+     * Update existing category
+     */
+    public CompletableFuture<Boolean> update(Category category) {
+        return DatabaseExecutor.supply(() -> categoryDAO.update(category));
+    }
+    
+    /**
+     * Delete category by ID
+     */
+    public CompletableFuture<Boolean> delete(int id) {
+        return DatabaseExecutor.supply(() -> categoryDAO.delete(id));
+    }
+    
+    /**
+     * Check if category name exists (for validation)
+     */
+    public CompletableFuture<Boolean> existsByName(String name) {
+        return DatabaseExecutor.supply(() -> categoryDAO.existsByName(name));
+    }
+}
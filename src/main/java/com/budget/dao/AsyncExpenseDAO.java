@@ -0,0 +1,92 @@
+package com.budget.dao;
+
+import com.budget.database.DatabaseExecutor;
+import com.budget.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous facade over {@link ExpenseDAO}.
+ * Every call runs on the bounded {@link DatabaseExecutor} so independent queries can be fired in parallel.
+ */
+public class AsyncExpenseDAO {
+    private final ExpenseDAO expenseDAO;
+    
+    public AsyncExpenseDAO(ExpenseDAO expenseDAO) {
+        this.expenseDAO = expenseDAO;
+    }
+    
+    /**
+     * Create a new expense
+     */
+    public CompletableFuture<Boolean> create(Expense expense) {
+        return DatabaseExecutor.supply(() -> expenseDAO.create(expense));
+    }
+    
+    /**
+     * Find expense by ID
+     */
+    public CompletableFuture<Optional<Expense>> findById(int id) {
+        return DatabaseExecutor.supply(() -> expenseDAO.findById(id));
+    }
+    
+    /**
+     * Find all expenses
+     */
+    public CompletableFuture<List<Expense>> findAll() {
+        return DatabaseExecutor.supply(() -> expenseDAO.findAll());
+    }
+    
+    /**
+     * Find expenses by date range
+     */
+    public CompletableFuture<List<Expense>> findByDateRange(LocalDate startDate, LocalDate endDate) {
+        return DatabaseExecutor.supply(() -> expenseDAO.findByDateRange(startDate, endDate));
+    }
+    
+    /**
+     * Find expenses by category
+     */
+    public CompletableFuture<List<Expense>> findByCategory(int categoryId) {
+        return DatabaseExecutor.supply(() -> expenseDAO.findByCategory(categoryId));
+    }
+    
+    /**
+     * Get total expenses for a category in date range
+     */
+    public CompletableFuture<BigDecimal> getTotalByCategoryAndDateRange(int categoryId, LocalDate startDate, LocalDate endDate) {
+        return DatabaseExecutor.supply(() -> expenseDAO.getTotalByCategoryAndDateRange(categoryId, startDate, endDate));
+    }
+    
+    /**
+     * Get total expenses for date range
+     */
+    public CompletableFuture<BigDecimal> getTotalByDateRange(LocalDate startDate, LocalDate endDate) {
+        return DatabaseExecutor.supply(() -> expenseDAO.getTotalByDateRange(startDate, endDate));
+    }
+    
+    /**
+     * Count every expense row
+     */
+    public CompletableFuture<Integer> count() {
+        return DatabaseExecutor.supply(() -> expenseDAO.count());
+    }
+    
+    /**
+     * Update existing expense
+     */
+    public CompletableFuture<Boolean> update(Expense expense) {
+        return DatabaseExecutor.supply(() -> expenseDAO.update(expense));
+    }
+    
+    /**
+     * Delete expense by ID
+     */
+    public CompletableFuture<Boolean> delete(int id) {
+        return DatabaseExecutor.supply(() -> expenseDAO.delete(id));
+    }
+}
@@ -0,0 +1,92 @@
+package com.budget.dao;
+
+import com.budget.database.DatabaseExecutor;
+import com.budget.model.Income;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous facade over {@link IncomeDAO}.
+ * Every call runs on the bounded {@link DatabaseExecutor} so independent queries can be fired in parallel.
+ */
+public class AsyncIncomeDAO {
+    private final IncomeDAO incomeDAO;
+    
+    public AsyncIncomeDAO(IncomeDAO incomeDAO) {
+        this.incomeDAO = incomeDAO;
+    }
+    
+    /**
+     * Create a new income entry
+     */
+    public CompletableFuture<Boolean> create(Income income) {
+        return DatabaseExecutor.supply(() -> incomeDAO.create(income));
+    }
+    
+    /**
+     * Find income by ID
+     */
+    public CompletableFuture<Optional<Income>> findById(int id) {
+        return DatabaseExecutor.supply(() -> incomeDAO.findById(id));
+    }
+    
+    /**
+     * Find all income entries
+     */
+    public CompletableFuture<List<Income>> findAll() {
+        return DatabaseExecutor.supply(() -> incomeDAO.findAll());
+    }
+    
+    /**
+     * Find income by date range
+     */
+    public CompletableFuture<List<Income>> findByDateRange(LocalDate startDate, LocalDate endDate) {
+        return DatabaseExecutor.supply(() -> incomeDAO.findByDateRange(startDate, endDate));
+    }
+    
+    /**
+     * Find income by category
+     */
+    public CompletableFuture<List<Income>> findByCategory(int categoryId) {
+        return DatabaseExecutor.supply(() -> incomeDAO.findByCategory(categoryId));
+    }
+    
+    /**
+     * Get total income for a category in date range
+     */
+    public CompletableFuture<BigDecimal> getTotalByCategoryAndDateRange(int categoryId, LocalDate startDate, LocalDate endDate) {
+        return DatabaseExecutor.supply(() -> incomeDAO.getTotalByCategoryAndDateRange(categoryId, startDate, endDate));
+    }
+    
+    /**
+     * Get total income for date range
+     */
+    public CompletableFuture<BigDecimal> getTotalByDateRange(LocalDate startDate, LocalDate endDate) {
+        return DatabaseExecutor.supply(() -> incomeDAO.getTotalByDateRange(startDate, endDate));
+    }
+    
+    /**
+     * Count every income row
+     */
+    public CompletableFuture<Integer> count() {
+        return DatabaseExecutor.supply(() -> incomeDAO.count());
+    }
+    
+    /**
+     * Update existing income
+     */
+    public CompletableFuture<Boolean> update(Income income) {
+        return DatabaseExecutor.supply(() -> incomeDAO.update(income));
+    }
+    
+    /**
+     * Delete income by ID
+     */
+    public CompletableFuture<Boolean> delete(int id) {
+        return DatabaseExecutor.supply(() -> incomeDAO.delete(id));
+    }
+}
@@ -0,0 +1,126 @@
+package com.budget.dao;
+
+import com.budget.database.DatabaseManager;
+import com.budget.database.DatabaseWriter;
+import com.budget.model.BudgetAlert;
+import com.budget.model.BudgetStatus;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for BudgetAlert operations
+ */
+public class BudgetAlertDAO {
+    
+    /**
+     * Record a new alert
+     */
+    public boolean create(BudgetAlert alert) {
+        String sql = "INSERT INTO budget_alerts (budget_id, category_id, status, spent, amount, percentage) VALUES (?, ?, ?, ?, ?, ?)";
+        
+        try {
+            return DatabaseWriter.execute(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    
+                    pstmt.setInt(1, alert.getBudgetId());
+                    pstmt.setInt(2, alert.getCategoryId());
+                    pstmt.setString(3, alert.getStatus().name());
+                    pstmt.setBigDecimal(4, alert.getSpent());
+                    pstmt.setBigDecimal(5, alert.getAmount());
+                    pstmt.setDouble(6, alert.getPercentage());
+                    
+                    if (pstmt.executeUpdate() > 0) {
+                        try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                            if (generatedKeys.next()) {
+                                alert.setId(generatedKeys.getInt(1));
+                            }
+                        }
+                        return true;
+                    }
+                    return false;
+                }
+            });
+        
+        } catch (SQLException e) {
+            System.err.println("Error creating budget alert: " + e.getMessage());
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Find the most recent alerts, newest first
+     */
+    public List<BudgetAlert> findRecent(int limit) {
+        List<BudgetAlert> alerts = new ArrayList<>();
+        String sql = "SELECT * FROM budget_alerts ORDER BY id DESC LIMIT ?";
+        
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, limit);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                alerts.add(extractAlertFromResultSet(rs));
+            }
+        
+        } catch (SQLException e) {
+            System.err.println("Error finding recent budget alerts: " + e.getMessage());
+        }
+        
+        return alerts;
+    }
+    
+    /**
+     * Find the status of the last alert raised for each budget
+     */
+    public Map<Integer, BudgetStatus> findLatestStatusByBudget() {
+        Map<Integer, BudgetStatus> statuses = new HashMap<>();
+        String sql = """
+            SELECT a.budget_id, a.status
+            FROM budget_alerts a
+            WHERE a.id = (SELECT MAX(id) FROM budget_alerts WHERE budget_id = a.budget_id)
+        """;
+        
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                statuses.put(rs.getInt("budget_id"), BudgetStatus.valueOf(rs.getString("status")));
+            }
+        
+        } catch (SQLException e) {
+            System.err.println("Error finding latest budget alert statuses: " + e.getMessage());
+        }
+        
+        return statuses;
+    }
+    
+    /**
+     * Extract BudgetAlert object from ResultSet
+     */
+    private BudgetAlert extractAlertFromResultSet(ResultSet rs) throws SQLException {
+        BudgetAlert alert = new BudgetAlert();
+        alert.setId(rs.getInt("id"));
+        alert.setBudgetId(rs.getInt("budget_id"));
+        alert.setCategoryId(rs.getInt("category_id"));
+        alert.setStatus(BudgetStatus.valueOf(rs.getString("status")));
+        alert.setSpent(rs.getBigDecimal("spent"));
+        alert.setAmount(rs.getBigDecimal("amount"));
+        alert.setPercentage(rs.getDouble("percentage"));
+        
+        Timestamp createdTimestamp = rs.getTimestamp("created_date");
+        if (createdTimestamp != null) {
+            alert.setCreatedDate(createdTimestamp.toLocalDateTime());
+        }
+        
+        return alert;
+    }
+}
@@ -1,6 +1,9 @@
 package com.budget.dao;
 
 import com.budget.database.DatabaseManager;
+import com.budget.database.DatabaseWriter;
+import com.budget.events.ChangeEvent;
+import com.budget.index.BudgetIndex;
 import com.budget.model.Budget;
 import com.budget.model.Category;
 
@@ -16,6 +19,9 @@ import java.util.Optional;
  * Data Access Object for Budget operations
  */
 public class BudgetDAO {
+    /** Budget periods by date, shared by every DAO instance and kept current by the writes below */
+    private static final BudgetIndex index = new BudgetIndex(() -> new BudgetDAO().findAll());
+    
     private final CategoryDAO categoryDAO;
     
     public BudgetDAO() {
@@ -26,28 +32,39 @@ public class BudgetDAO {
      * Create a new budget
      */
     public boolean create(Budget budget) {
-        String sql = "INSERT INTO budgets (category_id, amount, period, start_date, end_date) VALUES (?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO budgets (category_id, amount, period, start_date, end_date, anchor_date) VALUES (?, ?, ?, ?, ?, ?)";
         
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setInt(1, budget.getCategoryId());
-            pstmt.setBigDecimal(2, budget.getAmount());
-            pstmt.setString(3, budget.getPeriod().toString());
-            pstmt.setDate(4, Date.valueOf(budget.getStartDate()));
-            pstmt.setDate(5, budget.getEndDate() != null ? Date.valueOf(budget.getEndDate()) : null);
-            
-            int affectedRows = pstmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                // Get the generated ID
-                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        budget.setId(generatedKeys.getInt(1));
+        try {
+            boolean created = DatabaseWriter.execute(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    
+                    pstmt.setInt(1, budget.getCategoryId());
+                    pstmt.setBigDecimal(2, budget.getAmount());
+                    pstmt.setString(3, budget.getPeriod().toString());
+                    pstmt.setDate(4, Date.valueOf(budget.getStartDate()));
+                    pstmt.setDate(5, budget.getEndDate() != null ? Date.valueOf(budget.getEndDate()) : null);
+                    pstmt.setDate(6, Date.valueOf(budget.getAnchorDate()));
+                    
+                    int affectedRows = pstmt.executeUpdate();
+                    
+                    if (affectedRows > 0) {
+                        // Get the generated ID
+                        try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                            if (generatedKeys.next()) {
+                                budget.setId(generatedKeys.getInt(1));
+                            }
+                        }
+                        logChange(conn, ChangeEvent.Operation.CREATE, budget.getId());
+                        return true;
                     }
+                    return false;
                 }
-                return true;
+            });
+            
+            if (created) {
+                reindex(budget.getId());
             }
+            return created;
             
         } catch (SQLException e) {
             System.err.println("Error creating budget: " + e.getMessage());
@@ -115,19 +132,40 @@ public class BudgetDAO {
      * Find active budgets (current date within start and end date)
      */
     public List<Budget> findActiveBudgets() {
+        return findCovering(LocalDate.now());
+    }
+    
+    /**
+     * Find budgets whose period covers the given date, newest period first
+     */
+    public List<Budget> findCovering(LocalDate date) {
+        return index.covering(date);
+    }
+    
+    /**
+     * Find budgets of a category whose period covers the given date, newest period first
+     */
+    public List<Budget> findCovering(int categoryId, LocalDate date) {
+        return index.covering(categoryId, date);
+    }
+    
+    /**
+     * Find budgets whose current period ended before the given date
+     */
+    public List<Budget> findExpiredBudgets(LocalDate date) {
         List<Budget> budgets = new ArrayList<>();
         String sql = """
             SELECT b.*, c.name as category_name, c.type as category_type, c.color as category_color
             FROM budgets b
             LEFT JOIN categories c ON b.category_id = c.id
-            WHERE ? BETWEEN b.start_date AND b.end_date
-            ORDER BY b.start_date DESC
+            WHERE b.end_date < ?
+            ORDER BY b.end_date
         """;
         
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setDate(1, Date.valueOf(LocalDate.now()));
+            pstmt.setDate(1, Date.valueOf(date));
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
@@ -135,7 +173,7 @@ public class BudgetDAO {
             }
             
         } catch (SQLException e) {
-            System.err.println("Error finding active budgets: " + e.getMessage());
+            System.err.println("Error finding expired budgets: " + e.getMessage());
         }
         
         return budgets;
@@ -175,31 +213,7 @@ public class BudgetDAO {
      * Find active budget for a specific category
      */
     public Optional<Budget> findActiveBudgetByCategory(int categoryId) {
-        String sql = """
-            SELECT b.*, c.name as category_name, c.type as category_type, c.color as category_color
-            FROM budgets b
-            LEFT JOIN categories c ON b.category_id = c.id
-            WHERE b.category_id = ? AND ? BETWEEN b.start_date AND b.end_date
-            ORDER BY b.start_date DESC
-            LIMIT 1
-        """;
-        
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, categoryId);
-            pstmt.setDate(2, Date.valueOf(LocalDate.now()));
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return Optional.of(extractBudgetFromResultSet(rs));
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("Error finding active budget by category: " + e.getMessage());
-        }
-        
-        return Optional.empty();
+        return findCovering(categoryId, LocalDate.now()).stream().findFirst();
     }
     
     /**
@@ -243,19 +257,32 @@ public class BudgetDAO {
      * Update existing budget
      */
     public boolean update(Budget budget) {
-        String sql = "UPDATE budgets SET category_id = ?, amount = ?, period = ?, start_date = ?, end_date = ? WHERE id = ?";
+        String sql = "UPDATE budgets SET category_id = ?, amount = ?, period = ?, start_date = ?, end_date = ?, anchor_date = ? WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, budget.getCategoryId());
-            pstmt.setBigDecimal(2, budget.getAmount());
-            pstmt.setString(3, budget.getPeriod().toString());
-            pstmt.setDate(4, Date.valueOf(budget.getStartDate()));
-            pstmt.setDate(5, budget.getEndDate() != null ? Date.valueOf(budget.getEndDate()) : null);
-            pstmt.setInt(6, budget.getId());
+        try {
+            boolean updated = DatabaseWriter.execute(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    
+                    pstmt.setInt(1, budget.getCategoryId());
+                    pstmt.setBigDecimal(2, budget.getAmount());
+                    pstmt.setString(3, budget.getPeriod().toString());
+                    pstmt.setDate(4, Date.valueOf(budget.getStartDate()));
+                    pstmt.setDate(5, budget.getEndDate() != null ? Date.valueOf(budget.getEndDate()) : null);
+                    pstmt.setDate(6, Date.valueOf(budget.getAnchorDate()));
+                    pstmt.setInt(7, budget.getId());
+                    
+                    if (pstmt.executeUpdate() > 0) {
+                        logChange(conn, ChangeEvent.Operation.UPDATE, budget.getId());
+                        return true;
+                    }
+                    return false;
+                }
+            });
             
-            return pstmt.executeUpdate() > 0;
+            if (updated) {
+                reindex(budget.getId());
+            }
+            return updated;
             
         } catch (SQLException e) {
             System.err.println("Error updating budget: " + e.getMessage());
@@ -264,17 +291,104 @@ public class BudgetDAO {
         return false;
     }
     
+    /**
+     * Close every period of a budget that ended before the given date and move it to the period covering that date.
+     * Each closed period's spent total is archived to budget_history in the same transaction
+     * that advances the budget, and a period already archived is never archived twice.
+     * @return number of periods closed
+     */
+    public int rollOver(Budget budget, LocalDate date) {
+        String archiveSql = """
+            INSERT OR IGNORE INTO budget_history (budget_id, category_id, period, start_date, end_date, amount, spent)
+            SELECT ?, ?, ?, ?, ?, ?, COALESCE(SUM(amount), 0)
+            FROM expenses
+            WHERE category_id = ? AND expense_date BETWEEN ? AND ?
+        """;
+        String advanceSql = "UPDATE budgets SET start_date = ?, end_date = ?, anchor_date = ? WHERE id = ? AND start_date = ?";
+        
+        // Work out the closed periods first; the budget object only changes once the write commits
+        Budget next = new Budget(budget.getId(), budget.getCategoryId(), budget.getAmount(), budget.getPeriod(),
+            budget.getStartDate(), budget.getEndDate(), budget.getCreatedDate());
+        next.setAnchorDate(budget.getAnchorDate());
+        List<LocalDate[]> closed = new ArrayList<>();
+        while (next.getEndDate() != null && next.getEndDate().isBefore(date)) {
+            closed.add(new LocalDate[] { next.getStartDate(), next.getEndDate() });
+            next.advancePeriod();
+        }
+        if (closed.isEmpty()) {
+            return 0;
+        }
+        
+        try {
+            boolean advanced = DatabaseWriter.execute(conn -> {
+                try (PreparedStatement archive = conn.prepareStatement(archiveSql);
+                     PreparedStatement advance = conn.prepareStatement(advanceSql)) {
+                    
+                    for (LocalDate[] window : closed) {
+                        archive.setInt(1, budget.getId());
+                        archive.setInt(2, budget.getCategoryId());
+                        archive.setString(3, budget.getPeriod().toString());
+                        archive.setDate(4, Date.valueOf(window[0]));
+                        archive.setDate(5, Date.valueOf(window[1]));
+                        archive.setBigDecimal(6, budget.getAmount());
+                        archive.setInt(7, budget.getCategoryId());
+                        archive.setDate(8, Date.valueOf(window[0]));
+                        archive.setDate(9, Date.valueOf(window[1]));
+                        archive.executeUpdate();
+                    }
+                    
+                    // Guard on the old start date so a concurrent edit of the budget wins
+                    advance.setDate(1, Date.valueOf(next.getStartDate()));
+                    advance.setDate(2, Date.valueOf(next.getEndDate()));
+                    advance.setDate(3, Date.valueOf(next.getAnchorDate()));
+                    advance.setInt(4, budget.getId());
+                    advance.setDate(5, Date.valueOf(budget.getStartDate()));
+                    if (advance.executeUpdate() == 0) {
+                        throw new SQLException("Budget " + budget.getId() + " changed during rollover");
+                    }
+                    logChange(conn, ChangeEvent.Operation.UPDATE, budget.getId());
+                    return true;
+                }
+            });
+            
+            if (advanced) {
+                budget.setStartDate(next.getStartDate());
+                budget.setEndDate(next.getEndDate());
+                budget.setAnchorDate(next.getAnchorDate());
+                reindex(budget.getId());
+                return closed.size();
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error rolling over budget: " + e.getMessage());
+        }
+        
+        return 0;
+    }
+    
     /**
      * Delete budget by ID
      */
     public boolean delete(int id) {
         String sql = "DELETE FROM budgets WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try {
+            boolean deleted = DatabaseWriter.execute(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    
+                    pstmt.setInt(1, id);
+                    if (pstmt.executeUpdate() > 0) {
+                        logChange(conn, ChangeEvent.Operation.DELETE, id);
+                        return true;
+                    }
+                    return false;
+                }
+            });
             
-            pstmt.setInt(1, id);
-            return pstmt.executeUpdate() > 0;
+            if (deleted) {
+                index.remove(id);
+            }
+            return deleted;
             
         } catch (SQLException e) {
             System.err.println("Error deleting budget: " + e.getMessage());
@@ -287,24 +401,48 @@ public class BudgetDAO {
      * Check if category has active budget
      */
     public boolean hasActiveBudget(int categoryId) {
-        String sql = "SELECT COUNT(*) FROM budgets WHERE category_id = ? AND ? BETWEEN start_date AND end_date";
+        return !findCovering(categoryId, LocalDate.now()).isEmpty();
+    }
+    
+    /**
+     * Drop the in-memory budget index so the next lookup reloads it, e.g. after
+     * a category delete cascades to its budgets or a category is renamed
+     */
+    public static void invalidateIndex() {
+        index.invalidate();
+    }
+    
+    /**
+     * Refresh one budget in the index from its committed row
+     */
+    private void reindex(int id) {
+        index.refresh(id, this::findById);
+    }
+    
+    /**
+     * Log a change for the mutation journal and the ChangeBus from inside the write command, with the row as it will commit
+     */
+    private void logChange(Connection conn, ChangeEvent.Operation operation, int id) throws SQLException {
+        String sql = """
+            SELECT b.*, c.name as category_name, c.type as category_type, c.color as category_color
+            FROM budgets b
+            LEFT JOIN categories c ON b.category_id = c.id
+            WHERE b.id = ?
+        """;
         
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, categoryId);
-            pstmt.setDate(2, Date.valueOf(LocalDate.now()));
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
+        Budget row = null;
+        if (operation != ChangeEvent.Operation.DELETE) {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, id);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        row = extractBudgetFromResultSet(rs);
+                    }
+                }
             }
-            
-        } catch (SQLException e) {
-            System.err.println("Error checking active budget: " + e.getMessage());
         }
-        
-        return false;
+        // DatabaseWriter assigns the data version once the write has committed
+        DatabaseWriter.log(new ChangeEvent(ChangeEvent.Entity.BUDGET, operation, id, row, 0));
     }
     
     /**
@@ -327,6 +465,12 @@ public class BudgetDAO {
             budget.setEndDate(endDate.toLocalDate());
         }
         
+        // Budgets created before periods were anchored count from their current start date
+        Date anchorDate = rs.getDate("anchor_date");
+        if (anchorDate != null) {
+            budget.setAnchorDate(anchorDate.toLocalDate());
+        }
+        
         Timestamp createdTimestamp = rs.getTimestamp("created_date");
         if (createdTimestamp != null) {
             budget.setCreatedDate(createdTimestamp.toLocalDateTime());
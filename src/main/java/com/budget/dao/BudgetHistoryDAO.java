@@ -0,0 +1,121 @@
+package com.budget.dao;
+
+import com.budget.database.DatabaseManager;
+import com.budget.model.Budget;
+import com.budget.model.BudgetHistory;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for archived budget periods.
+ * Rows are written by BudgetDAO.rollOver; everything here is a read.
+ */
+public class BudgetHistoryDAO {
+    
+    /**
+     * Find every closed period of a budget, newest first
+     */
+    public List<BudgetHistory> findByBudget(int budgetId) {
+        List<BudgetHistory> history = new ArrayList<>();
+        String sql = "SELECT * FROM budget_history WHERE budget_id = ? ORDER BY start_date DESC";
+        
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, budgetId);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                history.add(extractHistoryFromResultSet(rs));
+            }
+        
+        } catch (SQLException e) {
+            System.err.println("Error finding budget history by budget: " + e.getMessage());
+        }
+        
+        return history;
+    }
+    
+    /**
+     * Find closed periods overlapping a date range, oldest first
+     */
+    public List<BudgetHistory> findByDateRange(LocalDate startDate, LocalDate endDate) {
+        List<BudgetHistory> history = new ArrayList<>();
+        String sql = """
+            SELECT * FROM budget_history
+            WHERE start_date <= ? AND end_date >= ?
+            ORDER BY start_date, budget_id
+        """;
+        
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setDate(1, Date.valueOf(endDate));
+            pstmt.setDate(2, Date.valueOf(startDate));
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                history.add(extractHistoryFromResultSet(rs));
+            }
+        
+        } catch (SQLException e) {
+            System.err.println("Error finding budget history by date range: " + e.getMessage());
+        }
+        
+        return history;
+    }
+    
+    /**
+     * Find the most recently closed period of each budget
+     */
+    public Map<Integer, BudgetHistory> findLatestByBudget() {
+        Map<Integer, BudgetHistory> latest = new HashMap<>();
+        String sql = """
+            SELECT h.* FROM budget_history h
+            WHERE h.start_date = (SELECT MAX(start_date) FROM budget_history WHERE budget_id = h.budget_id)
+        """;
+        
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                BudgetHistory history = extractHistoryFromResultSet(rs);
+                latest.put(history.getBudgetId(), history);
+            }
+        
+        } catch (SQLException e) {
+            System.err.println("Error finding latest budget history: " + e.getMessage());
+        }
+        
+        return latest;
+    }
+    
+    /**
+     * Extract BudgetHistory object from ResultSet
+     */
+    private BudgetHistory extractHistoryFromResultSet(ResultSet rs) throws SQLException {
+        BudgetHistory history = new BudgetHistory();
+        history.setId(rs.getInt("id"));
+        history.setBudgetId(rs.getInt("budget_id"));
+        history.setCategoryId(rs.getInt("category_id"));
+        history.setPeriod(Budget.Period.valueOf(rs.getString("period")));
+        history.setStartDate(rs.getDate("start_date").toLocalDate());
+        history.setEndDate(rs.getDate("end_date").toLocalDate());
+        history.setAmount(rs.getBigDecimal("amount"));
+        history.setSpent(rs.getBigDecimal("spent"));
+        
+        Timestamp closedTimestamp = rs.getTimestamp("closed_date");
+        if (closedTimestamp != null) {
+            history.setClosedDate(closedTimestamp.toLocalDateTime());
+        }
+        
+        return history;
+    }
+}
@@ -1,6 +1,8 @@
 package com.budget.dao;
 
 import com.budget.database.DatabaseManager;
+import com.budget.database.DatabaseWriter;
+import com.budget.events.ChangeEvent;
 import com.budget.model.Category;
 
 import java.sql.*;
@@ -20,24 +22,29 @@ public class CategoryDAO {
     public boolean create(Category category) {
         String sql = "INSERT INTO categories (name, type, color) VALUES (?, ?, ?)";
         
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setString(1, category.getName());
-            pstmt.setString(2, category.getType().toString());
-            pstmt.setString(3, category.getColor());
-            
-            int affectedRows = pstmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                // Get the generated ID
-                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        category.setId(generatedKeys.getInt(1));
+        try {
+            return DatabaseWriter.execute(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    
+                    pstmt.setString(1, category.getName());
+                    pstmt.setString(2, category.getType().toString());
+                    pstmt.setString(3, category.getColor());
+                    
+                    int affectedRows = pstmt.executeUpdate();
+                    
+                    if (affectedRows > 0) {
+                        // Get the generated ID
+                        try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                            if (generatedKeys.next()) {
+                                category.setId(generatedKeys.getInt(1));
+                            }
+                        }
+                        logChange(conn, ChangeEvent.Operation.CREATE, category.getId());
+                        return true;
                     }
+                    return false;
                 }
-                return true;
-            }
+            });
             
         } catch (SQLException e) {
             System.err.println("Error creating category: " + e.getMessage());
@@ -121,15 +128,28 @@ public class CategoryDAO {
     public boolean update(Category category) {
         String sql = "UPDATE categories SET name = ?, type = ?, color = ? WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, category.getName());
-            pstmt.setString(2, category.getType().toString());
-            pstmt.setString(3, category.getColor());
-            pstmt.setInt(4, category.getId());
+        try {
+            boolean updated = DatabaseWriter.execute(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    
+                    pstmt.setString(1, category.getName());
+                    pstmt.setString(2, category.getType().toString());
+                    pstmt.setString(3, category.getColor());
+                    pstmt.setInt(4, category.getId());
+                    
+                    if (pstmt.executeUpdate() > 0) {
+                        logChange(conn, ChangeEvent.Operation.UPDATE, category.getId());
+                        return true;
+                    }
+                    return false;
+                }
+            });
             
-            return pstmt.executeUpdate() > 0;
+            if (updated) {
+                // Indexed budgets carry the category's name and colour
+                BudgetDAO.invalidateIndex();
+            }
+            return updated;
             
         } catch (SQLException e) {
             System.err.println("Error updating category: " + e.getMessage());
@@ -144,11 +164,24 @@ public class CategoryDAO {
     public boolean delete(int id) {
         String sql = "DELETE FROM categories WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try {
+            boolean deleted = DatabaseWriter.execute(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    
+                    pstmt.setInt(1, id);
+                    if (pstmt.executeUpdate() > 0) {
+                        logChange(conn, ChangeEvent.Operation.DELETE, id);
+                        return true;
+                    }
+                    return false;
+                }
+            });
             
-            pstmt.setInt(1, id);
-            return pstmt.executeUpdate() > 0;
+            if (deleted) {
+                // The delete cascades to the category's budgets
+                BudgetDAO.invalidateIndex();
+            }
+            return deleted;
             
         } catch (SQLException e) {
             System.err.println("Error deleting category: " + e.getMessage());
@@ -180,6 +213,27 @@ public class CategoryDAO {
         return false;
     }
     
+    /**
+     * Log a change for the mutation journal and the ChangeBus from inside the write command, with the row as it will commit
+     */
+    private void logChange(Connection conn, ChangeEvent.Operation operation, int id) throws SQLException {
+        String sql = "SELECT * FROM categories WHERE id = ?";
+        
+        Category row = null;
+        if (operation != ChangeEvent.Operation.DELETE) {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, id);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        row = extractCategoryFromResultSet(rs);
+                    }
+                }
+            }
+        }
+        // DatabaseWriter assigns the data version once the write has committed
+        DatabaseWriter.log(new ChangeEvent(ChangeEvent.Entity.CATEGORY, operation, id, row, 0));
+    }
+    
     /**
      * Extract Category object from ResultSet
      */
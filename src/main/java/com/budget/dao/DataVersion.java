@@ -0,0 +1,29 @@
+package com.budget.dao;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global data version counter, bumped by every successful DAO write.
+ * Read-side caches tag their results with the version they were computed at
+ * and treat a newer version as an invalidation signal.
+ */
+public final class DataVersion {
+    private static final AtomicLong version = new AtomicLong();
+
+    private DataVersion() {}
+
+    /**
+     * Get the current data version
+     */
+    public static long current() {
+        return version.get();
+    }
+
+    /**
+     * Mark the data as changed
+     * @return the new version
+     */
+    public static long bump() {
+        return version.incrementAndGet();
+    }
+}
@@ -0,0 +1,215 @@
+package com.budget.dao;
+
+import com.budget.database.DatabaseManager;
+import com.budget.database.DatabaseWriter;
+import com.budget.model.CategoryStatistics;
+import com.budget.model.ExpenseAnomaly;
+
+import java.nio.ByteBuffer;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Data Access Object for expense anomaly flags and the detector state behind them
+ */
+public class ExpenseAnomalyDAO {
+    
+    /**
+     * Save one batch of detector output in a single write: flags raised, flags cleared,
+     * and the statistics that changed together with the last expense they include
+     */
+    public boolean save(Collection<ExpenseAnomaly> flagged, Collection<Integer> cleared,
+                        Collection<CategoryStatistics> statistics, int lastExpenseId) {
+        String flagSql = "INSERT OR REPLACE INTO expense_anomalies (expense_id, category_id, amount, typical_amount, score) VALUES (?, ?, ?, ?, ?)";
+        String clearSql = "DELETE FROM expense_anomalies WHERE expense_id = ?";
+        String statisticsSql = """
+            INSERT OR REPLACE INTO anomaly_statistics
+                (category_id, observations, mean, m2, histogram, histogram_weight, last_expense_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+        
+        try {
+            return DatabaseWriter.execute(conn -> {
+                try (PreparedStatement clear = conn.prepareStatement(clearSql);
+                     PreparedStatement flag = conn.prepareStatement(flagSql);
+                     PreparedStatement save = conn.prepareStatement(statisticsSql)) {
+                    
+                    for (int expenseId : cleared) {
+                        clear.setInt(1, expenseId);
+                        clear.addBatch();
+                    }
+                    clear.executeBatch();
+                    
+                    for (ExpenseAnomaly anomaly : flagged) {
+                        flag.setInt(1, anomaly.getExpenseId());
+                        flag.setInt(2, anomaly.getCategoryId());
+                        flag.setBigDecimal(3, anomaly.getAmount());
+                        flag.setBigDecimal(4, anomaly.getTypicalAmount());
+                        flag.setDouble(5, anomaly.getScore());
+                        flag.addBatch();
+                    }
+                    flag.executeBatch();
+                    
+                    for (CategoryStatistics stats : statistics) {
+                        save.setInt(1, stats.getCategoryId());
+                        save.setLong(2, stats.getCount());
+                        save.setDouble(3, stats.getMean());
+                        save.setDouble(4, stats.getM2());
+                        save.setBytes(5, toBytes(stats.getWeights()));
+                        save.setDouble(6, stats.getTotalWeight());
+                        save.setInt(7, lastExpenseId);
+                        save.addBatch();
+                    }
+                    save.executeBatch();
+                    return true;
+                }
+            });
+        
+        } catch (SQLException e) {
+            System.err.println("Error saving expense anomalies: " + e.getMessage());
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Find the most recently flagged expenses, newest first
+     */
+    public List<ExpenseAnomaly> findRecent(int limit) {
+        List<ExpenseAnomaly> anomalies = new ArrayList<>();
+        String sql = """
+            SELECT a.*, e.description
+            FROM expense_anomalies a
+            LEFT JOIN expenses e ON a.expense_id = e.id
+            ORDER BY a.created_date DESC, a.expense_id DESC
+            LIMIT ?
+        """;
+        
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, limit);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                anomalies.add(extractAnomalyFromResultSet(rs));
+            }
+        
+        } catch (SQLException e) {
+            System.err.println("Error finding recent expense anomalies: " + e.getMessage());
+        }
+        
+        return anomalies;
+    }
+    
+    /**
+     * Find the IDs of every flagged expense
+     */
+    public Set<Integer> findFlaggedExpenseIds() {
+        Set<Integer> expenseIds = new HashSet<>();
+        String sql = "SELECT expense_id FROM expense_anomalies";
+        
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                expenseIds.add(rs.getInt("expense_id"));
+            }
+        
+        } catch (SQLException e) {
+            System.err.println("Error finding flagged expenses: " + e.getMessage());
+        }
+        
+        return expenseIds;
+    }
+    
+    /**
+     * Load the saved per-category statistics
+     * @param decay histogram decay the detector runs with
+     */
+    public Map<Integer, CategoryStatistics> loadStatistics(double decay) {
+        Map<Integer, CategoryStatistics> statistics = new HashMap<>();
+        String sql = "SELECT * FROM anomaly_statistics";
+        
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                int categoryId = rs.getInt("category_id");
+                statistics.put(categoryId, new CategoryStatistics(categoryId, decay, rs.getLong("observations"),
+                    rs.getDouble("mean"), rs.getDouble("m2"), fromBytes(rs.getBytes("histogram")),
+                    rs.getDouble("histogram_weight")));
+            }
+        
+        } catch (SQLException | IllegalArgumentException e) {
+            System.err.println("Error loading anomaly statistics: " + e.getMessage());
+            statistics.clear();
+        }
+        
+        return statistics;
+    }
+    
+    /**
+     * Find the ID of the last expense the saved statistics include, or 0 if none are saved
+     */
+    public int findLastExpenseId() {
+        String sql = "SELECT COALESCE(MAX(last_expense_id), 0) FROM anomaly_statistics";
+        
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            ResultSet rs = pstmt.executeQuery();
+            
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        
+        } catch (SQLException e) {
+            System.err.println("Error finding last analysed expense: " + e.getMessage());
+        }
+        
+        return 0;
+    }
+    
+    private static byte[] toBytes(double[] values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Double.BYTES);
+        buffer.asDoubleBuffer().put(values);
+        return buffer.array();
+    }
+    
+    private static double[] fromBytes(byte[] bytes) {
+        double[] values = new double[bytes.length / Double.BYTES];
+        ByteBuffer.wrap(bytes).asDoubleBuffer().get(values);
+        return values;
+    }
+    
+    /**
+     * Extract ExpenseAnomaly object from ResultSet
+     */
+    private ExpenseAnomaly extractAnomalyFromResultSet(ResultSet rs) throws SQLException {
+        ExpenseAnomaly anomaly = new ExpenseAnomaly();
+        anomaly.setExpenseId(rs.getInt("expense_id"));
+        anomaly.setCategoryId(rs.getInt("category_id"));
+        anomaly.setDescription(rs.getString("description"));
+        anomaly.setAmount(rs.getBigDecimal("amount"));
+        anomaly.setTypicalAmount(rs.getBigDecimal("typical_amount"));
+        anomaly.setScore(rs.getDouble("score"));
+        
+        Timestamp createdTimestamp = rs.getTimestamp("created_date");
+        if (createdTimestamp != null) {
+            anomaly.setCreatedDate(createdTimestamp.toLocalDateTime());
+        }
+        
+        return anomaly;
+    }
+}
@@ -1,6 +1,9 @@
 package com.budget.dao;
 
 import com.budget.database.DatabaseManager;
+import com.budget.database.DatabaseWriter;
+import com.budget.dictionary.DescriptionDictionary;
+import com.budget.events.ChangeEvent;
 import com.budget.model.Category;
 import com.budget.model.Expense;
 
@@ -11,6 +14,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object for Expense operations
@@ -26,28 +30,35 @@ public class ExpenseDAO {
      * Create a new expense
      */
     public boolean create(Expense expense) {
-        String sql = "INSERT INTO expenses (category_id, amount, description, expense_date) VALUES (?, ?, ?, ?)";
+        String sql = "INSERT INTO expenses (category_id, amount, description, description_id, expense_date) VALUES (?, ?, ?, ?, ?)";
         
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setInt(1, expense.getCategoryId());
-            pstmt.setBigDecimal(2, expense.getAmount());
-            pstmt.setString(3, expense.getDescription());
-            pstmt.setDate(4, Date.valueOf(expense.getExpenseDate()));
-            
-            int affectedRows = pstmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                // Get the generated ID
-                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        expense.setId(generatedKeys.getInt(1));
+        try {
+            expense.setDescriptionId(DescriptionDictionary.intern(expense.getDescription()));
+            return DatabaseWriter.execute(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    
+                    pstmt.setInt(1, expense.getCategoryId());
+                    pstmt.setBigDecimal(2, expense.getAmount());
+                    pstmt.setString(3, expense.getDescription());
+                    pstmt.setInt(4, expense.getDescriptionId());
+                    pstmt.setDate(5, Date.valueOf(expense.getExpenseDate()));
+                    
+                    int affectedRows = pstmt.executeUpdate();
+                    
+                    if (affectedRows > 0) {
+                        // Get the generated ID
+                        try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                            if (generatedKeys.next()) {
+                                expense.setId(generatedKeys.getInt(1));
+                            }
+                        }
+                        logChange(conn, ChangeEvent.Operation.CREATE, expense.getId());
+                        return true;
                     }
+                    return false;
                 }
-                return true;
-            }
-            
+            });
+        
         } catch (SQLException e) {
             System.err.println("Error creating expense: " + e.getMessage());
         }
@@ -75,7 +86,7 @@ public class ExpenseDAO {
             if (rs.next()) {
                 return Optional.of(extractExpenseFromResultSet(rs));
             }
-            
+        
         } catch (SQLException e) {
             System.err.println("Error finding expense by ID: " + e.getMessage());
         }
@@ -102,7 +113,7 @@ public class ExpenseDAO {
             while (rs.next()) {
                 expenses.add(extractExpenseFromResultSet(rs));
             }
-            
+        
         } catch (SQLException e) {
             System.err.println("Error finding all expenses: " + e.getMessage());
         }
@@ -110,6 +121,49 @@ public class ExpenseDAO {
         return expenses;
     }
     
+    /**
+     * Stream every expense, oldest first, without holding the ledger in memory.
+     * Rows carry only the expense's own columns, not its category.
+     */
+    public void scan(Consumer<Expense> consumer) {
+        scan("SELECT id, category_id, amount, description, description_id, expense_date FROM expenses WHERE id > ? ORDER BY expense_date, id", 0, consumer);
+    }
+    
+    /**
+     * Stream the expenses created after a given ID, in creation order.
+     * Rows carry only the expense's own columns, not its category.
+     */
+    public void scanAfter(int lastId, Consumer<Expense> consumer) {
+        scan("SELECT id, category_id, amount, description, description_id, expense_date FROM expenses WHERE id > ? ORDER BY id", lastId, consumer);
+    }
+    
+    private void scan(String sql, int lastId, Consumer<Expense> consumer) {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, lastId);
+            pstmt.setFetchSize(1000);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                Expense expense = new Expense();
+                expense.setId(rs.getInt("id"));
+                expense.setCategoryId(rs.getInt("category_id"));
+                expense.setAmount(rs.getBigDecimal("amount"));
+                expense.setDescription(rs.getString("description"));
+                expense.setDescriptionId(rs.getInt("description_id"));
+                Date expenseDate = rs.getDate("expense_date");
+                if (expenseDate != null) {
+                    expense.setExpenseDate(expenseDate.toLocalDate());
+                }
+                consumer.accept(expense);
+            }
+        
+        } catch (SQLException e) {
+            System.err.println("Error scanning expenses: " + e.getMessage());
+        }
+    }
+    
     /**
      * Find expenses by date range
      */
@@ -133,7 +187,7 @@ public class ExpenseDAO {
             while (rs.next()) {
                 expenses.add(extractExpenseFromResultSet(rs));
             }
-            
+        
         } catch (SQLException e) {
             System.err.println("Error finding expenses by date range: " + e.getMessage());
         }
@@ -163,7 +217,7 @@ public class ExpenseDAO {
             while (rs.next()) {
                 expenses.add(extractExpenseFromResultSet(rs));
             }
-            
+        
         } catch (SQLException e) {
             System.err.println("Error finding expenses by category: " + e.getMessage());
         }
@@ -171,6 +225,38 @@ public class ExpenseDAO {
         return expenses;
     }
     
+    /**
+     * Find expenses for a category in date range
+     */
+    public List<Expense> findByCategoryAndDateRange(int categoryId, LocalDate startDate, LocalDate endDate) {
+        List<Expense> expenses = new ArrayList<>();
+        String sql = """
+            SELECT e.*, c.name as category_name, c.type as category_type, c.color as category_color
+            FROM expenses e
+            LEFT JOIN categories c ON e.category_id = c.id
+            WHERE e.category_id = ? AND e.expense_date BETWEEN ? AND ?
+            ORDER BY e.expense_date DESC, e.created_date DESC
+        """;
+        
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, categoryId);
+            pstmt.setDate(2, Date.valueOf(startDate));
+            pstmt.setDate(3, Date.valueOf(endDate));
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                expenses.add(extractExpenseFromResultSet(rs));
+            }
+        
+        } catch (SQLException e) {
+            System.err.println("Error finding expenses by category and date range: " + e.getMessage());
+        }
+        
+        return expenses;
+    }
+    
     /**
      * Get total expenses for a category in date range
      */
@@ -188,7 +274,7 @@ public class ExpenseDAO {
             if (rs.next()) {
                 return rs.getBigDecimal(1);
             }
-            
+        
         } catch (SQLException e) {
             System.err.println("Error getting total expenses by category and date range: " + e.getMessage());
         }
@@ -212,7 +298,7 @@ public class ExpenseDAO {
             if (rs.next()) {
                 return rs.getBigDecimal(1);
             }
-            
+        
         } catch (SQLException e) {
             System.err.println("Error getting total expenses by date range: " + e.getMessage());
         }
@@ -221,22 +307,52 @@ public class ExpenseDAO {
     }
     
     /**
-     * Update existing expense
+     * Count every expense row
      */
-    public boolean update(Expense expense) {
-        String sql = "UPDATE expenses SET category_id = ?, amount = ?, description = ?, expense_date = ? WHERE id = ?";
+    public int count() {
+        String sql = "SELECT COUNT(*) FROM expenses";
         
         try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, expense.getCategoryId());
-            pstmt.setBigDecimal(2, expense.getAmount());
-            pstmt.setString(3, expense.getDescription());
-            pstmt.setDate(4, Date.valueOf(expense.getExpenseDate()));
-            pstmt.setInt(5, expense.getId());
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
             
-            return pstmt.executeUpdate() > 0;
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
             
+        } catch (SQLException e) {
+            System.err.println("Error counting expenses: " + e.getMessage());
+        }
+        
+        return 0;
+    }
+    
+    /**
+     * Update existing expense
+     */
+    public boolean update(Expense expense) {
+        String sql = "UPDATE expenses SET category_id = ?, amount = ?, description = ?, description_id = ?, expense_date = ? WHERE id = ?";
+        
+        try {
+            expense.setDescriptionId(DescriptionDictionary.intern(expense.getDescription()));
+            return DatabaseWriter.execute(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    
+                    pstmt.setInt(1, expense.getCategoryId());
+                    pstmt.setBigDecimal(2, expense.getAmount());
+                    pstmt.setString(3, expense.getDescription());
+                    pstmt.setInt(4, expense.getDescriptionId());
+                    pstmt.setDate(5, Date.valueOf(expense.getExpenseDate()));
+                    pstmt.setInt(6, expense.getId());
+                    
+                    if (pstmt.executeUpdate() > 0) {
+                        logChange(conn, ChangeEvent.Operation.UPDATE, expense.getId());
+                        return true;
+                    }
+                    return false;
+                }
+            });
+        
         } catch (SQLException e) {
             System.err.println("Error updating expense: " + e.getMessage());
         }
@@ -250,12 +366,19 @@ public class ExpenseDAO {
     public boolean delete(int id) {
         String sql = "DELETE FROM expenses WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
-            return pstmt.executeUpdate() > 0;
-            
+        try {
+            return DatabaseWriter.execute(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    
+                    pstmt.setInt(1, id);
+                    if (pstmt.executeUpdate() > 0) {
+                        logChange(conn, ChangeEvent.Operation.DELETE, id);
+                        return true;
+                    }
+                    return false;
+                }
+            });
+        
         } catch (SQLException e) {
             System.err.println("Error deleting expense: " + e.getMessage());
         }
@@ -263,6 +386,32 @@ public class ExpenseDAO {
         return false;
     }
     
+    /**
+     * Log a change for the mutation journal and the ChangeBus from inside the write command, with the row as it will commit
+     */
+    private void logChange(Connection conn, ChangeEvent.Operation operation, int id) throws SQLException {
+        String sql = """
+            SELECT e.*, c.name as category_name, c.type as category_type, c.color as category_color
+            FROM expenses e
+            LEFT JOIN categories c ON e.category_id = c.id
+            WHERE e.id = ?
+        """;
+        
+        Expense row = null;
+        if (operation != ChangeEvent.Operation.DELETE) {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, id);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        row = extractExpenseFromResultSet(rs);
+                    }
+                }
+            }
+        }
+        // DatabaseWriter assigns the data version once the write has committed
+        DatabaseWriter.log(new ChangeEvent(ChangeEvent.Entity.EXPENSE, operation, id, row, 0));
+    }
+    
     /**
      * Extract Expense object from ResultSet
      */
@@ -272,6 +421,7 @@ public class ExpenseDAO {
         expense.setCategoryId(rs.getInt("category_id"));
         expense.setAmount(rs.getBigDecimal("amount"));
         expense.setDescription(rs.getString("description"));
+        expense.setDescriptionId(rs.getInt("description_id"));
         
         Date expenseDate = rs.getDate("expense_date");
         if (expenseDate != null) {
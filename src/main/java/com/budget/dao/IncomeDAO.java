@@ -1,6 +1,9 @@
 package com.budget.dao;
 
 import com.budget.database.DatabaseManager;
+import com.budget.database.DatabaseWriter;
+import com.budget.dictionary.DescriptionDictionary;
+import com.budget.events.ChangeEvent;
 import com.budget.model.Category;
 import com.budget.model.Income;
 
@@ -11,6 +14,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object for Income operations
@@ -26,27 +30,34 @@ public class IncomeDAO {
      * Create a new income entry
      */
     public boolean create(Income income) {
-        String sql = "INSERT INTO income (category_id, amount, description, income_date) VALUES (?, ?, ?, ?)";
+        String sql = "INSERT INTO income (category_id, amount, description, description_id, income_date) VALUES (?, ?, ?, ?, ?)";
         
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setInt(1, income.getCategoryId());
-            pstmt.setBigDecimal(2, income.getAmount());
-            pstmt.setString(3, income.getDescription());
-            pstmt.setDate(4, Date.valueOf(income.getIncomeDate()));
-            
-            int affectedRows = pstmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                // Get the generated ID
-                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        income.setId(generatedKeys.getInt(1));
+        try {
+            income.setDescriptionId(DescriptionDictionary.intern(income.getDescription()));
+            return DatabaseWriter.execute(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    
+                    pstmt.setInt(1, income.getCategoryId());
+                    pstmt.setBigDecimal(2, income.getAmount());
+                    pstmt.setString(3, income.getDescription());
+                    pstmt.setInt(4, income.getDescriptionId());
+                    pstmt.setDate(5, Date.valueOf(income.getIncomeDate()));
+                    
+                    int affectedRows = pstmt.executeUpdate();
+                    
+                    if (affectedRows > 0) {
+                        // Get the generated ID
+                        try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                            if (generatedKeys.next()) {
+                                income.setId(generatedKeys.getInt(1));
+                            }
+                        }
+                        logChange(conn, ChangeEvent.Operation.CREATE, income.getId());
+                        return true;
                     }
+                    return false;
                 }
-                return true;
-            }
+            });
             
         } catch (SQLException e) {
             System.err.println("Error creating income: " + e.getMessage());
@@ -110,6 +121,38 @@ public class IncomeDAO {
         return incomes;
     }
     
+    /**
+     * Stream every income entry, oldest first, without holding the ledger in memory.
+     * Rows carry only the entry's own columns, not its category.
+     */
+    public void scan(Consumer<Income> consumer) {
+        String sql = "SELECT id, category_id, amount, description, description_id, income_date FROM income ORDER BY income_date, id";
+        
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setFetchSize(1000);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                Income income = new Income();
+                income.setId(rs.getInt("id"));
+                income.setCategoryId(rs.getInt("category_id"));
+                income.setAmount(rs.getBigDecimal("amount"));
+                income.setDescription(rs.getString("description"));
+                income.setDescriptionId(rs.getInt("description_id"));
+                Date incomeDate = rs.getDate("income_date");
+                if (incomeDate != null) {
+                    income.setIncomeDate(incomeDate.toLocalDate());
+                }
+                consumer.accept(income);
+            }
+        
+        } catch (SQLException e) {
+            System.err.println("Error scanning income: " + e.getMessage());
+        }
+    }
+    
     /**
      * Find income by date range
      */
@@ -221,21 +264,51 @@ public class IncomeDAO {
     }
     
     /**
-     * Update existing income
+     * Count every income row
      */
-    public boolean update(Income income) {
-        String sql = "UPDATE income SET category_id = ?, amount = ?, description = ?, income_date = ? WHERE id = ?";
+    public int count() {
+        String sql = "SELECT COUNT(*) FROM income";
         
         try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
             
-            pstmt.setInt(1, income.getCategoryId());
-            pstmt.setBigDecimal(2, income.getAmount());
-            pstmt.setString(3, income.getDescription());
-            pstmt.setDate(4, Date.valueOf(income.getIncomeDate()));
-            pstmt.setInt(5, income.getId());
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
             
-            return pstmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error counting income: " + e.getMessage());
+        }
+        
+        return 0;
+    }
+    
+    /**
+     * Update existing income
+     */
+    public boolean update(Income income) {
+        String sql = "UPDATE income SET category_id = ?, amount = ?, description = ?, description_id = ?, income_date = ? WHERE id = ?";
+        
+        try {
+            income.setDescriptionId(DescriptionDictionary.intern(income.getDescription()));
+            return DatabaseWriter.execute(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    
+                    pstmt.setInt(1, income.getCategoryId());
+                    pstmt.setBigDecimal(2, income.getAmount());
+                    pstmt.setString(3, income.getDescription());
+                    pstmt.setInt(4, income.getDescriptionId());
+                    pstmt.setDate(5, Date.valueOf(income.getIncomeDate()));
+                    pstmt.setInt(6, income.getId());
+                    
+                    if (pstmt.executeUpdate() > 0) {
+                        logChange(conn, ChangeEvent.Operation.UPDATE, income.getId());
+                        return true;
+                    }
+                    return false;
+                }
+            });
             
         } catch (SQLException e) {
             System.err.println("Error updating income: " + e.getMessage());
@@ -250,11 +323,18 @@ public class IncomeDAO {
     public boolean delete(int id) {
         String sql = "DELETE FROM income WHERE id = ?";
         
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
-            return pstmt.executeUpdate() > 0;
+        try {
+            return DatabaseWriter.execute(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    
+                    pstmt.setInt(1, id);
+                    if (pstmt.executeUpdate() > 0) {
+                        logChange(conn, ChangeEvent.Operation.DELETE, id);
+                        return true;
+                    }
+                    return false;
+                }
+            });
             
         } catch (SQLException e) {
             System.err.println("Error deleting income: " + e.getMessage());
@@ -263,6 +343,32 @@ public class IncomeDAO {
         return false;
     }
     
+    /**
+     * Log a change for the mutation journal and the ChangeBus from inside the write command, with the row as it will commit
+     */
+    private void logChange(Connection conn, ChangeEvent.Operation operation, int id) throws SQLException {
+        String sql = """
+            SELECT i.*, c.name as category_name, c.type as category_type, c.color as category_color
+            FROM income i
+            LEFT JOIN categories c ON i.category_id = c.id
+            WHERE i.id = ?
+        """;
+        
+        Income row = null;
+        if (operation != ChangeEvent.Operation.DELETE) {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, id);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        row = extractIncomeFromResultSet(rs);
+                    }
+                }
+            }
+        }
+        // DatabaseWriter assigns the data version once the write has committed
+        DatabaseWriter.log(new ChangeEvent(ChangeEvent.Entity.INCOME, operation, id, row, 0));
+    }
+    
     /**
      * Extract Income object from ResultSet
      */
@@ -272,6 +378,7 @@ public class IncomeDAO {
         income.setCategoryId(rs.getInt("category_id"));
         income.setAmount(rs.getBigDecimal("amount"));
         income.setDescription(rs.getString("description"));
+        income.setDescriptionId(rs.getInt("description_id"));
         
         Date incomeDate = rs.getDate("income_date");
         if (incomeDate != null) {
@@ -0,0 +1,279 @@
+package com.budget.dao;
+
+import com.budget.database.DatabaseManager;
+import com.budget.dictionary.DescriptionDictionary;
+import com.budget.model.Category;
+import com.budget.model.Transaction;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for combined expense and income ledger queries
+ */
+public class TransactionDAO {
+    private static final Comparator<Transaction> NEWEST_FIRST = Comparator
+        .comparing(Transaction::getDate, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(Transaction::getCreatedDate, Comparator.nullsLast(Comparator.reverseOrder()));
+    /** Searches matching more descriptions than this scan the text instead */
+    private static final int MAX_SEARCH_DESCRIPTIONS = 500;
+
+    private final CategoryDAO categoryDAO;
+
+    public TransactionDAO() {
+        this.categoryDAO = new CategoryDAO();
+    }
+
+    /**
+     * Find all transactions, newest first
+     */
+    public List<Transaction> findAll() {
+        return find(null, null, null, null, null);
+    }
+
+    /**
+     * Find transactions matching the given filters, newest first.
+     * Any filter may be null to leave it unrestricted. Expenses and income are
+     * read through two cursors already ordered by the date index and merged
+     * in a single pass; categories are resolved through an id lookup table.
+     * A search term matches a transaction whose description contains it,
+     * ignoring case. The description dictionary resolves the term to the
+     * verbatim descriptions containing it, so most rows are filtered on the
+     * description_id index; only rows whose description lost text to cleaning
+     * are still matched with LIKE. Terms the dictionary cannot answer (shorter
+     * than three characters, or changed by cleaning) are matched with LIKE
+     * over every row. LIKE folds ASCII case only, while the dictionary folds
+     * all of Unicode, so non-ASCII terms can match differently cased
+     * descriptions through the dictionary.
+     */
+    public List<Transaction> find(String searchTerm, Integer categoryId, LocalDate dateFrom,
+                                  LocalDate dateTo, Transaction.Type type) {
+        List<Transaction> transactions = new ArrayList<>();
+
+        // Load categories before taking the connection, the lookup closes it when done
+        Map<Integer, Category> categoriesById = new HashMap<>();
+        for (Category category : categoryDAO.findAll()) {
+            categoriesById.put(category.getId(), category);
+        }
+
+        int[] descriptionIds = searchTerm != null && !searchTerm.isEmpty()
+            ? DescriptionDictionary.idsContaining(searchTerm, MAX_SEARCH_DESCRIPTIONS) : null;
+
+        boolean includeExpenses = type == null || type == Transaction.Type.EXPENSE;
+        boolean includeIncome = type == null || type == Transaction.Type.INCOME;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement expenseStmt = includeExpenses ?
+                 prepareLedgerQuery(conn, Transaction.Type.EXPENSE, searchTerm, descriptionIds, categoryId, dateFrom, dateTo) : null;
+             PreparedStatement incomeStmt = includeIncome ?
+                 prepareLedgerQuery(conn, Transaction.Type.INCOME, searchTerm, descriptionIds, categoryId, dateFrom, dateTo) : null;
+             ResultSet expenseRs = expenseStmt != null ? expenseStmt.executeQuery() : null;
+             ResultSet incomeRs = incomeStmt != null ? incomeStmt.executeQuery() : null) {
+
+            Transaction nextExpense = nextTransaction(expenseRs, Transaction.Type.EXPENSE, categoriesById);
+            Transaction nextIncome = nextTransaction(incomeRs, Transaction.Type.INCOME, categoriesById);
+
+            // Two-way merge of the date-ordered cursors
+            while (nextExpense != null || nextIncome != null) {
+                if (nextIncome == null || (nextExpense != null && NEWEST_FIRST.compare(nextExpense, nextIncome) <= 0)) {
+                    transactions.add(nextExpense);
+                    nextExpense = nextTransaction(expenseRs, Transaction.Type.EXPENSE, categoriesById);
+                } else {
+                    transactions.add(nextIncome);
+                    nextIncome = nextTransaction(incomeRs, Transaction.Type.INCOME, categoriesById);
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error finding transactions: " + e.getMessage());
+        }
+
+        return transactions;
+    }
+
+    /**
+     * Find the latest transactions across expenses and income.
+     * Each side is bounded by the date index before the union, so the cost
+     * depends on the limit rather than on ledger size.
+     */
+    public List<Transaction> findRecent(int limit) {
+        List<Transaction> transactions = new ArrayList<>();
+        String sql = """
+            SELECT t.*, c.name as category_name, c.type as category_type, c.color as category_color
+            FROM (
+                SELECT * FROM (
+                    SELECT 'EXPENSE' as type, e.id, e.category_id, e.amount, e.description,
+                           e.expense_date as transaction_date, e.created_date
+                    FROM expenses e
+                    ORDER BY e.expense_date DESC, e.created_date DESC
+                    LIMIT ?
+                )
+                UNION ALL
+                SELECT * FROM (
+                    SELECT 'INCOME' as type, i.id, i.category_id, i.amount, i.description,
+                           i.income_date as transaction_date, i.created_date
+                    FROM income i
+                    ORDER BY i.income_date DESC, i.created_date DESC
+                    LIMIT ?
+                )
+                ORDER BY transaction_date DESC, created_date DESC
+                LIMIT ?
+            ) t
+            LEFT JOIN categories c ON t.category_id = c.id
+            ORDER BY t.transaction_date DESC, t.created_date DESC
+        """;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, limit);
+            pstmt.setInt(2, limit);
+            pstmt.setInt(3, limit);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                transactions.add(extractTransactionFromResultSet(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error finding recent transactions: " + e.getMessage());
+        }
+
+        return transactions;
+    }
+
+    /**
+     * Build a newest-first query over one side of the ledger.
+     * The search term is matched by description ID when the dictionary resolved it, with rows outside
+     * verbatim descriptions still matched by text; otherwise every row is matched by text.
+     */
+    private PreparedStatement prepareLedgerQuery(Connection conn, Transaction.Type type, String searchTerm, int[] descriptionIds,
+                                                 Integer categoryId, LocalDate dateFrom, LocalDate dateTo) throws SQLException {
+        String table = type == Transaction.Type.EXPENSE ? "expenses" : "income";
+        String dateColumn = type == Transaction.Type.EXPENSE ? "expense_date" : "income_date";
+
+        StringBuilder sql = new StringBuilder();
+        sql.append("SELECT id, category_id, amount, description, ").append(dateColumn).append(" as transaction_date, created_date");
+        sql.append(" FROM ").append(table).append(" WHERE 1 = 1");
+        if (descriptionIds != null) {
+            sql.append(" AND (description_id IN (");
+            for (int i = 0; i < descriptionIds.length; i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(") OR ((description_id IS NULL OR description_id = 0")
+               .append(" OR description_id IN (SELECT id FROM descriptions WHERE verbatim = 0))")
+               .append(" AND description LIKE ? ESCAPE '\\'))");
+        } else if (searchTerm != null && !searchTerm.isEmpty()) {
+            sql.append(" AND description LIKE ? ESCAPE '\\'");
+        }
+        if (categoryId != null) {
+            sql.append(" AND category_id = ?");
+        }
+        if (dateFrom != null) {
+            sql.append(" AND ").append(dateColumn).append(" >= ?");
+        }
+        if (dateTo != null) {
+            sql.append(" AND ").append(dateColumn).append(" <= ?");
+        }
+        sql.append(" ORDER BY ").append(dateColumn).append(" DESC, created_date DESC");
+
+        PreparedStatement pstmt = conn.prepareStatement(sql.toString());
+        int index = 1;
+        if (descriptionIds != null) {
+            for (int descriptionId : descriptionIds) {
+                pstmt.setInt(index++, descriptionId);
+            }
+            pstmt.setString(index++, likePattern(searchTerm));
+        } else if (searchTerm != null && !searchTerm.isEmpty()) {
+            pstmt.setString(index++, likePattern(searchTerm));
+        }
+        if (categoryId != null) {
+            pstmt.setInt(index++, categoryId);
+        }
+        if (dateFrom != null) {
+            pstmt.setDate(index++, Date.valueOf(dateFrom));
+        }
+        if (dateTo != null) {
+            pstmt.setDate(index++, Date.valueOf(dateTo));
+        }
+        return pstmt;
+    }
+
+    private static String likePattern(String searchTerm) {
+        String escaped = searchTerm.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    /**
+     * Advance a ledger cursor and map its row, or return null when exhausted
+     */
+    private Transaction nextTransaction(ResultSet rs, Transaction.Type type, Map<Integer, Category> categoriesById) throws SQLException {
+        if (rs == null || !rs.next()) {
+            return null;
+        }
+
+        Transaction transaction = new Transaction();
+        transaction.setType(type);
+        transaction.setId(rs.getInt("id"));
+        transaction.setCategoryId(rs.getInt("category_id"));
+        transaction.setAmount(rs.getBigDecimal("amount"));
+        transaction.setDescription(rs.getString("description"));
+
+        Date transactionDate = rs.getDate("transaction_date");
+        if (transactionDate != null) {
+            transaction.setDate(transactionDate.toLocalDate());
+        }
+
+        Timestamp createdTimestamp = rs.getTimestamp("created_date");
+        if (createdTimestamp != null) {
+            transaction.setCreatedDate(createdTimestamp.toLocalDateTime());
+        }
+
+        Category category = categoriesById.get(transaction.getCategoryId());
+        if (category != null) {
+            transaction.setCategory(category);
+        }
+
+        return transaction;
+    }
+
+    /**
+     * Extract Transaction object from ResultSet
+     */
+    private Transaction extractTransactionFromResultSet(ResultSet rs) throws SQLException {
+        Transaction transaction = new Transaction();
+        transaction.setType(Transaction.Type.valueOf(rs.getString("type")));
+        transaction.setId(rs.getInt("id"));
+        transaction.setCategoryId(rs.getInt("category_id"));
+        transaction.setAmount(rs.getBigDecimal("amount"));
+        transaction.setDescription(rs.getString("description"));
+
+        Date transactionDate = rs.getDate("transaction_date");
+        if (transactionDate != null) {
+            transaction.setDate(transactionDate.toLocalDate());
+        }
+
+        Timestamp createdTimestamp = rs.getTimestamp("created_date");
+        if (createdTimestamp != null) {
+            transaction.setCreatedDate(createdTimestamp.toLocalDateTime());
+        }
+
+        // Set category if available
+        String categoryName = rs.getString("category_name");
+        if (categoryName != null) {
+            Category category = new Category();
+            category.setId(rs.getInt("category_id"));
+            category.setName(categoryName);
+            category.setType(Category.CategoryType.valueOf(rs.getString("category_type")));
+            category.setColor(rs.getString("category_color"));
+            transaction.setCategory(category);
+        }
+
+        return transaction;
+    }
+}
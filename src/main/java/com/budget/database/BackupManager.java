@@ -0,0 +1,272 @@
+package com.budget.database;
+
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.core.DB;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Online snapshots of budget.db through SQLite's incremental backup API.
+ * The copy runs on its own read-only connection inside one read transaction,
+ * so under WAL it captures a single consistent point in time, never blocks
+ * the writer and is never restarted by concurrent commits. Pages are copied
+ * a few at a time with a pause between steps to keep I/O throttled. Each
+ * snapshot is verified before it is kept, and only the newest ones are retained.
+ *
+ * Restore is an offline command; stop the server first:
+ *   java -cp ... com.budget.database.BackupManager restore backups/budget-20240101-120000.db
+ */
+public class BackupManager {
+    private static final String PREFIX = "budget-";
+    private static final String SUFFIX = ".db";
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final String[] REQUIRED_TABLES = {"categories", "budgets", "expenses", "income"};
+    
+    private final Path directory;
+    private final long intervalMinutes;
+    private final int pagesPerStep;
+    private final long stepPauseMs;
+    private final int retain;
+    private ScheduledExecutorService scheduler;
+    
+    public BackupManager() {
+        this(Paths.get(System.getProperty("budget.backup.dir", "backups")),
+             Long.getLong("budget.backup.intervalMinutes", 60),
+             Integer.getInteger("budget.backup.pagesPerStep", 64),
+             Long.getLong("budget.backup.stepPauseMs", 5),
+             Integer.getInteger("budget.backup.retain", 24));
+    }
+    
+    public BackupManager(Path directory, long intervalMinutes, int pagesPerStep, long stepPauseMs, int retain) {
+        this.directory = directory;
+        this.intervalMinutes = intervalMinutes;
+        this.pagesPerStep = pagesPerStep;
+        this.stepPauseMs = stepPauseMs;
+        this.retain = retain;
+    }
+    
+    /**
+     * Start taking snapshots on a schedule; an interval of 0 disables scheduling
+     */
+    public synchronized void start() {
+        if (scheduler != null || intervalMinutes <= 0) {
+            return;
+        }
+        
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "budget-db-backup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::scheduledBackup, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+    
+    /**
+     * Stop the schedule, letting a snapshot in progress finish
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+    
+    private void scheduledBackup() {
+        try {
+            Path snapshot = backupNow();
+            System.out.println("💾 Database snapshot written to " + snapshot);
+        } catch (SQLException | IOException e) {
+            System.err.println("Error taking database snapshot: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Take, verify and keep one snapshot, then prune old ones
+     * @return path of the new snapshot
+     */
+    public Path backupNow() throws SQLException, IOException {
+        Files.createDirectories(directory);
+        Path snapshot = directory.resolve(PREFIX + LocalDateTime.now().format(STAMP) + SUFFIX);
+        Path partial = directory.resolve(snapshot.getFileName() + ".partial");
+        
+        try {
+            copy(partial);
+            verify(partial);
+            Files.move(partial, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+        
+        prune();
+        return snapshot;
+    }
+    
+    /**
+     * Get the kept snapshots, newest first
+     */
+    public List<Path> listSnapshots() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return snapshots;
+        }
+        
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path path : stream) {
+                snapshots.add(path);
+            }
+        }
+        // Timestamped names sort chronologically
+        snapshots.sort(Collections.reverseOrder());
+        return snapshots;
+    }
+    
+    private void copy(Path destination) throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        config.setBusyTimeout(5000);
+        
+        try (Connection source = config.createConnection("jdbc:sqlite:" + DatabaseManager.DB_FILE)) {
+            // Pin one WAL snapshot for the whole copy so concurrent commits don't restart it
+            source.setAutoCommit(false);
+            try (Statement stmt = source.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT count(*) FROM sqlite_master")) {
+                rs.next();
+            }
+            
+            DB db = source.unwrap(SQLiteConnection.class).getDatabase();
+            int rc = db.backup("main", destination.toString(), this::throttle, 100, 50, pagesPerStep);
+            source.rollback();
+            if (rc != 0) {
+                throw new SQLException("Backup failed with SQLite result code " + rc);
+            }
+        }
+    }
+    
+    private void throttle(int remaining, int pageCount) {
+        if (remaining > 0 && stepPauseMs > 0) {
+            try {
+                Thread.sleep(stepPauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * Check a snapshot opens, passes integrity_check and has every application table
+     */
+    public static void verify(Path snapshot) throws SQLException {
+        if (!Files.isRegularFile(snapshot)) {
+            throw new SQLException("Snapshot not found: " + snapshot);
+        }
+        
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        try (Connection conn = config.createConnection("jdbc:sqlite:" + snapshot);
+             Statement stmt = conn.createStatement()) {
+            
+            try (ResultSet rs = stmt.executeQuery("PRAGMA integrity_check")) {
+                String result = rs.next() ? rs.getString(1) : "no result";
+                if (!"ok".equals(result)) {
+                    throw new SQLException("Snapshot " + snapshot + " failed integrity check: " + result);
+                }
+            }
+            
+            for (String table : REQUIRED_TABLES) {
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT count(*) FROM sqlite_master WHERE type = 'table' AND name = '" + table + "'")) {
+                    if (!rs.next() || rs.getInt(1) != 1) {
+                        throw new SQLException("Snapshot " + snapshot + " is missing table " + table);
+                    }
+                }
+            }
+        }
+    }
+    
+    private void prune() throws IOException {
+        List<Path> snapshots = listSnapshots();
+        for (int i = retain; i < snapshots.size(); i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+    
+    /**
+     * Replace the live database with a verified snapshot.
+     * The server must be stopped; the copy goes through the backup API so the
+     * WAL and shared-memory files are handled by SQLite rather than overwritten.
+     */
+    public static void restore(Path snapshot) throws SQLException {
+        verify(snapshot);
+        
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DatabaseManager.DB_FILE)) {
+            DB db = conn.unwrap(SQLiteConnection.class).getDatabase();
+            int rc = db.restore("main", snapshot.toString(), null);
+            if (rc != 0) {
+                throw new SQLException("Restore failed with SQLite result code " + rc);
+            }
+        }
+    }
+    
+    /**
+     * Command line entry point: backup | list | verify FILE | restore FILE
+     */
+    public static void main(String[] args) {
+        BackupManager backups = new BackupManager();
+        String command = args.length > 0 ? args[0] : "";
+        
+        try {
+            switch (command) {
+                case "backup":
+                    System.out.println("Snapshot written to " + backups.backupNow());
+                    break;
+                case "list":
+                    for (Path snapshot : backups.listSnapshots()) {
+                        System.out.println(snapshot + "  " + Files.size(snapshot) + " bytes");
+                    }
+                    break;
+                case "verify":
+                    requireFile(args);
+                    verify(Paths.get(args[1]));
+                    System.out.println(args[1] + " is OK");
+                    break;
+                case "restore":
+                    requireFile(args);
+                    restore(Paths.get(args[1]));
+                    System.out.println("Restored " + DatabaseManager.DB_FILE + " from " + args[1]);
+                    break;
+                default:
+                    System.err.println("Usage: BackupManager backup | list | verify <snapshot> | restore <snapshot>");
+                    System.exit(2);
+            }
+        } catch (SQLException | IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+    
+    private static void requireFile(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Missing snapshot file");
+            System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.budget.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-size pool of read-only SQLite connections for the query path.
+ * Borrowed connections are proxies whose close() hands the physical
+ * connection back to the pool, so DAO try-with-resources blocks keep working.
+ */
+public class ConnectionPool {
+    private static final long ACQUIRE_TIMEOUT_SECONDS = 30;
+    
+    private final int maxSize;
+    private final BlockingQueue<Connection> idle = new LinkedBlockingQueue<>();
+    private final AtomicInteger opened = new AtomicInteger();
+    private volatile boolean closed;
+    
+    public ConnectionPool(int maxSize) {
+        this.maxSize = maxSize;
+    }
+    
+    /**
+     * Get the maximum number of connections this pool will open
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+    
+    /**
+     * Borrow a connection, opening a new one while below the pool size
+     */
+    public Connection acquire() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        
+        Connection physical = idle.poll();
+        if (physical == null) {
+            physical = openIfBelowLimit();
+        }
+        if (physical == null) {
+            try {
+                physical = idle.poll(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection", e);
+            }
+            if (physical == null) {
+                throw new SQLException("Timed out waiting for a database connection");
+            }
+        }
+        
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            new PooledConnectionHandler(physical));
+    }
+    
+    /**
+     * Close all idle connections and refuse further borrows
+     */
+    public void close() {
+        closed = true;
+        Connection physical;
+        while ((physical = idle.poll()) != null) {
+            discard(physical);
+        }
+    }
+    
+    private Connection openIfBelowLimit() throws SQLException {
+        while (true) {
+            int current = opened.get();
+            if (current >= maxSize) {
+                return null;
+            }
+            if (opened.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+        
+        try {
+            return DatabaseManager.createReadConnection();
+        } catch (SQLException e) {
+            opened.decrementAndGet();
+            throw e;
+        }
+    }
+    
+    private void release(Connection physical) {
+        try {
+            if (closed || physical.isClosed()) {
+                discard(physical);
+                return;
+            }
+            if (!physical.getAutoCommit()) {
+                // Never hand the next borrower a half-finished transaction
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            idle.add(physical);
+        } catch (SQLException e) {
+            System.err.println("Error returning connection to pool: " + e.getMessage());
+            discard(physical);
+        }
+    }
+    
+    private void discard(Connection physical) {
+        opened.decrementAndGet();
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Proxy handler for one borrow of a physical connection
+     */
+    private class PooledConnectionHandler implements InvocationHandler {
+        private final Connection physical;
+        private boolean released;
+        
+        PooledConnectionHandler(Connection physical) {
+            this.physical = physical;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release(physical);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + "]";
+                default:
+                    if (released) {
+                        throw new SQLException("Connection has been returned to the pool");
+                    }
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
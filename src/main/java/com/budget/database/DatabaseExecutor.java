@@ -0,0 +1,58 @@
+package com.budget.database;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded executor for blocking DAO calls, sized to the connection pool so
+ * queries never queue up waiting for a connection inside a worker thread.
+ * When the backlog is full the submitting thread runs the query itself.
+ */
+public final class DatabaseExecutor {
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final ThreadPoolExecutor executor = createExecutor();
+    
+    private DatabaseExecutor() {}
+    
+    /**
+     * Run a blocking query on a database worker thread
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, executor);
+    }
+    
+    /**
+     * Get the executor for composing further asynchronous stages
+     */
+    public static Executor executor() {
+        return executor;
+    }
+    
+    /**
+     * Stop accepting queries and let queued ones finish
+     */
+    public static void shutdown() {
+        executor.shutdown();
+    }
+    
+    private static ThreadPoolExecutor createExecutor() {
+        int threads = DatabaseManager.getPoolSize();
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            runnable -> {
+                Thread thread = new Thread(runnable, "budget-db-query-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
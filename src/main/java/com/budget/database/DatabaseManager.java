@@ -1,34 +1,93 @@
 package com.budget.database;
 
+import org.sqlite.SQLiteConfig;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
 /**
- * Database Manager class to handle SQLite database connections and schema creation
+ * Database Manager class to handle SQLite database connections and schema creation.
+ * Reads borrow read-only connections from a fixed-size pool; mutations go through
+ * {@link DatabaseWriter}, which owns the only read-write connection.
  */
 public class DatabaseManager {
-    private static final String DB_URL = "jdbc:sqlite:budget.db";
-    private static Connection connection;
+    static final String DB_FILE = "budget.db";
+    private static final String DB_URL = "jdbc:sqlite:" + DB_FILE;
+    private static final int POOL_SIZE = Integer.getInteger("budget.db.poolSize", 4);
+    private static final ConnectionPool pool = new ConnectionPool(POOL_SIZE);
     
     /**
-     * Get database connection (singleton pattern)
+     * Borrow a pooled read-only connection; closing it returns it to the pool.
+     * Mutations must go through {@link DatabaseWriter} instead.
      * @return Connection object
      */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(DB_URL);
-        }
-        return connection;
+        return pool.acquire();
+    }
+    
+    /**
+     * Get the number of pooled connections available to the query path
+     */
+    public static int getPoolSize() {
+        return pool.getMaxSize();
+    }
+    
+    /**
+     * Open a new, unshared read-write connection; only the writer thread uses one
+     */
+    static Connection createConnection() throws SQLException {
+        return instrument(DriverManager.getConnection(DB_URL));
+    }
+    
+    /**
+     * Open a new read-only connection for the query path.
+     * Opened with SQLITE_OPEN_READONLY, so a stray write fails fast instead of
+     * taking the write lock; under WAL each read sees a committed snapshot and
+     * never blocks, or is blocked by, the writer.
+     */
+    static Connection createReadConnection() throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        config.setBusyTimeout(5000);
+        return instrument(config.createConnection(DB_URL));
+    }
+    
+    /**
+     * Profile and cache the statements of a physical connection
+     */
+    private static Connection instrument(Connection physical) {
+        return StatementCache.wrap(QueryProfiler.wrap(physical));
     }
     
     /**
      * Initialize database schema - create all required tables
      */
     public static void initializeDatabase() {
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
+        try {
+            DatabaseWriter.execute(DatabaseManager::createSchema);
+            System.out.println("Database initialized successfully!");
+            
+        } catch (SQLException e) {
+            System.err.println("Error initializing database: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Create the schema on a caller-owned connection, e.g. a database being rebuilt
+     */
+    public static void initializeSchema(Connection conn) throws SQLException {
+        createSchema(conn);
+    }
+    
+    /**
+     * Create all tables, indexes and default rows
+     */
+    private static Void createSchema(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
             
             // Create Categories table
             String createCategoriesTable = """
@@ -50,6 +109,7 @@ public class DatabaseManager {
                     period TEXT NOT NULL CHECK(period IN ('MONTHLY', 'WEEKLY', 'YEARLY')),
                     start_date DATE NOT NULL,
                     end_date DATE,
+                    anchor_date DATE,
                     created_date DATETIME DEFAULT CURRENT_TIMESTAMP,
                     FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE
                 )
@@ -62,6 +122,7 @@ public class DatabaseManager {
                     category_id INTEGER NOT NULL,
                     amount DECIMAL(10,2) NOT NULL,
                     description TEXT,
+                    description_id INTEGER,
                     expense_date DATE NOT NULL,
                     created_date DATETIME DEFAULT CURRENT_TIMESTAMP,
                     FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE
@@ -75,27 +136,131 @@ public class DatabaseManager {
                     category_id INTEGER NOT NULL,
                     amount DECIMAL(10,2) NOT NULL,
                     description TEXT,
+                    description_id INTEGER,
                     income_date DATE NOT NULL,
                     created_date DATETIME DEFAULT CURRENT_TIMESTAMP,
                     FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE
                 )
             """;
             
+            // Create Budget Alerts table; alerts outlive the budgets they were raised for
+            String createBudgetAlertsTable = """
+                CREATE TABLE IF NOT EXISTS budget_alerts (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    budget_id INTEGER NOT NULL,
+                    category_id INTEGER NOT NULL,
+                    status TEXT NOT NULL CHECK(status IN ('ON_TRACK', 'NEAR_LIMIT', 'OVER_BUDGET')),
+                    spent DECIMAL(10,2) NOT NULL,
+                    amount DECIMAL(10,2) NOT NULL,
+                    percentage REAL NOT NULL,
+                    created_date DATETIME DEFAULT CURRENT_TIMESTAMP
+                )
+            """;
+            
+            // Create Budget History table; one row per closed budget period
+            String createBudgetHistoryTable = """
+                CREATE TABLE IF NOT EXISTS budget_history (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    budget_id INTEGER NOT NULL,
+                    category_id INTEGER NOT NULL,
+                    period TEXT NOT NULL CHECK(period IN ('MONTHLY', 'WEEKLY', 'YEARLY')),
+                    start_date DATE NOT NULL,
+                    end_date DATE NOT NULL,
+                    amount DECIMAL(10,2) NOT NULL,
+                    spent DECIMAL(10,2) NOT NULL,
+                    closed_date DATETIME DEFAULT CURRENT_TIMESTAMP,
+                    UNIQUE (budget_id, start_date)
+                )
+            """;
+            
+            // Create Expense Anomalies table; one row per expense flagged as unusual
+            String createExpenseAnomaliesTable = """
+                CREATE TABLE IF NOT EXISTS expense_anomalies (
+                    expense_id INTEGER PRIMARY KEY,
+                    category_id INTEGER NOT NULL,
+                    amount DECIMAL(10,2) NOT NULL,
+                    typical_amount DECIMAL(10,2) NOT NULL,
+                    score REAL NOT NULL,
+                    created_date DATETIME DEFAULT CURRENT_TIMESTAMP
+                )
+            """;
+            
+            // Create Anomaly Statistics table; the anomaly detector's per-category state
+            String createAnomalyStatisticsTable = """
+                CREATE TABLE IF NOT EXISTS anomaly_statistics (
+                    category_id INTEGER PRIMARY KEY,
+                    observations INTEGER NOT NULL,
+                    mean REAL NOT NULL,
+                    m2 REAL NOT NULL,
+                    histogram BLOB NOT NULL,
+                    histogram_weight REAL NOT NULL,
+                    last_expense_id INTEGER NOT NULL
+                )
+            """;
+            
+            // Create Descriptions table; one row per distinct normalised transaction description
+            String createDescriptionsTable = """
+                CREATE TABLE IF NOT EXISTS descriptions (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    normalized TEXT NOT NULL UNIQUE,
+                    display TEXT NOT NULL,
+                    verbatim INTEGER
+                )
+            """;
+            
+            // Create Journal State table; the mutation journal sequence the database last committed
+            String createJournalStateTable = """
+                CREATE TABLE IF NOT EXISTS journal_state (
+                    id INTEGER PRIMARY KEY CHECK(id = 1),
+                    last_sequence INTEGER NOT NULL
+                )
+            """;
+            
             // Execute all table creation statements
             stmt.execute(createCategoriesTable);
             stmt.execute(createBudgetsTable);
             stmt.execute(createExpensesTable);
             stmt.execute(createIncomeTable);
+            stmt.execute(createBudgetAlertsTable);
+            stmt.execute(createBudgetHistoryTable);
+            stmt.execute(createExpenseAnomaliesTable);
+            stmt.execute(createAnomalyStatisticsTable);
+            stmt.execute(createDescriptionsTable);
+            stmt.execute(createJournalStateTable);
             
-            // Insert default categories if they don't exist
-            insertDefaultCategories(stmt);
+            // Databases created before descriptions were interned gain the column; DescriptionDictionary fills it in
+            addColumnIfMissing(stmt, "expenses", "description_id", "INTEGER");
+            addColumnIfMissing(stmt, "income", "description_id", "INTEGER");
+            addColumnIfMissing(stmt, "descriptions", "verbatim", "INTEGER");
+            // Budgets made before periods were anchored leave it NULL and count from their start date
+            addColumnIfMissing(stmt, "budgets", "anchor_date", "DATE");
             
-            System.out.println("Database initialized successfully!");
+            // Date indexes let newest-first ledger queries stop after LIMIT rows
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_expenses_date ON expenses (expense_date DESC, created_date DESC)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_income_date ON income (income_date DESC, created_date DESC)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_budget_alerts_budget ON budget_alerts (budget_id, id DESC)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_budget_history_period ON budget_history (start_date, end_date)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_expenses_description ON expenses (description_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_income_description ON income (description_id)");
             
-        } catch (SQLException e) {
-            System.err.println("Error initializing database: " + e.getMessage());
-            e.printStackTrace();
+            // Insert default categories if they don't exist
+            insertDefaultCategories(stmt);
         }
+        return null;
+    }
+    
+    /**
+     * Add a column to an existing table unless it already has it
+     */
+    private static void addColumnIfMissing(Statement stmt, String table, String column, String type) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return;
+                }
+            }
+        }
+        stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + type);
     }
     
     /**
@@ -133,15 +298,10 @@ public class DatabaseManager {
     }
     
     /**
-     * Close database connection
+     * Close pooled connections and stop the writer after pending writes commit
      */
     public static void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
-        }
+        DatabaseWriter.shutdown();
+        pool.close();
     }
 }
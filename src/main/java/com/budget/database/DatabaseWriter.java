@@ -0,0 +1,368 @@
+package com.budget.database;
+
+import com.budget.dao.DataVersion;
+import com.budget.events.ChangeBus;
+import com.budget.events.ChangeEvent;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-writer subsystem for all database mutations.
+ * Callers submit write commands to a queue; one dedicated thread owns the write
+ * connection, applies queued commands in group-committed transactions and
+ * completes a future per command once its transaction has committed.
+ * When a commit log is attached, the changes each command logs are appended
+ * to it in batch order just before the transaction commits, and the log's
+ * position is stored in the journal_state table inside that transaction.
+ * Once it has committed, each change gets the next data version and goes to
+ * the ChangeBus in the same order, before any of the batch's callers are
+ * woken; so subscribers see changes in commit order, carrying the rows as
+ * they committed.
+ */
+public final class DatabaseWriter {
+    private static final int MAX_BATCH_SIZE = 256;
+    private static final long POLL_INTERVAL_MS = 100;
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    private static final BlockingQueue<PendingWrite<?>> queue = new LinkedBlockingQueue<>();
+    private static Thread writerThread;
+    private static volatile boolean running;
+    private static Connection connection;
+    private static CommitLog commitLog;
+    private static PendingWrite<?> current;
+
+    private DatabaseWriter() {}
+
+    /**
+     * A unit of work applied on the write connection inside a group transaction
+     */
+    @FunctionalInterface
+    public interface WriteCommand<T> {
+        T apply(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Write-ahead log of committed changes
+     */
+    public interface CommitLog {
+        /**
+         * Append the changes of one transaction before it commits
+         * @return the sequence number of the last change appended
+         */
+        long append(List<ChangeEvent> changes) throws IOException;
+
+        /**
+         * Get the sequence number of the last change appended, 0 if none
+         */
+        long getLastSequence();
+
+        /**
+         * Drop everything appended after a sequence number, i.e. changes that never committed
+         */
+        void discardAfter(long sequence) throws IOException;
+    }
+
+    /**
+     * Attach the commit log, first reconciling it with the position the database last committed
+     */
+    public static void setCommitLog(CommitLog log) throws SQLException {
+        execute(conn -> {
+            long committed = -1;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT last_sequence FROM journal_state WHERE id = 1")) {
+                if (rs.next()) {
+                    committed = rs.getLong(1);
+                }
+            }
+
+            // No row yet means the position is unknown, so there is nothing to compare
+            long last = log.getLastSequence();
+            if (committed >= 0 && last > committed) {
+                System.err.println("Discarding uncommitted commit log records " + (committed + 1) + "-" + last);
+                try {
+                    log.discardAfter(committed);
+                } catch (IOException e) {
+                    throw new SQLException("Error discarding uncommitted commit log records", e);
+                }
+            } else if (committed >= 0 && last < committed) {
+                System.err.println("Commit log is missing committed records " + (last + 1) + "-" + committed);
+            }
+            commitLog = log;
+            return null;
+        });
+    }
+
+    /**
+     * Log a change made by the running write command, for the commit log and the ChangeBus;
+     * dropped if the command rolls back
+     */
+    public static void log(ChangeEvent change) {
+        if (Thread.currentThread() != writerThread || current == null) {
+            throw new IllegalStateException("Changes can only be logged from a running write command");
+        }
+        current.changes.add(change);
+    }
+
+    /**
+     * Queue a write command
+     * @return future completed with the command result after commit
+     */
+    public static <T> CompletableFuture<T> submit(WriteCommand<T> command) {
+        PendingWrite<T> pending = new PendingWrite<>(command);
+        ensureStarted();
+        queue.add(pending);
+        return pending.future;
+    }
+
+    /**
+     * Queue a write command and wait for it to commit
+     */
+    public static <T> T execute(WriteCommand<T> command) throws SQLException {
+        if (Thread.currentThread() == writerThread) {
+            // Nested write from inside a command joins the current transaction
+            return command.apply(connection);
+        }
+
+        try {
+            return submit(command).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for database write", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SQLException("Database write failed", cause);
+        }
+    }
+
+    /**
+     * Drain queued commands and stop the writer thread
+     */
+    public static synchronized void shutdown() {
+        if (writerThread == null) {
+            return;
+        }
+
+        running = false;
+        try {
+            writerThread.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+    }
+
+    private static synchronized void ensureStarted() {
+        if (writerThread != null) {
+            return;
+        }
+
+        running = true;
+        writerThread = new Thread(DatabaseWriter::run, "budget-db-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    private static void run() {
+        List<PendingWrite<?>> batch = new ArrayList<>(MAX_BATCH_SIZE);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite<?> first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                // Everything that queued up while the last commit was in flight shares this transaction
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                applyBatch(batch);
+
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (Throwable e) {
+                // Nothing may stop the only writer; fail what the batch left unfinished and carry on
+                System.err.println("Error applying database writes: " + e);
+                for (PendingWrite<?> pending : batch) {
+                    pending.future.completeExceptionally(e);
+                }
+                closeWriteConnection();
+            } finally {
+                batch.clear();
+            }
+        }
+
+        closeWriteConnection();
+    }
+
+    private static void applyBatch(List<PendingWrite<?>> batch) {
+        long logStart = -1;
+        boolean committed = false;
+        List<ChangeEvent> changes = new ArrayList<>();
+        try {
+            Connection conn = getWriteConnection();
+
+            for (PendingWrite<?> pending : batch) {
+                // A savepoint per command keeps one failure from rolling back the rest of the group
+                Savepoint savepoint = conn.setSavepoint();
+                current = pending;
+                try {
+                    pending.apply(conn);
+                    conn.releaseSavepoint(savepoint);
+                } catch (Throwable e) {
+                    // Errors too, so a command's StackOverflowError or AssertionError fails only that command
+                    conn.rollback(savepoint);
+                    pending.failure = e;
+                    pending.changes.clear();
+                } finally {
+                    current = null;
+                }
+            }
+
+            for (PendingWrite<?> pending : batch) {
+                if (pending.failure == null) {
+                    changes.addAll(pending.changes);
+                }
+            }
+            if (commitLog != null && !changes.isEmpty()) {
+                logStart = commitLog.getLastSequence();
+                appendToLog(conn, changes);
+            }
+
+            conn.commit();
+            committed = true;
+
+        } catch (SQLException e) {
+            System.err.println("Error committing database writes: " + e.getMessage());
+            for (PendingWrite<?> pending : batch) {
+                if (pending.failure == null) {
+                    pending.failure = e;
+                }
+            }
+            // Start the next batch on a fresh connection
+            closeWriteConnection();
+        } finally {
+            if (!committed && logStart >= 0) {
+                discardLog(logStart);
+            }
+        }
+
+        if (committed && !changes.isEmpty()) {
+            publish(changes);
+        }
+        for (PendingWrite<?> pending : batch) {
+            pending.finish();
+        }
+    }
+
+    /**
+     * Version a committed batch's changes and hand them to the ChangeBus
+     */
+    private static void publish(List<ChangeEvent> changes) {
+        List<ChangeEvent> versioned = new ArrayList<>(changes.size());
+        for (ChangeEvent change : changes) {
+            versioned.add(new ChangeEvent(change.getEntity(), change.getOperation(), change.getId(),
+                change.getPayload(), DataVersion.bump()));
+        }
+        ChangeBus.publish(versioned);
+    }
+
+    /**
+     * Append a batch's changes to the commit log and store its new position in the same transaction
+     */
+    private static void appendToLog(Connection conn, List<ChangeEvent> changes) throws SQLException {
+        long last;
+        try {
+            last = commitLog.append(changes);
+        } catch (IOException | RuntimeException e) {
+            // Write-ahead: changes that cannot be logged are not committed either
+            throw new SQLException("Error writing commit log: " + e.getMessage(), e);
+        }
+
+        String sql = "INSERT OR REPLACE INTO journal_state (id, last_sequence) VALUES (1, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setLong(1, last);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Drop log records of a batch that did not commit
+     */
+    private static void discardLog(long sequence) {
+        try {
+            commitLog.discardAfter(sequence);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error discarding uncommitted commit log records: " + e.getMessage());
+        }
+    }
+
+    private static Connection getWriteConnection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            connection = DatabaseManager.createConnection();
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA journal_mode=WAL");
+                stmt.execute("PRAGMA busy_timeout=5000");
+            }
+            connection.setAutoCommit(false);
+        }
+        return connection;
+    }
+
+    private static void closeWriteConnection() {
+        try {
+            if (connection != null && !connection.isClosed()) {
+                connection.rollback();
+                connection.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error closing write connection: " + e.getMessage());
+        }
+        connection = null;
+    }
+
+    /**
+     * Queued command together with its outcome
+     */
+    private static class PendingWrite<T> {
+        final WriteCommand<T> command;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final List<ChangeEvent> changes = new ArrayList<>();
+        T result;
+        Throwable failure;
+
+        PendingWrite(WriteCommand<T> command) {
+            this.command = command;
+        }
+
+        void apply(Connection conn) throws SQLException {
+            result = command.apply(conn);
+        }
+
+        void finish() {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+}
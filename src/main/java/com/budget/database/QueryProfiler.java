@@ -0,0 +1,334 @@
+package com.budget.database;
+
+import com.budget.metrics.QueryEvent;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * JDBC instrumentation for every physical connection the application opens.
+ * Statements are timed from execute until their result set is exhausted or
+ * closed (SQLite does most of its work while stepping rows), grouped by SQL
+ * shape, and any execution over the slow-query threshold is logged together
+ * with the statement's EXPLAIN QUERY PLAN so missing indexes show up.
+ * Each execution is also emitted as a Flight Recorder {@link QueryEvent}.
+ */
+public final class QueryProfiler {
+    private static final boolean ENABLED = !"false".equals(System.getProperty("budget.db.profile"));
+    private static final long SLOW_QUERY_NANOS =
+        TimeUnit.MILLISECONDS.toNanos(Long.getLong("budget.db.slowQueryMs", 100));
+    
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    private static final Map<String, QueryStats> stats = new ConcurrentHashMap<>();
+    
+    private QueryProfiler() {}
+    
+    /**
+     * Wrap a physical connection so its statements are profiled
+     */
+    static Connection wrap(Connection physical) {
+        if (!ENABLED) {
+            return physical;
+        }
+        return proxy(Connection.class, new ConnectionHandler(physical));
+    }
+    
+    /**
+     * Get the stats for every SQL shape seen so far, most total time first
+     */
+    public static List<QueryStats> getStats() {
+        List<QueryStats> snapshot = new ArrayList<>(stats.values());
+        snapshot.sort(Comparator.comparingDouble((QueryStats s) -> s.getLatency().getSumSeconds()).reversed());
+        return snapshot;
+    }
+    
+    /**
+     * Get the stats for shapes whose captured plan scans a whole table
+     */
+    public static List<QueryStats> getFullScans() {
+        List<QueryStats> scans = new ArrayList<>();
+        for (QueryStats queryStats : getStats()) {
+            if (queryStats.hasFullScan()) {
+                scans.add(queryStats);
+            }
+        }
+        return scans;
+    }
+    
+    /**
+     * Forget all collected stats
+     */
+    public static void reset() {
+        stats.clear();
+    }
+    
+    /**
+     * Normalize statement text into its shape
+     */
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+    
+    private static QueryStats statsFor(String sql) {
+        return stats.computeIfAbsent(shapeOf(sql), QueryStats::new);
+    }
+    
+    private static void finish(Connection physical, String sql, QueryStats queryStats, QueryEvent event,
+                               long elapsedNanos, long rows) {
+        boolean slow = elapsedNanos >= SLOW_QUERY_NANOS;
+        queryStats.record(elapsedNanos, rows, slow);
+        commit(event, queryStats, elapsedNanos, rows, false);
+        if (!slow) {
+            return;
+        }
+        
+        if (queryStats.getQueryPlan() == null) {
+            queryStats.setQueryPlan(explain(physical, sql));
+        }
+        System.err.println("Slow query (" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms, " + rows + " rows): "
+            + queryStats.getSql());
+        if (queryStats.getQueryPlan() != null) {
+            System.err.println("  Query plan:\n" + queryStats.getQueryPlan().indent(4).stripTrailing());
+        }
+    }
+    
+    private static void commit(QueryEvent event, QueryStats queryStats, long elapsedNanos, long rows, boolean failed) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.sql = queryStats.getSql();
+            event.rows = rows;
+            event.executionTime = elapsedNanos;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+    
+    /**
+     * Run EXPLAIN QUERY PLAN on the raw connection, binding parameters as NULL
+     * @return the plan, or null for statements SQLite does not plan (DDL, INSERT, PRAGMA)
+     */
+    private static String explain(Connection physical, String sql) {
+        String trimmed = sql.trim();
+        if (!trimmed.regionMatches(true, 0, "SELECT", 0, 6) && !trimmed.regionMatches(true, 0, "WITH", 0, 4)
+            && !trimmed.regionMatches(true, 0, "UPDATE", 0, 6) && !trimmed.regionMatches(true, 0, "DELETE", 0, 6)) {
+            return null;
+        }
+        
+        StringBuilder plan = new StringBuilder();
+        try (Statement stmt = physical.createStatement();
+             ResultSet rs = stmt.executeQuery("EXPLAIN QUERY PLAN " + bindNulls(trimmed))) {
+            while (rs.next()) {
+                plan.append(rs.getString("detail")).append('\n');
+            }
+        } catch (SQLException e) {
+            return "(plan unavailable: " + e.getMessage() + ")";
+        }
+        return plan.toString().stripTrailing();
+    }
+    
+    private static String bindNulls(String sql) {
+        StringBuilder bound = new StringBuilder(sql.length() + 16);
+        boolean inString = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                inString = !inString;
+            }
+            if (c == '?' && !inString) {
+                bound.append("NULL");
+            } else {
+                bound.append(c);
+            }
+        }
+        return bound.toString();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+    
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+    
+    /**
+     * Hands out profiled statements
+     */
+    private static class ConnectionHandler implements InvocationHandler {
+        private final Connection physical;
+        
+        ConnectionHandler(Connection physical) {
+            this.physical = physical;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement": {
+                    PreparedStatement statement = (PreparedStatement) QueryProfiler.invoke(physical, method, args);
+                    return proxy(PreparedStatement.class, new StatementHandler(physical, statement, (String) args[0]));
+                }
+                case "createStatement": {
+                    Statement statement = (Statement) QueryProfiler.invoke(physical, method, args);
+                    return proxy(Statement.class, new StatementHandler(physical, statement, null));
+                }
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ProfiledConnection[" + physical + "]";
+                default:
+                    return QueryProfiler.invoke(physical, method, args);
+            }
+        }
+    }
+    
+    /**
+     * Times executions of one statement; the SQL is fixed for prepared
+     * statements and taken from the call arguments for plain ones
+     */
+    private static class StatementHandler implements InvocationHandler {
+        private final Connection physical;
+        private final Statement statement;
+        private final String preparedSql;
+        private Execution open;
+        
+        StatementHandler(Connection physical, Statement statement, String preparedSql) {
+            this.physical = physical;
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                if ("close".equals(name)) {
+                    finishOpen();
+                }
+                return QueryProfiler.invoke(statement, method, args);
+            }
+            
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            if (sql == null) {
+                return QueryProfiler.invoke(statement, method, args);
+            }
+            
+            finishOpen();
+            QueryStats queryStats = statsFor(sql);
+            QueryEvent event = new QueryEvent();
+            event.begin();
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = QueryProfiler.invoke(statement, method, args);
+            } catch (SQLException e) {
+                queryStats.recordError();
+                commit(event, queryStats, System.nanoTime() - start, 0, true);
+                throw e;
+            }
+            long elapsed = System.nanoTime() - start;
+            
+            if (result instanceof ResultSet) {
+                // Keep timing while the caller steps through the rows
+                open = new Execution(physical, sql, queryStats, event, elapsed);
+                return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, open));
+            }
+            finish(physical, sql, queryStats, event, elapsed, 0);
+            return result;
+        }
+        
+        private void finishOpen() {
+            if (open != null) {
+                open.finish();
+                open = null;
+            }
+        }
+    }
+    
+    /**
+     * One query whose rows may still be streaming
+     */
+    private static class Execution {
+        final Connection physical;
+        final String sql;
+        final QueryStats queryStats;
+        final QueryEvent event;
+        long elapsedNanos;
+        long rows;
+        boolean finished;
+        
+        Execution(Connection physical, String sql, QueryStats queryStats, QueryEvent event, long elapsedNanos) {
+            this.physical = physical;
+            this.sql = sql;
+            this.queryStats = queryStats;
+            this.event = event;
+            this.elapsedNanos = elapsedNanos;
+        }
+        
+        void finish() {
+            if (!finished) {
+                finished = true;
+                QueryProfiler.finish(physical, sql, queryStats, event, elapsedNanos, rows);
+            }
+        }
+    }
+    
+    /**
+     * Adds time spent in next() and counts rows; results are recorded on
+     * close or when the statement is closed or executed again
+     */
+    private static class ResultSetHandler implements InvocationHandler {
+        private final ResultSet resultSet;
+        private final Execution execution;
+        
+        ResultSetHandler(ResultSet resultSet, Execution execution) {
+            this.resultSet = resultSet;
+            this.execution = execution;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("next".equals(method.getName())) {
+                long start = System.nanoTime();
+                boolean hasRow = (Boolean) QueryProfiler.invoke(resultSet, method, args);
+                execution.elapsedNanos += System.nanoTime() - start;
+                if (hasRow) {
+                    execution.rows++;
+                }
+                return hasRow;
+            }
+            
+            Object result = QueryProfiler.invoke(resultSet, method, args);
+            if ("close".equals(method.getName())) {
+                execution.finish();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.budget.database;
+
+import com.budget.metrics.LatencyHistogram;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timing and row counts for one SQL shape.
+ * A shape is the statement text with whitespace collapsed and literals replaced by ?.
+ */
+public class QueryStats {
+    private final String sql;
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder rowsReturned = new LongAdder();
+    private final LongAdder slowExecutions = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private volatile String queryPlan;
+    
+    QueryStats(String sql) {
+        this.sql = sql;
+    }
+    
+    void record(long elapsedNanos, long rows, boolean slow) {
+        executions.increment();
+        rowsReturned.add(rows);
+        latency.recordNanos(elapsedNanos);
+        if (slow) {
+            slowExecutions.increment();
+        }
+    }
+    
+    void recordError() {
+        errors.increment();
+    }
+    
+    void setQueryPlan(String queryPlan) {
+        this.queryPlan = queryPlan;
+    }
+    
+    public String getSql() {
+        return sql;
+    }
+    
+    public long getExecutions() {
+        return executions.sum();
+    }
+    
+    public long getRowsReturned() {
+        return rowsReturned.sum();
+    }
+    
+    public long getSlowExecutions() {
+        return slowExecutions.sum();
+    }
+    
+    public long getErrors() {
+        return errors.sum();
+    }
+    
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+    
+    /**
+     * Get the EXPLAIN QUERY PLAN output captured the first time this shape ran slowly
+     * @return the plan, or null if the shape has never been slow
+     */
+    public String getQueryPlan() {
+        return queryPlan;
+    }
+    
+    /**
+     * Check whether the captured plan scans a table instead of using an index
+     */
+    public boolean hasFullScan() {
+        String plan = queryPlan;
+        if (plan == null) {
+            return false;
+        }
+        // Scans of subqueries and co-routines read intermediate results, not tables
+        Set<String> intermediates = new HashSet<>();
+        for (String line : plan.split("\n")) {
+            String step = line.trim();
+            if (step.startsWith("CO-ROUTINE ") || step.startsWith("MATERIALIZE ")) {
+                intermediates.add(step.substring(step.indexOf(' ') + 1));
+            } else if (step.startsWith("SCAN ") && !step.contains(" USING ") && !step.startsWith("SCAN (")
+                && !intermediates.contains(step.substring(5))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,229 @@
+package com.budget.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-connection LRU cache of prepared statements keyed by SQL text.
+ * DAOs keep calling prepareStatement() and close() as before; close() just
+ * resets the statement and hands it back to the cache, so SQLite parses and
+ * plans each statement once per connection instead of once per call.
+ * Closing the connection closes every cached statement with it.
+ */
+final class StatementCache implements InvocationHandler {
+    private static final int CAPACITY = Integer.getInteger("budget.db.statementCacheSize", 64);
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    
+    private final Connection physical;
+    private final Map<String, CachedStatement> statements;
+    
+    private StatementCache(Connection physical) {
+        this.physical = physical;
+        // Only one thread uses a connection at a time, so no locking is needed
+        this.statements = new LinkedHashMap<>(CAPACITY, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= CAPACITY) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+    
+    /**
+     * Wrap a connection with a statement cache; a capacity of 0 disables caching
+     */
+    static Connection wrap(Connection physical) {
+        if (CAPACITY <= 0) {
+            return physical;
+        }
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            new StatementCache(physical));
+    }
+    
+    /**
+     * Get the number of prepareStatement calls served from a cache
+     */
+    static long getHitCount() {
+        return hits.sum();
+    }
+    
+    /**
+     * Get the number of prepareStatement calls that had to prepare
+     */
+    static long getMissCount() {
+        return misses.sum();
+    }
+    
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "prepareStatement":
+                if (isCacheable(args)) {
+                    return prepare(method, args);
+                }
+                return forward(physical, method, args);
+            case "close":
+                closeAll();
+                return forward(physical, method, args);
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "CachingConnection[" + physical + "]";
+            default:
+                return forward(physical, method, args);
+        }
+    }
+    
+    /**
+     * Only prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys) are cached
+     */
+    private static boolean isCacheable(Object[] args) {
+        return args.length == 1 || (args.length == 2 && args[1] instanceof Integer);
+    }
+    
+    private Object prepare(Method method, Object[] args) throws Throwable {
+        String key = args.length == 1 ? (String) args[0] : args[1] + ":" + args[0];
+        CachedStatement cached = statements.get(key);
+        if (cached != null && cached.evicted) {
+            // A failed reset closed it; prepare a replacement
+            statements.remove(key);
+            cached = null;
+        }
+        
+        if (cached != null && !cached.inUse) {
+            hits.increment();
+            cached.inUse = true;
+            return cached.proxy;
+        }
+        
+        misses.increment();
+        PreparedStatement statement = (PreparedStatement) forward(physical, method, args);
+        if (cached != null) {
+            // Same SQL already open on this connection; hand out a one-off statement
+            return statement;
+        }
+        
+        cached = new CachedStatement(statement);
+        cached.inUse = true;
+        statements.put(key, cached);
+        return cached.proxy;
+    }
+    
+    private void closeAll() {
+        List<CachedStatement> open = new ArrayList<>(statements.values());
+        statements.clear();
+        for (CachedStatement cached : open) {
+            cached.evict();
+        }
+    }
+    
+    private static Object forward(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+    
+    /**
+     * A prepared statement that survives logical close
+     */
+    private static class CachedStatement implements InvocationHandler {
+        final PreparedStatement statement;
+        final PreparedStatement proxy;
+        boolean inUse;
+        boolean evicted;
+        ResultSet lastResultSet;
+        
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                this);
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    release();
+                    return null;
+                case "isClosed":
+                    return !inUse || statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    if (!inUse) {
+                        throw new SQLException("Statement has been closed");
+                    }
+                    Object result = forward(statement, method, args);
+                    if (result instanceof ResultSet && "executeQuery".equals(method.getName())) {
+                        lastResultSet = (ResultSet) result;
+                    }
+                    return result;
+            }
+        }
+        
+        /**
+         * Logical close: reset the statement so it holds no read snapshot, then return it
+         */
+        void release() throws SQLException {
+            if (!inUse) {
+                return;
+            }
+            inUse = false;
+            
+            try {
+                if (lastResultSet != null) {
+                    lastResultSet.close();
+                    lastResultSet = null;
+                }
+                statement.clearParameters();
+            } catch (SQLException e) {
+                evicted = true;
+                throw e;
+            } finally {
+                if (evicted) {
+                    statement.close();
+                }
+            }
+        }
+        
+        /**
+         * Drop the statement from the cache, closing it now or when its user releases it
+         */
+        void evict() {
+            evicted = true;
+            if (inUse) {
+                return;
+            }
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing cached statement: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package com.budget.dictionary;
+
+import com.budget.database.DatabaseManager;
+import com.budget.database.DatabaseWriter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Interned, normalised transaction descriptions.
+ * Every distinct cleaned description gets an integer ID, kept in the
+ * descriptions side table and on each expense and income row
+ * (description_id), so grouping, search and categorisation can compare
+ * integers instead of re-normalising text per row and per request.
+ *
+ * Cleaning splits on whitespace and the '*' card processors put before
+ * reference codes, drops the tokens that are mostly digits (card and
+ * reference numbers, dates, amounts) and single-spaces the rest; the lower-case of the
+ * result is the key, and the first spelling seen is kept for display. In
+ * memory the dictionary is a hash map from key to ID, the keys and display
+ * strings indexed by ID, and a TrigramIndex over the keys for search.
+ *
+ * A description is verbatim while every row filed under it reads exactly
+ * as its key once lower-cased. Cleaning lost nothing from those rows, so a
+ * search can match them by key. A row that had a token dropped, a '*' or
+ * extra spacing makes its description lossy (descriptions.verbatim = 0).
+ * Rows under lossy descriptions, and rows with no description left after
+ * cleaning, have to be searched on their text.
+ *
+ * IDs are assigned by the database in a write of their own and only enter
+ * memory once it has committed, so a rolled-back write can never leave an
+ * ID in memory that the table doesn't have.
+ */
+public final class DescriptionDictionary {
+    /** The ID stored for a row with no usable description */
+    public static final int NO_DESCRIPTION = 0;
+    /** Returned by idOf for text that isn't in the dictionary */
+    public static final int UNKNOWN = -1;
+    private static final int BACKFILL_BATCH = 1000;
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s*]+");
+    
+    private static final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by lock
+    private static final Map<String, Integer> idsByKey = new HashMap<>();
+    private static final TrigramIndex trigrams = new TrigramIndex();
+    private static String[] keys = new String[1024];
+    private static String[] displays = new String[1024];
+    private static boolean[] lossy = new boolean[1024];
+    private static int maxId;
+    private static volatile boolean loaded;
+    
+    private DescriptionDictionary() {}
+    
+    /**
+     * Clean a description for display: only tokens with more letters than digits, single-spaced
+     */
+    public static String clean(String raw) {
+        if (raw == null) {
+            return "";
+        }
+        StringBuilder cleaned = new StringBuilder(raw.length());
+        for (String token : SEPARATORS.split(raw)) {
+            int letters = 0;
+            int digits = 0;
+            for (int i = 0; i < token.length(); i++) {
+                char c = token.charAt(i);
+                if (Character.isLetter(c)) {
+                    letters++;
+                } else if (Character.isDigit(c)) {
+                    digits++;
+                }
+            }
+            if (letters > digits) {
+                if (cleaned.length() > 0) {
+                    cleaned.append(' ');
+                }
+                cleaned.append(token);
+            }
+        }
+        return cleaned.toString();
+    }
+    
+    /**
+     * The dictionary key for a description: its cleaned form in lower case
+     */
+    public static String key(String raw) {
+        return clean(raw).toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Get the ID for a description, adding it to the dictionary if it's new.
+     * Must not be called from inside a DatabaseWriter command.
+     * @return the ID, or NO_DESCRIPTION if nothing is left after cleaning
+     */
+    public static int intern(String raw) throws SQLException {
+        String display = clean(raw);
+        if (display.isEmpty()) {
+            return NO_DESCRIPTION;
+        }
+        String key = display.toLowerCase(Locale.ROOT);
+        boolean verbatim = isVerbatim(raw, key);
+        int id = lookup(key);
+        if (id != UNKNOWN) {
+            if (!verbatim && !isLossy(id)) {
+                DatabaseWriter.execute(conn -> markLossy(conn, id));
+                setLossy(id);
+            }
+            return id;
+        }
+        
+        int assigned = DatabaseWriter.execute(conn -> insertOrGet(conn, key, display, verbatim));
+        register(assigned, key, display, !verbatim);
+        return assigned;
+    }
+    
+    /**
+     * Get the ID of a description already in the dictionary
+     * @return the ID, NO_DESCRIPTION if nothing is left after cleaning, or UNKNOWN
+     */
+    public static int idOf(String raw) {
+        String key = key(raw);
+        return key.isEmpty() ? NO_DESCRIPTION : lookup(key);
+    }
+    
+    /**
+     * Get the display form of a description ID, or null if there is none
+     */
+    public static String display(int id) {
+        lock.readLock().lock();
+        try {
+            return id > 0 && id <= maxId ? displays[id] : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Get the IDs of the verbatim descriptions whose key contains a search term.
+     * Every row under one of these contains the term, ignoring case, and no
+     * other row under a verbatim description does. Rows under lossy
+     * descriptions or under NO_DESCRIPTION still have to be matched on their
+     * text. Only answers once the dictionary is loaded, for terms of at least
+     * three characters that cleaning leaves unchanged apart from case.
+     * @return the IDs, or null if the caller should search the text of every row instead
+     */
+    public static int[] idsContaining(String term, int limit) {
+        String key = key(term);
+        if (!loaded || key.length() < TrigramIndex.GRAM || !key.equals(term.toLowerCase(Locale.ROOT))) {
+            return null;
+        }
+        
+        lock.readLock().lock();
+        try {
+            int[] candidates = trigrams.candidates(key);
+            int[] ids = new int[Math.min(candidates.length, limit)];
+            int count = 0;
+            for (int id : candidates) {
+                if (!lossy[id] && keys[id].contains(key)) {
+                    if (count == limit) {
+                        return null;
+                    }
+                    ids[count++] = id;
+                }
+            }
+            return Arrays.copyOf(ids, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Check whether the dictionary has been loaded and every row carries its description ID
+     */
+    public static boolean isLoaded() {
+        return loaded;
+    }
+    
+    /**
+     * Number of distinct descriptions
+     */
+    public static int size() {
+        lock.readLock().lock();
+        try {
+            return idsByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Read the dictionary into memory, then give every expense and income row
+     * without a description ID one, a batch at a time
+     */
+    public static synchronized void load() {
+        String sql = "SELECT id, normalized, display, verbatim FROM descriptions";
+        
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                // Unchecked (NULL) counts as verbatim until classifyUnchecked has looked at its rows
+                boolean isLossy = rs.getInt("verbatim") == 0 && !rs.wasNull();
+                register(rs.getInt("id"), rs.getString("normalized"), rs.getString("display"), isLossy);
+            }
+        
+        } catch (SQLException e) {
+            System.err.println("Error loading description dictionary: " + e.getMessage());
+            return;
+        }
+        
+        try {
+            int filled = backfill("expenses") + backfill("income");
+            if (filled > 0) {
+                System.out.println("📖 Interned descriptions for " + filled + " transaction(s)");
+            }
+            classifyUnchecked();
+            loaded = true;
+        } catch (SQLException e) {
+            System.err.println("Error interning transaction descriptions: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Fill in description_id for a table's rows that lack one
+     * @return the number of rows filled in
+     */
+    private static int backfill(String table) throws SQLException {
+        String selectSql = "SELECT id, description FROM " + table + " WHERE description_id IS NULL ORDER BY id LIMIT ?";
+        String updateSql = "UPDATE " + table + " SET description_id = ? WHERE id = ?";
+        int filled = 0;
+        
+        while (true) {
+            List<int[]> rows = new ArrayList<>();
+            List<String> descriptions = new ArrayList<>();
+            try (Connection conn = DatabaseManager.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(selectSql)) {
+                
+                pstmt.setInt(1, BACKFILL_BATCH);
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    rows.add(new int[] {rs.getInt("id")});
+                    descriptions.add(rs.getString("description"));
+                }
+            }
+            if (rows.isEmpty()) {
+                return filled;
+            }
+            
+            // New keys are added and the rows updated in one write; memory only learns the keys after it commits
+            Map<String, String> newKeys = new LinkedHashMap<>();
+            Set<String> lossyKeys = new HashSet<>();
+            Map<String, Integer> assigned = DatabaseWriter.execute(conn -> {
+                Map<String, Integer> ids = new HashMap<>();
+                try (PreparedStatement update = conn.prepareStatement(updateSql)) {
+                    for (int i = 0; i < rows.size(); i++) {
+                        String display = clean(descriptions.get(i));
+                        String key = display.toLowerCase(Locale.ROOT);
+                        int id = NO_DESCRIPTION;
+                        if (!key.isEmpty()) {
+                            boolean verbatim = isVerbatim(descriptions.get(i), key);
+                            Integer known = ids.get(key);
+                            id = known != null ? known : lookup(key);
+                            if (id == UNKNOWN) {
+                                id = insertOrGet(conn, key, display, verbatim);
+                                newKeys.put(key, display);
+                            } else if (!verbatim && !isLossy(id) && !lossyKeys.contains(key)) {
+                                markLossy(conn, id);
+                            }
+                            if (!verbatim) {
+                                lossyKeys.add(key);
+                            }
+                            ids.put(key, id);
+                        }
+                        update.setInt(1, id);
+                        update.setInt(2, rows.get(i)[0]);
+                        update.addBatch();
+                    }
+                    update.executeBatch();
+                }
+                return ids;
+            });
+            
+            newKeys.forEach((key, display) -> register(assigned.get(key), key, display, lossyKeys.contains(key)));
+            for (String key : lossyKeys) {
+                setLossy(assigned.get(key));
+            }
+            filled += rows.size();
+        }
+    }
+    
+    /**
+     * Check the rows of descriptions a database recorded before it tracked lossy spellings
+     */
+    private static void classifyUnchecked() throws SQLException {
+        String sql = """
+            SELECT description_id, description FROM expenses
+            WHERE description_id IN (SELECT id FROM descriptions WHERE verbatim IS NULL)
+            UNION ALL
+            SELECT description_id, description FROM income
+            WHERE description_id IN (SELECT id FROM descriptions WHERE verbatim IS NULL)
+        """;
+        Set<Integer> lossyIds = new HashSet<>();
+        
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                int id = rs.getInt(1);
+                String key = keyOf(id);
+                if (key != null && !isVerbatim(rs.getString(2), key)) {
+                    lossyIds.add(id);
+                }
+            }
+        }
+        
+        DatabaseWriter.execute(conn -> {
+            for (int id : lossyIds) {
+                markLossy(conn, id);
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("UPDATE descriptions SET verbatim = 1 WHERE verbatim IS NULL")) {
+                pstmt.executeUpdate();
+            }
+            return null;
+        });
+        for (int id : lossyIds) {
+            setLossy(id);
+        }
+    }
+    
+    private static int insertOrGet(Connection conn, String key, String display, boolean verbatim) throws SQLException {
+        try (PreparedStatement insert = conn.prepareStatement("INSERT OR IGNORE INTO descriptions (normalized, display, verbatim) VALUES (?, ?, ?)")) {
+            insert.setString(1, key);
+            insert.setString(2, display);
+            insert.setInt(3, verbatim ? 1 : 0);
+            insert.executeUpdate();
+        }
+        int id;
+        try (PreparedStatement select = conn.prepareStatement("SELECT id FROM descriptions WHERE normalized = ?")) {
+            select.setString(1, key);
+            ResultSet rs = select.executeQuery();
+            if (!rs.next()) {
+                throw new SQLException("Description was not interned: " + key);
+            }
+            id = rs.getInt(1);
+        }
+        if (!verbatim) {
+            // Someone else may have added the key first, from a verbatim spelling
+            markLossy(conn, id);
+        }
+        return id;
+    }
+    
+    private static Void markLossy(Connection conn, int id) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("UPDATE descriptions SET verbatim = 0 WHERE id = ?")) {
+            pstmt.setInt(1, id);
+            pstmt.executeUpdate();
+        }
+        return null;
+    }
+    
+    /**
+     * Whether a row's text reads exactly as its description's key once lower-cased
+     */
+    private static boolean isVerbatim(String raw, String key) {
+        return raw != null && raw.toLowerCase(Locale.ROOT).equals(key);
+    }
+    
+    private static boolean isLossy(int id) {
+        lock.readLock().lock();
+        try {
+            return id < lossy.length && lossy[id];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private static void setLossy(int id) {
+        lock.writeLock().lock();
+        try {
+            lossy[id] = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private static String keyOf(int id) {
+        lock.readLock().lock();
+        try {
+            return id > 0 && id <= maxId ? keys[id] : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private static int lookup(String key) {
+        lock.readLock().lock();
+        try {
+            return idsByKey.getOrDefault(key, UNKNOWN);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private static void register(int id, String key, String display, boolean isLossy) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = idsByKey.putIfAbsent(key, id);
+            if (existing != null) {
+                lossy[existing] |= isLossy;
+                return;
+            }
+            if (id >= keys.length) {
+                int capacity = Math.max(id + 1, keys.length * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                displays = Arrays.copyOf(displays, capacity);
+                lossy = Arrays.copyOf(lossy, capacity);
+            }
+            keys[id] = key;
+            displays[id] = display;
+            lossy[id] = isLossy;
+            maxId = Math.max(maxId, id);
+            trigrams.add(key, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.budget.dictionary;
+
+import java.util.Arrays;
+
+/**
+ * Character trie mapping strings to int values, held in parallel primitive arrays.
+ * Each node is one character: its label, first child, next sibling and value
+ * (or -1) sit at the node's index in four arrays, so the trie costs about 14
+ * bytes per node and no objects. Siblings are kept in character order, which
+ * makes prefix walks return values in lexicographic order of their keys.
+ *
+ * Keys can also carry a weight. Each node then records the largest weight
+ * beneath it, so the heaviest keys under a prefix are found best-first,
+ * expanding only the subtrees that can still beat what has been found.
+ * The two weight arrays are only allocated once a weight is set.
+ * Not thread-safe.
+ */
+final class PrefixTrie {
+    private static final int NONE = -1;
+    private static final int ROOT = 0;
+    
+    private char[] labels = new char[256];
+    private int[] firstChild = new int[256];
+    private int[] nextSibling = new int[256];
+    private int[] values = new int[256];
+    private double[] weights;
+    private double[] best;
+    private int nodes;
+    
+    PrefixTrie() {
+        newNode('\0');
+    }
+    
+    /**
+     * Map a key to a value, replacing any earlier value
+     */
+    void put(String key, int value) {
+        int node = ROOT;
+        for (int i = 0; i < key.length(); i++) {
+            node = child(node, key.charAt(i), true);
+        }
+        values[node] = value;
+    }
+    
+    /**
+     * Get the value stored for a key, or -1
+     */
+    int get(String key) {
+        int node = find(key);
+        return node == NONE ? NONE : values[node];
+    }
+    
+    /**
+     * Collect the values of keys starting with a prefix, in key order
+     * @return up to limit values
+     */
+    int[] withPrefix(String prefix, int limit) {
+        int node = find(prefix);
+        if (node == NONE || limit <= 0) {
+            return new int[0];
+        }
+        
+        int[] found = new int[Math.min(limit, 16)];
+        int count = 0;
+        // Depth-first, children in order; the stack holds nodes still to visit
+        int[] stack = new int[16];
+        int depth = 0;
+        if (values[node] != NONE) {
+            found[count++] = values[node];
+        }
+        int next = firstChild[node];
+        while (count < limit && (next != NONE || depth > 0)) {
+            if (next == NONE) {
+                next = stack[--depth];
+                continue;
+            }
+            if (values[next] != NONE) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, Math.min(limit, count * 2));
+                }
+                found[count++] = values[next];
+            }
+            if (firstChild[next] != NONE) {
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                }
+                stack[depth++] = nextSibling[next];
+                next = firstChild[next];
+            } else {
+                next = nextSibling[next];
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+    
+    /**
+     * Set the weight of a key already in the trie
+     * @return false if the key isn't in the trie
+     */
+    boolean setWeight(String key, double weight) {
+        int[] path = path(key);
+        int node = path[path.length - 1];
+        if (node == NONE || values[node] == NONE) {
+            return false;
+        }
+        
+        if (weights == null) {
+            weights = new double[labels.length];
+            best = new double[labels.length];
+        }
+        weights[node] = weight;
+        updateBounds(path);
+        return true;
+    }
+    
+    /**
+     * Remove a key; its nodes stay for the next key that needs them
+     */
+    void remove(String key) {
+        int[] path = path(key);
+        int node = path[path.length - 1];
+        if (node == NONE || values[node] == NONE) {
+            return;
+        }
+        values[node] = NONE;
+        if (weights != null) {
+            weights[node] = 0;
+            updateBounds(path);
+        }
+    }
+    
+    /**
+     * Collect the values of the heaviest keys starting with a prefix, heaviest first.
+     * Without weights this is withPrefix.
+     * @return up to limit values
+     */
+    int[] top(String prefix, int limit) {
+        if (weights == null) {
+            return withPrefix(prefix, limit);
+        }
+        int start = find(prefix);
+        if (start == NONE || limit <= 0) {
+            return new int[0];
+        }
+        
+        int[] found = new int[Math.min(limit, 16)];
+        int count = 0;
+        // Max-heap of subtrees scored by their bound and keys (stored as ~node) scored by their weight
+        int[] heap = new int[16];
+        double[] scores = new double[16];
+        int size = 0;
+        heap[size] = start;
+        scores[size++] = best[start];
+        while (size > 0 && count < limit) {
+            int entry = heap[0];
+            size--;
+            heap[0] = heap[size];
+            scores[0] = scores[size];
+            siftDown(heap, scores, size);
+            
+            if (entry < 0) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, Math.min(limit, count * 2));
+                }
+                found[count++] = values[~entry];
+                continue;
+            }
+            int children = values[entry] != NONE ? 1 : 0;
+            for (int c = firstChild[entry]; c != NONE; c = nextSibling[c]) {
+                children++;
+            }
+            if (size + children > heap.length) {
+                int capacity = Math.max(heap.length * 2, size + children);
+                heap = Arrays.copyOf(heap, capacity);
+                scores = Arrays.copyOf(scores, capacity);
+            }
+            if (values[entry] != NONE) {
+                heap[size] = ~entry;
+                scores[size] = weights[entry];
+                siftUp(heap, scores, size++);
+            }
+            for (int c = firstChild[entry]; c != NONE; c = nextSibling[c]) {
+                heap[size] = c;
+                scores[size] = best[c];
+                siftUp(heap, scores, size++);
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+    
+    private static void siftUp(int[] heap, double[] scores, int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (scores[parent] >= scores[i]) {
+                return;
+            }
+            swap(heap, scores, i, parent);
+            i = parent;
+        }
+    }
+    
+    private static void siftDown(int[] heap, double[] scores, int size) {
+        int i = 0;
+        while (true) {
+            int largest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && scores[left] > scores[largest]) {
+                largest = left;
+            }
+            if (right < size && scores[right] > scores[largest]) {
+                largest = right;
+            }
+            if (largest == i) {
+                return;
+            }
+            swap(heap, scores, i, largest);
+            i = largest;
+        }
+    }
+    
+    private static void swap(int[] heap, double[] scores, int i, int j) {
+        int entry = heap[i];
+        heap[i] = heap[j];
+        heap[j] = entry;
+        double score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+    }
+    
+    /**
+     * Number of nodes, a measure of memory use
+     */
+    int size() {
+        return nodes;
+    }
+    
+    /**
+     * The nodes from the root to a key, ending in NONE if the key's path doesn't exist
+     */
+    private int[] path(String key) {
+        int[] path = new int[key.length() + 1];
+        path[0] = ROOT;
+        int length = 1;
+        for (int i = 0; i < key.length() && path[length - 1] != NONE; i++) {
+            path[length] = child(path[length - 1], key.charAt(i), false);
+            length++;
+        }
+        return Arrays.copyOf(path, length);
+    }
+    
+    /**
+     * Recompute the largest weight beneath each node on a path, deepest first
+     */
+    private void updateBounds(int[] path) {
+        for (int i = path.length - 1; i >= 0; i--) {
+            int node = path[i];
+            double max = weights[node];
+            for (int c = firstChild[node]; c != NONE; c = nextSibling[c]) {
+                max = Math.max(max, best[c]);
+            }
+            best[node] = max;
+        }
+    }
+    
+    private int find(String key) {
+        int node = ROOT;
+        for (int i = 0; i < key.length() && node != NONE; i++) {
+            node = child(node, key.charAt(i), false);
+        }
+        return node;
+    }
+    
+    /**
+     * Find a node's child for a character, optionally adding it in order among its siblings
+     */
+    private int child(int parent, char label, boolean create) {
+        int previous = NONE;
+        int node = firstChild[parent];
+        while (node != NONE && labels[node] < label) {
+            previous = node;
+            node = nextSibling[node];
+        }
+        if (node != NONE && labels[node] == label) {
+            return node;
+        }
+        if (!create) {
+            return NONE;
+        }
+        
+        int added = newNode(label);
+        nextSibling[added] = node;
+        if (previous == NONE) {
+            firstChild[parent] = added;
+        } else {
+            nextSibling[previous] = added;
+        }
+        return added;
+    }
+    
+    private int newNode(char label) {
+        if (nodes == labels.length) {
+            int capacity = nodes * 2;
+            labels = Arrays.copyOf(labels, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            values = Arrays.copyOf(values, capacity);
+            if (weights != null) {
+                weights = Arrays.copyOf(weights, capacity);
+                best = Arrays.copyOf(best, capacity);
+            }
+        }
+        if (weights != null) {
+            weights[nodes] = 0;
+            best[nodes] = 0;
+        }
+        labels[nodes] = label;
+        firstChild[nodes] = NONE;
+        nextSibling[nodes] = NONE;
+        values[nodes] = NONE;
+        return nodes++;
+    }
+}
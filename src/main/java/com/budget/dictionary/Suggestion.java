@@ -0,0 +1,45 @@
+package com.budget.dictionary;
+
+/**
+ * An autocomplete suggestion: a past description or a category name
+ */
+public class Suggestion {
+    private final String text;
+    private final int categoryId;
+    private final String categoryName;
+    private final int uses;
+    
+    public Suggestion(String text, int categoryId, String categoryName, int uses) {
+        this.text = text;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.uses = uses;
+    }
+    
+    public String getText() {
+        return text;
+    }
+    
+    /**
+     * The category this description is usually filed under, or the suggested category itself; 0 if none
+     */
+    public int getCategoryId() {
+        return categoryId;
+    }
+    
+    public String getCategoryName() {
+        return categoryName;
+    }
+    
+    /**
+     * Number of transactions using it
+     */
+    public int getUses() {
+        return uses;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Suggestion{text='%s', category='%s', uses=%d}", text, categoryName, uses);
+    }
+}
@@ -0,0 +1,329 @@
+package com.budget.dictionary;
+
+import com.budget.dao.CategoryDAO;
+import com.budget.dao.ExpenseDAO;
+import com.budget.dao.IncomeDAO;
+import com.budget.events.ChangeBus;
+import com.budget.events.ChangeEvent;
+import com.budget.model.Category;
+import com.budget.model.Expense;
+import com.budget.model.Income;
+import com.budget.model.Transaction;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Autocomplete for the add-transaction form: past descriptions and category
+ * names starting with what has been typed, most used and most recent first.
+ * Each side of the ledger keeps a weighted PrefixTrie over description keys
+ * and one over category names (and the words within them), so the top
+ * completions are found by a best-first walk of the prefix's subtree rather
+ * than by sorting every match.
+ *
+ * A transaction adds 2^(age / half-life) to its description's and category's
+ * weight, measured forwards from a fixed origin: newer uses count for
+ * exponentially more, which ranks keys the same as decaying every weight
+ * daily would, without touching old entries. Frequency comes in as the sum.
+ *
+ * The ledger is scanned once at start-up; after that the index is kept
+ * current from committed writes on the change bus.
+ */
+public class SuggestionIndex {
+    private static final double HALF_LIFE_DAYS = Double.parseDouble(System.getProperty("budget.suggest.halfLifeDays", "90"));
+    private static final double MAX_HALVINGS = 900;
+    private static final int QUEUE_CAPACITY = 4096;
+    private static final int MAX_BATCH = 256;
+    
+    private final ExpenseDAO expenseDAO;
+    private final IncomeDAO incomeDAO;
+    private final CategoryDAO categoryDAO;
+    private final long origin = LocalDate.now().toEpochDay();
+    
+    // Index state; guarded by this
+    private final Side expenses = new Side();
+    private final Side income = new Side();
+    private ChangeBus.Subscription subscription;
+    
+    public SuggestionIndex(ExpenseDAO expenseDAO, IncomeDAO incomeDAO, CategoryDAO categoryDAO) {
+        this.expenseDAO = expenseDAO;
+        this.incomeDAO = incomeDAO;
+        this.categoryDAO = categoryDAO;
+    }
+    
+    /**
+     * Subscribe to ledger and category changes, then scan the ledger
+     */
+    public synchronized void start() {
+        // Subscribe first so no write is missed; recording a transaction the scan already saw replaces it
+        subscription = ChangeBus.subscribe("suggest",
+            EnumSet.of(ChangeEvent.Entity.EXPENSE, ChangeEvent.Entity.INCOME, ChangeEvent.Entity.CATEGORY),
+            ChangeBus.Backpressure.BLOCK, QUEUE_CAPACITY, MAX_BATCH, this::onChanges);
+        loadCategories();
+        // Weights are sums, so creation order does as well as date order and needs no sort
+        expenseDAO.scanAfter(0, expense -> record(expenses, expense.getId(), expense.getDescriptionId(),
+            expense.getCategoryId(), expense.getExpenseDate()));
+        incomeDAO.scan(entry -> record(income, entry.getId(), entry.getDescriptionId(),
+            entry.getCategoryId(), entry.getIncomeDate()));
+    }
+    
+    public void stop() {
+        if (subscription != null) {
+            subscription.close();
+        }
+    }
+    
+    /**
+     * Get past descriptions starting with a prefix, best first, each with the category it is usually filed under
+     */
+    public synchronized List<Suggestion> suggestDescriptions(Transaction.Type type, String prefix, int limit) {
+        Side side = side(type);
+        List<Suggestion> suggestions = new ArrayList<>();
+        String key = DescriptionDictionary.key(prefix);
+        if (key.isEmpty()) {
+            return suggestions;
+        }
+        
+        for (int descriptionId : side.descriptions.top(key, limit)) {
+            Entry entry = side.entries.get(descriptionId);
+            int categoryId = entry.topCategory();
+            suggestions.add(new Suggestion(entry.display, categoryId, side.categoryNames.get(categoryId), entry.uses));
+        }
+        return suggestions;
+    }
+    
+    /**
+     * Get the categories whose name, or a word in it, starts with a prefix, most used first
+     */
+    public synchronized List<Suggestion> suggestCategories(Transaction.Type type, String prefix, int limit) {
+        Side side = side(type);
+        List<Suggestion> suggestions = new ArrayList<>();
+        String key = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+        if (key.isEmpty()) {
+            return suggestions;
+        }
+        
+        // A category can match through several of its keys; ask for enough to fill the limit after merging them
+        Set<Integer> categoryIds = new LinkedHashSet<>();
+        for (int categoryId : side.categories.top(key, limit * 2)) {
+            categoryIds.add(categoryId);
+        }
+        for (int categoryId : categoryIds) {
+            if (suggestions.size() == limit) {
+                break;
+            }
+            String name = side.categoryNames.get(categoryId);
+            suggestions.add(new Suggestion(name, categoryId, name, side.categoryUses.getOrDefault(categoryId, 0)));
+        }
+        return suggestions;
+    }
+    
+    private Side side(Transaction.Type type) {
+        return type == Transaction.Type.INCOME ? income : expenses;
+    }
+    
+    private synchronized void onChanges(List<ChangeEvent> events) {
+        boolean categoriesChanged = false;
+        for (ChangeEvent event : events) {
+            switch (event.getEntity()) {
+                case EXPENSE:
+                    Expense expense = event.getPayload(Expense.class);
+                    if (expense != null) {
+                        record(expenses, expense.getId(), expense.getDescriptionId(), expense.getCategoryId(), expense.getExpenseDate());
+                    } else {
+                        remove(expenses, event.getId());
+                    }
+                    break;
+                case INCOME:
+                    Income entry = event.getPayload(Income.class);
+                    if (entry != null) {
+                        record(income, entry.getId(), entry.getDescriptionId(), entry.getCategoryId(), entry.getIncomeDate());
+                    } else {
+                        remove(income, event.getId());
+                    }
+                    break;
+                case CATEGORY:
+                    categoriesChanged = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (categoriesChanged) {
+            loadCategories();
+        }
+    }
+    
+    /**
+     * Count a transaction towards its description and category, replacing any earlier version of it
+     */
+    private synchronized void record(Side side, int transactionId, int descriptionId, int categoryId, LocalDate date) {
+        remove(side, transactionId);
+        if (date == null) {
+            return;
+        }
+        
+        // Bounded so a mistyped far-off date can't overflow the sums
+        double halvings = Math.max(-MAX_HALVINGS, Math.min(MAX_HALVINGS, (date.toEpochDay() - origin) / HALF_LIFE_DAYS));
+        double weight = Math.pow(2, halvings);
+        String display = descriptionId > 0 ? DescriptionDictionary.display(descriptionId) : null;
+        if (display != null) {
+            Entry entry = side.entries.get(descriptionId);
+            if (entry == null) {
+                entry = new Entry(display);
+                side.entries.put(descriptionId, entry);
+                side.descriptions.put(entry.key, descriptionId);
+            }
+            entry.add(categoryId, weight, 1);
+            side.descriptions.setWeight(entry.key, entry.weight);
+        } else {
+            descriptionId = DescriptionDictionary.NO_DESCRIPTION;
+        }
+        side.uses.put(transactionId, new Use(descriptionId, categoryId, weight));
+        addToCategory(side, categoryId, weight, 1);
+    }
+    
+    private void remove(Side side, int transactionId) {
+        Use use = side.uses.remove(transactionId);
+        if (use == null) {
+            return;
+        }
+        
+        Entry entry = side.entries.get(use.descriptionId);
+        if (entry != null) {
+            entry.add(use.categoryId, -use.weight, -1);
+            if (entry.uses == 0) {
+                side.entries.remove(use.descriptionId);
+                side.descriptions.remove(entry.key);
+            } else {
+                side.descriptions.setWeight(entry.key, entry.weight);
+            }
+        }
+        addToCategory(side, use.categoryId, -use.weight, -1);
+    }
+    
+    private void addToCategory(Side side, int categoryId, double weight, int uses) {
+        double total = Math.max(0, side.categoryWeights.getOrDefault(categoryId, 0.0) + weight);
+        side.categoryWeights.put(categoryId, total);
+        side.categoryUses.merge(categoryId, uses, Integer::sum);
+        for (String key : side.categoryKeys.getOrDefault(categoryId, List.of())) {
+            side.categories.setWeight(key, total);
+        }
+    }
+    
+    /**
+     * Rebuild both sides' category tries from the category table, keeping the weights gathered so far
+     */
+    private synchronized void loadCategories() {
+        for (Side side : List.of(expenses, income)) {
+            side.categories = new PrefixTrie();
+            side.categoryNames.clear();
+            side.categoryKeys.clear();
+        }
+        
+        for (Category category : categoryDAO.findAll()) {
+            Side side = category.getType() == Category.CategoryType.INCOME ? income : expenses;
+            side.categoryNames.put(category.getId(), category.getName());
+            List<String> keys = new ArrayList<>();
+            for (String key : categoryKeys(category.getName())) {
+                // The first category to claim a key keeps it
+                if (side.categories.get(key) == -1) {
+                    side.categories.put(key, category.getId());
+                    side.categories.setWeight(key, side.categoryWeights.getOrDefault(category.getId(), 0.0));
+                    keys.add(key);
+                }
+            }
+            side.categoryKeys.put(category.getId(), keys);
+        }
+    }
+    
+    /**
+     * A category's name in lower case, and the rest of the name from each later word on
+     */
+    private static List<String> categoryKeys(String name) {
+        String lower = name.trim().toLowerCase(Locale.ROOT);
+        List<String> keys = new ArrayList<>();
+        keys.add(lower);
+        for (int i = 1; i < lower.length(); i++) {
+            if (!Character.isLetterOrDigit(lower.charAt(i - 1)) && Character.isLetterOrDigit(lower.charAt(i))) {
+                keys.add(lower.substring(i));
+            }
+        }
+        return keys;
+    }
+    
+    /**
+     * One side of the ledger's tries and the weights behind them
+     */
+    private static final class Side {
+        final PrefixTrie descriptions = new PrefixTrie();
+        final Map<Integer, Entry> entries = new HashMap<>();
+        final Map<Integer, Use> uses = new HashMap<>();
+        PrefixTrie categories = new PrefixTrie();
+        final Map<Integer, String> categoryNames = new HashMap<>();
+        final Map<Integer, List<String>> categoryKeys = new HashMap<>();
+        final Map<Integer, Double> categoryWeights = new HashMap<>();
+        final Map<Integer, Integer> categoryUses = new HashMap<>();
+    }
+    
+    /**
+     * A description's uses, total weight and weight per category
+     */
+    private static final class Entry {
+        final String display;
+        final String key;
+        int uses;
+        double weight;
+        final Map<Integer, Double> categoryWeights = new HashMap<>(4);
+        
+        Entry(String display) {
+            this.display = display;
+            this.key = display.toLowerCase(Locale.ROOT);
+        }
+        
+        void add(int categoryId, double delta, int count) {
+            uses += count;
+            weight = uses == 0 ? 0 : Math.max(0, weight + delta);
+            double categoryWeight = categoryWeights.getOrDefault(categoryId, 0.0) + delta;
+            if (categoryWeight <= 0) {
+                categoryWeights.remove(categoryId);
+            } else {
+                categoryWeights.put(categoryId, categoryWeight);
+            }
+        }
+        
+        int topCategory() {
+            int best = 0;
+            double bestWeight = 0;
+            for (Map.Entry<Integer, Double> category : categoryWeights.entrySet()) {
+                if (category.getValue() > bestWeight) {
+                    best = category.getKey();
+                    bestWeight = category.getValue();
+                }
+            }
+            return best;
+        }
+    }
+    
+    /**
+     * What one transaction contributed, so it can be taken back
+     */
+    private static final class Use {
+        final int descriptionId;
+        final int categoryId;
+        final double weight;
+        
+        Use(int descriptionId, int categoryId, double weight) {
+            this.descriptionId = descriptionId;
+            this.categoryId = categoryId;
+            this.weight = weight;
+        }
+    }
+}
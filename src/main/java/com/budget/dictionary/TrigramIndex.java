@@ -0,0 +1,87 @@
+package com.budget.dictionary;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Trigram index for substring search over keys.
+ * Every three-character window of a key points at the key's ID in a sorted
+ * posting list. A term of three or more characters can only occur in a key
+ * that has all of the term's trigrams, so its candidates are the
+ * intersection of those posting lists, walked from the shortest. Candidates
+ * still have to be checked against the key: the trigrams can all be there
+ * without the term being one run of them.
+ * Not thread-safe.
+ */
+final class TrigramIndex {
+    static final int GRAM = 3;
+    
+    private final Map<String, Postings> postings = new HashMap<>();
+    
+    /**
+     * Index every trigram of a key under its ID
+     */
+    void add(String key, int id) {
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            postings.computeIfAbsent(key.substring(i, i + GRAM), gram -> new Postings()).add(id);
+        }
+    }
+    
+    /**
+     * Get the IDs of keys that have every trigram of a term, in ascending order
+     * @param term at least GRAM characters
+     */
+    int[] candidates(String term) {
+        Postings[] lists = new Postings[term.length() - GRAM + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(term.substring(i, i + GRAM));
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+        
+        Postings shortest = lists[0];
+        int[] ids = new int[shortest.size];
+        int count = 0;
+        candidates:
+        for (int k = 0; k < shortest.size; k++) {
+            int id = shortest.ids[k];
+            for (int j = 1; j < lists.length; j++) {
+                if (Arrays.binarySearch(lists[j].ids, 0, lists[j].size, id) < 0) {
+                    continue candidates;
+                }
+            }
+            ids[count++] = id;
+        }
+        return Arrays.copyOf(ids, count);
+    }
+    
+    /**
+     * Sorted, duplicate-free IDs of the keys containing one trigram
+     */
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+        
+        void add(int id) {
+            // IDs nearly always arrive in ascending order, so this is an append
+            int at = size;
+            while (at > 0 && ids[at - 1] > id) {
+                at--;
+            }
+            if (at > 0 && ids[at - 1] == id) {
+                // The trigram occurs more than once in the key
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.budget.events;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-capacity lock-free ring buffer for many producers and one consumer.
+ * Each slot carries a sequence number telling producers and the consumer
+ * whose turn it is, so offer() and drainTo() only ever spin on a CAS and
+ * never take a lock or allocate.
+ */
+final class BoundedQueue<T> {
+    private final int mask;
+    private final AtomicReferenceArray<T> items;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    BoundedQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.items = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+    
+    /**
+     * Add an item if there is room
+     * @return false if the queue is full
+     */
+    boolean offer(T item) {
+        while (true) {
+            long position = tail.get();
+            int slot = (int) position & mask;
+            long difference = sequences.get(slot) - position;
+            
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items.set(slot, item);
+                    // Publish the slot to the consumer
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+            // Another producer claimed this slot first; retry with the new tail
+        }
+    }
+    
+    /**
+     * Move up to maxItems queued items into a list; only the consumer thread may call this
+     * @return number of items moved
+     */
+    int drainTo(List<T> target, int maxItems) {
+        int moved = 0;
+        long position = head.get();
+        
+        while (moved < maxItems) {
+            int slot = (int) position & mask;
+            if (sequences.get(slot) != position + 1) {
+                // Empty, or a producer has claimed the slot but not filled it yet
+                break;
+            }
+            target.add(items.get(slot));
+            items.set(slot, null);
+            sequences.set(slot, position + mask + 1);
+            position++;
+            moved++;
+        }
+        
+        head.set(position);
+        return moved;
+    }
+    
+    boolean isEmpty() {
+        long position = head.get();
+        return sequences.get((int) position & mask) != position + 1;
+    }
+    
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+    
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,240 @@
+package com.budget.events;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Change-data-capture feed of committed DAO writes.
+ * The DatabaseWriter publishes the changes of each transaction right after
+ * it commits, so batches arrive in commit order. One dispatch thread fans
+ * them out, and the writer never waits for it. Every subscriber has its own
+ * bounded lock-free queue and delivery thread, and receives events in
+ * batches in commit order. A slow subscriber only backs up its own queue, and
+ * what happens when that queue is full is the subscriber's choice: make the
+ * dispatcher wait, or drop the event.
+ */
+public final class ChangeBus {
+    private static final int DEFAULT_CAPACITY = Integer.getInteger("budget.events.queueCapacity", 1024);
+    private static final int DEFAULT_MAX_BATCH = Integer.getInteger("budget.events.maxBatch", 64);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    
+    private static final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private static final BlockingQueue<List<ChangeEvent>> committed = new LinkedBlockingQueue<>();
+    private static Thread dispatcher;
+    
+    /**
+     * What a publisher does when a subscriber's queue is full
+     */
+    public enum Backpressure {
+        /** Make the dispatcher wait for the subscriber to make room; nothing is lost */
+        BLOCK,
+        /** Drop the event and count it; the dispatcher never waits */
+        DROP
+    }
+    
+    private ChangeBus() {}
+    
+    /**
+     * Subscribe to every entity with the default queue capacity and batch size
+     */
+    public static Subscription subscribe(String name, Backpressure backpressure, Consumer<List<ChangeEvent>> handler) {
+        return subscribe(name, EnumSet.allOf(ChangeEvent.Entity.class), backpressure,
+            DEFAULT_CAPACITY, DEFAULT_MAX_BATCH, handler);
+    }
+    
+    /**
+     * Subscribe to changes of the given entities
+     * @param capacity queue size, rounded up to a power of two
+     * @param maxBatch most events handed to the handler in one call
+     */
+    public static Subscription subscribe(String name, Set<ChangeEvent.Entity> entities, Backpressure backpressure,
+                                         int capacity, int maxBatch, Consumer<List<ChangeEvent>> handler) {
+        Subscription subscription = new Subscription(name, EnumSet.copyOf(entities), backpressure,
+            capacity, maxBatch, handler);
+        subscriptions.add(subscription);
+        subscription.start();
+        return subscription;
+    }
+    
+    /**
+     * Get the live subscriptions
+     */
+    public static List<Subscription> getSubscriptions() {
+        return Collections.unmodifiableList(subscriptions);
+    }
+    
+    /**
+     * Queue one transaction's committed changes for delivery, in commit order; never blocks
+     */
+    public static void publish(List<ChangeEvent> events) {
+        ensureStarted();
+        committed.add(events);
+    }
+    
+    private static synchronized void ensureStarted() {
+        if (dispatcher != null) {
+            return;
+        }
+        
+        dispatcher = new Thread(ChangeBus::dispatch, "budget-cdc-dispatch");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+    
+    private static void dispatch() {
+        while (true) {
+            try {
+                for (ChangeEvent event : committed.take()) {
+                    deliver(event);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Hand a committed change to every interested subscriber
+     */
+    private static void deliver(ChangeEvent event) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.entities.contains(event.getEntity())) {
+                subscription.enqueue(event);
+            }
+        }
+    }
+    
+    /**
+     * One subscriber's queue and delivery thread
+     */
+    public static final class Subscription implements AutoCloseable {
+        private final String name;
+        private final Set<ChangeEvent.Entity> entities;
+        private final Backpressure backpressure;
+        private final int maxBatch;
+        private final Consumer<List<ChangeEvent>> handler;
+        private final BoundedQueue<ChangeEvent> queue;
+        private final Thread thread;
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private volatile boolean running = true;
+        private volatile boolean parked;
+        
+        private Subscription(String name, Set<ChangeEvent.Entity> entities, Backpressure backpressure,
+                             int capacity, int maxBatch, Consumer<List<ChangeEvent>> handler) {
+            this.name = name;
+            this.entities = entities;
+            this.backpressure = backpressure;
+            this.maxBatch = Math.max(1, maxBatch);
+            this.handler = handler;
+            this.queue = new BoundedQueue<>(capacity);
+            this.thread = new Thread(this::run, "budget-cdc-" + name);
+            this.thread.setDaemon(true);
+        }
+        
+        private void start() {
+            thread.start();
+        }
+        
+        private void enqueue(ChangeEvent event) {
+            if (!queue.offer(event)) {
+                if (backpressure == Backpressure.DROP) {
+                    drop();
+                    return;
+                }
+                while (!queue.offer(event)) {
+                    if (!running) {
+                        drop();
+                        return;
+                    }
+                    LockSupport.unpark(thread);
+                    LockSupport.parkNanos(FULL_PARK_NANOS);
+                }
+            }
+            
+            if (parked) {
+                LockSupport.unpark(thread);
+            }
+        }
+        
+        private void drop() {
+            dropped.increment();
+            long count = dropped.sum();
+            // Log at 1, 2, 4, 8... so a storm of drops doesn't flood the log
+            if (Long.bitCount(count) == 1) {
+                System.err.println("Change subscriber " + name + " is falling behind; " + count + " events dropped");
+            }
+        }
+        
+        private void run() {
+            List<ChangeEvent> batch = new ArrayList<>(maxBatch);
+            
+            while (running || !queue.isEmpty()) {
+                if (queue.drainTo(batch, maxBatch) == 0) {
+                    // Announce the park, then re-check so a concurrent publish is never missed
+                    parked = true;
+                    if (queue.isEmpty() && running) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    parked = false;
+                    continue;
+                }
+                
+                try {
+                    handler.accept(batch);
+                } catch (RuntimeException e) {
+                    System.err.println("Error delivering changes to " + name + ": " + e.getMessage());
+                }
+                delivered.add(batch.size());
+                batch.clear();
+            }
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        /**
+         * Get the number of events waiting for delivery
+         */
+        public int getQueuedCount() {
+            return queue.size();
+        }
+        
+        public long getDeliveredCount() {
+            return delivered.sum();
+        }
+        
+        public long getDroppedCount() {
+            return dropped.sum();
+        }
+        
+        /**
+         * Stop receiving events, deliver what is already queued, then stop the thread
+         */
+        @Override
+        public void close() {
+            subscriptions.remove(this);
+            running = false;
+            LockSupport.unpark(thread);
+            if (Thread.currentThread() != thread) {
+                try {
+                    thread.join(TimeUnit.SECONDS.toMillis(5));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.budget.events;
+
+/**
+ * Describes one committed DAO mutation
+ */
+public class ChangeEvent {
+    public enum Entity {
+        EXPENSE, INCOME, BUDGET, CATEGORY
+    }
+    
+    public enum Operation {
+        CREATE, UPDATE, DELETE
+    }
+    
+    private final Entity entity;
+    private final Operation operation;
+    private final int id;
+    private final Object payload;
+    private final long version;
+    
+    /**
+     * @param payload the row as it committed, or null for deletes
+     * @param version the data version after the change committed
+     */
+    public ChangeEvent(Entity entity, Operation operation, int id, Object payload, long version) {
+        this.entity = entity;
+        this.operation = operation;
+        this.id = id;
+        this.payload = payload;
+        this.version = version;
+    }
+    
+    public Entity getEntity() {
+        return entity;
+    }
+    
+    public Operation getOperation() {
+        return operation;
+    }
+    
+    public int getId() {
+        return id;
+    }
+    
+    public Object getPayload() {
+        return payload;
+    }
+    
+    /**
+     * Get the payload cast to the model class for this entity
+     */
+    public <T> T getPayload(Class<T> type) {
+        return type.isInstance(payload) ? type.cast(payload) : null;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("ChangeEvent{entity=%s, operation=%s, id=%d, version=%d}", entity, operation, id, version);
+    }
+}
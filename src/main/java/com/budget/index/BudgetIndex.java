@@ -0,0 +1,189 @@
+package com.budget.index;
+
+import com.budget.model.Budget;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * In-memory index of budget periods answering "which budgets cover date D",
+ * overall or for one category, without a table scan.
+ * Budgets are held in one interval tree per category plus one over all of
+ * them. Writers rebuild the trees touched by a change and publish a new
+ * snapshot; readers take the current snapshot without locking, so a lookup
+ * never waits on a write. The index loads itself on first use and again
+ * after invalidate(). A budget without an end date is open-ended.
+ */
+public class BudgetIndex {
+    private static final Comparator<Budget> NEWEST_FIRST =
+        Comparator.comparing(Budget::getStartDate).reversed().thenComparing(Budget::getId, Comparator.reverseOrder());
+    
+    private final Supplier<List<Budget>> loader;
+    private final Map<Integer, Budget> budgets = new HashMap<>();
+    private volatile Snapshot snapshot;
+    
+    /**
+     * @param loader reads every budget from the store
+     */
+    public BudgetIndex(Supplier<List<Budget>> loader) {
+        this.loader = loader;
+    }
+    
+    /**
+     * Get the budgets covering a date, newest period first
+     */
+    public List<Budget> covering(LocalDate date) {
+        return sorted(snapshot().all.stab(date.toEpochDay()));
+    }
+    
+    /**
+     * Get the budgets of one category covering a date, newest period first
+     */
+    public List<Budget> covering(int categoryId, LocalDate date) {
+        IntervalTree<Budget> tree = snapshot().byCategory.get(categoryId);
+        return tree != null ? sorted(tree.stab(date.toEpochDay())) : new ArrayList<>();
+    }
+    
+    public int size() {
+        return snapshot().all.size();
+    }
+    
+    /**
+     * Re-read one budget and replace the indexed copy of it, or drop it if it is gone.
+     * The read runs under the write lock so two refreshes of the same budget
+     * can't publish out of order.
+     */
+    public synchronized void refresh(int budgetId, IntFunction<Optional<Budget>> reader) {
+        if (snapshot == null) {
+            return;
+        }
+        
+        Budget previous = budgets.remove(budgetId);
+        Optional<Budget> current = reader.apply(budgetId).filter(budget -> budget.getStartDate() != null);
+        current.ifPresent(budget -> budgets.put(budgetId, copyOf(budget)));
+        
+        if (previous != null || current.isPresent()) {
+            publish(previous, current.map(Budget::getCategoryId).orElse(previous != null ? previous.getCategoryId() : 0));
+        }
+    }
+    
+    public synchronized void remove(int budgetId) {
+        if (snapshot == null) {
+            return;
+        }
+        
+        Budget previous = budgets.remove(budgetId);
+        if (previous != null) {
+            publish(previous, previous.getCategoryId());
+        }
+    }
+    
+    /**
+     * Drop everything; the next lookup reloads
+     */
+    public synchronized void invalidate() {
+        budgets.clear();
+        snapshot = null;
+    }
+    
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : load();
+    }
+    
+    /**
+     * Build the whole index from the loader. The loader runs under the write
+     * lock, so a refresh racing the load is applied after it, not overwritten.
+     */
+    private synchronized Snapshot load() {
+        if (snapshot != null) {
+            return snapshot;
+        }
+        
+        budgets.clear();
+        for (Budget budget : loader.get()) {
+            if (budget.getStartDate() != null) {
+                budgets.put(budget.getId(), copyOf(budget));
+            }
+        }
+        
+        Map<Integer, List<Budget>> byCategory = new HashMap<>();
+        for (Budget budget : budgets.values()) {
+            byCategory.computeIfAbsent(budget.getCategoryId(), id -> new ArrayList<>()).add(budget);
+        }
+        Map<Integer, IntervalTree<Budget>> trees = new HashMap<>();
+        byCategory.forEach((categoryId, list) -> trees.put(categoryId, tree(list)));
+        snapshot = new Snapshot(tree(budgets.values()), trees);
+        return snapshot;
+    }
+    
+    /**
+     * Rebuild the trees of the categories a change touched and swap in a new snapshot
+     */
+    private void publish(Budget previous, int categoryId) {
+        Map<Integer, IntervalTree<Budget>> trees = new HashMap<>(snapshot.byCategory);
+        rebuildCategory(trees, categoryId);
+        if (previous != null && previous.getCategoryId() != categoryId) {
+            rebuildCategory(trees, previous.getCategoryId());
+        }
+        snapshot = new Snapshot(tree(budgets.values()), trees);
+    }
+    
+    private void rebuildCategory(Map<Integer, IntervalTree<Budget>> trees, int categoryId) {
+        List<Budget> list = new ArrayList<>();
+        for (Budget budget : budgets.values()) {
+            if (budget.getCategoryId() == categoryId) {
+                list.add(budget);
+            }
+        }
+        if (list.isEmpty()) {
+            trees.remove(categoryId);
+        } else {
+            trees.put(categoryId, tree(list));
+        }
+    }
+    
+    private static IntervalTree<Budget> tree(Collection<Budget> budgets) {
+        return IntervalTree.build(budgets,
+            budget -> budget.getStartDate().toEpochDay(),
+            budget -> budget.getEndDate() != null ? budget.getEndDate().toEpochDay() : Long.MAX_VALUE);
+    }
+    
+    private static List<Budget> sorted(List<Budget> budgets) {
+        List<Budget> copies = new ArrayList<>(budgets.size());
+        for (Budget budget : budgets) {
+            copies.add(copyOf(budget));
+        }
+        copies.sort(NEWEST_FIRST);
+        return copies;
+    }
+    
+    /**
+     * Budgets are mutable, so the index keeps its own copies and hands out fresh ones
+     */
+    private static Budget copyOf(Budget budget) {
+        Budget copy = new Budget(budget.getId(), budget.getCategoryId(), budget.getAmount(), budget.getPeriod(),
+            budget.getStartDate(), budget.getEndDate(), budget.getCreatedDate());
+        copy.setAnchorDate(budget.getAnchorDate());
+        copy.setCategory(budget.getCategory());
+        return copy;
+    }
+    
+    private static final class Snapshot {
+        final IntervalTree<Budget> all;
+        final Map<Integer, IntervalTree<Budget>> byCategory;
+        
+        Snapshot(IntervalTree<Budget> all, Map<Integer, IntervalTree<Budget>> byCategory) {
+            this.all = all;
+            this.byCategory = byCategory;
+        }
+    }
+}
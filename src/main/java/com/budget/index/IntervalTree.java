@@ -0,0 +1,145 @@
+package com.budget.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Immutable centered interval tree over closed intervals [start, end].
+ * Each node keeps the intervals that contain its center point twice, sorted
+ * by start and by end; intervals wholly left or right of the center go to the
+ * child subtrees. A stabbing query walks one root-to-leaf path and, at each
+ * node, reads only the intervals that actually contain the point, so it costs
+ * O(log n + k) for k results. Build once in O(n log n); to change the set,
+ * build a new tree.
+ */
+public final class IntervalTree<T> {
+    private static final IntervalTree<?> EMPTY = new IntervalTree<>(null, 0);
+    
+    private final Node<T> root;
+    private final int size;
+    
+    private IntervalTree(Node<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+    
+    @SuppressWarnings("unchecked")
+    public static <T> IntervalTree<T> empty() {
+        return (IntervalTree<T>) EMPTY;
+    }
+    
+    /**
+     * Build a tree over the items
+     * @param start inclusive start of an item's interval
+     * @param end inclusive end of an item's interval
+     */
+    public static <T> IntervalTree<T> build(Collection<T> items, ToLongFunction<T> start, ToLongFunction<T> end) {
+        if (items.isEmpty()) {
+            return empty();
+        }
+        
+        List<Entry<T>> entries = new ArrayList<>(items.size());
+        for (T item : items) {
+            entries.add(new Entry<>(item, start.applyAsLong(item), end.applyAsLong(item)));
+        }
+        return new IntervalTree<>(buildNode(entries), entries.size());
+    }
+    
+    private static <T> Node<T> buildNode(List<Entry<T>> entries) {
+        if (entries.isEmpty()) {
+            return null;
+        }
+        
+        // The median endpoint keeps both sides at most half the size
+        long[] endpoints = new long[entries.size() * 2];
+        for (int i = 0; i < entries.size(); i++) {
+            endpoints[2 * i] = entries.get(i).start;
+            endpoints[2 * i + 1] = entries.get(i).end;
+        }
+        Arrays.sort(endpoints);
+        long center = endpoints[entries.size()];
+        
+        List<Entry<T>> left = new ArrayList<>();
+        List<Entry<T>> right = new ArrayList<>();
+        List<Entry<T>> overlapping = new ArrayList<>();
+        for (Entry<T> entry : entries) {
+            if (entry.end < center) {
+                left.add(entry);
+            } else if (entry.start > center) {
+                right.add(entry);
+            } else {
+                overlapping.add(entry);
+            }
+        }
+        
+        return new Node<>(center, overlapping, buildNode(left), buildNode(right));
+    }
+    
+    /**
+     * Get every item whose interval contains the point
+     */
+    public List<T> stab(long point) {
+        List<T> result = new ArrayList<>();
+        Node<T> node = root;
+        
+        while (node != null) {
+            if (point < node.center) {
+                // Every interval here ends at or after the center, so only the start matters
+                for (int i = 0; i < node.byStart.length && node.byStart[i].start <= point; i++) {
+                    result.add(node.byStart[i].item);
+                }
+                node = node.left;
+            } else if (point > node.center) {
+                for (int i = 0; i < node.byEnd.length && node.byEnd[i].end >= point; i++) {
+                    result.add(node.byEnd[i].item);
+                }
+                node = node.right;
+            } else {
+                for (Entry<T> entry : node.byStart) {
+                    result.add(entry.item);
+                }
+                break;
+            }
+        }
+        return result;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    private static final class Entry<T> {
+        final T item;
+        final long start;
+        final long end;
+        
+        Entry(T item, long start, long end) {
+            this.item = item;
+            this.start = start;
+            this.end = end;
+        }
+    }
+    
+    private static final class Node<T> {
+        final long center;
+        final Entry<T>[] byStart;
+        final Entry<T>[] byEnd;
+        final Node<T> left;
+        final Node<T> right;
+        
+        @SuppressWarnings("unchecked")
+        Node(long center, List<Entry<T>> overlapping, Node<T> left, Node<T> right) {
+            this.center = center;
+            this.byStart = (Entry<T>[]) overlapping.toArray(new Entry<?>[0]);
+            this.byEnd = (Entry<T>[]) overlapping.toArray(new Entry<?>[0]);
+            Arrays.sort(byStart, Comparator.comparingLong(entry -> entry.start));
+            Arrays.sort(byEnd, Comparator.comparingLong((Entry<T> entry) -> entry.end).reversed());
+            this.left = left;
+            this.right = right;
+        }
+    }
+}
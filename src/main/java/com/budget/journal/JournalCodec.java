@@ -0,0 +1,70 @@
+package com.budget.journal;
+
+import com.budget.model.Category;
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * JSON encoding of journal payloads.
+ * Dates are written as ISO strings; nested display-only Category objects on
+ * expenses, income and budgets are skipped since only category_id is stored.
+ */
+final class JournalCodec {
+    static final Gson GSON = new GsonBuilder()
+        .registerTypeAdapter(LocalDate.class, new IsoAdapter<>(LocalDate::parse))
+        .registerTypeAdapter(LocalDateTime.class, new IsoAdapter<>(LocalDateTime::parse))
+        .setExclusionStrategies(new ExclusionStrategy() {
+            @Override
+            public boolean shouldSkipField(FieldAttributes field) {
+                return field.getDeclaredClass() == Category.class;
+            }
+            
+            @Override
+            public boolean shouldSkipClass(Class<?> type) {
+                return false;
+            }
+        })
+        .create();
+    
+    private JournalCodec() {}
+    
+    /**
+     * Reads and writes a java.time value through its ISO-8601 string form
+     */
+    private static class IsoAdapter<T> extends TypeAdapter<T> {
+        private final Function<String, T> parser;
+        
+        IsoAdapter(Function<String, T> parser) {
+            this.parser = parser;
+        }
+        
+        @Override
+        public void write(JsonWriter out, T value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+            } else {
+                out.value(value.toString());
+            }
+        }
+        
+        @Override
+        public T read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return parser.apply(in.nextString());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.budget.journal;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Sequential reader over the journal's segments.
+ * Every record's checksum and sequence number is verified; reading a segment
+ * stops at its end marker or at the first record that fails verification.
+ */
+public final class JournalReader {
+    private JournalReader() {}
+    
+    /**
+     * Visit every valid record with a sequence number above the given one, in order
+     * @return the sequence number of the last record visited, or afterSequence if none
+     */
+    public static long read(Path directory, long afterSequence, Consumer<JournalRecord> visitor) throws IOException {
+        long last = afterSequence;
+        List<Path> segments = listSegments(directory);
+        
+        for (int i = 0; i < segments.size(); i++) {
+            // Skip whole segments that end before the requested position
+            if (i + 1 < segments.size() && firstSequence(segments.get(i + 1)) <= afterSequence + 1) {
+                continue;
+            }
+            last = readSegment(segments.get(i), afterSequence, last, visitor);
+        }
+        return last;
+    }
+    
+    private static long readSegment(Path segment, long afterSequence, long last, Consumer<JournalRecord> visitor)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            checkHeader(buffer, segment);
+            
+            long expected = firstSequence(segment);
+            if (last != afterSequence && expected != last + 1) {
+                System.err.println("Journal gap before " + segment.getFileName() + ": expected sequence "
+                    + (last + 1) + ", segment starts at " + expected);
+            }
+            
+            int position = MutationJournal.SEGMENT_HEADER_BYTES;
+            while (true) {
+                int end = validRecordEnd(buffer, position, expected);
+                if (end < 0) {
+                    break;
+                }
+                
+                if (expected > afterSequence) {
+                    int length = buffer.getInt(position);
+                    long timestamp = buffer.getLong(position + 12);
+                    byte[] body = new byte[length - 16];
+                    buffer.get(position + 20, body);
+                    JsonObject json = JsonParser.parseString(new String(body, StandardCharsets.UTF_8)).getAsJsonObject();
+                    visitor.accept(new JournalRecord(expected, Instant.ofEpochMilli(timestamp), json));
+                    last = expected;
+                }
+                position = end;
+                expected++;
+            }
+        }
+        return last;
+    }
+    
+    /**
+     * Check the record at a position is complete, carries the expected sequence and passes its checksum
+     * @return the position just past the record, or -1 at the end of the valid data
+     */
+    static int validRecordEnd(ByteBuffer buffer, int position, long expectedSequence) {
+        if (position + 4 > buffer.limit()) {
+            return -1;
+        }
+        int length = buffer.getInt(position);
+        if (length < 16 || position + 4 + length + 4 > buffer.limit()) {
+            return -1;
+        }
+        if (buffer.getLong(position + 4) != expectedSequence) {
+            return -1;
+        }
+        int stored = buffer.getInt(position + 4 + length);
+        if (stored != MutationJournal.checksum(buffer, position + 4, length)) {
+            return -1;
+        }
+        return position + 4 + length + 4;
+    }
+    
+    static void checkHeader(ByteBuffer buffer, Path segment) throws IOException {
+        if (buffer.limit() < MutationJournal.SEGMENT_HEADER_BYTES
+                || buffer.getInt(0) != MutationJournal.MAGIC
+                || buffer.getInt(4) != MutationJournal.FORMAT_VERSION) {
+            throw new IOException("Not a journal segment: " + segment);
+        }
+    }
+    
+    /**
+     * Get the sequence number of a segment's first record from its file name
+     */
+    static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(MutationJournal.SEGMENT_PREFIX.length(),
+            name.length() - MutationJournal.SEGMENT_SUFFIX.length()));
+    }
+    
+    /**
+     * Get the segment files in sequence order
+     */
+    static List<Path> listSegments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        
+        String glob = MutationJournal.SEGMENT_PREFIX + "*" + MutationJournal.SEGMENT_SUFFIX;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+            for (Path path : stream) {
+                segments.add(path);
+            }
+        }
+        // Zero-padded sequence numbers sort in order
+        Collections.sort(segments);
+        return segments;
+    }
+}
@@ -0,0 +1,105 @@
+package com.budget.journal;
+
+import com.budget.events.ChangeEvent;
+import com.budget.model.Budget;
+import com.budget.model.Category;
+import com.budget.model.Expense;
+import com.budget.model.Income;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.time.Instant;
+
+/**
+ * One journaled mutation: a sequence number, the time it was appended and
+ * a JSON body naming the entity, operation, row id and the written row
+ */
+public class JournalRecord {
+    private final long sequence;
+    private final Instant timestamp;
+    private final ChangeEvent.Entity entity;
+    private final ChangeEvent.Operation operation;
+    private final int id;
+    private final JsonElement data;
+    
+    JournalRecord(long sequence, Instant timestamp, JsonObject body) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.entity = ChangeEvent.Entity.valueOf(body.get("entity").getAsString());
+        this.operation = ChangeEvent.Operation.valueOf(body.get("operation").getAsString());
+        this.id = body.get("id").getAsInt();
+        this.data = body.has("data") ? body.get("data") : null;
+    }
+    
+    /**
+     * Build the JSON body for a change event
+     */
+    static JsonObject encode(ChangeEvent event) {
+        JsonObject body = new JsonObject();
+        body.addProperty("entity", event.getEntity().name());
+        body.addProperty("operation", event.getOperation().name());
+        body.addProperty("id", event.getId());
+        if (event.getPayload() != null) {
+            body.add("data", JournalCodec.GSON.toJsonTree(event.getPayload()));
+        }
+        return body;
+    }
+    
+    public long getSequence() {
+        return sequence;
+    }
+    
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+    
+    public ChangeEvent.Entity getEntity() {
+        return entity;
+    }
+    
+    public ChangeEvent.Operation getOperation() {
+        return operation;
+    }
+    
+    public int getId() {
+        return id;
+    }
+    
+    /**
+     * Decode the written row into its model class, or null for deletes
+     */
+    public Object getPayload() {
+        if (data == null) {
+            return null;
+        }
+        return JournalCodec.GSON.fromJson(data, modelClass(entity));
+    }
+    
+    /**
+     * Decode the written row as a specific model class
+     */
+    public <T> T getPayload(Class<T> type) {
+        Object payload = getPayload();
+        return type.isInstance(payload) ? type.cast(payload) : null;
+    }
+    
+    static Class<?> modelClass(ChangeEvent.Entity entity) {
+        switch (entity) {
+            case EXPENSE:
+                return Expense.class;
+            case INCOME:
+                return Income.class;
+            case BUDGET:
+                return Budget.class;
+            case CATEGORY:
+                return Category.class;
+            default:
+                throw new IllegalArgumentException("Unknown entity " + entity);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("#%d %s %s %s id=%d %s", sequence, timestamp, operation, entity, id, data != null ? data : "");
+    }
+}
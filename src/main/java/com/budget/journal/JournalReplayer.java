@@ -0,0 +1,251 @@
+package com.budget.journal;
+
+import com.budget.database.DatabaseManager;
+import com.budget.events.ChangeEvent;
+import com.budget.model.Budget;
+import com.budget.model.Category;
+import com.budget.model.Expense;
+import com.budget.model.Income;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Rebuilds state from the mutation journal.
+ * Records can be streamed into any consumer (an in-memory index, a feed),
+ * or applied to a SQLite database. Creates and updates are written as full
+ * row upserts and deletes by id, so replaying a record twice is harmless
+ * and a rebuild can resume from any sequence number.
+ */
+public class JournalReplayer {
+    private static final DateTimeFormatter SQLITE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    private final Connection conn;
+    
+    public JournalReplayer(Connection conn) {
+        this.conn = conn;
+    }
+    
+    /**
+     * Apply every record after a sequence number in one transaction
+     * @return the sequence number of the last record applied
+     */
+    public long replay(Path journalDirectory, long afterSequence) throws IOException, SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            long last = JournalReader.read(journalDirectory, afterSequence, record -> {
+                try {
+                    apply(record);
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Error replaying journal record " + record.getSequence(), e);
+                }
+            });
+            // The rebuilt database can take over the journal from this position
+            try (PreparedStatement pstmt = conn.prepareStatement("INSERT OR REPLACE INTO journal_state (id, last_sequence) VALUES (1, ?)")) {
+                pstmt.setLong(1, last);
+                pstmt.executeUpdate();
+            }
+            conn.commit();
+            return last;
+        } catch (IOException | SQLException | RuntimeException e) {
+            conn.rollback();
+            if (e instanceof IllegalStateException && e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+    
+    /**
+     * Apply one record to the database
+     */
+    public void apply(JournalRecord record) throws SQLException {
+        if (record.getOperation() == ChangeEvent.Operation.DELETE) {
+            try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM " + table(record.getEntity()) + " WHERE id = ?")) {
+                pstmt.setInt(1, record.getId());
+                pstmt.executeUpdate();
+            }
+            return;
+        }
+        
+        switch (record.getEntity()) {
+            case EXPENSE: {
+                Expense expense = record.getPayload(Expense.class);
+                upsertExpense(expense, createdDate(record, expense.getCreatedDate()));
+                break;
+            }
+            case INCOME: {
+                Income income = record.getPayload(Income.class);
+                upsertIncome(income, createdDate(record, income.getCreatedDate()));
+                break;
+            }
+            case BUDGET: {
+                Budget budget = record.getPayload(Budget.class);
+                upsertBudget(budget, createdDate(record, budget.getCreatedDate()));
+                break;
+            }
+            case CATEGORY: {
+                Category category = record.getPayload(Category.class);
+                upsertCategory(category, createdDate(record, category.getCreatedDate()));
+                break;
+            }
+            default:
+                break;
+        }
+    }
+    
+    /**
+     * The row's created_date as journaled; records written before rows carried it fall back to the append time
+     */
+    private static String createdDate(JournalRecord record, LocalDateTime createdDate) {
+        if (createdDate != null) {
+            return createdDate.format(SQLITE_TIMESTAMP);
+        }
+        return record.getTimestamp().atOffset(ZoneOffset.UTC).format(SQLITE_TIMESTAMP);
+    }
+    
+    // Every upsert writes the created_date journaled with the row.
+    // Description IDs are left NULL for DescriptionDictionary to fill in at the next start-up.
+    
+    private void upsertExpense(Expense expense, String createdDate) throws SQLException {
+        String sql = """
+            INSERT INTO expenses (id, category_id, amount, description, expense_date, created_date)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT(id) DO UPDATE SET category_id = excluded.category_id, amount = excluded.amount,
+                description = excluded.description, description_id = NULL, expense_date = excluded.expense_date,
+                created_date = excluded.created_date
+            """;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, expense.getId());
+            pstmt.setInt(2, expense.getCategoryId());
+            pstmt.setBigDecimal(3, expense.getAmount());
+            pstmt.setString(4, expense.getDescription());
+            pstmt.setDate(5, Date.valueOf(expense.getExpenseDate()));
+            pstmt.setString(6, createdDate);
+            pstmt.executeUpdate();
+        }
+    }
+    
+    private void upsertIncome(Income income, String createdDate) throws SQLException {
+        String sql = """
+            INSERT INTO income (id, category_id, amount, description, income_date, created_date)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT(id) DO UPDATE SET category_id = excluded.category_id, amount = excluded.amount,
+                description = excluded.description, description_id = NULL, income_date = excluded.income_date,
+                created_date = excluded.created_date
+            """;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, income.getId());
+            pstmt.setInt(2, income.getCategoryId());
+            pstmt.setBigDecimal(3, income.getAmount());
+            pstmt.setString(4, income.getDescription());
+            pstmt.setDate(5, Date.valueOf(income.getIncomeDate()));
+            pstmt.setString(6, createdDate);
+            pstmt.executeUpdate();
+        }
+    }
+    
+    private void upsertBudget(Budget budget, String createdDate) throws SQLException {
+        String sql = """
+            INSERT INTO budgets (id, category_id, amount, period, start_date, end_date, anchor_date, created_date)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT(id) DO UPDATE SET category_id = excluded.category_id, amount = excluded.amount,
+                period = excluded.period, start_date = excluded.start_date, end_date = excluded.end_date,
+                anchor_date = excluded.anchor_date, created_date = excluded.created_date
+            """;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, budget.getId());
+            pstmt.setInt(2, budget.getCategoryId());
+            pstmt.setBigDecimal(3, budget.getAmount());
+            pstmt.setString(4, budget.getPeriod().toString());
+            pstmt.setDate(5, Date.valueOf(budget.getStartDate()));
+            pstmt.setDate(6, budget.getEndDate() != null ? Date.valueOf(budget.getEndDate()) : null);
+            pstmt.setDate(7, Date.valueOf(budget.getAnchorDate()));
+            pstmt.setString(8, createdDate);
+            pstmt.executeUpdate();
+        }
+    }
+    
+    private void upsertCategory(Category category, String createdDate) throws SQLException {
+        String sql = """
+            INSERT INTO categories (id, name, type, color, created_date)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT(id) DO UPDATE SET name = excluded.name, type = excluded.type, color = excluded.color,
+                created_date = excluded.created_date
+            """;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, category.getId());
+            pstmt.setString(2, category.getName());
+            pstmt.setString(3, category.getType().toString());
+            pstmt.setString(4, category.getColor());
+            pstmt.setString(5, createdDate);
+            pstmt.executeUpdate();
+        }
+    }
+    
+    private static String table(ChangeEvent.Entity entity) {
+        switch (entity) {
+            case EXPENSE:
+                return "expenses";
+            case INCOME:
+                return "income";
+            case BUDGET:
+                return "budgets";
+            case CATEGORY:
+                return "categories";
+            default:
+                throw new IllegalArgumentException("Unknown entity " + entity);
+        }
+    }
+    
+    /**
+     * Command line entry point: dump [JOURNAL_DIR] | rebuild TARGET_DB [JOURNAL_DIR]
+     */
+    public static void main(String[] args) {
+        String command = args.length > 0 ? args[0] : "";
+        
+        try {
+            switch (command) {
+                case "dump": {
+                    Path directory = Paths.get(args.length > 1 ? args[1] : "journal");
+                    long last = JournalReader.read(directory, 0, System.out::println);
+                    System.out.println("Last sequence: " + last);
+                    break;
+                }
+                case "rebuild": {
+                    if (args.length < 2) {
+                        System.err.println("Missing target database file");
+                        System.exit(2);
+                    }
+                    Path directory = Paths.get(args.length > 2 ? args[2] : "journal");
+                    try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + args[1])) {
+                        conn.setAutoCommit(false);
+                        DatabaseManager.initializeSchema(conn);
+                        conn.commit();
+                        long last = new JournalReplayer(conn).replay(directory, 0);
+                        System.out.println("Rebuilt " + args[1] + " up to journal sequence " + last);
+                    }
+                    break;
+                }
+                default:
+                    System.err.println("Usage: JournalReplayer dump [journalDir] | rebuild <target.db> [journalDir]");
+                    System.exit(2);
+            }
+        } catch (IOException | SQLException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
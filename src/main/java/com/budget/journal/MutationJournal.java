@@ -0,0 +1,236 @@
+package com.budget.journal;
+
+import com.budget.database.DatabaseWriter;
+import com.budget.events.ChangeEvent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of committed ledger mutations.
+ * Records go into fixed-size memory-mapped segment files; a new segment is
+ * started when the current one is full. Each record is framed as
+ *
+ *   int length | long sequence | long epochMillis | JSON body | int crc32
+ *
+ * where the checksum covers sequence, timestamp and body. A zero length
+ * marks the end of a segment. On open the last segment is scanned and any
+ * torn record left by a crash is cut off before appending resumes.
+ * Attached to DatabaseWriter as its commit log, so records are appended on
+ * the writer thread in commit order before each transaction commits.
+ */
+public class MutationJournal implements Closeable, DatabaseWriter.CommitLog {
+    static final int MAGIC = 0x424A4E4C; // "BJNL"
+    static final int FORMAT_VERSION = 1;
+    static final int SEGMENT_HEADER_BYTES = 8;
+    static final int RECORD_OVERHEAD = 4 + 8 + 8 + 4;
+    static final String SEGMENT_PREFIX = "journal-";
+    static final String SEGMENT_SUFFIX = ".seg";
+    
+    private static final int DEFAULT_SEGMENT_BYTES = Integer.getInteger("budget.journal.segmentBytes", 16 * 1024 * 1024);
+    private static final boolean SYNC_EVERY_RECORD = Boolean.getBoolean("budget.journal.sync");
+    
+    private final Path directory;
+    private final int segmentBytes;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long nextSequence = 1;
+    
+    private MutationJournal(Path directory, int segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+    
+    /**
+     * Open the journal in a directory, recovering the tail of the last segment
+     */
+    public static MutationJournal open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_BYTES);
+    }
+    
+    public static MutationJournal open(Path directory, int segmentBytes) throws IOException {
+        Files.createDirectories(directory);
+        MutationJournal journal = new MutationJournal(directory, segmentBytes);
+        
+        List<Path> segments = JournalReader.listSegments(directory);
+        if (segments.isEmpty()) {
+            journal.startSegment(1);
+        } else {
+            journal.resume(segments.get(segments.size() - 1), Long.MAX_VALUE);
+        }
+        return journal;
+    }
+    
+    /**
+     * Journal the changes of one transaction, syncing once for the whole batch
+     * @return the sequence number of the last record
+     */
+    @Override
+    public synchronized long append(List<ChangeEvent> changes) throws IOException {
+        long sequence = nextSequence - 1;
+        for (ChangeEvent change : changes) {
+            sequence = write(JournalRecord.encode(change).toString());
+        }
+        if (SYNC_EVERY_RECORD) {
+            buffer.force();
+        }
+        return sequence;
+    }
+    
+    /**
+     * Append one record body
+     * @return the record's sequence number
+     */
+    public synchronized long append(String body) throws IOException {
+        long sequence = write(body);
+        if (SYNC_EVERY_RECORD) {
+            buffer.force();
+        }
+        return sequence;
+    }
+    
+    private long write(String body) throws IOException {
+        if (buffer == null) {
+            throw new IOException("Journal is closed");
+        }
+        
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        int recordBytes = RECORD_OVERHEAD + bytes.length;
+        if (recordBytes + 4 > segmentBytes - SEGMENT_HEADER_BYTES) {
+            throw new IOException("Journal record of " + bytes.length + " bytes exceeds segment size");
+        }
+        // Keep four zero bytes after every record as the end marker
+        if (buffer.remaining() < recordBytes + 4) {
+            buffer.force();
+            startSegment(nextSequence);
+        }
+        
+        long sequence = nextSequence++;
+        long timestamp = System.currentTimeMillis();
+        int start = buffer.position();
+        
+        buffer.position(start + 4);
+        buffer.putLong(sequence);
+        buffer.putLong(timestamp);
+        buffer.put(bytes);
+        buffer.putInt(checksum(buffer, start + 4, 16 + bytes.length));
+        // Length last, so a reader never sees a complete-looking header over a half-written body
+        buffer.putInt(start, 16 + bytes.length);
+        return sequence;
+    }
+    
+    /**
+     * Get the sequence number of the last appended record, 0 if none
+     */
+    @Override
+    public synchronized long getLastSequence() {
+        return nextSequence - 1;
+    }
+    
+    /**
+     * Cut the journal back to a sequence number, deleting segments that only hold later records
+     */
+    @Override
+    public synchronized void discardAfter(long sequence) throws IOException {
+        if (sequence >= nextSequence - 1) {
+            return;
+        }
+        if (buffer == null) {
+            throw new IOException("Journal is closed");
+        }
+        
+        buffer = null;
+        channel.close();
+        channel = null;
+        
+        List<Path> segments = JournalReader.listSegments(directory);
+        while (!segments.isEmpty() && JournalReader.firstSequence(segments.get(segments.size() - 1)) > sequence) {
+            Files.delete(segments.remove(segments.size() - 1));
+        }
+        
+        if (segments.isEmpty()) {
+            nextSequence = sequence + 1;
+            startSegment(nextSequence);
+        } else {
+            resume(segments.get(segments.size() - 1), sequence);
+        }
+        buffer.force();
+    }
+    
+    /**
+     * Flush mapped pages to disk
+     */
+    public synchronized void flush() {
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+            channel.close();
+            channel = null;
+        }
+    }
+    
+    private void startSegment(long firstSequence) throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        
+        Path segment = directory.resolve(segmentName(firstSequence));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        buffer.putInt(MAGIC);
+        buffer.putInt(FORMAT_VERSION);
+    }
+    
+    private void resume(Path segment, long lastKept) throws IOException {
+        channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        JournalReader.checkHeader(buffer, segment);
+        
+        long first = JournalReader.firstSequence(segment);
+        nextSequence = first;
+        buffer.position(SEGMENT_HEADER_BYTES);
+        while (nextSequence <= lastKept) {
+            int end = JournalReader.validRecordEnd(buffer, buffer.position(), nextSequence);
+            if (end < 0) {
+                break;
+            }
+            buffer.position(end);
+            nextSequence++;
+        }
+        
+        // Zero anything after the last kept record, e.g. a torn write from a crash
+        int position = buffer.position();
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) 0);
+        }
+        buffer.position(position);
+    }
+    
+    static String segmentName(long firstSequence) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX);
+    }
+    
+    static int checksum(ByteBuffer source, int offset, int length) {
+        CRC32 crc = new CRC32();
+        ByteBuffer slice = source.duplicate();
+        slice.limit(offset + length).position(offset);
+        crc.update(slice);
+        return (int) crc.getValue();
+    }
+}
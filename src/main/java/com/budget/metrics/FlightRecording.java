@@ -0,0 +1,65 @@
+package com.budget.metrics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Continuous Flight Recorder recording, started with the --jfr flag.
+ * Uses the low-overhead "default" settings plus the application's own
+ * events, keeps a rolling window on disk and dumps it on shutdown.
+ */
+public final class FlightRecording {
+    public static final String FLAG = "--jfr";
+    private static final Path DUMP_FILE = Paths.get(System.getProperty("budget.jfr.file", "budget-recording.jfr"));
+    private static final Duration MAX_AGE = Duration.ofMinutes(Long.getLong("budget.jfr.maxAgeMinutes", 30));
+    private static final long MAX_SIZE_BYTES = 100L * 1024 * 1024;
+    
+    private static Recording recording;
+    
+    private FlightRecording() {}
+    
+    /**
+     * Start the continuous recording if the flag is among the program arguments
+     */
+    public static synchronized void startIfRequested(String[] args) {
+        for (String arg : args) {
+            if (FLAG.equals(arg)) {
+                start();
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Start the continuous recording
+     */
+    public static synchronized void start() {
+        if (recording != null) {
+            return;
+        }
+        
+        try {
+            Recording continuous = new Recording(Configuration.getConfiguration("default"));
+            continuous.setName("budget-continuous");
+            continuous.setToDisk(true);
+            continuous.setMaxAge(MAX_AGE);
+            continuous.setMaxSize(MAX_SIZE_BYTES);
+            continuous.setDumpOnExit(true);
+            continuous.setDestination(DUMP_FILE);
+            continuous.enable(HttpRequestEvent.class);
+            continuous.enable(QueryEvent.class);
+            continuous.enable(PageRenderEvent.class);
+            continuous.start();
+            recording = continuous;
+            System.out.println("🎥 Flight recording started, dumping to " + DUMP_FILE.toAbsolutePath() + " on exit");
+        } catch (IOException | ParseException e) {
+            System.err.println("Error starting flight recording: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.budget.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-route request metrics for the embedded HttpServer.
+ * Handlers are wrapped once at registration, so the request path only
+ * touches that route's own lock-free counters. Everything is rendered on
+ * demand in the Prometheus text exposition format.
+ */
+public class HttpMetrics {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    
+    private final Map<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+    
+    /**
+     * Wrap a handler so every exchange on the route is measured
+     */
+    public HttpHandler wrap(String route, HttpHandler handler) {
+        RouteMetrics metrics = routes.computeIfAbsent(route, RouteMetrics::new);
+        return exchange -> handle(metrics, handler, exchange);
+    }
+    
+    /**
+     * Get the metrics for a route, or null when nothing is registered for it
+     */
+    public RouteMetrics getRoute(String route) {
+        return routes.get(route);
+    }
+    
+    private void handle(RouteMetrics metrics, HttpHandler handler, HttpExchange exchange) throws IOException {
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.begin();
+        long start = System.nanoTime();
+        CountingOutputStream body = new CountingOutputStream(exchange.getResponseBody(), metrics);
+        exchange.setStreams(exchange.getRequestBody(), body);
+        
+        boolean failed = true;
+        try {
+            handler.handle(exchange);
+            failed = false;
+        } finally {
+            int status = exchange.getResponseCode();
+            if (status < 0 && failed) {
+                status = 500;
+            }
+            metrics.record(status, System.nanoTime() - start);
+            
+            event.end();
+            if (event.shouldCommit()) {
+                event.route = metrics.getRoute();
+                event.method = exchange.getRequestMethod();
+                event.path = exchange.getRequestURI().getPath();
+                event.status = status;
+                event.bytes = body.written;
+                event.commit();
+            }
+        }
+    }
+    
+    /**
+     * Render all route metrics in Prometheus text format
+     */
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        
+        out.append("# HELP budget_http_requests_total HTTP requests handled, by route and status code.\n");
+        out.append("# TYPE budget_http_requests_total counter\n");
+        for (RouteMetrics metrics : routes.values()) {
+            for (int status = 0; status < RouteMetrics.maxStatus(); status++) {
+                long count = metrics.getStatusCount(status);
+                if (count > 0) {
+                    out.append("budget_http_requests_total{route=\"").append(escape(metrics.getRoute()))
+                       .append("\",status=\"").append(status).append("\"} ").append(count).append('\n');
+                }
+            }
+        }
+        
+        out.append("# HELP budget_http_response_bytes_total Response body bytes written, by route.\n");
+        out.append("# TYPE budget_http_response_bytes_total counter\n");
+        for (RouteMetrics metrics : routes.values()) {
+            out.append("budget_http_response_bytes_total{route=\"").append(escape(metrics.getRoute()))
+               .append("\"} ").append(metrics.getBytesWritten()).append('\n');
+        }
+        
+        out.append("# HELP budget_http_request_duration_seconds Time spent in the route handler.\n");
+        out.append("# TYPE budget_http_request_duration_seconds summary\n");
+        for (RouteMetrics metrics : routes.values()) {
+            String route = escape(metrics.getRoute());
+            LatencyHistogram latency = metrics.getLatency();
+            for (double quantile : QUANTILES) {
+                out.append("budget_http_request_duration_seconds{route=\"").append(route)
+                   .append("\",quantile=\"").append(quantile).append("\"} ")
+                   .append(format(latency.getQuantileSeconds(quantile))).append('\n');
+            }
+            out.append("budget_http_request_duration_seconds_sum{route=\"").append(route).append("\"} ")
+               .append(format(latency.getSumSeconds())).append('\n');
+            out.append("budget_http_request_duration_seconds_count{route=\"").append(route).append("\"} ")
+               .append(latency.getCount()).append('\n');
+        }
+        
+        out.append("# HELP budget_http_request_duration_seconds_max Slowest request seen, by route.\n");
+        out.append("# TYPE budget_http_request_duration_seconds_max gauge\n");
+        for (RouteMetrics metrics : routes.values()) {
+            out.append("budget_http_request_duration_seconds_max{route=\"").append(escape(metrics.getRoute()))
+               .append("\"} ").append(format(metrics.getLatency().getMaxSeconds())).append('\n');
+        }
+        
+        return out.toString();
+    }
+    
+    static String format(double seconds) {
+        return String.format(Locale.ROOT, "%.6f", seconds);
+    }
+    
+    static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+    
+    /**
+     * Counts response bytes straight into the route's adder, including
+     * bytes written to long-lived streams after the handler has returned
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private final RouteMetrics metrics;
+        private long written;
+        
+        CountingOutputStream(OutputStream out, RouteMetrics metrics) {
+            super(out);
+            this.metrics = metrics;
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            written++;
+            metrics.addBytes(1);
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            written += len;
+            metrics.addBytes(len);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.budget.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering one HTTP exchange, from handler entry to return
+ */
+@Name("com.budget.HttpRequest")
+@Label("HTTP Request")
+@Category({"Budget Manager", "HTTP"})
+@Description("An HTTP exchange handled by one of the application's routes")
+@StackTrace(false)
+public class HttpRequestEvent extends Event {
+    @Label("Route")
+    public String route;
+    
+    @Label("Method")
+    public String method;
+    
+    @Label("Path")
+    public String path;
+    
+    @Label("Status")
+    public int status;
+    
+    @Label("Bytes Written")
+    @DataAmount
+    public long bytes;
+}
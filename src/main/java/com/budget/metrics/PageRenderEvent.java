@@ -0,0 +1,57 @@
+package com.budget.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one phase of building an HTML page:
+ * "load" (waiting on data), "html" (building markup) or "write" (encoding and sending)
+ */
+@Name("com.budget.PageRender")
+@Label("Page Render Phase")
+@Category({"Budget Manager", "Rendering"})
+@Description("One phase of rendering a server-side HTML page")
+@StackTrace(false)
+public class PageRenderEvent extends Event {
+    @Label("Page")
+    public String page;
+    
+    @Label("Phase")
+    public String phase;
+    
+    @Label("Characters")
+    public long characters;
+    
+    /**
+     * Begin timing a phase
+     */
+    public static PageRenderEvent start(String page, String phase) {
+        PageRenderEvent event = new PageRenderEvent();
+        event.page = page;
+        event.phase = phase;
+        event.begin();
+        return event;
+    }
+    
+    /**
+     * End the phase and commit it if recording
+     */
+    public void finish() {
+        finish(0);
+    }
+    
+    /**
+     * End the phase, noting how much markup it produced
+     */
+    public void finish(long characters) {
+        end();
+        if (shouldCommit()) {
+            this.characters = characters;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.budget.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for one SQL execution.
+ * The event duration spans execute to cursor close; the execution time field
+ * counts only time spent inside the driver.
+ */
+@Name("com.budget.Query")
+@Label("SQL Query")
+@Category({"Budget Manager", "Database"})
+@Description("A SQL statement executed through a profiled connection")
+public class QueryEvent extends Event {
+    @Label("SQL Shape")
+    public String sql;
+    
+    @Label("Rows Returned")
+    public long rows;
+    
+    @Label("Execution Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long executionTime;
+    
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,65 @@
+package com.budget.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for a single HttpServer context.
+ * Status codes index straight into an atomic array so recording never locks.
+ */
+public class RouteMetrics {
+    private static final int MAX_STATUS = 600;
+    
+    private final String route;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final AtomicLongArray statusCounts = new AtomicLongArray(MAX_STATUS);
+    private final LatencyHistogram latency = new LatencyHistogram();
+    
+    public RouteMetrics(String route) {
+        this.route = route;
+    }
+    
+    /**
+     * Record a completed request
+     */
+    public void record(int status, long elapsedNanos) {
+        requests.increment();
+        statusCounts.incrementAndGet(status > 0 && status < MAX_STATUS ? status : 0);
+        latency.recordNanos(elapsedNanos);
+    }
+    
+    /**
+     * Add response body bytes as they are written
+     */
+    public void addBytes(long bytes) {
+        bytesWritten.add(bytes);
+    }
+    
+    public String getRoute() {
+        return route;
+    }
+    
+    public long getRequests() {
+        return requests.sum();
+    }
+    
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+    
+    /**
+     * Get the number of requests that ended with a status code (0 for unknown)
+     */
+    public long getStatusCount(int status) {
+        return statusCounts.get(status);
+    }
+    
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+    
+    static int maxStatus() {
+        return MAX_STATUS;
+    }
+}
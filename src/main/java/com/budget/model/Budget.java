@@ -3,6 +3,7 @@ package com.budget.model;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 /**
  * Budget model class representing budget limits for categories
@@ -19,6 +20,7 @@ public class Budget {
     private Period period;
     private LocalDate startDate;
     private LocalDate endDate;
+    private LocalDate anchorDate; // Period N starts N periods after this; null means the start date
     private LocalDateTime createdDate;
     
     // Constructors
@@ -112,8 +114,12 @@ public class Budget {
         return startDate;
     }
     
+    /**
+     * Set the start date; the budget's periods are anchored on it from now on
+     */
     public void setStartDate(LocalDate startDate) {
         this.startDate = startDate;
+        this.anchorDate = null;
         calculateEndDate(); // Recalculate end date when start date changes
     }
     
@@ -125,6 +131,17 @@ public class Budget {
         this.endDate = endDate;
     }
     
+    /**
+     * Get the date the budget's periods are counted from
+     */
+    public LocalDate getAnchorDate() {
+        return anchorDate != null ? anchorDate : startDate;
+    }
+    
+    public void setAnchorDate(LocalDate anchorDate) {
+        this.anchorDate = anchorDate;
+    }
+    
     public LocalDateTime getCreatedDate() {
         return createdDate;
     }
@@ -133,12 +150,47 @@ public class Budget {
         this.createdDate = createdDate;
     }
     
+    /**
+     * Move the budget to its next period.
+     * Periods are counted from the anchor rather than chained off the last end
+     * date, so a monthly budget anchored on Jan 31 runs Jan 31-Feb 27,
+     * Feb 28-Mar 30, Mar 31-Apr 29 and keeps coming back to the 31st.
+     */
+    public void advancePeriod() {
+        LocalDate anchor = getAnchorDate();
+        ChronoUnit unit = periodUnit();
+        long n = unit.between(anchor, startDate);
+        while (!anchor.plus(n, unit).isAfter(startDate)) {
+            n++;
+        }
+        this.startDate = anchor.plus(n, unit);
+        this.endDate = anchor.plus(n + 1, unit).minusDays(1);
+        this.anchorDate = anchor;
+    }
+    
+    private ChronoUnit periodUnit() {
+        switch (period) {
+            case WEEKLY:
+                return ChronoUnit.WEEKS;
+            case YEARLY:
+                return ChronoUnit.YEARS;
+            default:
+                return ChronoUnit.MONTHS;
+        }
+    }
+    
     /**
      * Check if the budget is currently active
      */
     public boolean isActive() {
-        LocalDate today = LocalDate.now();
-        return !today.isBefore(startDate) && !today.isAfter(endDate);
+        return isActiveOn(LocalDate.now());
+    }
+    
+    /**
+     * Check if the budget period covers the given date; a budget without an end date is open-ended
+     */
+    public boolean isActiveOn(LocalDate date) {
+        return !date.isBefore(startDate) && (endDate == null || !date.isAfter(endDate));
     }
     
     /**
@@ -0,0 +1,103 @@
+package com.budget.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * BudgetAlert model class recording a budget crossing into a worse spending status
+ */
+public class BudgetAlert {
+    private int id;
+    private int budgetId;
+    private int categoryId;
+    private BudgetStatus status;
+    private BigDecimal spent;
+    private BigDecimal amount;
+    private double percentage;
+    private LocalDateTime createdDate;
+    
+    // Constructors
+    public BudgetAlert() {}
+    
+    public BudgetAlert(int budgetId, int categoryId, BudgetStatus status, BigDecimal spent, BigDecimal amount, double percentage) {
+        this.budgetId = budgetId;
+        this.categoryId = categoryId;
+        this.status = status;
+        this.spent = spent;
+        this.amount = amount;
+        this.percentage = percentage;
+        this.createdDate = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public int getId() {
+        return id;
+    }
+    
+    public void setId(int id) {
+        this.id = id;
+    }
+    
+    public int getBudgetId() {
+        return budgetId;
+    }
+    
+    public void setBudgetId(int budgetId) {
+        this.budgetId = budgetId;
+    }
+    
+    public int getCategoryId() {
+        return categoryId;
+    }
+    
+    public void setCategoryId(int categoryId) {
+        this.categoryId = categoryId;
+    }
+    
+    public BudgetStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(BudgetStatus status) {
+        this.status = status;
+    }
+    
+    public BigDecimal getSpent() {
+        return spent;
+    }
+    
+    public void setSpent(BigDecimal spent) {
+        this.spent = spent;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+    
+    public double getPercentage() {
+        return percentage;
+    }
+    
+    public void setPercentage(double percentage) {
+        this.percentage = percentage;
+    }
+    
+    public LocalDateTime getCreatedDate() {
+        return createdDate;
+    }
+    
+    public void setCreatedDate(LocalDateTime createdDate) {
+        this.createdDate = createdDate;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("BudgetAlert{budgetId=%d, categoryId=%d, status=%s, spent=%.2f, amount=%.2f, percentage=%.0f%%}",
+                budgetId, categoryId, status, spent != null ? spent.doubleValue() : 0.0,
+                amount != null ? amount.doubleValue() : 0.0, percentage);
+    }
+}
@@ -0,0 +1,126 @@
+package com.budget.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * BudgetHistory model class holding the final figures of one closed budget period
+ */
+public class BudgetHistory {
+    private int id;
+    private int budgetId;
+    private int categoryId;
+    private Budget.Period period;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BigDecimal amount;
+    private BigDecimal spent;
+    private LocalDateTime closedDate;
+    
+    // Constructors
+    public BudgetHistory() {}
+    
+    public BudgetHistory(int budgetId, int categoryId, Budget.Period period, LocalDate startDate,
+                         LocalDate endDate, BigDecimal amount, BigDecimal spent) {
+        this.budgetId = budgetId;
+        this.categoryId = categoryId;
+        this.period = period;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.amount = amount;
+        this.spent = spent;
+    }
+    
+    // Getters and Setters
+    public int getId() {
+        return id;
+    }
+    
+    public void setId(int id) {
+        this.id = id;
+    }
+    
+    public int getBudgetId() {
+        return budgetId;
+    }
+    
+    public void setBudgetId(int budgetId) {
+        this.budgetId = budgetId;
+    }
+    
+    public int getCategoryId() {
+        return categoryId;
+    }
+    
+    public void setCategoryId(int categoryId) {
+        this.categoryId = categoryId;
+    }
+    
+    public Budget.Period getPeriod() {
+        return period;
+    }
+    
+    public void setPeriod(Budget.Period period) {
+        this.period = period;
+    }
+    
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+    
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+    
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+    
+    public BigDecimal getSpent() {
+        return spent;
+    }
+    
+    public void setSpent(BigDecimal spent) {
+        this.spent = spent;
+    }
+    
+    public LocalDateTime getClosedDate() {
+        return closedDate;
+    }
+    
+    public void setClosedDate(LocalDateTime closedDate) {
+        this.closedDate = closedDate;
+    }
+    
+    /**
+     * Get the share of the budget spent in this period, as a percentage
+     */
+    public double getPercentage() {
+        return amount != null && amount.doubleValue() > 0 ?
+            (spent.doubleValue() / amount.doubleValue()) * 100 : 0;
+    }
+    
+    public BudgetStatus getStatus() {
+        return BudgetStatus.of(getPercentage());
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("BudgetHistory{budgetId=%d, period=%s, startDate=%s, endDate=%s, amount=%.2f, spent=%.2f}",
+                budgetId, period, startDate, endDate,
+                amount != null ? amount.doubleValue() : 0.0, spent != null ? spent.doubleValue() : 0.0);
+    }
+}
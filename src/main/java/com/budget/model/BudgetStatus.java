@@ -0,0 +1,47 @@
+package com.budget.model;
+
+/**
+ * Spending status of a budget, derived from the share of the budget already spent
+ */
+public enum BudgetStatus {
+    ON_TRACK("On Track", "good", "low"),
+    NEAR_LIMIT("Near Limit", "warning", "medium"),
+    OVER_BUDGET("Over Budget", "danger", "high");
+    
+    public static final double NEAR_LIMIT_PERCENT = 70;
+    public static final double OVER_BUDGET_PERCENT = 90;
+    
+    private final String label;
+    private final String statusClass;
+    private final String progressClass;
+    
+    BudgetStatus(String label, String statusClass, String progressClass) {
+        this.label = label;
+        this.statusClass = statusClass;
+        this.progressClass = progressClass;
+    }
+    
+    /**
+     * Get the status for a spent percentage of the budget amount
+     */
+    public static BudgetStatus of(double percentage) {
+        if (percentage >= OVER_BUDGET_PERCENT) {
+            return OVER_BUDGET;
+        } else if (percentage >= NEAR_LIMIT_PERCENT) {
+            return NEAR_LIMIT;
+        }
+        return ON_TRACK;
+    }
+    
+    public String getLabel() {
+        return label;
+    }
+    
+    public String getStatusClass() {
+        return statusClass;
+    }
+    
+    public String getProgressClass() {
+        return progressClass;
+    }
+}
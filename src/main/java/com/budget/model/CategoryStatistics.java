@@ -0,0 +1,164 @@
+package com.budget.model;
+
+/**
+ * Streaming statistics of one category's expense amounts, on a log scale.
+ * The mean and variance are kept with Welford's method. Alongside them sits a
+ * histogram over fixed log-spaced bins whose weights decay exponentially with
+ * every new observation, so its quantiles follow recent spending. Rather than
+ * decaying every bin on each update, the weight given to the next observation
+ * grows instead and the bins are rescaled only when it gets large; an update
+ * is therefore O(1) and the whole state is a few primitives and one array.
+ */
+public class CategoryStatistics {
+    public static final int BINS = 96;
+    private static final double MIN_LOG = Math.log(0.01);
+    private static final double MAX_LOG = Math.log(10_000_000);
+    private static final double BIN_WIDTH = (MAX_LOG - MIN_LOG) / BINS;
+    private static final double RESCALE_AT = 1e150;
+    /** Floor for the standard deviation so a category of identical amounts doesn't flag every cent of change */
+    private static final double MIN_DEVIATION = 0.05;
+    
+    private final int categoryId;
+    private final double decay;
+    private long count;
+    private double mean;
+    private double m2;
+    private final double[] weights;
+    private double totalWeight;
+    private double increment = 1;
+    
+    /**
+     * @param decay factor each existing histogram weight is multiplied by per new observation
+     */
+    public CategoryStatistics(int categoryId, double decay) {
+        this(categoryId, decay, 0, 0, 0, new double[BINS], 0);
+    }
+    
+    /**
+     * Restore persisted statistics
+     */
+    public CategoryStatistics(int categoryId, double decay, long count, double mean, double m2,
+                              double[] weights, double totalWeight) {
+        if (weights.length != BINS) {
+            throw new IllegalArgumentException("Expected " + BINS + " histogram bins, got " + weights.length);
+        }
+        this.categoryId = categoryId;
+        this.decay = decay;
+        this.count = count;
+        this.mean = mean;
+        this.m2 = m2;
+        this.weights = weights.clone();
+        this.totalWeight = totalWeight;
+    }
+    
+    /**
+     * Add one expense amount; amounts must be positive
+     */
+    public void add(double amount) {
+        double x = Math.log(amount);
+        count++;
+        double delta = x - mean;
+        mean += delta / count;
+        m2 += delta * (x - mean);
+        
+        weights[bin(x)] += increment;
+        totalWeight += increment;
+        increment /= decay;
+        if (increment > RESCALE_AT) {
+            rescale();
+        }
+    }
+    
+    /**
+     * How many standard deviations an amount lies above the mean, on the log scale
+     */
+    public double zScore(double amount) {
+        return (Math.log(amount) - mean) / Math.max(MIN_DEVIATION, getStandardDeviation());
+    }
+    
+    /**
+     * Estimate a quantile of recent amounts from the decayed histogram
+     * @param p between 0 and 1
+     * @return the amount, or 0 if nothing has been added
+     */
+    public double quantile(double p) {
+        if (totalWeight <= 0) {
+            return 0;
+        }
+        double target = p * totalWeight;
+        double seen = 0;
+        for (int bin = 0; bin < BINS; bin++) {
+            double weight = weights[bin];
+            if (weight > 0 && seen + weight >= target) {
+                // Interpolate within the bin on the log scale
+                double within = (target - seen) / weight;
+                return Math.exp(MIN_LOG + (bin + within) * BIN_WIDTH);
+            }
+            seen += weight;
+        }
+        return Math.exp(MAX_LOG);
+    }
+    
+    public int getCategoryId() {
+        return categoryId;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    /**
+     * Mean of the log amounts
+     */
+    public double getMean() {
+        return mean;
+    }
+    
+    /**
+     * Sum of squared deviations of the log amounts from their mean
+     */
+    public double getM2() {
+        return m2;
+    }
+    
+    public double getStandardDeviation() {
+        return count > 1 ? Math.sqrt(m2 / (count - 1)) : 0;
+    }
+    
+    /**
+     * Histogram weights scaled so the next observation would weigh 1
+     */
+    public double[] getWeights() {
+        double[] scaled = new double[BINS];
+        for (int bin = 0; bin < BINS; bin++) {
+            scaled[bin] = weights[bin] / increment;
+        }
+        return scaled;
+    }
+    
+    /**
+     * Total histogram weight, on the same scale as getWeights()
+     */
+    public double getTotalWeight() {
+        return totalWeight / increment;
+    }
+    
+    private void rescale() {
+        for (int bin = 0; bin < BINS; bin++) {
+            weights[bin] /= increment;
+        }
+        totalWeight /= increment;
+        increment = 1;
+    }
+    
+    private static int bin(double logAmount) {
+        int bin = (int) ((logAmount - MIN_LOG) / BIN_WIDTH);
+        return Math.max(0, Math.min(BINS - 1, bin));
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("CategoryStatistics{categoryId=%d, count=%d, median=%.2f, p99=%.2f}",
+                categoryId, count, quantile(0.5), quantile(0.99));
+    }
+}
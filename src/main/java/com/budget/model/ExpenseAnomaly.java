@@ -0,0 +1,101 @@
+package com.budget.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * ExpenseAnomaly model class recording an expense flagged as unusual for its category
+ */
+public class ExpenseAnomaly {
+    private int expenseId;
+    private int categoryId;
+    private String description;
+    private BigDecimal amount;
+    private BigDecimal typicalAmount;
+    private double score;
+    private LocalDateTime createdDate;
+    
+    // Constructors
+    public ExpenseAnomaly() {}
+    
+    public ExpenseAnomaly(int expenseId, int categoryId, String description, BigDecimal amount,
+                          BigDecimal typicalAmount, double score) {
+        this.expenseId = expenseId;
+        this.categoryId = categoryId;
+        this.description = description;
+        this.amount = amount;
+        this.typicalAmount = typicalAmount;
+        this.score = score;
+        this.createdDate = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public int getExpenseId() {
+        return expenseId;
+    }
+    
+    public void setExpenseId(int expenseId) {
+        this.expenseId = expenseId;
+    }
+    
+    public int getCategoryId() {
+        return categoryId;
+    }
+    
+    public void setCategoryId(int categoryId) {
+        this.categoryId = categoryId;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+    
+    /**
+     * The category's recent median amount when the expense was flagged
+     */
+    public BigDecimal getTypicalAmount() {
+        return typicalAmount;
+    }
+    
+    public void setTypicalAmount(BigDecimal typicalAmount) {
+        this.typicalAmount = typicalAmount;
+    }
+    
+    /**
+     * Standard deviations above the category's mean log amount
+     */
+    public double getScore() {
+        return score;
+    }
+    
+    public void setScore(double score) {
+        this.score = score;
+    }
+    
+    public LocalDateTime getCreatedDate() {
+        return createdDate;
+    }
+    
+    public void setCreatedDate(LocalDateTime createdDate) {
+        this.createdDate = createdDate;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("ExpenseAnomaly{expenseId=%d, categoryId=%d, amount=%.2f, typical=%.2f, score=%.1f}",
+                expenseId, categoryId, amount != null ? amount.doubleValue() : 0.0,
+                typicalAmount != null ? typicalAmount.doubleValue() : 0.0, score);
+    }
+}
@@ -13,6 +13,7 @@ public class Income {
     private Category category; 
     private BigDecimal amount;
     private String description;
+    private int descriptionId;
     private LocalDate incomeDate;
     private LocalDateTime createdDate;
     
@@ -81,6 +82,17 @@ public class Income {
         this.description = description;
     }
     
+    /**
+     * The interned ID of the description, or 0 if it has none
+     */
+    public int getDescriptionId() {
+        return descriptionId;
+    }
+    
+    public void setDescriptionId(int descriptionId) {
+        this.descriptionId = descriptionId;
+    }
+    
     public LocalDate getIncomeDate() {
         return incomeDate;
     }
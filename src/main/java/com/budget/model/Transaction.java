@@ -0,0 +1,116 @@
+package com.budget.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Transaction model class representing a ledger row from either expenses or income
+ */
+public class Transaction {
+    public enum Type {
+        EXPENSE, INCOME
+    }
+
+    private int id;
+    private Type type;
+    private int categoryId;
+    private Category category;
+    private BigDecimal amount;
+    private String description;
+    private LocalDate date;
+    private LocalDateTime createdDate;
+
+    // Constructors
+    public Transaction() {}
+
+    public Transaction(int id, Type type, int categoryId, BigDecimal amount, String description,
+                       LocalDate date, LocalDateTime createdDate) {
+        this.id = id;
+        this.type = type;
+        this.categoryId = categoryId;
+        this.amount = amount;
+        this.description = description;
+        this.date = date;
+        this.createdDate = createdDate;
+    }
+
+    // Getters and Setters
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public boolean isIncome() {
+        return type == Type.INCOME;
+    }
+
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(int categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public void setCategory(Category category) {
+        this.category = category;
+        if (category != null) {
+            this.categoryId = category.getId();
+        }
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public LocalDateTime getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(LocalDateTime createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Transaction{id=%d, type=%s, category='%s', amount=%.2f, description='%s', date=%s}",
+                id, type, category != null ? category.getName() : "Unknown",
+                amount != null ? amount.doubleValue() : 0.0, description, date);
+    }
+}
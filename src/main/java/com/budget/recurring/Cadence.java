@@ -0,0 +1,64 @@
+package com.budget.recurring;
+
+import java.time.LocalDate;
+
+/**
+ * How often a recurring expense comes round, with the slack allowed between
+ * occurrences (months and years vary in length, bills land a day or two late)
+ */
+public enum Cadence {
+    WEEKLY(7, 1),
+    BIWEEKLY(14, 2),
+    MONTHLY(30, 3),
+    QUARTERLY(91, 6),
+    YEARLY(365, 7);
+    
+    private final int days;
+    private final int tolerance;
+    
+    Cadence(int days, int tolerance) {
+        this.days = days;
+        this.tolerance = tolerance;
+    }
+    
+    public int getDays() {
+        return days;
+    }
+    
+    /**
+     * Check whether a gap between two occurrences fits this cadence
+     */
+    public boolean matches(int gapDays) {
+        return Math.abs(gapDays - days) <= tolerance;
+    }
+    
+    /**
+     * Get the date this cadence next falls due after the given one
+     */
+    public LocalDate next(LocalDate date) {
+        switch (this) {
+            case WEEKLY:
+                return date.plusWeeks(1);
+            case BIWEEKLY:
+                return date.plusWeeks(2);
+            case MONTHLY:
+                return date.plusMonths(1);
+            case QUARTERLY:
+                return date.plusMonths(3);
+            default:
+                return date.plusYears(1);
+        }
+    }
+    
+    /**
+     * Get the cadence a typical gap fits, or null if it fits none
+     */
+    public static Cadence of(int gapDays) {
+        for (Cadence cadence : values()) {
+            if (cadence.matches(gapDays)) {
+                return cadence;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,327 @@
+package com.budget.recurring;
+
+import com.budget.dao.ExpenseDAO;
+import com.budget.events.ChangeBus;
+import com.budget.events.ChangeEvent;
+import com.budget.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Recognises subscriptions and bills among the expenses.
+ * Every expense is filed into a group keyed by its interned description ID,
+ * its category and a logarithmic amount bucket one tolerance wide, so a
+ * matching group is found by probing at most three hash keys and the ledger
+ * is never compared pairwise. A group whose sorted date gaps mostly fit one
+ * cadence, and whose last occurrence isn't long overdue, is a recurring series.
+ *
+ * The ledger is scanned once at start-up; after that the groups are kept
+ * current from committed expense writes on the change bus, and a group is
+ * only re-examined when a query finds it changed.
+ */
+public class RecurringDetector {
+    private static final double AMOUNT_TOLERANCE = Double.parseDouble(System.getProperty("budget.recurring.amountTolerance", "0.15"));
+    private static final int MIN_OCCURRENCES = 3;
+    private static final double MIN_CONFIDENCE = 0.75;
+    /** A series that has missed this many periods in a row has lapsed */
+    private static final double LAPSED_PERIODS = 2.5;
+    private static final int QUEUE_CAPACITY = 4096;
+    private static final int MAX_BATCH = 256;
+    
+    private final ExpenseDAO expenseDAO;
+    
+    // Detector state; guarded by this
+    private final Map<GroupKey, List<Group>> groupsByKey = new HashMap<>();
+    private final Map<Integer, Group> groupsById = new HashMap<>();
+    private final Map<Integer, Group> groupsByExpense = new HashMap<>();
+    private int nextGroupId = 1;
+    private ChangeBus.Subscription subscription;
+    
+    public RecurringDetector(ExpenseDAO expenseDAO) {
+        this.expenseDAO = expenseDAO;
+    }
+    
+    /**
+     * Subscribe to expense changes, then scan the ledger
+     */
+    public synchronized void start() {
+        // Subscribe first so no write is missed; re-adding an expense the scan already filed is harmless
+        subscription = ChangeBus.subscribe("recurring", EnumSet.of(ChangeEvent.Entity.EXPENSE),
+            ChangeBus.Backpressure.BLOCK, QUEUE_CAPACITY, MAX_BATCH, this::onChanges);
+        expenseDAO.scan(this::add);
+    }
+    
+    public void stop() {
+        if (subscription != null) {
+            subscription.close();
+        }
+    }
+    
+    /**
+     * Get every active recurring series, soonest due first
+     */
+    public synchronized List<RecurringSeries> getSeries() {
+        LocalDate today = LocalDate.now();
+        List<RecurringSeries> series = new ArrayList<>();
+        for (Group group : groupsById.values()) {
+            RecurringSeries detected = group.detect(today);
+            if (detected != null) {
+                series.add(detected);
+            }
+        }
+        series.sort(Comparator.comparing(RecurringSeries::getNextDate).thenComparing(RecurringSeries::getId));
+        return series;
+    }
+    
+    /**
+     * Generate the unsaved expenses the active series will produce up to a date, including any overdue ones
+     */
+    public List<UpcomingExpense> getUpcoming(LocalDate until) {
+        List<UpcomingExpense> upcoming = new ArrayList<>();
+        for (RecurringSeries series : getSeries()) {
+            for (LocalDate date = series.getNextDate(); !date.isAfter(until); date = series.getCadence().next(date)) {
+                upcoming.add(new UpcomingExpense(series, entryFor(series, date)));
+            }
+        }
+        upcoming.sort(Comparator.comparing(entry -> entry.getExpense().getExpenseDate()));
+        return upcoming;
+    }
+    
+    /**
+     * Record the next occurrence of a series as an expense
+     * @return the created expense, or empty if the series isn't active or the write failed
+     */
+    public Optional<Expense> createNext(int seriesId) {
+        Optional<RecurringSeries> series;
+        synchronized (this) {
+            Group group = groupsById.get(seriesId);
+            series = Optional.ofNullable(group != null ? group.detect(LocalDate.now()) : null);
+        }
+        
+        Optional<Expense> created = series.map(s -> entryFor(s, s.getNextDate())).filter(expenseDAO::create);
+        // File it now rather than waiting for its bus event, so a repeat request moves on to the following date
+        created.ifPresent(this::add);
+        return created;
+    }
+    
+    private static Expense entryFor(RecurringSeries series, LocalDate date) {
+        return new Expense(series.getCategoryId(), series.getAmount(), series.getDescription(), date);
+    }
+    
+    private synchronized void onChanges(List<ChangeEvent> events) {
+        for (ChangeEvent event : events) {
+            Expense expense = event.getPayload(Expense.class);
+            if (expense != null) {
+                add(expense);
+            } else {
+                remove(event.getId());
+            }
+        }
+    }
+    
+    /**
+     * File an expense into its group, replacing any earlier version of it
+     */
+    private synchronized void add(Expense expense) {
+        remove(expense.getId());
+        int descriptionId = expense.getDescriptionId();
+        if (descriptionId <= 0 || expense.getAmount() == null || expense.getAmount().signum() <= 0
+                || expense.getExpenseDate() == null) {
+            return;
+        }
+        
+        double amount = expense.getAmount().doubleValue();
+        int bucket = bucket(amount);
+        Group group = null;
+        // Anything within tolerance of a group's reference amount is at most one bucket away from it
+        for (int candidate = bucket - 1; candidate <= bucket + 1 && group == null; candidate++) {
+            for (Group existing : groupsByKey.getOrDefault(new GroupKey(descriptionId, expense.getCategoryId(), candidate), List.of())) {
+                if (Math.abs(amount - existing.referenceAmount) <= AMOUNT_TOLERANCE * existing.referenceAmount) {
+                    group = existing;
+                    break;
+                }
+            }
+        }
+        if (group == null) {
+            group = new Group(nextGroupId++, new GroupKey(descriptionId, expense.getCategoryId(), bucket), expense.getCategoryId(), amount);
+            groupsByKey.computeIfAbsent(group.key, k -> new ArrayList<>(1)).add(group);
+            groupsById.put(group.id, group);
+        }
+        
+        group.add(expense.getId(), (int) expense.getExpenseDate().toEpochDay(), expense.getAmount(), expense.getDescription());
+        groupsByExpense.put(expense.getId(), group);
+    }
+    
+    private void remove(int expenseId) {
+        Group group = groupsByExpense.remove(expenseId);
+        if (group != null && group.remove(expenseId) == 0) {
+            List<Group> siblings = groupsByKey.get(group.key);
+            siblings.remove(group);
+            if (siblings.isEmpty()) {
+                groupsByKey.remove(group.key);
+            }
+            groupsById.remove(group.id);
+        }
+    }
+    
+    private static int bucket(double amount) {
+        return (int) Math.floor(Math.log(amount) / Math.log1p(AMOUNT_TOLERANCE));
+    }
+    
+    /**
+     * A group's hash key: description ID, category and amount bucket
+     */
+    private static final class GroupKey {
+        final int descriptionId;
+        final int categoryId;
+        final int bucket;
+        
+        GroupKey(int descriptionId, int categoryId, int bucket) {
+            this.descriptionId = descriptionId;
+            this.categoryId = categoryId;
+            this.bucket = bucket;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof GroupKey)) {
+                return false;
+            }
+            GroupKey other = (GroupKey) o;
+            return descriptionId == other.descriptionId && categoryId == other.categoryId && bucket == other.bucket;
+        }
+        
+        @Override
+        public int hashCode() {
+            return (descriptionId * 31 + categoryId) * 31 + bucket;
+        }
+    }
+    
+    /**
+     * The expenses sharing a description, category and amount; held as parallel arrays
+     */
+    private static final class Group {
+        final int id;
+        final GroupKey key;
+        final int categoryId;
+        final double referenceAmount;
+        int size;
+        int[] expenseIds = new int[2];
+        int[] days = new int[2];
+        BigDecimal[] amounts = new BigDecimal[2];
+        String latestDescription;
+        int latestDay = Integer.MIN_VALUE;
+        boolean dirty = true;
+        RecurringSeries detected;
+        
+        Group(int id, GroupKey key, int categoryId, double referenceAmount) {
+            this.id = id;
+            this.key = key;
+            this.categoryId = categoryId;
+            this.referenceAmount = referenceAmount;
+        }
+        
+        void add(int expenseId, int day, BigDecimal amount, String description) {
+            if (size == days.length) {
+                expenseIds = Arrays.copyOf(expenseIds, size * 2);
+                days = Arrays.copyOf(days, size * 2);
+                amounts = Arrays.copyOf(amounts, size * 2);
+            }
+            expenseIds[size] = expenseId;
+            days[size] = day;
+            amounts[size] = amount;
+            size++;
+            if (day >= latestDay) {
+                latestDay = day;
+                latestDescription = description;
+            }
+            dirty = true;
+        }
+        
+        /**
+         * @return the number of expenses left
+         */
+        int remove(int expenseId) {
+            for (int i = 0; i < size; i++) {
+                if (expenseIds[i] == expenseId) {
+                    size--;
+                    expenseIds[i] = expenseIds[size];
+                    days[i] = days[size];
+                    amounts[i] = amounts[size];
+                    amounts[size] = null;
+                    dirty = true;
+                    break;
+                }
+            }
+            return size;
+        }
+        
+        /**
+         * Work out whether the group recurs, re-examining it only if it changed
+         * @return the series, or null if it doesn't recur or has lapsed
+         */
+        RecurringSeries detect(LocalDate today) {
+            if (dirty) {
+                detected = examine();
+                dirty = false;
+            }
+            if (detected == null) {
+                return null;
+            }
+            long overdue = today.toEpochDay() - detected.getLastDate().toEpochDay();
+            return overdue > LAPSED_PERIODS * detected.getCadence().getDays() ? null : detected;
+        }
+        
+        private RecurringSeries examine() {
+            if (size < MIN_OCCURRENCES) {
+                return null;
+            }
+            
+            int[] sorted = Arrays.copyOf(days, size);
+            Arrays.sort(sorted);
+            int[] gaps = new int[size - 1];
+            int gapCount = 0;
+            for (int i = 1; i < size; i++) {
+                // Two charges on the same day are one occurrence as far as cadence goes
+                if (sorted[i] != sorted[i - 1]) {
+                    gaps[gapCount++] = sorted[i] - sorted[i - 1];
+                }
+            }
+            if (gapCount < MIN_OCCURRENCES - 1) {
+                return null;
+            }
+            
+            int[] orderedGaps = Arrays.copyOf(gaps, gapCount);
+            Arrays.sort(orderedGaps);
+            Cadence cadence = Cadence.of(orderedGaps[gapCount / 2]);
+            if (cadence == null) {
+                return null;
+            }
+            int fitting = 0;
+            for (int i = 0; i < gapCount; i++) {
+                if (cadence.matches(gaps[i])) {
+                    fitting++;
+                }
+            }
+            double confidence = (double) fitting / gapCount;
+            if (confidence < MIN_CONFIDENCE) {
+                return null;
+            }
+            
+            BigDecimal[] orderedAmounts = Arrays.copyOf(amounts, size);
+            Arrays.sort(orderedAmounts);
+            LocalDate last = LocalDate.ofEpochDay(sorted[size - 1]);
+            return new RecurringSeries(id, latestDescription, categoryId, cadence, orderedAmounts[size / 2],
+                gapCount + 1, last, cadence.next(last), confidence);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.budget.recurring;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A detected recurring expense, such as a subscription or a bill
+ */
+public class RecurringSeries {
+    private final int id;
+    private final String description;
+    private final int categoryId;
+    private final Cadence cadence;
+    private final BigDecimal amount;
+    private final int occurrences;
+    private final LocalDate lastDate;
+    private final LocalDate nextDate;
+    private final double confidence;
+    
+    public RecurringSeries(int id, String description, int categoryId, Cadence cadence, BigDecimal amount,
+                           int occurrences, LocalDate lastDate, LocalDate nextDate, double confidence) {
+        this.id = id;
+        this.description = description;
+        this.categoryId = categoryId;
+        this.cadence = cadence;
+        this.amount = amount;
+        this.occurrences = occurrences;
+        this.lastDate = lastDate;
+        this.nextDate = nextDate;
+        this.confidence = confidence;
+    }
+    
+    public int getId() {
+        return id;
+    }
+    
+    /**
+     * The description of the most recent occurrence
+     */
+    public String getDescription() {
+        return description;
+    }
+    
+    public int getCategoryId() {
+        return categoryId;
+    }
+    
+    public Cadence getCadence() {
+        return cadence;
+    }
+    
+    /**
+     * The typical (median) amount
+     */
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public int getOccurrences() {
+        return occurrences;
+    }
+    
+    public LocalDate getLastDate() {
+        return lastDate;
+    }
+    
+    public LocalDate getNextDate() {
+        return nextDate;
+    }
+    
+    /**
+     * Share of gaps between occurrences that fit the cadence
+     */
+    public double getConfidence() {
+        return confidence;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("RecurringSeries{id=%d, description='%s', cadence=%s, amount=%.2f, next=%s}",
+                id, description, cadence, amount.doubleValue(), nextDate);
+    }
+}
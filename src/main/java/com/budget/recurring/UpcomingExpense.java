@@ -0,0 +1,33 @@
+package com.budget.recurring;
+
+import com.budget.model.Expense;
+
+import java.time.LocalDate;
+
+/**
+ * An unsaved expense a recurring series is due to produce
+ */
+public class UpcomingExpense {
+    private final RecurringSeries series;
+    private final Expense expense;
+    
+    public UpcomingExpense(RecurringSeries series, Expense expense) {
+        this.series = series;
+        this.expense = expense;
+    }
+    
+    public RecurringSeries getSeries() {
+        return series;
+    }
+    
+    public Expense getExpense() {
+        return expense;
+    }
+    
+    /**
+     * Check whether the entry's due date has already passed
+     */
+    public boolean isOverdue(LocalDate today) {
+        return expense.getExpenseDate().isBefore(today);
+    }
+}
@@ -0,0 +1,97 @@
+package com.budget.scheduler;
+
+import com.budget.dao.BudgetDAO;
+import com.budget.model.Budget;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolls recurring budgets into their next period.
+ * Runs once at start-up, to catch up on periods that ended while the server
+ * was down, and then shortly after every midnight. Each budget whose period
+ * has ended has the closed period's final spent-vs-budget figures archived
+ * to budget_history and is moved on to the period covering today, so past
+ * periods are reported from the archive instead of re-summing expenses.
+ */
+public class BudgetRolloverScheduler {
+    private static final LocalTime RUN_AT = LocalTime.of(0, 5);
+    
+    private final BudgetDAO budgetDAO;
+    private ScheduledExecutorService scheduler;
+    
+    public BudgetRolloverScheduler(BudgetDAO budgetDAO) {
+        this.budgetDAO = budgetDAO;
+    }
+    
+    /**
+     * Catch up now, then run daily
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "budget-rollover");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.execute(this::scheduledRollover);
+        scheduleNext();
+    }
+    
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+    
+    /**
+     * Schedule one run at the next RUN_AT; each run schedules the following one so DST shifts don't drift it
+     */
+    private synchronized void scheduleNext() {
+        if (scheduler == null) {
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = now.toLocalDate().atTime(RUN_AT);
+        if (!next.isAfter(now)) {
+            next = next.plusDays(1);
+        }
+        scheduler.schedule(() -> {
+            scheduledRollover();
+            scheduleNext();
+        }, Duration.between(now, next).toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    private void scheduledRollover() {
+        try {
+            int closed = rollOver(LocalDate.now());
+            if (closed > 0) {
+                System.out.println("📅 Rolled over " + closed + " budget period(s)");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error rolling over budgets: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Roll every budget whose period ended before the given date
+     * @return number of periods closed and archived
+     */
+    public int rollOver(LocalDate date) {
+        int closed = 0;
+        for (Budget budget : budgetDAO.findExpiredBudgets(date)) {
+            closed += budgetDAO.rollOver(budget, date);
+        }
+        return closed;
+    }
+}
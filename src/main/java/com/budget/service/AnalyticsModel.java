@@ -0,0 +1,68 @@
+package com.budget.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Figures behind the analytics page. Sections that missed the request
+ * deadline carry fallback values and are listed in {@link #getMissingSections()}.
+ */
+public class AnalyticsModel {
+    private final BigDecimal totalIncome;
+    private final BigDecimal totalExpenses;
+    private final int expenseCount;
+    private final int incomeCount;
+    private final String topCategoryName;
+    private final BigDecimal topCategoryAmount;
+    private final List<String> missingSections;
+    
+    public AnalyticsModel(BigDecimal totalIncome, BigDecimal totalExpenses, int expenseCount, int incomeCount,
+                          String topCategoryName, BigDecimal topCategoryAmount, List<String> missingSections) {
+        this.totalIncome = totalIncome;
+        this.totalExpenses = totalExpenses;
+        this.expenseCount = expenseCount;
+        this.incomeCount = incomeCount;
+        this.topCategoryName = topCategoryName;
+        this.topCategoryAmount = topCategoryAmount;
+        this.missingSections = List.copyOf(missingSections);
+    }
+    
+    public BigDecimal getTotalIncome() {
+        return totalIncome;
+    }
+    
+    public BigDecimal getTotalExpenses() {
+        return totalExpenses;
+    }
+    
+    public BigDecimal getNetBalance() {
+        return totalIncome.subtract(totalExpenses);
+    }
+    
+    public int getExpenseCount() {
+        return expenseCount;
+    }
+    
+    public int getIncomeCount() {
+        return incomeCount;
+    }
+    
+    public String getTopCategoryName() {
+        return topCategoryName;
+    }
+    
+    public BigDecimal getTopCategoryAmount() {
+        return topCategoryAmount;
+    }
+    
+    public List<String> getMissingSections() {
+        return missingSections;
+    }
+    
+    /**
+     * Check whether any section fell back because its query missed the deadline
+     */
+    public boolean isPartial() {
+        return !missingSections.isEmpty();
+    }
+}
@@ -0,0 +1,127 @@
+package com.budget.service;
+
+import com.budget.dao.AsyncCategoryDAO;
+import com.budget.dao.AsyncExpenseDAO;
+import com.budget.dao.AsyncIncomeDAO;
+import com.budget.model.Category;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Assembles the analytics page model by fanning its independent queries out
+ * across pooled read connections. Each section is awaited against a single
+ * per-request deadline; sections that miss it fall back to placeholder values
+ * so the page still renders at roughly the latency of the slowest query.
+ */
+public class AnalyticsService {
+    private static final LocalDate ALL_TIME_START = LocalDate.of(2000, 1, 1);
+    private static final LocalDate ALL_TIME_END = LocalDate.of(2099, 12, 31);
+    private static final Duration DEFAULT_DEADLINE =
+        Duration.ofMillis(Long.getLong("budget.analytics.deadlineMs", 2000));
+    
+    private final AsyncExpenseDAO expenseDAO;
+    private final AsyncIncomeDAO incomeDAO;
+    private final AsyncCategoryDAO categoryDAO;
+    
+    public AnalyticsService(AsyncExpenseDAO expenseDAO, AsyncIncomeDAO incomeDAO, AsyncCategoryDAO categoryDAO) {
+        this.expenseDAO = expenseDAO;
+        this.incomeDAO = incomeDAO;
+        this.categoryDAO = categoryDAO;
+    }
+    
+    /**
+     * Assemble the model within the default deadline
+     */
+    public AnalyticsModel assemble() {
+        return assemble(DEFAULT_DEADLINE);
+    }
+    
+    /**
+     * Assemble the model, falling back per section once the deadline passes
+     */
+    public AnalyticsModel assemble(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        
+        // Fire every query up front so they run side by side
+        CompletableFuture<BigDecimal> totalIncome = incomeDAO.getTotalByDateRange(ALL_TIME_START, ALL_TIME_END);
+        CompletableFuture<BigDecimal> totalExpenses = expenseDAO.getTotalByDateRange(ALL_TIME_START, ALL_TIME_END);
+        CompletableFuture<Integer> expenseCount = expenseDAO.count();
+        CompletableFuture<Integer> incomeCount = incomeDAO.count();
+        CompletableFuture<CategoryTotal> topCategory = categoryDAO.findByType(Category.CategoryType.EXPENSE)
+            .thenCompose(this::findTopCategory);
+        
+        List<String> missing = new ArrayList<>();
+        BigDecimal income = resolve(totalIncome, BigDecimal.ZERO, deadline, "Total income", missing);
+        BigDecimal expenses = resolve(totalExpenses, BigDecimal.ZERO, deadline, "Total expenses", missing);
+        int expenseRows = resolve(expenseCount, 0, deadline, "Expense count", missing);
+        int incomeRows = resolve(incomeCount, 0, deadline, "Income count", missing);
+        CategoryTotal top = resolve(topCategory, null, deadline, "Top expense category", missing);
+        
+        return new AnalyticsModel(income, expenses, expenseRows, incomeRows,
+            top != null ? top.category.getName() : "None",
+            top != null ? top.total : BigDecimal.ZERO,
+            missing);
+    }
+    
+    /**
+     * Total every expense category in parallel and keep the largest
+     */
+    private CompletableFuture<CategoryTotal> findTopCategory(List<Category> categories) {
+        List<CompletableFuture<BigDecimal>> totals = new ArrayList<>();
+        for (Category category : categories) {
+            totals.add(expenseDAO.getTotalByCategoryAndDateRange(category.getId(), ALL_TIME_START, ALL_TIME_END));
+        }
+        
+        return CompletableFuture.allOf(totals.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            CategoryTotal top = null;
+            for (int i = 0; i < categories.size(); i++) {
+                BigDecimal total = totals.get(i).join();
+                if (total.signum() > 0 && (top == null || total.compareTo(top.total) > 0)) {
+                    top = new CategoryTotal(categories.get(i), total);
+                }
+            }
+            return top;
+        });
+    }
+    
+    /**
+     * Wait for a section until the shared deadline, recording a fallback when it misses
+     */
+    private <T> T resolve(CompletableFuture<T> future, T fallback, long deadline, String section, List<String> missing) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            missing.add(section);
+        } catch (ExecutionException e) {
+            System.err.println("Error loading analytics section '" + section + "': " + e.getCause().getMessage());
+            missing.add(section);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            missing.add(section);
+        }
+        return fallback;
+    }
+    
+    /**
+     * Category paired with its spending total
+     */
+    private static class CategoryTotal {
+        final Category category;
+        final BigDecimal total;
+        
+        CategoryTotal(Category category, BigDecimal total) {
+            this.category = category;
+            this.total = total;
+        }
+    }
+}
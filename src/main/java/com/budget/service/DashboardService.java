@@ -0,0 +1,98 @@
+package com.budget.service;
+
+import com.budget.dao.AsyncExpenseDAO;
+import com.budget.dao.AsyncIncomeDAO;
+import com.budget.dao.DataVersion;
+import com.budget.dao.TransactionDAO;
+import com.budget.database.DatabaseExecutor;
+import com.budget.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves the dashboard model from a cache keyed by {@link DataVersion}.
+ * A snapshot is recomputed only after a DAO write; concurrent readers that
+ * miss at the same version share a single in-flight computation.
+ */
+public class DashboardService {
+    private static final int RECENT_TRANSACTION_LIMIT = 3;
+    private static final LocalDate ALL_TIME_START = LocalDate.of(2000, 1, 1);
+    private static final LocalDate ALL_TIME_END = LocalDate.of(2099, 12, 31);
+
+    private final AsyncExpenseDAO expenseDAO;
+    private final AsyncIncomeDAO incomeDAO;
+    private final TransactionDAO transactionDAO;
+    private final AtomicReference<CacheEntry> cache = new AtomicReference<>();
+
+    public DashboardService(AsyncExpenseDAO expenseDAO, AsyncIncomeDAO incomeDAO, TransactionDAO transactionDAO) {
+        this.expenseDAO = expenseDAO;
+        this.incomeDAO = incomeDAO;
+        this.transactionDAO = transactionDAO;
+    }
+
+    /**
+     * Get the dashboard snapshot for the current data version
+     */
+    public DashboardSnapshot getSnapshot() {
+        while (true) {
+            long version = DataVersion.current();
+            CacheEntry entry = cache.get();
+            if (entry != null && entry.version >= version) {
+                // An entry computed at this version or later is at least as fresh as required
+                return await(entry);
+            }
+
+            CacheEntry candidate = new CacheEntry(version);
+            if (cache.compareAndSet(entry, candidate)) {
+                compute(candidate);
+                return await(candidate);
+            }
+            // Another reader installed an entry first; re-check against it
+        }
+    }
+
+    private void compute(CacheEntry entry) {
+        try {
+            // The three queries are independent, so run them side by side
+            CompletableFuture<BigDecimal> totalIncome = incomeDAO.getTotalByDateRange(ALL_TIME_START, ALL_TIME_END);
+            CompletableFuture<BigDecimal> totalExpenses = expenseDAO.getTotalByDateRange(ALL_TIME_START, ALL_TIME_END);
+            CompletableFuture<List<Transaction>> recentTransactions =
+                DatabaseExecutor.supply(() -> transactionDAO.findRecent(RECENT_TRANSACTION_LIMIT));
+
+            entry.future.complete(new DashboardSnapshot(
+                entry.version, totalIncome.join(), totalExpenses.join(), recentTransactions.join()));
+        } catch (RuntimeException e) {
+            // Drop the failed entry so the next reader retries instead of caching the error
+            cache.compareAndSet(entry, null);
+            entry.future.completeExceptionally(e);
+        }
+    }
+
+    private DashboardSnapshot await(CacheEntry entry) {
+        try {
+            return entry.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Cached snapshot (or in-flight computation) for one data version
+     */
+    private static class CacheEntry {
+        final long version;
+        final CompletableFuture<DashboardSnapshot> future = new CompletableFuture<>();
+
+        CacheEntry(long version) {
+            this.version = version;
+        }
+    }
+}
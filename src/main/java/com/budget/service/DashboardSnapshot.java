@@ -0,0 +1,53 @@
+package com.budget.service;
+
+import com.budget.model.Transaction;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Immutable dashboard model computed at a given data version
+ */
+public class DashboardSnapshot {
+    private final long version;
+    private final BigDecimal totalIncome;
+    private final BigDecimal totalExpenses;
+    private final BigDecimal netBalance;
+    private final double savingsRate;
+    private final List<Transaction> recentTransactions;
+    
+    public DashboardSnapshot(long version, BigDecimal totalIncome, BigDecimal totalExpenses,
+                             List<Transaction> recentTransactions) {
+        this.version = version;
+        this.totalIncome = totalIncome;
+        this.totalExpenses = totalExpenses;
+        this.netBalance = totalIncome.subtract(totalExpenses);
+        this.savingsRate = totalIncome.doubleValue() > 0 ?
+            (netBalance.doubleValue() / totalIncome.doubleValue()) * 100 : 0;
+        this.recentTransactions = List.copyOf(recentTransactions);
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public BigDecimal getTotalIncome() {
+        return totalIncome;
+    }
+    
+    public BigDecimal getTotalExpenses() {
+        return totalExpenses;
+    }
+    
+    public BigDecimal getNetBalance() {
+        return netBalance;
+    }
+    
+    public double getSavingsRate() {
+        return savingsRate;
+    }
+    
+    public List<Transaction> getRecentTransactions() {
+        return recentTransactions;
+    }
+}
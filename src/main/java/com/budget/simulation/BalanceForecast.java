@@ -0,0 +1,109 @@
+package com.budget.simulation;
+
+import java.util.List;
+
+/**
+ * Percentile bands of the simulated balance over the forecast horizon
+ */
+public class BalanceForecast {
+    private final String startDate;
+    private final double startBalance;
+    private final int days;
+    private final int paths;
+    private final double meanDailyIncome;
+    private final double meanDailyExpense;
+    private final double probabilityNegative;
+    private final List<Band> bands;
+    
+    public BalanceForecast(String startDate, double startBalance, int days, int paths, double meanDailyIncome,
+                           double meanDailyExpense, double probabilityNegative, List<Band> bands) {
+        this.startDate = startDate;
+        this.startBalance = startBalance;
+        this.days = days;
+        this.paths = paths;
+        this.meanDailyIncome = meanDailyIncome;
+        this.meanDailyExpense = meanDailyExpense;
+        this.probabilityNegative = probabilityNegative;
+        this.bands = bands;
+    }
+    
+    public String getStartDate() {
+        return startDate;
+    }
+    
+    public double getStartBalance() {
+        return startBalance;
+    }
+    
+    public int getDays() {
+        return days;
+    }
+    
+    public int getPaths() {
+        return paths;
+    }
+    
+    public double getMeanDailyIncome() {
+        return meanDailyIncome;
+    }
+    
+    public double getMeanDailyExpense() {
+        return meanDailyExpense;
+    }
+    
+    /**
+     * Share of paths whose balance dropped below zero on any day of the horizon
+     */
+    public double getProbabilityNegative() {
+        return probabilityNegative;
+    }
+    
+    public List<Band> getBands() {
+        return bands;
+    }
+    
+    /**
+     * Balance percentiles on one day of the horizon
+     */
+    public static class Band {
+        private final String date;
+        private final double p5;
+        private final double p25;
+        private final double p50;
+        private final double p75;
+        private final double p95;
+        
+        public Band(String date, double p5, double p25, double p50, double p75, double p95) {
+            this.date = date;
+            this.p5 = p5;
+            this.p25 = p25;
+            this.p50 = p50;
+            this.p75 = p75;
+            this.p95 = p95;
+        }
+        
+        public String getDate() {
+            return date;
+        }
+        
+        public double getP5() {
+            return p5;
+        }
+        
+        public double getP25() {
+            return p25;
+        }
+        
+        public double getP50() {
+            return p50;
+        }
+        
+        public double getP75() {
+            return p75;
+        }
+        
+        public double getP95() {
+            return p95;
+        }
+    }
+}
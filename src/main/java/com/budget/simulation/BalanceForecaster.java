@@ -0,0 +1,248 @@
+package com.budget.simulation;
+
+import com.budget.dao.DataVersion;
+import com.budget.dao.ExpenseDAO;
+import com.budget.dao.IncomeDAO;
+import com.budget.model.Expense;
+import com.budget.model.Income;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo forecast of the net balance.
+ * Each day of the last HISTORY_DAYS is reduced to its net cash flow, income
+ * minus expenses, so a day's income and spending are drawn together. A path
+ * starts at today's balance and adds one randomly drawn historical day per
+ * simulated day. Balances are recorded at up to MAX_POINTS evenly spaced
+ * days into one flat array laid out point by point, and percentile bands are
+ * read from each point's sorted slice.
+ *
+ * Paths run in blocks on the shared simulation pool. Each block has its own
+ * SplittableRandom derived from the seed and block number, and writes only
+ * its own paths' slots, so the inner loop allocates nothing and a seed
+ * always gives the same forecast.
+ */
+public class BalanceForecaster {
+    private static final int HISTORY_DAYS = Integer.getInteger("budget.forecast.historyDays", 365);
+    private static final int PATHS_PER_BLOCK = 512;
+    private static final int MAX_POINTS = 60;
+    private static final LocalDate ALL_TIME_START = LocalDate.of(2000, 1, 1);
+    private static final LocalDate ALL_TIME_END = LocalDate.of(2099, 12, 31);
+    public static final int MAX_DAYS = 730;
+    public static final int MAX_PATHS = 100_000;
+    
+    private final IncomeDAO incomeDAO;
+    private final ExpenseDAO expenseDAO;
+    private volatile DailyHistory history;
+    
+    public BalanceForecaster(IncomeDAO incomeDAO, ExpenseDAO expenseDAO) {
+        this.incomeDAO = incomeDAO;
+        this.expenseDAO = expenseDAO;
+    }
+    
+    /**
+     * Forecast the balance from today
+     * @param days how many days ahead
+     * @param paths how many simulated paths
+     * @param seed random seed; the same seed and data give the same forecast
+     */
+    public BalanceForecast forecast(int days, int paths, long seed) {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("Days must be between 1 and " + MAX_DAYS);
+        }
+        if (paths < 1 || paths > MAX_PATHS) {
+            throw new IllegalArgumentException("Paths must be between 1 and " + MAX_PATHS);
+        }
+        return simulate(history(), days, paths, seed);
+    }
+    
+    /**
+     * Get the daily history for the current data, rebuilding it after a write or when the day turns
+     */
+    private DailyHistory history() {
+        DailyHistory current = history;
+        long version = DataVersion.current();
+        LocalDate today = LocalDate.now();
+        if (current == null || current.version < version || !current.today.equals(today)) {
+            current = loadHistory(version, today);
+            history = current;
+        }
+        return current;
+    }
+    
+    private DailyHistory loadHistory(long version, LocalDate today) {
+        // Whole days only; today is still filling up
+        LocalDate start = today.minusDays(HISTORY_DAYS);
+        LocalDate end = today.minusDays(1);
+        double[] income = new double[HISTORY_DAYS];
+        double[] expense = new double[HISTORY_DAYS];
+        int firstActiveDay = HISTORY_DAYS;
+        
+        for (Income row : incomeDAO.findByDateRange(start, end)) {
+            int day = (int) ChronoUnit.DAYS.between(start, row.getIncomeDate());
+            income[day] += row.getAmount().doubleValue();
+            firstActiveDay = Math.min(firstActiveDay, day);
+        }
+        for (Expense row : expenseDAO.findByDateRange(start, end)) {
+            int day = (int) ChronoUnit.DAYS.between(start, row.getExpenseDate());
+            expense[day] += row.getAmount().doubleValue();
+            firstActiveDay = Math.min(firstActiveDay, day);
+        }
+        
+        // Days before the first recorded transaction would read as zero flow; leave them out
+        double[] incomeDays = Arrays.copyOfRange(income, firstActiveDay, HISTORY_DAYS);
+        double[] expenseDays = Arrays.copyOfRange(expense, firstActiveDay, HISTORY_DAYS);
+        double balance = incomeDAO.getTotalByDateRange(ALL_TIME_START, ALL_TIME_END).doubleValue()
+            - expenseDAO.getTotalByDateRange(ALL_TIME_START, ALL_TIME_END).doubleValue();
+        return new DailyHistory(version, today, balance, incomeDays, expenseDays);
+    }
+    
+    /**
+     * Run the simulation over a given history
+     */
+    static BalanceForecast simulate(DailyHistory history, int days, int paths, long seed) {
+        // Every step-th day, always ending on the last one
+        int step = (days + MAX_POINTS - 1) / MAX_POINTS;
+        int[] pointDays = new int[(days + step - 1) / step];
+        for (int point = 0; point < pointDays.length; point++) {
+            pointDays[point] = Math.min(days, (point + 1) * step);
+        }
+        
+        Run run = new Run(history, days, paths, seed, pointDays);
+        if (history.net.length > 0) {
+            SimulationPool.runBlocks(run.blocks, run::runBlock);
+        } else {
+            // No history to draw from: every path stays where it started
+            Arrays.fill(run.balances, history.startBalance);
+            run.negativePaths[0] = history.startBalance < 0 ? paths : 0;
+        }
+        
+        // Sort every point's slice in parallel and read the percentiles off it
+        int points = pointDays.length;
+        double[][] percentiles = new double[points][];
+        SimulationPool.POOL.submit(() -> IntStream.range(0, points).parallel().forEach(point -> {
+            Arrays.sort(run.balances, point * paths, (point + 1) * paths);
+            percentiles[point] = new double[] {
+                percentile(run.balances, point, paths, 5),
+                percentile(run.balances, point, paths, 25),
+                percentile(run.balances, point, paths, 50),
+                percentile(run.balances, point, paths, 75),
+                percentile(run.balances, point, paths, 95)
+            };
+        })).join();
+        
+        List<BalanceForecast.Band> bands = new ArrayList<>(points + 1);
+        bands.add(new BalanceForecast.Band(history.today.toString(), history.startBalance, history.startBalance,
+            history.startBalance, history.startBalance, history.startBalance));
+        for (int point = 0; point < points; point++) {
+            double[] p = percentiles[point];
+            bands.add(new BalanceForecast.Band(history.today.plusDays(pointDays[point]).toString(), p[0], p[1], p[2], p[3], p[4]));
+        }
+        
+        long negative = 0;
+        for (long count : run.negativePaths) {
+            negative += count;
+        }
+        return new BalanceForecast(history.today.toString(), history.startBalance, days, paths,
+            mean(history.income), mean(history.expense), (double) negative / paths, bands);
+    }
+    
+    /**
+     * Nearest-rank percentile of one point's sorted slice
+     */
+    private static double percentile(double[] sorted, int point, int paths, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * paths) - 1;
+        return sorted[point * paths + Math.max(0, Math.min(paths - 1, rank))];
+    }
+    
+    private static double mean(double[] values) {
+        double total = 0;
+        for (double value : values) {
+            total += value;
+        }
+        return values.length > 0 ? total / values.length : 0;
+    }
+    
+    /**
+     * Daily income and expense totals, oldest first, plus the balance to start from
+     */
+    static final class DailyHistory {
+        final long version;
+        final LocalDate today;
+        final double startBalance;
+        final double[] income;
+        final double[] expense;
+        final double[] net;
+        
+        DailyHistory(long version, LocalDate today, double startBalance, double[] income, double[] expense) {
+            this.version = version;
+            this.today = today;
+            this.startBalance = startBalance;
+            this.income = income;
+            this.expense = expense;
+            this.net = new double[income.length];
+            for (int day = 0; day < net.length; day++) {
+                net[day] = income[day] - expense[day];
+            }
+        }
+    }
+    
+    /**
+     * Inputs and outputs of one forecast.
+     * balances[point * paths + path] is the balance of a path on pointDays[point].
+     */
+    private static final class Run {
+        final DailyHistory history;
+        final int days;
+        final int paths;
+        final long seed;
+        final int[] pointDays;
+        final int blocks;
+        final double[] balances;
+        final long[] negativePaths;
+        
+        Run(DailyHistory history, int days, int paths, long seed, int[] pointDays) {
+            this.history = history;
+            this.days = days;
+            this.paths = paths;
+            this.seed = seed;
+            this.pointDays = pointDays;
+            this.blocks = (paths + PATHS_PER_BLOCK - 1) / PATHS_PER_BLOCK;
+            this.balances = new double[pointDays.length * paths];
+            this.negativePaths = new long[blocks];
+        }
+        
+        void runBlock(int block) {
+            double[] net = history.net;
+            int historyDays = net.length;
+            int firstPath = block * PATHS_PER_BLOCK;
+            int lastPath = Math.min(paths, firstPath + PATHS_PER_BLOCK);
+            SplittableRandom random = new SplittableRandom(seed ^ (block * 0x9E3779B97F4A7C15L));
+            long negative = 0;
+            
+            for (int path = firstPath; path < lastPath; path++) {
+                double balance = history.startBalance;
+                boolean wentNegative = false;
+                int point = 0;
+                for (int day = 1; day <= days; day++) {
+                    balance += net[random.nextInt(historyDays)];
+                    wentNegative |= balance < 0;
+                    if (day == pointDays[point]) {
+                        balances[point * paths + path] = balance;
+                        point++;
+                    }
+                }
+                if (wentNegative) {
+                    negative++;
+                }
+            }
+            negativePaths[block] = negative;
+        }
+    }
+}
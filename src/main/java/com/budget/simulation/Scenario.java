@@ -0,0 +1,88 @@
+package com.budget.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A named set of spending adjustments to simulate, e.g. "cut Dining by 20%
+ * and move 10% of it to Savings". Adjustments apply in order to each
+ * simulated month's per-category spending.
+ */
+public class Scenario {
+    private final String name;
+    private final List<Adjustment> adjustments = new ArrayList<>();
+    
+    public Scenario(String name) {
+        this.name = name;
+    }
+    
+    /**
+     * Scale a category's spending; -0.2 cuts it by 20%, 0.1 raises it by 10%
+     */
+    public Scenario scale(int categoryId, double change) {
+        if (change < -1) {
+            throw new IllegalArgumentException("Cannot cut spending by more than 100%");
+        }
+        adjustments.add(new Adjustment(false, categoryId, categoryId, change));
+        return this;
+    }
+    
+    /**
+     * Move a fraction of one category's spending to another
+     */
+    public Scenario shift(int fromCategoryId, int toCategoryId, double fraction) {
+        if (fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("Shift fraction must be between 0 and 1");
+        }
+        if (fromCategoryId == toCategoryId) {
+            throw new IllegalArgumentException("Cannot move spending to the category it comes from");
+        }
+        adjustments.add(new Adjustment(true, fromCategoryId, toCategoryId, fraction));
+        return this;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public List<Adjustment> getAdjustments() {
+        return Collections.unmodifiableList(adjustments);
+    }
+    
+    /**
+     * One adjustment, either a scale of one category or a shift between two
+     */
+    public static class Adjustment {
+        private final boolean shift;
+        private final int fromCategoryId;
+        private final int toCategoryId;
+        private final double amount;
+        
+        Adjustment(boolean shift, int fromCategoryId, int toCategoryId, double amount) {
+            this.shift = shift;
+            this.fromCategoryId = fromCategoryId;
+            this.toCategoryId = toCategoryId;
+            this.amount = amount;
+        }
+        
+        public boolean isShift() {
+            return shift;
+        }
+        
+        public int getFromCategoryId() {
+            return fromCategoryId;
+        }
+        
+        public int getToCategoryId() {
+            return toCategoryId;
+        }
+        
+        /**
+         * The relative change for a scale, or the fraction moved for a shift
+         */
+        public double getAmount() {
+            return amount;
+        }
+    }
+}
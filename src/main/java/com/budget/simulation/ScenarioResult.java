@@ -0,0 +1,97 @@
+package com.budget.simulation;
+
+import java.util.List;
+
+/**
+ * Simulated outlook of every budget under one scenario
+ */
+public class ScenarioResult {
+    private final String scenario;
+    private final int months;
+    private final int trials;
+    private final List<BudgetOutlook> budgets;
+    
+    public ScenarioResult(String scenario, int months, int trials, List<BudgetOutlook> budgets) {
+        this.scenario = scenario;
+        this.months = months;
+        this.trials = trials;
+        this.budgets = budgets;
+    }
+    
+    public String getScenario() {
+        return scenario;
+    }
+    
+    public int getMonths() {
+        return months;
+    }
+    
+    public int getTrials() {
+        return trials;
+    }
+    
+    public List<BudgetOutlook> getBudgets() {
+        return budgets;
+    }
+    
+    /**
+     * One budget's simulated figures
+     */
+    public static class BudgetOutlook {
+        private final int budgetId;
+        private final int categoryId;
+        private final String categoryName;
+        private final double monthlyLimit;
+        private final double expectedMonthlySpend;
+        private final double overrunProbability;
+        private final double expectedOverrunMonths;
+        
+        public BudgetOutlook(int budgetId, int categoryId, String categoryName, double monthlyLimit,
+                             double expectedMonthlySpend, double overrunProbability, double expectedOverrunMonths) {
+            this.budgetId = budgetId;
+            this.categoryId = categoryId;
+            this.categoryName = categoryName;
+            this.monthlyLimit = monthlyLimit;
+            this.expectedMonthlySpend = expectedMonthlySpend;
+            this.overrunProbability = overrunProbability;
+            this.expectedOverrunMonths = expectedOverrunMonths;
+        }
+        
+        public int getBudgetId() {
+            return budgetId;
+        }
+        
+        public int getCategoryId() {
+            return categoryId;
+        }
+        
+        public String getCategoryName() {
+            return categoryName;
+        }
+        
+        /**
+         * The budget amount converted to a per-month limit
+         */
+        public double getMonthlyLimit() {
+            return monthlyLimit;
+        }
+        
+        public double getExpectedMonthlySpend() {
+            return expectedMonthlySpend;
+        }
+        
+        /**
+         * Share of trials in which at least one month went over the limit
+         */
+        public double getOverrunProbability() {
+            return overrunProbability;
+        }
+        
+        /**
+         * Average number of months over the limit per trial
+         */
+        public double getExpectedOverrunMonths() {
+            return expectedOverrunMonths;
+        }
+    }
+}
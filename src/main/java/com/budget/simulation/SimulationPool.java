@@ -0,0 +1,57 @@
+package com.budget.simulation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Fork/join pool shared by the simulators, kept apart from the common pool
+ * so a long simulation can't starve parallel streams elsewhere in the app
+ */
+final class SimulationPool {
+    static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("budget-simulation-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }, null, false);
+    
+    private SimulationPool() {}
+    
+    /**
+     * Run blocks [0, blocks) on the pool and wait for all of them
+     */
+    static void runBlocks(int blocks, IntConsumer block) {
+        if (blocks > 0) {
+            POOL.invoke(new BlockTask(block, 0, blocks));
+        }
+    }
+    
+    /**
+     * Splits a range of blocks in half until one block is left, then runs it
+     */
+    private static final class BlockTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final transient IntConsumer block;
+        private final int from;
+        private final int to;
+        
+        BlockTask(IntConsumer block, int from, int to) {
+            this.block = block;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                block.accept(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BlockTask(block, from, middle), new BlockTask(block, middle, to));
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.budget.simulation;
+
+import com.budget.dao.BudgetDAO;
+import com.budget.dao.CategoryDAO;
+import com.budget.dao.DataVersion;
+import com.budget.dao.ExpenseDAO;
+import com.budget.model.Budget;
+import com.budget.model.Category;
+import com.budget.model.Expense;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Answers "if I change my spending like this, which budgets go over in the
+ * next N months?" by resampling past months.
+ * The last HISTORY_MONTHS complete months are totalled per category into a
+ * flat array. Each trial draws whole historical months at random, so
+ * categories that move together keep doing so, and runs them through the
+ * scenario's adjustments. A scenario is compiled to a category-by-category
+ * mixing matrix up front, so a simulated month is a few multiply-adds per
+ * budgeted category with no allocation.
+ *
+ * Trials are split into fixed-size blocks and run on a dedicated fork/join
+ * pool. Each block has its own SplittableRandom derived from the seed and
+ * the block number, and its own slots in the count arrays, so results are
+ * the same for a given seed whatever the parallelism and the workers never
+ * share a counter.
+ */
+public class WhatIfSimulator {
+    private static final int HISTORY_MONTHS = Integer.getInteger("budget.simulation.historyMonths", 12);
+    private static final int TRIALS_PER_BLOCK = 256;
+    public static final int MAX_MONTHS = 36;
+    public static final int MAX_TRIALS = 50_000;
+    public static final int MAX_SCENARIOS = 32;
+    
+    private final BudgetDAO budgetDAO;
+    private final ExpenseDAO expenseDAO;
+    private final CategoryDAO categoryDAO;
+    private volatile SpendingModel model;
+    
+    public WhatIfSimulator(BudgetDAO budgetDAO, ExpenseDAO expenseDAO, CategoryDAO categoryDAO) {
+        this.budgetDAO = budgetDAO;
+        this.expenseDAO = expenseDAO;
+        this.categoryDAO = categoryDAO;
+    }
+    
+    /**
+     * Simulate each scenario against the current budgets
+     * @param months how many months ahead to simulate
+     * @param trials how many simulated futures per scenario
+     * @param seed random seed; the same seed and data give the same result
+     */
+    public List<ScenarioResult> simulate(List<Scenario> scenarios, int months, int trials, long seed) {
+        if (scenarios.isEmpty() || scenarios.size() > MAX_SCENARIOS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_SCENARIOS + " scenarios are allowed");
+        }
+        if (months < 1 || months > MAX_MONTHS) {
+            throw new IllegalArgumentException("Months must be between 1 and " + MAX_MONTHS);
+        }
+        if (trials < 1 || trials > MAX_TRIALS) {
+            throw new IllegalArgumentException("Trials must be between 1 and " + MAX_TRIALS);
+        }
+        
+        SpendingModel spending = model();
+        double[][] mixes = new double[scenarios.size()][];
+        for (int s = 0; s < scenarios.size(); s++) {
+            mixes[s] = spending.compile(scenarios.get(s));
+        }
+        
+        int budgets = spending.budgetIds.length;
+        int blocksPerScenario = (trials + TRIALS_PER_BLOCK - 1) / TRIALS_PER_BLOCK;
+        Run run = new Run(spending, mixes, months, trials, seed, blocksPerScenario);
+        if (budgets > 0 && spending.historyMonths > 0) {
+            SimulationPool.runBlocks(scenarios.size() * blocksPerScenario, run::runBlock);
+        }
+        
+        List<ScenarioResult> results = new ArrayList<>(scenarios.size());
+        for (int s = 0; s < scenarios.size(); s++) {
+            List<ScenarioResult.BudgetOutlook> outlooks = new ArrayList<>(budgets);
+            for (int b = 0; b < budgets; b++) {
+                long overrunTrials = 0;
+                long overrunMonths = 0;
+                double spent = 0;
+                for (int block = s * blocksPerScenario; block < (s + 1) * blocksPerScenario; block++) {
+                    overrunTrials += run.overrunTrials[block * budgets + b];
+                    overrunMonths += run.overrunMonths[block * budgets + b];
+                    spent += run.spent[block * budgets + b];
+                }
+                int categoryId = spending.categoryIds[spending.budgetCategory[b]];
+                outlooks.add(new ScenarioResult.BudgetOutlook(spending.budgetIds[b], categoryId,
+                    spending.categoryNames.get(categoryId), spending.monthlyLimits[b],
+                    spent / ((double) trials * months), (double) overrunTrials / trials, (double) overrunMonths / trials));
+            }
+            results.add(new ScenarioResult(scenarios.get(s).getName(), months, trials, outlooks));
+        }
+        return results;
+    }
+    
+    /**
+     * Resolve a category by ID or case-insensitive name, for building scenarios from user input
+     */
+    public int resolveCategory(String idOrName) {
+        SpendingModel spending = model();
+        for (int i = 0; i < spending.categoryIds.length; i++) {
+            if (String.valueOf(spending.categoryIds[i]).equals(idOrName)
+                    || spending.categoryNames.get(spending.categoryIds[i]).equalsIgnoreCase(idOrName)) {
+                return spending.categoryIds[i];
+            }
+        }
+        throw new IllegalArgumentException("Unknown category: " + idOrName);
+    }
+    
+    /**
+     * Get the spending model for the current data, rebuilding it after a write or when the month turns
+     */
+    private SpendingModel model() {
+        SpendingModel current = model;
+        long version = DataVersion.current();
+        YearMonth month = YearMonth.now();
+        if (current == null || current.version < version || !current.month.equals(month)) {
+            current = buildModel(version, month);
+            model = current;
+        }
+        return current;
+    }
+    
+    private SpendingModel buildModel(long version, YearMonth currentMonth) {
+        List<Category> categories = categoryDAO.findAll();
+        List<Budget> budgets = budgetDAO.findAll();
+        
+        Map<Integer, Integer> categoryIndex = new HashMap<>();
+        int[] categoryIds = new int[categories.size()];
+        Map<Integer, String> categoryNames = new HashMap<>();
+        for (Category category : categories) {
+            categoryIndex.put(category.getId(), categoryIndex.size());
+            categoryIds[categoryIndex.get(category.getId())] = category.getId();
+            categoryNames.put(category.getId(), category.getName());
+        }
+        int categoryCount = categoryIds.length;
+        
+        // Whole months only; the current month is still filling up
+        YearMonth firstMonth = currentMonth.minusMonths(HISTORY_MONTHS);
+        LocalDate start = firstMonth.atDay(1);
+        LocalDate end = currentMonth.atDay(1).minusDays(1);
+        double[] history = new double[HISTORY_MONTHS * categoryCount];
+        int firstActiveMonth = HISTORY_MONTHS;
+        for (Expense expense : expenseDAO.findByDateRange(start, end)) {
+            Integer c = categoryIndex.get(expense.getCategoryId());
+            if (c == null || expense.getExpenseDate() == null) {
+                continue;
+            }
+            int m = (int) ChronoUnit.MONTHS.between(firstMonth, YearMonth.from(expense.getExpenseDate()));
+            history[m * categoryCount + c] += expense.getAmount().doubleValue();
+            firstActiveMonth = Math.min(firstActiveMonth, m);
+        }
+        
+        // Months before the first recorded expense would read as zero spending; leave them out
+        int historyMonths = HISTORY_MONTHS - firstActiveMonth;
+        double[] trimmed = new double[historyMonths * categoryCount];
+        System.arraycopy(history, firstActiveMonth * categoryCount, trimmed, 0, trimmed.length);
+        
+        List<Budget> known = new ArrayList<>();
+        for (Budget budget : budgets) {
+            if (categoryIndex.containsKey(budget.getCategoryId()) && budget.getAmount() != null) {
+                known.add(budget);
+            }
+        }
+        int[] budgetIds = new int[known.size()];
+        int[] budgetCategory = new int[known.size()];
+        double[] monthlyLimits = new double[known.size()];
+        for (int b = 0; b < known.size(); b++) {
+            Budget budget = known.get(b);
+            budgetIds[b] = budget.getId();
+            budgetCategory[b] = categoryIndex.get(budget.getCategoryId());
+            monthlyLimits[b] = monthlyLimit(budget);
+        }
+        
+        return new SpendingModel(version, currentMonth, categoryIds, categoryNames, categoryIndex,
+            trimmed, historyMonths, budgetIds, budgetCategory, monthlyLimits);
+    }
+    
+    private static double monthlyLimit(Budget budget) {
+        double amount = budget.getAmount().doubleValue();
+        if (budget.getPeriod() == null) {
+            return amount;
+        }
+        switch (budget.getPeriod()) {
+            case WEEKLY:
+                return amount * 52 / 12;
+            case YEARLY:
+                return amount / 12;
+            default:
+                return amount;
+        }
+    }
+    
+    /**
+     * Historical monthly spending and current budgets as flat arrays
+     */
+    private static final class SpendingModel {
+        final long version;
+        final YearMonth month;
+        final int[] categoryIds;
+        final Map<Integer, String> categoryNames;
+        final Map<Integer, Integer> categoryIndex;
+        /** history[m * categories + c]: spending on category c in month m */
+        final double[] history;
+        final int historyMonths;
+        final int[] budgetIds;
+        final int[] budgetCategory;
+        final double[] monthlyLimits;
+        /** The distinct category indexes that have a budget; only these need simulating */
+        final int[] budgetedCategories;
+        
+        SpendingModel(long version, YearMonth month, int[] categoryIds, Map<Integer, String> categoryNames,
+                      Map<Integer, Integer> categoryIndex, double[] history, int historyMonths,
+                      int[] budgetIds, int[] budgetCategory, double[] monthlyLimits) {
+            this.version = version;
+            this.month = month;
+            this.categoryIds = categoryIds;
+            this.categoryNames = categoryNames;
+            this.categoryIndex = categoryIndex;
+            this.history = history;
+            this.historyMonths = historyMonths;
+            this.budgetIds = budgetIds;
+            this.budgetCategory = budgetCategory;
+            this.monthlyLimits = monthlyLimits;
+            this.budgetedCategories = Arrays.stream(budgetCategory).distinct().toArray();
+        }
+        
+        /**
+         * Turn a scenario into a mixing matrix: simulated spending on category r is
+         * the sum over c of mix[r * categories + c] times sampled spending on c
+         */
+        double[] compile(Scenario scenario) {
+            int n = categoryIds.length;
+            double[] mix = new double[n * n];
+            for (int c = 0; c < n; c++) {
+                mix[c * n + c] = 1;
+            }
+            
+            for (Scenario.Adjustment adjustment : scenario.getAdjustments()) {
+                int from = index(adjustment.getFromCategoryId());
+                if (!adjustment.isShift()) {
+                    for (int c = 0; c < n; c++) {
+                        mix[from * n + c] *= 1 + adjustment.getAmount();
+                    }
+                    continue;
+                }
+                
+                int to = index(adjustment.getToCategoryId());
+                double fraction = adjustment.getAmount();
+                for (int c = 0; c < n; c++) {
+                    mix[to * n + c] += fraction * mix[from * n + c];
+                    mix[from * n + c] *= 1 - fraction;
+                }
+            }
+            return mix;
+        }
+        
+        private int index(int categoryId) {
+            Integer index = categoryIndex.get(categoryId);
+            if (index == null) {
+                throw new IllegalArgumentException("Unknown category: " + categoryId);
+            }
+            return index;
+        }
+    }
+    
+    /**
+     * Inputs and per-block outputs of one simulate call.
+     * Block k of scenario s writes only to slots [(s * blocks + k) * budgets, +budgets).
+     */
+    private static final class Run {
+        final SpendingModel model;
+        final double[][] mixes;
+        final int months;
+        final int trials;
+        final long seed;
+        final int blocksPerScenario;
+        final long[] overrunTrials;
+        final long[] overrunMonths;
+        final double[] spent;
+        
+        Run(SpendingModel model, double[][] mixes, int months, int trials, long seed, int blocksPerScenario) {
+            this.model = model;
+            this.mixes = mixes;
+            this.months = months;
+            this.trials = trials;
+            this.seed = seed;
+            this.blocksPerScenario = blocksPerScenario;
+            int slots = mixes.length * blocksPerScenario * model.budgetIds.length;
+            this.overrunTrials = new long[slots];
+            this.overrunMonths = new long[slots];
+            this.spent = new double[slots];
+        }
+        
+        void runBlock(int block) {
+            SpendingModel m = model;
+            int scenario = block / blocksPerScenario;
+            int firstTrial = (block % blocksPerScenario) * TRIALS_PER_BLOCK;
+            int blockTrials = Math.min(TRIALS_PER_BLOCK, trials - firstTrial);
+            double[] mix = mixes[scenario];
+            int n = m.categoryIds.length;
+            int budgets = m.budgetIds.length;
+            int slot = block * budgets;
+            
+            SplittableRandom random = new SplittableRandom(seed ^ (block * 0x9E3779B97F4A7C15L));
+            double[] monthSpend = new double[n];
+            boolean[] over = new boolean[budgets];
+            
+            for (int t = 0; t < blockTrials; t++) {
+                Arrays.fill(over, false);
+                for (int month = 0; month < months; month++) {
+                    int base = random.nextInt(m.historyMonths) * n;
+                    for (int r : m.budgetedCategories) {
+                        double total = 0;
+                        int row = r * n;
+                        for (int c = 0; c < n; c++) {
+                            total += mix[row + c] * m.history[base + c];
+                        }
+                        monthSpend[r] = total;
+                    }
+                    for (int b = 0; b < budgets; b++) {
+                        double value = monthSpend[m.budgetCategory[b]];
+                        spent[slot + b] += value;
+                        if (value > m.monthlyLimits[b]) {
+                            overrunMonths[slot + b]++;
+                            over[b] = true;
+                        }
+                    }
+                }
+                for (int b = 0; b < budgets; b++) {
+                    if (over[b]) {
+                        overrunTrials[slot + b]++;
+                    }
+                }
+            }
+        }
+    }
+}
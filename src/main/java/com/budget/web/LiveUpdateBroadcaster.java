@@ -0,0 +1,358 @@
+package com.budget.web;
+
+import com.budget.events.ChangeBus;
+import com.budget.events.ChangeEvent;
+import com.budget.model.Budget;
+import com.budget.model.BudgetAlert;
+import com.budget.model.BudgetStatus;
+import com.budget.model.Expense;
+import com.budget.model.Income;
+import com.budget.service.DashboardService;
+import com.budget.service.DashboardSnapshot;
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server-Sent Events fan-out for live dashboard updates.
+ * Connected clients are parked open exchanges rather than threads. Committed
+ * DAO writes arrive from the change bus in batches; each batch becomes a few
+ * small deltas (new transactions, updated totals once), and each delta is
+ * encoded once and queued for every client. Budget status deltas come from
+ * the BudgetAlertEngine's running totals, so no write makes the broadcaster
+ * query the ledger.
+ *
+ * Each client has a small outbox, drained by a small fixed pool of writer
+ * threads. A client whose outbox fills up is dropped and reconnects to fresh
+ * totals. The response stream blocks, so a write that makes no progress for
+ * WRITE_TIMEOUT_SECONDS has its thread interrupted, which closes the
+ * connection's channel; a stalled or half-open browser holds a writer for at
+ * most that long. If the broadcaster itself can't keep up, the bus drops
+ * events rather than holding up writers; the next totals delta brings
+ * clients back in line.
+ */
+public class LiveUpdateBroadcaster {
+    private static final long HEARTBEAT_SECONDS = 15;
+    private static final int OUTBOX_MESSAGES = 64;
+    private static final int WRITER_THREADS = Integer.getInteger("budget.sse.writerThreads", 4);
+    private static final long WRITE_TIMEOUT_SECONDS = 10;
+    
+    private final DashboardService dashboardService;
+    private final Gson gson = new Gson();
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    // Clients with a write or close in progress, for the stall check
+    private final Set<Client> writing = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService dispatcher;
+    private final ExecutorService writers;
+    private ChangeBus.Subscription subscription;
+    
+    public LiveUpdateBroadcaster(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "budget-sse-broadcaster");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writers = Executors.newFixedThreadPool(WRITER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "budget-sse-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Start listening for DAO changes and sending heartbeats
+     */
+    public void start() {
+        subscription = ChangeBus.subscribe("sse", ChangeBus.Backpressure.DROP, this::onChanges);
+        dispatcher.scheduleAtFixedRate(this::sendHeartbeat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+        dispatcher.scheduleAtFixedRate(this::interruptStalledWrites, 1, 1, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Stop broadcasting and close every client stream
+     */
+    public void stop() {
+        if (subscription != null) {
+            subscription.close();
+        }
+        dispatcher.shutdownNow();
+        for (Client client : clients) {
+            client.close();
+        }
+        clients.clear();
+        writers.shutdownNow();
+    }
+    
+    /**
+     * Get the number of connected clients
+     */
+    public int getClientCount() {
+        return clients.size();
+    }
+    
+    /**
+     * Open an event stream on the exchange and park it as a client.
+     * The exchange stays open after the handler returns.
+     */
+    public void register(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=UTF-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        
+        Client client = new Client(exchange);
+        clients.add(client);
+        client.send("retry: 3000\n\n".getBytes(StandardCharsets.UTF_8));
+        
+        // Bring the new client up to date with the current totals
+        dispatcher.execute(() -> client.send(encode("totals", totalsDelta())));
+    }
+    
+    /**
+     * Push a budget alert to every client
+     */
+    public void publishAlert(BudgetAlert alert) {
+        // Alerts arrive on the alert engine's thread; broadcast from ours so clients never hold it up
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("budgetId", alert.getBudgetId());
+        delta.put("categoryId", alert.getCategoryId());
+        delta.put("status", alert.getStatus().name());
+        delta.put("label", alert.getStatus().getLabel());
+        delta.put("spent", alert.getSpent());
+        delta.put("amount", alert.getAmount());
+        delta.put("percentage", Math.round(alert.getPercentage()));
+        dispatcher.execute(() -> broadcast("budget-alert", delta));
+    }
+    
+    /**
+     * Push a budget's new status to every client; a BudgetAlertEngine status listener
+     */
+    public void publishBudgetStatus(Budget budget, BudgetStatus status, BigDecimal spent, double percentage) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("budgetId", budget.getId());
+        delta.put("categoryId", budget.getCategoryId());
+        delta.put("status", status.name());
+        delta.put("label", status.getLabel());
+        delta.put("spent", spent);
+        delta.put("amount", budget.getAmount());
+        delta.put("percentage", Math.round(percentage));
+        dispatcher.execute(() -> broadcast("budget-status", delta));
+    }
+    
+    private void onChanges(List<ChangeEvent> events) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        
+        // Coalesce the batch: every new transaction, but totals once
+        boolean totalsChanged = false;
+        for (ChangeEvent event : events) {
+            switch (event.getEntity()) {
+                case EXPENSE:
+                    if (event.getOperation() == ChangeEvent.Operation.CREATE) {
+                        Expense expense = event.getPayload(Expense.class);
+                        broadcast("transaction", transactionDelta("expense", expense.getId(), expense.getAmount(),
+                            expense.getDescription(), expense.getExpenseDate()));
+                    }
+                    totalsChanged = true;
+                    break;
+                case INCOME:
+                    if (event.getOperation() == ChangeEvent.Operation.CREATE) {
+                        Income income = event.getPayload(Income.class);
+                        broadcast("transaction", transactionDelta("income", income.getId(), income.getAmount(),
+                            income.getDescription(), income.getIncomeDate()));
+                    }
+                    totalsChanged = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+        
+        if (totalsChanged) {
+            broadcast("totals", totalsDelta());
+        }
+    }
+    
+    private Map<String, Object> transactionDelta(String type, int id, BigDecimal amount, String description, LocalDate date) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("type", type);
+        delta.put("id", id);
+        delta.put("amount", amount);
+        delta.put("description", description != null ? description : "");
+        delta.put("date", date != null ? date.toString() : null);
+        return delta;
+    }
+    
+    private Map<String, Object> totalsDelta() {
+        DashboardSnapshot snapshot = dashboardService.getSnapshot();
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("totalIncome", snapshot.getTotalIncome());
+        delta.put("totalExpenses", snapshot.getTotalExpenses());
+        delta.put("netBalance", snapshot.getNetBalance());
+        delta.put("savingsRate", Math.round(snapshot.getSavingsRate() * 10) / 10.0);
+        delta.put("version", snapshot.getVersion());
+        return delta;
+    }
+    
+    private byte[] encode(String eventName, Object data) {
+        return ("event: " + eventName + "\ndata: " + gson.toJson(data) + "\n\n").getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private void broadcast(String eventName, Object data) {
+        // Encode once, queue the same bytes for every client
+        byte[] message = encode(eventName, data);
+        for (Client client : clients) {
+            client.send(message);
+        }
+    }
+    
+    private void sendHeartbeat() {
+        byte[] ping = ": ping\n\n".getBytes(StandardCharsets.UTF_8);
+        for (Client client : clients) {
+            client.send(ping);
+        }
+    }
+    
+    private void interruptStalledWrites() {
+        long deadline = System.nanoTime() - TimeUnit.SECONDS.toNanos(WRITE_TIMEOUT_SECONDS);
+        for (Client client : writing) {
+            if (client.writeStartedBefore(deadline)) {
+                client.drop();
+                client.interruptWrite();
+            }
+        }
+    }
+    
+    /**
+     * One parked event stream with its bounded outbox
+     */
+    private class Client {
+        private final HttpExchange exchange;
+        private final OutputStream out;
+        private final BlockingQueue<byte[]> outbox = new ArrayBlockingQueue<>(OUTBOX_MESSAGES);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // Guarded by this; the thread blocked writing to this client, if any
+        private Thread writer;
+        private long writeStarted;
+        
+        Client(HttpExchange exchange) {
+            this.exchange = exchange;
+            this.out = exchange.getResponseBody();
+        }
+        
+        /**
+         * Queue a message without blocking; a client too far behind to take it is dropped
+         */
+        void send(byte[] message) {
+            if (!outbox.offer(message)) {
+                drop();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Stopping
+                    draining.set(false);
+                }
+            }
+        }
+        
+        // Only one drain runs at a time, so messages go out whole and in order
+        private void drain() {
+            try {
+                while (true) {
+                    byte[] message;
+                    beginWrite();
+                    try {
+                        while ((message = outbox.poll()) != null) {
+                            out.write(message);
+                        }
+                        out.flush();
+                    } finally {
+                        endWrite();
+                    }
+                    
+                    draining.set(false);
+                    // A message queued after the last poll still needs a writer
+                    if (outbox.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                // The browser went away
+                drop();
+            }
+        }
+        
+        void drop() {
+            if (clients.remove(this)) {
+                outbox.clear();
+                // A write still in progress would hold up the close; it is no longer wanted
+                interruptWrite();
+                // Closing writes the stream's last chunk, so never do it on the caller's thread
+                try {
+                    writers.execute(this::close);
+                } catch (RejectedExecutionException e) {
+                    // Stopping; stop() closes every client
+                }
+            }
+        }
+        
+        void close() {
+            beginWrite();
+            try {
+                exchange.close();
+            } finally {
+                endWrite();
+            }
+        }
+        
+        private synchronized void beginWrite() {
+            writer = Thread.currentThread();
+            writeStarted = System.nanoTime();
+            writing.add(this);
+        }
+        
+        private synchronized void endWrite() {
+            writer = null;
+            writing.remove(this);
+        }
+        
+        synchronized boolean writeStartedBefore(long deadline) {
+            return writer != null && writeStarted - deadline < 0;
+        }
+        
+        /**
+         * Abandon a write or close in progress.
+         * The stream is an interruptible channel, so this closes the connection and
+         * fails the write; the pool clears the interrupt before the thread's next task.
+         */
+        synchronized void interruptWrite() {
+            if (writer != null) {
+                writer.interrupt();
+                writer = null;
+                writing.remove(this);
+            }
+        }
+    }
+}
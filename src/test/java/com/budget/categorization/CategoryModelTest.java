@@ -0,0 +1,49 @@
+package com.budget.categorization;
+
+import com.budget.dictionary.DescriptionDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Learning and unlearning descriptions, with a fixed stand-in for the description dictionary
+ */
+class CategoryModelTest {
+    private static final int GROCERIES = 1;
+    private static final int FUEL = 2;
+    private static final Map<String, Integer> IDS = Map.of("tesco superstore", 1, "shell garage", 2);
+    
+    private final CategoryModel model = new CategoryModel(
+        description -> IDS.getOrDefault(DescriptionDictionary.key(description), DescriptionDictionary.UNKNOWN));
+    
+    @Test
+    void editIsUnlearnt() {
+        model.add(1, "TESCO SUPERSTORE 4411", GROCERIES);
+        model.add(1, "Tesco Superstore", GROCERIES);
+        model.add(2, "SHELL GARAGE", FUEL);
+        assertEquals(GROCERIES, model.classify("tesco superstore").getCategoryId());
+        
+        // Both Tesco expenses refiled under fuel
+        model.remove(1, "TESCO SUPERSTORE 4411", GROCERIES);
+        model.add(1, "TESCO SUPERSTORE 4411", FUEL);
+        model.remove(1, "Tesco Superstore", GROCERIES);
+        model.add(1, "Tesco Superstore", FUEL);
+        
+        CategorySuggestion suggestion = model.classify("tesco superstore");
+        assertEquals(FUEL, suggestion.getCategoryId());
+        assertEquals(CategorySuggestion.Source.MERCHANT, suggestion.getSource());
+        assertEquals(3, model.size());
+    }
+    
+    @Test
+    void removingEverythingForgetsTheWords() {
+        model.add(2, "SHELL GARAGE", FUEL);
+        model.remove(2, "SHELL GARAGE", FUEL);
+        
+        assertEquals(0, model.size());
+        assertFalse(model.classify("shell garage").isPresent());
+    }
+}
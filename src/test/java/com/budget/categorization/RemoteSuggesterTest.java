@@ -0,0 +1,183 @@
+package com.budget.categorization;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The suggestion client and its circuit breaker against a stub service on a local port
+ */
+class RemoteSuggesterTest {
+    private static final Duration TIMEOUT = Duration.ofMillis(100);
+    private static final Duration OPEN_DURATION = Duration.ofMillis(300);
+    private static final int FAILURE_THRESHOLD = 5;
+    
+    private final Gson gson = new Gson();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicLong delayMillis = new AtomicLong();
+    private final AtomicBoolean answerShort = new AtomicBoolean();
+    private HttpServer server;
+    private HttpSuggestionClient client;
+    
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/suggest", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(delayMillis.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            
+            Request request = gson.fromJson(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8), Request.class);
+            List<RemoteSuggestion> suggestions = new ArrayList<>();
+            for (String description : request.descriptions) {
+                suggestions.add(new RemoteSuggestion("Groceries", 0.9));
+            }
+            if (answerShort.get()) {
+                suggestions.remove(suggestions.size() - 1);
+            }
+            byte[] response = gson.toJson(Map.of("suggestions", suggestions)).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.start();
+        client = new HttpSuggestionClient("http://127.0.0.1:" + server.getAddress().getPort() + "/suggest", TIMEOUT);
+    }
+    
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+    
+    @Test
+    void breakerOpensAfterConsecutiveTimeouts() {
+        RemoteSuggester remote = suggester();
+        delayMillis.set(TIMEOUT.toMillis() * 3);
+        
+        RemoteSuggestion[] answers = remote.suggest(descriptions(FAILURE_THRESHOLD + 2));
+        
+        // Each single-description batch timed out until the fifth opened the breaker; the rest were never sent
+        assertEquals(CircuitBreaker.State.OPEN, remote.getState());
+        assertEquals(FAILURE_THRESHOLD, requests.get());
+        for (RemoteSuggestion answer : answers) {
+            assertNull(answer);
+        }
+    }
+    
+    @Test
+    void openBreakerRefusesCalls() {
+        RemoteSuggester remote = suggester();
+        delayMillis.set(TIMEOUT.toMillis() * 3);
+        remote.suggest(descriptions(FAILURE_THRESHOLD));
+        delayMillis.set(0);
+        requests.set(0);
+        
+        RemoteSuggestion[] answers = remote.suggest(descriptions(3));
+        
+        assertEquals(0, requests.get());
+        assertNull(answers[0]);
+        assertEquals(CircuitBreaker.State.OPEN, remote.getState());
+    }
+    
+    @Test
+    void halfOpenTrialClosesBreakerOnRecovery() throws InterruptedException {
+        RemoteSuggester remote = suggester();
+        delayMillis.set(TIMEOUT.toMillis() * 3);
+        remote.suggest(descriptions(FAILURE_THRESHOLD));
+        delayMillis.set(0);
+        requests.set(0);
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+        
+        RemoteSuggestion[] answers = remote.suggest(descriptions(3));
+        
+        // The trial batch succeeded, so the batches after it went out as well
+        assertEquals(CircuitBreaker.State.CLOSED, remote.getState());
+        assertEquals(3, requests.get());
+        for (RemoteSuggestion answer : answers) {
+            assertNotNull(answer);
+            assertEquals("Groceries", answer.getCategory());
+        }
+    }
+    
+    @Test
+    void failedHalfOpenTrialReopensBreaker() throws InterruptedException {
+        RemoteSuggester remote = suggester();
+        delayMillis.set(TIMEOUT.toMillis() * 3);
+        remote.suggest(descriptions(FAILURE_THRESHOLD));
+        requests.set(0);
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+        
+        remote.suggest(descriptions(3));
+        
+        assertEquals(1, requests.get());
+        assertEquals(CircuitBreaker.State.OPEN, remote.getState());
+    }
+    
+    @Test
+    void halfOpenLetsOneTrialThrough() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(1, OPEN_DURATION);
+        breaker.recordFailure();
+        assertFalse(breaker.allowRequest());
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+        
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+    
+    @Test
+    void wrongLengthReplyIsAnIOException() {
+        answerShort.set(true);
+        
+        IOException e = assertThrows(IOException.class, () -> client.suggest(List.of("tesco", "shell", "netflix")));
+        assertTrue(e.getMessage().contains("wrong number"));
+    }
+    
+    private RemoteSuggester suggester() {
+        return new RemoteSuggester(client, 1, new CircuitBreaker(FAILURE_THRESHOLD, OPEN_DURATION));
+    }
+    
+    private static List<String> descriptions(int count) {
+        List<String> descriptions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            descriptions.add("merchant " + i);
+        }
+        return descriptions;
+    }
+    
+    private static class Request {
+        List<String> descriptions;
+    }
+}
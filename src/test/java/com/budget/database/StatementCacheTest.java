@@ -0,0 +1,121 @@
+package com.budget.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reuse and eviction of cached statements, on an in-memory SQLite connection
+ * with the default capacity of 64
+ */
+class StatementCacheTest {
+    private static final int CAPACITY = 64;
+    
+    private Connection conn;
+    
+    @BeforeEach
+    void open() throws SQLException {
+        conn = StatementCache.wrap(DriverManager.getConnection("jdbc:sqlite::memory:"));
+    }
+    
+    @AfterEach
+    void close() throws SQLException {
+        conn.close();
+    }
+    
+    @Test
+    void closedStatementIsReused() throws SQLException {
+        long hits = StatementCache.getHitCount();
+        
+        PreparedStatement first = conn.prepareStatement("SELECT ?");
+        first.setInt(1, 7);
+        PreparedStatement physical = first.unwrap(PreparedStatement.class);
+        try (ResultSet rs = first.executeQuery()) {
+            assertTrue(rs.next());
+            assertEquals(7, rs.getInt(1));
+        }
+        first.close();
+        assertTrue(first.isClosed());
+        assertThrows(SQLException.class, first::executeQuery);
+        
+        PreparedStatement second = conn.prepareStatement("SELECT ?");
+        assertSame(physical, second.unwrap(PreparedStatement.class));
+        assertEquals(hits + 1, StatementCache.getHitCount());
+        second.setInt(1, 8);
+        try (ResultSet rs = second.executeQuery()) {
+            assertTrue(rs.next());
+            assertEquals(8, rs.getInt(1));
+        }
+        second.close();
+    }
+    
+    @Test
+    void statementInUseIsNotHandedOutTwice() throws SQLException {
+        try (PreparedStatement first = conn.prepareStatement("SELECT 1");
+             PreparedStatement second = conn.prepareStatement("SELECT 1")) {
+            assertNotSame(first.unwrap(PreparedStatement.class), second.unwrap(PreparedStatement.class));
+        }
+    }
+    
+    @Test
+    void evictedStatementIsClosed() throws SQLException {
+        PreparedStatement eldest = conn.prepareStatement("SELECT 0");
+        PreparedStatement physical = eldest.unwrap(PreparedStatement.class);
+        eldest.close();
+        
+        fill();
+        assertTrue(physical.isClosed());
+        
+        // Preparing it again makes a new statement
+        try (PreparedStatement again = conn.prepareStatement("SELECT 0")) {
+            assertNotSame(physical, again.unwrap(PreparedStatement.class));
+        }
+    }
+    
+    @Test
+    void evictedStatementInUseIsClosedOnRelease() throws SQLException {
+        PreparedStatement eldest = conn.prepareStatement("SELECT 0");
+        PreparedStatement physical = eldest.unwrap(PreparedStatement.class);
+        
+        fill();
+        assertFalse(physical.isClosed());
+        try (ResultSet rs = eldest.executeQuery()) {
+            assertTrue(rs.next());
+        }
+        
+        eldest.close();
+        assertTrue(physical.isClosed());
+    }
+    
+    @Test
+    void closingConnectionClosesCachedStatements() throws SQLException {
+        PreparedStatement statement = conn.prepareStatement("SELECT 1");
+        PreparedStatement physical = statement.unwrap(PreparedStatement.class);
+        statement.close();
+        
+        conn.close();
+        assertTrue(physical.isClosed());
+    }
+    
+    /**
+     * Prepare and close enough other statements to push out the first one cached
+     */
+    private void fill() throws SQLException {
+        for (int i = 1; i <= CAPACITY; i++) {
+            conn.prepareStatement("SELECT " + i).close();
+        }
+    }
+}
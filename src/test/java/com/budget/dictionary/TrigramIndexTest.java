@@ -0,0 +1,33 @@
+package com.budget.dictionary;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Candidate lookup over a handful of keys
+ */
+class TrigramIndexTest {
+    private final TrigramIndex index = new TrigramIndex();
+    
+    @Test
+    void candidatesHaveEveryTrigram() {
+        index.add("book store", 3);
+        index.add("coffee shop", 1);
+        index.add("store", 2);
+        index.add("stores store", 4);
+        
+        assertArrayEquals(new int[] {2, 3, 4}, index.candidates("store"));
+        assertArrayEquals(new int[] {3}, index.candidates("k st"));
+        assertArrayEquals(new int[] {1}, index.candidates("fee"));
+        assertArrayEquals(new int[0], index.candidates("shopping"));
+    }
+    
+    @Test
+    void candidatesMayNotContainTheTerm() {
+        // "abcab" has all of "bcabc"'s trigrams but not the term itself, so callers check the key
+        index.add("abcab", 1);
+        
+        assertArrayEquals(new int[] {1}, index.candidates("bcabc"));
+    }
+}
@@ -0,0 +1,62 @@
+package com.budget.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Period windows counted from the budget's anchor
+ */
+class BudgetTest {
+    
+    @Test
+    void monthlyBudgetReturnsToMonthEnd() {
+        Budget budget = new Budget(1, new BigDecimal("100"), Budget.Period.MONTHLY, LocalDate.of(2025, 1, 31));
+        assertEquals(LocalDate.of(2025, 2, 27), budget.getEndDate());
+        
+        budget.advancePeriod();
+        assertEquals(LocalDate.of(2025, 2, 28), budget.getStartDate());
+        assertEquals(LocalDate.of(2025, 3, 30), budget.getEndDate());
+        
+        budget.advancePeriod();
+        assertEquals(LocalDate.of(2025, 3, 31), budget.getStartDate());
+        assertEquals(LocalDate.of(2025, 4, 29), budget.getEndDate());
+        
+        for (int i = 0; i < 10; i++) {
+            budget.advancePeriod();
+        }
+        assertEquals(LocalDate.of(2026, 1, 31), budget.getStartDate());
+        assertEquals(LocalDate.of(2025, 1, 31), budget.getAnchorDate());
+    }
+    
+    @Test
+    void periodsTileWithoutGaps() {
+        Budget budget = new Budget(1, new BigDecimal("100"), Budget.Period.MONTHLY, LocalDate.of(2024, 1, 30));
+        for (int i = 0; i < 24; i++) {
+            LocalDate end = budget.getEndDate();
+            budget.advancePeriod();
+            assertEquals(end.plusDays(1), budget.getStartDate());
+        }
+    }
+    
+    @Test
+    void yearlyBudgetKeepsLeapDay() {
+        Budget budget = new Budget(1, new BigDecimal("100"), Budget.Period.YEARLY, LocalDate.of(2024, 2, 29));
+        assertEquals(LocalDate.of(2025, 2, 27), budget.getEndDate());
+        for (int i = 0; i < 4; i++) {
+            budget.advancePeriod();
+        }
+        assertEquals(LocalDate.of(2028, 2, 29), budget.getStartDate());
+    }
+    
+    @Test
+    void weeklyBudgetAdvancesSevenDays() {
+        Budget budget = new Budget(1, new BigDecimal("100"), Budget.Period.WEEKLY, LocalDate.of(2025, 3, 3));
+        budget.advancePeriod();
+        assertEquals(LocalDate.of(2025, 3, 10), budget.getStartDate());
+        assertEquals(LocalDate.of(2025, 3, 16), budget.getEndDate());
+    }
+}
@@ -0,0 +1,61 @@
+package com.budget.simulation;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Throughput check for the balance forecaster, in simulated paths per second.
+ * Runs on a synthetic year of history so no database is needed. It lives with
+ * the tests so it stays out of the application jar; after mvn test-compile:
+ *   java -cp target/classes:target/test-classes com.budget.simulation.ForecastBenchmark [paths] [days] [iterations]
+ * Warm-up iterations run first so the numbers reflect JIT-compiled code.
+ */
+public class ForecastBenchmark {
+    private static final int WARMUP_ITERATIONS = 5;
+    
+    public static void main(String[] args) {
+        int paths = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : 365;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        
+        BalanceForecaster.DailyHistory history = syntheticHistory(365);
+        System.out.printf("Forecasting %d paths x %d days on %d threads%n",
+            paths, days, SimulationPool.POOL.getParallelism());
+        
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            BalanceForecaster.simulate(history, days, paths, i);
+        }
+        
+        double best = 0;
+        long totalNanos = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            BalanceForecast forecast = BalanceForecaster.simulate(history, days, paths, WARMUP_ITERATIONS + i);
+            long elapsed = System.nanoTime() - start;
+            totalNanos += elapsed;
+            double pathsPerSecond = paths / (elapsed / 1e9);
+            best = Math.max(best, pathsPerSecond);
+            System.out.printf("  iteration %d: %.1f ms, %.0f paths/s (median end balance %.2f)%n",
+                i + 1, elapsed / 1e6, pathsPerSecond, forecast.getBands().get(forecast.getBands().size() - 1).getP50());
+        }
+        System.out.printf("Average %.0f paths/s, best %.0f paths/s%n", (double) paths * iterations / (totalNanos / 1e9), best);
+    }
+    
+    /**
+     * A salary every 30 days and a few skewed expenses most days
+     */
+    private static BalanceForecaster.DailyHistory syntheticHistory(int days) {
+        SplittableRandom random = new SplittableRandom(1);
+        double[] income = new double[days];
+        double[] expense = new double[days];
+        for (int day = 0; day < days; day++) {
+            if (day % 30 == 0) {
+                income[day] = 3000;
+            }
+            if (random.nextInt(10) < 8) {
+                expense[day] = Math.exp(3 + random.nextDouble() * 1.5);
+            }
+        }
+        return new BalanceForecaster.DailyHistory(0, LocalDate.now(), 1000, income, expense);
+    }
+}